@@ -0,0 +1,237 @@
+package at.spengergasse.projekt;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Der {@code InstanzServer} sorgt dafür, dass pro Benutzerkonto des Betriebssystems nur
+ * eine JVM mit der Anwendung läuft.
+ * <p>
+ * Die laufende Instanz lauscht auf einem Unix-Domain-Socket im Datenverzeichnis
+ * ({@code ~/SchulManager/.instanz.sock}). Ein weiterer Start prüft mit
+ * {@link #weiterleiten()}, ob dort eine Instanz erreichbar ist, und bittet sie, ein
+ * neues Login-Fenster zu öffnen, statt selbst JVM und JavaFX zu starten. Alle Fenster
+ * teilen sich damit Caches wie das Benutzerverzeichnis und den {@code SpeicherPlaner}.
+ * <p>
+ * Ist der Socket nicht verfügbar (z.B. ältere Windows-Versionen oder eine verwaiste
+ * Socket-Datei nach einem Absturz), startet die Anwendung wie bisher eigenständig.
+ * Das gilt auch, wenn die laufende Instanz nicht innerhalb von {@link #ANTWORT_MS}
+ * antwortet, etwa weil sie hängt. Umgekehrt wartet der Server höchstens
+ * {@link #ANFRAGE_MS} auf die Anfrage eines Clients, damit ein Client, der nichts
+ * sendet, keine weiteren Starts blockiert.
+ */
+public final class InstanzServer {
+
+    /** Anfrage an die laufende Instanz, ein neues Fenster zu öffnen. */
+    private static final String NEUES_FENSTER = "FENSTER\n";
+    private static final String BESTAETIGUNG = "OK\n";
+
+    /** Wartezeit eines neuen Starts auf Verbindung und Antwort der laufenden Instanz. */
+    static final long ANTWORT_MS = 3000;
+    /** Wartezeit des Servers auf die Anfrage eines verbundenen Clients. */
+    static final long ANFRAGE_MS = 1000;
+
+    private static ServerSocketChannel server;
+
+    private InstanzServer() {
+    }
+
+    /**
+     * @return Pfad des Sockets der laufenden Instanz
+     */
+    static Path getSocketPfad() {
+        return Paths.get(System.getProperty("user.home"), "SchulManager", ".instanz.sock");
+    }
+
+    /**
+     * Bittet eine bereits laufende Instanz, ein neues Fenster zu öffnen.
+     *
+     * @return true, wenn eine laufende Instanz die Anfrage innerhalb von
+     *         {@link #ANTWORT_MS} bestätigt hat; die aufrufende JVM kann sich dann beenden
+     */
+    public static boolean weiterleiten() {
+        Path socket = getSocketPfad();
+        if (!Files.exists(socket)) return false;
+        long frist = System.nanoTime() + ANTWORT_MS * 1_000_000;
+        try (SocketChannel kanal = verbinden(socket, frist)) {
+            schreiben(kanal, NEUES_FENSTER, frist);
+            return BESTAETIGUNG.equals(lesen(kanal, frist));
+        } catch (IOException | UnsupportedOperationException e) {
+            // Keine Instanz erreichbar oder keine Antwort
+            return false;
+        }
+    }
+
+    /**
+     * Startet den Server in der laufenden Instanz. Anfragen werden in einem
+     * Hintergrund-Thread angenommen; {@code neuesFenster} muss selbst auf den
+     * JavaFX Application Thread wechseln.
+     *
+     * @param neuesFenster Öffnet ein neues Login-Fenster
+     */
+    public static synchronized void starten(Runnable neuesFenster) {
+        if (server != null) return;
+        Path socket = getSocketPfad();
+        try {
+            Files.createDirectories(socket.getParent());
+            server = binden(socket);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Instanz-Server nicht verfügbar: " + e.getMessage());
+            return;
+        }
+        if (server == null) return;
+
+        ServerSocketChannel kanal = server;
+        Thread t = new Thread(() -> annehmen(kanal, neuesFenster), "instanz-server");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Beendet den Server und entfernt die Socket-Datei.
+     */
+    public static synchronized void beenden() {
+        if (server == null) return;
+        try {
+            server.close();
+            Files.deleteIfExists(getSocketPfad());
+        } catch (IOException e) {
+            System.err.println("Fehler beim Beenden des Instanz-Servers: " + e.getMessage());
+        }
+        server = null;
+    }
+
+    /**
+     * Bindet den Socket. Eine vorhandene Socket-Datei wird nur entfernt, wenn
+     * dahinter keine Instanz mehr erreichbar ist (z.B. nach einem Absturz).
+     *
+     * @return Der gebundene Server oder {@code null}, wenn bereits eine andere Instanz lauscht
+     */
+    private static ServerSocketChannel binden(Path socket) throws IOException {
+        if (Files.exists(socket)) {
+            if (erreichbar(socket)) return null;
+            Files.deleteIfExists(socket);
+        }
+        ServerSocketChannel kanal = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            kanal.bind(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            kanal.close();
+            throw e;
+        }
+        return kanal;
+    }
+
+    /**
+     * @return true, wenn hinter der Socket-Datei innerhalb von {@link #ANTWORT_MS}
+     *         eine Verbindung zustande kommt
+     */
+    private static boolean erreichbar(Path socket) {
+        try {
+            verbinden(socket, System.nanoTime() + ANTWORT_MS * 1_000_000).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void annehmen(ServerSocketChannel kanal, Runnable neuesFenster) {
+        while (kanal.isOpen()) {
+            try (SocketChannel client = kanal.accept()) {
+                long frist = System.nanoTime() + ANFRAGE_MS * 1_000_000;
+                if (NEUES_FENSTER.equals(lesen(client, frist))) {
+                    neuesFenster.run();
+                    schreiben(client, BESTAETIGUNG, frist);
+                }
+            } catch (SocketTimeoutException e) {
+                System.err.println("Instanz-Server: Anfrage nicht rechtzeitig erhalten.");
+            } catch (IOException e) {
+                if (kanal.isOpen()) {
+                    System.err.println("Fehler im Instanz-Server: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Verbindet sich mit dem Socket, ohne über die Frist hinaus zu warten.
+     *
+     * @param frist Zeitpunkt ({@link System#nanoTime()}), bis zu dem gewartet wird
+     * @return Der verbundene, nicht blockierende Kanal
+     * @throws SocketTimeoutException Wenn die Verbindung nicht rechtzeitig zustande kommt
+     */
+    private static SocketChannel verbinden(Path socket, long frist) throws IOException {
+        SocketChannel kanal = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            kanal.configureBlocking(false);
+            if (!kanal.connect(UnixDomainSocketAddress.of(socket))) {
+                warten(kanal, SelectionKey.OP_CONNECT, frist);
+                kanal.finishConnect();
+            }
+            return kanal;
+        } catch (IOException | RuntimeException e) {
+            kanal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Schreibt eine Nachricht vollständig, ohne über die Frist hinaus zu warten.
+     */
+    private static void schreiben(SocketChannel kanal, String text, long frist) throws IOException {
+        kanal.configureBlocking(false);
+        ByteBuffer puffer = StandardCharsets.UTF_8.encode(text);
+        while (puffer.hasRemaining()) {
+            if (kanal.write(puffer) == 0) warten(kanal, SelectionKey.OP_WRITE, frist);
+        }
+    }
+
+    /**
+     * Liest eine Zeile (höchstens 64 Bytes) inklusive Zeilenumbruch, ohne über die
+     * Frist hinaus zu warten.
+     *
+     * @throws SocketTimeoutException Wenn bis zur Frist keine vollständige Zeile ankommt
+     */
+    private static String lesen(SocketChannel kanal, long frist) throws IOException {
+        kanal.configureBlocking(false);
+        ByteBuffer puffer = ByteBuffer.allocate(64);
+        while (puffer.hasRemaining()) {
+            int gelesen = kanal.read(puffer);
+            if (gelesen < 0) break;
+            if (gelesen == 0) {
+                warten(kanal, SelectionKey.OP_READ, frist);
+                continue;
+            }
+            if (puffer.get(puffer.position() - 1) == '\n') break;
+        }
+        puffer.flip();
+        return StandardCharsets.UTF_8.decode(puffer).toString();
+    }
+
+    /**
+     * Wartet, bis der Kanal für die Operation bereit ist.
+     *
+     * @throws SocketTimeoutException Wenn die Frist abläuft
+     */
+    private static void warten(SocketChannel kanal, int operation, long frist) throws IOException {
+        long rest = (frist - System.nanoTime()) / 1_000_000;
+        if (rest <= 0) throw new SocketTimeoutException("Keine Antwort innerhalb der Frist");
+        try (Selector selector = Selector.open()) {
+            kanal.register(selector, operation);
+            if (selector.select(rest) == 0 && frist - System.nanoTime() <= 0) {
+                throw new SocketTimeoutException("Keine Antwort innerhalb der Frist");
+            }
+        }
+    }
+}
@@ -10,6 +10,9 @@ import javafx.application.Application;
  *
  * <p>Wird typischerweise benötigt, um Probleme mit bestimmten IDEs oder Modulsystemen zu umgehen,
  * bei denen {@code javafx.application.Application} nicht direkt von der {@code main()} gestartet werden kann.</p>
+ *
+ * <p>Läuft bereits eine Instanz, öffnet diese über den {@link InstanzServer} ein neues
+ * Login-Fenster und dieser Start endet sofort.</p>
  */
 public class Launcher {
 
@@ -19,6 +22,9 @@ public class Launcher {
      * @param args Kommandozeilenargumente, die an JavaFX weitergereicht werden
      */
     public static void main(String[] args) {
+        Startvorgang.begonnen();
+        if (InstanzServer.weiterleiten()) return;
+        Startvorgang.phase("instanz");
         Application.launch(MainApplicationFX.class, args);
     }
 }
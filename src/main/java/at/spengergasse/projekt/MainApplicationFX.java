@@ -1,7 +1,10 @@
 package at.spengergasse.projekt;
 
+import at.spengergasse.projekt.model.PasswortHash;
+import at.spengergasse.projekt.model.SpeicherPlaner;
 import at.spengergasse.projekt.view.LoginViewFX;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 /**
@@ -15,22 +18,49 @@ public class MainApplicationFX extends Application {
 
     /**
      * Startet die JavaFX-Oberfläche und zeigt das Login-Fenster an.
+     * Die Iterationszahl für Passwort-Hashes wird parallel dazu kalibriert und der
+     * {@link InstanzServer} gestartet, über den weitere Starts neue Fenster öffnen.
+     * Pfade und Benutzer werden im Hintergrund vorgeladen und die CSS-Klassen von
+     * JavaFX aufgewärmt, während das Login-Fenster bereits angezeigt wird (siehe
+     * {@link Startvorgang}).
      * Diese Methode wird automatisch vom JavaFX-Launcher aufgerufen.
      *
      * @param primaryStage Das Hauptfenster der Anwendung
      */
     @Override
     public void start(Stage primaryStage) {
+        Startvorgang.phase("javafx");
+        Startvorgang.vorladen();
+        PasswortHash.kalibrieren();
+        InstanzServer.starten(() -> Platform.runLater(MainApplicationFX::neuesFenster));
         new LoginViewFX(primaryStage);
+        Startvorgang.fensterAngezeigt(Platform::exit);
     }
 
     /**
-     * Einstiegsmethode der Anwendung.
-     * Übergibt Kommandozeilenargumente an JavaFX.
+     * Wird beim Beenden der JavaFX-Anwendung aufgerufen.
+     * Schreibt alle noch offenen Änderungen auf die Festplatte.
+     */
+    @Override
+    public void stop() {
+        InstanzServer.beenden();
+        SpeicherPlaner.getInstanz().flush();
+    }
+
+    /**
+     * Öffnet ein weiteres Login-Fenster in dieser Instanz. Nur auf dem JavaFX
+     * Application Thread aufrufen.
+     */
+    public static void neuesFenster() {
+        new LoginViewFX(new Stage());
+    }
+
+    /**
+     * Einstiegsmethode der Anwendung; startet wie {@link Launcher#main(String[])}.
      *
      * @param args Programmargumente (werden derzeit ignoriert)
      */
     public static void main(String[] args) {
-        launch(args);
+        Launcher.main(args);
     }
 }
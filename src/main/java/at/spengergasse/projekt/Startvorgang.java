@@ -0,0 +1,122 @@
+package at.spengergasse.projekt;
+
+import at.spengergasse.projekt.model.CsvManager;
+import at.spengergasse.projekt.model.PfadManager;
+import at.spengergasse.projekt.model.Zeitmessung;
+import at.spengergasse.projekt.view.Stile;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Der {@code Startvorgang} misst die Phasen des Programmstarts und lädt Daten, die
+ * erst nach dem Login gebraucht werden, parallel zum Aufbau des Login-Fensters.
+ * <p>
+ * Gemessen werden (in dieser Reihenfolge):
+ * <ul>
+ *     <li>{@code jvm}: Prozessstart bis {@code main}</li>
+ *     <li>{@code instanz}: Suche nach einer laufenden Instanz ({@link InstanzServer})</li>
+ *     <li>{@code javafx}: Start der JavaFX-Laufzeit bis {@code start(Stage)}</li>
+ *     <li>{@code login-fenster}: Aufbau und Anzeige des Login-Fensters</li>
+ * </ul>
+ * sowie die Hintergrundaufgaben {@code pfade}, {@code benutzer} und {@code css-klassen}.
+ * Mit {@code -Dschulmanager.profil=true} wird die Messung ausgegeben, sobald das
+ * Login-Fenster sichtbar und alles vorgeladen ist.
+ * <p>
+ * Mit {@code -Dschulmanager.training=true} beendet sich die Anwendung zu diesem
+ * Zeitpunkt von selbst; so entsteht im Maven-Profil {@code appcds} das Archiv der
+ * beim Start geladenen Klassen.
+ */
+public final class Startvorgang {
+
+    private static final Zeitmessung MESSUNG = new Zeitmessung("Start");
+    private static long letzte = System.nanoTime();
+    private static CompletableFuture<Void> vorgeladen = CompletableFuture.completedFuture(null);
+
+    private Startvorgang() {
+    }
+
+    /**
+     * Erfasst die Zeit vom Prozessstart bis zum Aufruf von {@code main}.
+     * Als Erstes in {@code main} aufrufen.
+     */
+    static synchronized void begonnen() {
+        long jetzt = System.nanoTime();
+        long seitProzessstart = ProcessHandle.current().info().startInstant()
+                .map(start -> Instant.now().toEpochMilli() - start.toEpochMilli())
+                .orElse(0L);
+        letzte = MESSUNG.erfassen("jvm", jetzt - seitProzessstart * 1_000_000);
+    }
+
+    /**
+     * Schließt eine Phase des Starts ab und beginnt die nächste.
+     *
+     * @param phase Name der abgeschlossenen Phase
+     */
+    static synchronized void phase(String phase) {
+        letzte = MESSUNG.erfassen(phase, letzte);
+    }
+
+    /**
+     * Lädt Pfade und Benutzerverzeichnis und wärmt die CSS-Klassen auf, je in einem
+     * eigenen Hintergrund-Thread.
+     * Fehler werden nur protokolliert; die Daten werden beim ersten Zugriff dann
+     * erneut geladen.
+     */
+    static synchronized void vorladen() {
+        vorgeladen = CompletableFuture.allOf(
+                hintergrund("pfade", PfadManager::loadPfade),
+                hintergrund("benutzer", () -> {
+                    try {
+                        CsvManager.loadBenutzer();
+                    } catch (IOException e) {
+                        System.err.println("Benutzer konnten nicht vorgeladen werden: " + e.getMessage());
+                    }
+                }),
+                hintergrund("css-klassen", Stile::klassenAufwaermen));
+    }
+
+    /**
+     * Wird aufgerufen, sobald das Login-Fenster angezeigt wird. Gibt die Messung aus
+     * bzw. beendet im Trainingslauf die Anwendung, sobald auch das Vorladen fertig ist.
+     *
+     * @param beenden Beendet die Anwendung (für den Trainingslauf)
+     */
+    static void fensterAngezeigt(Runnable beenden) {
+        phase("login-fenster");
+        CompletableFuture<Void> fertig;
+        synchronized (Startvorgang.class) {
+            fertig = vorgeladen;
+        }
+        fertig.whenComplete((ergebnis, fehler) -> {
+            if (Boolean.getBoolean("schulmanager.profil")) {
+                System.out.println(MESSUNG);
+            }
+            if (Boolean.getBoolean("schulmanager.training")) {
+                beenden.run();
+            }
+        });
+    }
+
+    /**
+     * @return Die bisher erfassten Phasen des Starts
+     */
+    public static Zeitmessung getMessung() {
+        return MESSUNG;
+    }
+
+    private static CompletableFuture<Void> hintergrund(String name, Runnable aufgabe) {
+        Executor eigenerThread = r -> {
+            Thread t = new Thread(r, "vorladen-" + name);
+            t.setDaemon(true);
+            t.start();
+        };
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            aufgabe.run();
+            MESSUNG.erfassen(name, start);
+        }, eigenerThread);
+    }
+}
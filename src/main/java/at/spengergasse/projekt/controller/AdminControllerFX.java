@@ -2,10 +2,14 @@ package at.spengergasse.projekt.controller;
 
 import at.spengergasse.projekt.model.CsvManager;
 import at.spengergasse.projekt.model.PfadManager;
+import at.spengergasse.projekt.model.TerminJournal;
+import at.spengergasse.projekt.model.TerminSnapshot;
+import at.spengergasse.projekt.model.User;
 import at.spengergasse.projekt.view.LoginViewFX;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.geometry.Insets;
@@ -21,6 +25,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * Der {@code AdminControllerFX} verwaltet die Benutzeroberfläche und Logik für die
@@ -32,22 +38,31 @@ import java.util.Optional;
  *   <li>Benutzernamen umzubenennen</li>
  * </ul>
  * Die Benutzerinformationen werden als CSV-Dateien gespeichert und verwaltet.
+ * Die Tabelle wird nur beim Öffnen vollständig geladen; danach wird nach jeder
+ * Aktion nur die betroffene Zeile ersetzt, eingefügt oder entfernt.
  */
 public class AdminControllerFX {
 
-    private final ObservableList<String[]> benutzerListe;
-    private final TableView<String[]> table;
+    private final ObservableList<User> benutzerListe;
+    /** Der angemeldete Administrator; kann sich nicht selbst löschen. */
+    private String angemeldet;
+    private boolean beschaeftigt;
+    private final TableView<User> table;
     private final TextField benutzernameField = new TextField();
     private final PasswordField neuesPasswortField = new PasswordField();
     private final ComboBox<String> rolleBox = new ComboBox<>();
     private final Button speichernButton = new Button("Passwort ändern");
+    private final Button neuButton = new Button("Neu anlegen");
     private final Button löschenButton = new Button("Löschen");
     private final Button logoutButton = new Button("Abmelden");
 
     /**
      * Konstruktor. Initialisiert die Benutzerliste und Tabelle.
+     *
+     * @param angemeldet Benutzername des angemeldeten Administrators
      */
-    public AdminControllerFX() {
+    public AdminControllerFX(String angemeldet) {
+        this.angemeldet = angemeldet;
         this.benutzerListe = FXCollections.observableArrayList();
         this.table = createTable();
         loadBenutzer();
@@ -58,7 +73,7 @@ public class AdminControllerFX {
      *
      * @return TableView mit Benutzerdaten
      */
-    public TableView<String[]> getTable() {
+    public TableView<User> getTable() {
         return table;
     }
 
@@ -80,8 +95,8 @@ public class AdminControllerFX {
             speichernButton.setDisable(!selected);
             löschenButton.setDisable(!selected);
             if (selected) {
-                benutzernameField.setText(newVal[0]);
-                rolleBox.setValue(newVal[1]);
+                benutzernameField.setText(newVal.getBenutzername());
+                rolleBox.setValue(newVal.getRolle());
                 neuesPasswortField.clear();
             } else {
                 clearFields();
@@ -89,7 +104,7 @@ public class AdminControllerFX {
         });
 
         table.setRowFactory(tv -> {
-            TableRow<String[]> row = new TableRow<>();
+            TableRow<User> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
                 if (row.isEmpty()) {
                     table.getSelectionModel().clearSelection();
@@ -100,35 +115,40 @@ public class AdminControllerFX {
                 }
 
                 if (event.getClickCount() == 2 && !row.isEmpty()) {
-                    String[] selected = row.getItem();
-                    TextInputDialog dialog = new TextInputDialog(selected[0]);
+                    String alterName = row.getItem().getBenutzername();
+                    TextInputDialog dialog = new TextInputDialog(alterName);
                     dialog.setTitle("Benutzername ändern");
                     dialog.setHeaderText(null);
                     dialog.setContentText("Neuer Benutzername:");
 
                     Optional<String> result = dialog.showAndWait();
                     result.ifPresent(neuerName -> {
-                        if (!neuerName.trim().isEmpty() && !neuerName.equals(selected[0])) {
+                        if (!neuerName.trim().isEmpty() && !neuerName.equals(alterName)) {
                             try {
-                                CsvManager.updateBenutzername(selected[0], neuerName.trim());
+                                Optional<User> umbenannt = CsvManager.updateBenutzername(alterName, neuerName.trim());
 
-                                String alterTerminPfad = PfadManager.getTerminPfad(selected[0]);
-                                String alterZielePfad = PfadManager.getZielePfad(selected[0]);
+                                String alterTerminPfad = PfadManager.getTerminPfad(alterName);
+                                String alterZielePfad = PfadManager.getZielePfad(alterName);
 
-                                String neuerTerminPfad = alterTerminPfad.replace(selected[0], neuerName.trim());
-                                String neuerZielePfad = alterZielePfad.replace(selected[0], neuerName.trim());
+                                String neuerTerminPfad = alterTerminPfad.replace(alterName, neuerName.trim());
+                                String neuerZielePfad = alterZielePfad.replace(alterName, neuerName.trim());
 
+                                TerminJournal.zusammenfuehren(alterTerminPfad);
                                 renameFileIfExists(alterTerminPfad, neuerTerminPfad);
+                                TerminSnapshot.verwerfen(alterTerminPfad);
                                 renameFileIfExists(alterZielePfad, neuerZielePfad);
 
-                                String alteConfig = System.getProperty("user.home") + "/SchulManager/data/" + selected[0] + "_config.properties";
+                                String alteConfig = System.getProperty("user.home") + "/SchulManager/data/" + alterName + "_config.properties";
                                 String neueConfig = System.getProperty("user.home") + "/SchulManager/data/" + neuerName.trim() + "_config.properties";
                                 renameFileIfExists(alteConfig, neueConfig);
 
-                                PfadManager.setTerminPfad(neuerName.trim(), neuerTerminPfad);
-                                PfadManager.setZielePfad(neuerName.trim(), neuerZielePfad);
+                                PfadManager.transaktion(t -> t
+                                        .umbenennen(alterName, neuerName.trim())
+                                        .setTerminPfad(neuerName.trim(), neuerTerminPfad)
+                                        .setZielePfad(neuerName.trim(), neuerZielePfad));
 
-                                loadBenutzer();
+                                if (alterName.equals(angemeldet)) angemeldet = neuerName.trim();
+                                zeileErsetzen(row.getItem(), umbenannt);
                                 clearFields();
                             } catch (IOException ex) {
                                 showFehler("Fehler beim Umbenennen.");
@@ -157,7 +177,6 @@ public class AdminControllerFX {
         rolleBox.getItems().setAll("user", "admin");
         rolleBox.setPromptText("Rolle wählen");
 
-        Button neuButton = new Button("Neu anlegen");
         neuButton.setOnAction(e -> handleNeuAnlegen());
 
         HBox box = new HBox(10, benutzernameField, neuesPasswortField, rolleBox, neuButton);
@@ -192,17 +211,17 @@ public class AdminControllerFX {
      *
      * @return TableView mit Name und Rolle
      */
-    private TableView<String[]> createTable() {
-        TableView<String[]> tableView = new TableView<>(benutzerListe);
+    private TableView<User> createTable() {
+        TableView<User> tableView = new TableView<>(benutzerListe);
         tableView.setEditable(false);
         tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
-        TableColumn<String[], String> nameCol = new TableColumn<>("Benutzername");
-        nameCol.setCellValueFactory(param -> new SimpleStringProperty(param.getValue()[0]));
+        TableColumn<User, String> nameCol = new TableColumn<>("Benutzername");
+        nameCol.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getBenutzername()));
         nameCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<String[], String> rolleCol = new TableColumn<>("Rolle");
-        rolleCol.setCellValueFactory(param -> new SimpleStringProperty(param.getValue()[1]));
+        TableColumn<User, String> rolleCol = new TableColumn<>("Rolle");
+        rolleCol.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getRolle()));
         rolleCol.setStyle("-fx-alignment: CENTER;");
 
         tableView.getColumns().addAll(nameCol, rolleCol);
@@ -227,50 +246,87 @@ public class AdminControllerFX {
                 showFehler("Benutzer existiert bereits.");
                 return;
             }
-            CsvManager.saveUser(name, pass, rolle);
-            loadBenutzer();
-            clearFields();
         } catch (IOException e) {
             showFehler("Fehler beim Speichern.");
+            return;
         }
+        imHintergrund(() -> CsvManager.saveUser(name, pass, rolle), user -> {
+            benutzerListe.add(user);
+            clearFields();
+        }, "Fehler beim Speichern.");
     }
 
     /**
      * Verarbeitet die Änderung des Passworts für den ausgewählten Benutzer.
      */
     private void handlePasswortAendern() {
-        String[] selected = table.getSelectionModel().getSelectedItem();
+        User selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) return;
 
-        String name = selected[0];
+        String name = selected.getBenutzername();
         String neuesPass = neuesPasswortField.getText().trim();
-        String rolle = selected[1];
 
         if (neuesPass.isEmpty()) {
             showFehler("Bitte neues Passwort eingeben.");
             return;
         }
 
-        try {
-            CsvManager.deleteUser(name);
-            CsvManager.saveUser(name, neuesPass, rolle);
-            loadBenutzer();
+        imHintergrund(() -> CsvManager.updatePasswort(name, neuesPass), aktualisiert -> {
+            zeileErsetzen(selected, aktualisiert);
             table.getSelectionModel().clearSelection();
             clearFields();
-        } catch (IOException e) {
-            showFehler("Fehler beim Aktualisieren.");
-        }
+        }, "Fehler beim Aktualisieren.");
+    }
+
+    /**
+     * Führt eine Aufgabe in einem Hintergrund-Thread aus, z.B. das Berechnen eines
+     * Passwort-Hashes. Währenddessen sind Anlegen und Passwortänderung gesperrt;
+     * ein weiterer Aufruf, solange noch eine Aufgabe läuft, wird ignoriert.
+     *
+     * @param aufgabe    Läuft im Hintergrund
+     * @param fertig     Erhält das Ergebnis auf dem JavaFX Application Thread
+     * @param fehlerText Anzuzeigende Meldung, falls die Aufgabe fehlschlägt
+     */
+    private <T> void imHintergrund(Callable<T> aufgabe, Consumer<T> fertig, String fehlerText) {
+        if (beschaeftigt) return;
+        setBeschaeftigt(true);
+
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return aufgabe.call();
+            }
+        };
+        task.setOnSucceeded(ev -> {
+            setBeschaeftigt(false);
+            fertig.accept(task.getValue());
+        });
+        task.setOnFailed(ev -> {
+            setBeschaeftigt(false);
+            System.err.println(fehlerText + " " + task.getException().getMessage());
+            showFehler(fehlerText);
+        });
+
+        Thread thread = new Thread(task, "benutzerverwaltung");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void setBeschaeftigt(boolean beschaeftigt) {
+        this.beschaeftigt = beschaeftigt;
+        neuButton.setDisable(beschaeftigt);
+        speichernButton.setDisable(beschaeftigt || table.getSelectionModel().isEmpty());
     }
 
     /**
      * Verarbeitet das Löschen eines Benutzers (optional mit allen Dateien).
      */
     private void handleLöschen() {
-        String[] selected = table.getSelectionModel().getSelectedItem();
+        User selected = table.getSelectionModel().getSelectedItem();
         if (selected == null) return;
+        String name = selected.getBenutzername();
 
-        String aktuellerUser = System.getProperty("aktuellerUser");
-        if (selected[0].equals(aktuellerUser)) {
+        if (name.equals(angemeldet)) {
             showFehler("Du kannst dich nicht selbst löschen.");
             return;
         }
@@ -278,7 +334,7 @@ public class AdminControllerFX {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Löschen bestätigen");
         confirm.setHeaderText(null);
-        confirm.setContentText("Benutzer '" + selected[0] + "' wirklich löschen?");
+        confirm.setContentText("Benutzer '" + name + "' wirklich löschen?");
 
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
@@ -297,15 +353,17 @@ public class AdminControllerFX {
 
             if (auswahl.isPresent() && auswahl.get() != abbrechen) {
                 try {
-                    CsvManager.deleteUser(selected[0]);
+                    CsvManager.deleteUser(name);
 
                     if (auswahl.get() == allesLöschen) {
-                        Files.deleteIfExists(Paths.get(PfadManager.getTerminPfad(selected[0])));
-                        Files.deleteIfExists(Paths.get(PfadManager.getZielePfad(selected[0])));
-                        Files.deleteIfExists(Paths.get(System.getProperty("user.home") + "/SchulManager/data/" + selected[0] + "_config.properties"));
+                        Files.deleteIfExists(Paths.get(PfadManager.getTerminPfad(name)));
+                        TerminJournal.verwerfen(PfadManager.getTerminPfad(name));
+                        TerminSnapshot.verwerfen(PfadManager.getTerminPfad(name));
+                        Files.deleteIfExists(Paths.get(PfadManager.getZielePfad(name)));
+                        Files.deleteIfExists(Paths.get(System.getProperty("user.home") + "/SchulManager/data/" + name + "_config.properties"));
                     }
 
-                    loadBenutzer();
+                    benutzerListe.remove(selected);
                     clearFields();
                 } catch (IOException e) {
                     showFehler("Fehler beim Löschen.");
@@ -325,6 +383,22 @@ public class AdminControllerFX {
         }
     }
 
+    /**
+     * Ersetzt die Zeile eines geänderten Benutzers. Fehlt der Benutzer inzwischen
+     * in der Datei, wird die Tabelle vollständig neu geladen.
+     *
+     * @param alt Bisher angezeigter Benutzer
+     * @param neu Geänderter Benutzer aus der Datei
+     */
+    private void zeileErsetzen(User alt, Optional<User> neu) {
+        int index = benutzerListe.indexOf(alt);
+        if (neu.isPresent() && index >= 0) {
+            benutzerListe.set(index, neu.get());
+        } else {
+            loadBenutzer();
+        }
+    }
+
     /**
      * Setzt alle Eingabefelder zurück.
      */
@@ -1,10 +1,12 @@
 package at.spengergasse.projekt.controller;
 
 import at.spengergasse.projekt.model.CsvManager;
-import at.spengergasse.projekt.model.PfadManager;
+import at.spengergasse.projekt.model.PasswortHash;
+import at.spengergasse.projekt.model.User;
 import at.spengergasse.projekt.view.AdminViewFX;
 import at.spengergasse.projekt.view.LoginViewFX;
 import at.spengergasse.projekt.view.MainViewFX;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
@@ -13,6 +15,8 @@ import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * Der {@code LoginControllerFX} steuert den Login- und Registrierungsprozess
@@ -21,21 +25,25 @@ import java.io.IOException;
  * Er verarbeitet Benutzeraktionen wie Klicks und Tastatureingaben,
  * überprüft die Anmeldedaten gegen gespeicherte Daten und startet
  * entsprechende Views (AdminView oder MainView) basierend auf der Rolle.
+ * <p>
+ * Anmeldung und Registrierung hashen das Passwort bewusst langsam (siehe
+ * {@link PasswortHash}) und laufen deshalb in einem Hintergrund-Thread. Solange
+ * ein Vorgang läuft, sind die Buttons gesperrt.
  */
 public class LoginControllerFX {
 
     private final LoginViewFX view;
     private final Stage stage;
+    private boolean beschaeftigt;
 
     /**
      * Konstruktor für den LoginControllerFX.
-     * Lädt gespeicherte Pfade und speichert View + Stage zur Weiterverwendung.
+     * Speichert View + Stage zur Weiterverwendung.
      *
      * @param view  Die Login-Oberfläche (LoginViewFX)
      * @param stage Das aktuelle JavaFX-Window (Stage)
      */
     public LoginControllerFX(LoginViewFX view, Stage stage) {
-        PfadManager.loadPfade();
         this.view = view;
         this.stage = stage;
     }
@@ -78,32 +86,28 @@ public class LoginControllerFX {
             return;
         }
 
-        try {
-            if (!CsvManager.userExists(username)) {
-                showError("Benutzer existiert nicht.");
-                return;
+        imHintergrund("Anmeldung läuft …", () -> CsvManager.authenticate(username, password), user -> {
+            if (Boolean.getBoolean("schulmanager.profil")) {
+                System.out.println(CsvManager.getAnmeldeMessung());
             }
 
-            if (!CsvManager.isPasswordCorrect(username, password)) {
-                showError("Falsches Passwort.");
+            if (user.isEmpty()) {
+                // Bewusst dieselbe Meldung, damit nicht erkennbar ist, ob es den Benutzer gibt
+                showError("Benutzername oder Passwort ist falsch.");
                 return;
             }
 
-            String role = CsvManager.getUserRole(username);
+            String name = user.get().getBenutzername();
             Stage newStage = new Stage();
-            System.setProperty("aktuellerUser", username);
 
-            if (role.equalsIgnoreCase("admin")) {
-                new AdminViewFX(newStage);
+            if (user.get().getRolle().equalsIgnoreCase("admin")) {
+                new AdminViewFX(newStage, name);
             } else {
-                new MainViewFX(newStage, username);
+                new MainViewFX(newStage, name);
             }
 
             stage.close();
-
-        } catch (IOException ex) {
-            showError("Fehler beim Laden der Benutzerdaten.");
-        }
+        }, "Fehler beim Laden der Benutzerdaten.");
     }
 
     /**
@@ -132,13 +136,73 @@ public class LoginControllerFX {
                 return;
             }
 
-            CsvManager.saveUser(username, password, "user");
-            new MainViewFX(new Stage(), username);
-            stage.close();
-
         } catch (IOException ex) {
             showError("Fehler beim Speichern des Benutzers.");
+            return;
         }
+
+        imHintergrund("Benutzer wird angelegt …", () -> {
+            CsvManager.saveUser(username, password, "user");
+            return username;
+        }, name -> {
+            new MainViewFX(new Stage(), name);
+            stage.close();
+        }, "Fehler beim Speichern des Benutzers.");
+    }
+
+    /**
+     * Führt eine Aufgabe in einem Hintergrund-Thread aus und sperrt währenddessen
+     * Login- und Registrieren-Button. Ein weiterer Aufruf, solange noch eine Aufgabe
+     * läuft, wird ignoriert.
+     *
+     * @param hinweis    Text, der während der Ausführung angezeigt wird
+     * @param aufgabe    Läuft im Hintergrund
+     * @param fertig     Erhält das Ergebnis auf dem JavaFX Application Thread
+     * @param fehlerText Anzuzeigende Meldung, falls die Aufgabe fehlschlägt
+     */
+    private <T> void imHintergrund(String hinweis, Callable<T> aufgabe, Consumer<T> fertig, String fehlerText) {
+        if (beschaeftigt) return;
+        setBeschaeftigt(true);
+        showHinweis(hinweis);
+
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return aufgabe.call();
+            }
+        };
+        task.setOnSucceeded(ev -> {
+            setBeschaeftigt(false);
+            view.getErrorLabel().setVisible(false);
+            fertig.accept(task.getValue());
+        });
+        task.setOnFailed(ev -> {
+            setBeschaeftigt(false);
+            System.err.println(fehlerText + " " + task.getException().getMessage());
+            showError(fehlerText);
+        });
+
+        Thread thread = new Thread(task, "anmeldung");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void setBeschaeftigt(boolean beschaeftigt) {
+        this.beschaeftigt = beschaeftigt;
+        view.getLoginButton().setDisable(beschaeftigt);
+        view.getRegisterButton().setDisable(beschaeftigt);
+    }
+
+    /**
+     * Zeigt einen neutralen Hinweis im Fehler-Label an.
+     *
+     * @param message Der anzuzeigende Hinweis.
+     */
+    private void showHinweis(String message) {
+        Label errorLabel = view.getErrorLabel();
+        errorLabel.getStyleClass().remove("error-label");
+        errorLabel.setText(message);
+        errorLabel.setVisible(true);
     }
 
     /**
@@ -148,6 +212,9 @@ public class LoginControllerFX {
      */
     private void showError(String message) {
         Label errorLabel = view.getErrorLabel();
+        if (!errorLabel.getStyleClass().contains("error-label")) {
+            errorLabel.getStyleClass().add("error-label");
+        }
         errorLabel.setText(message);
         errorLabel.setVisible(true);
     }
@@ -2,7 +2,10 @@ package at.spengergasse.projekt.controller;
 
 import at.spengergasse.projekt.model.*;
 import at.spengergasse.projekt.view.*;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.DirectoryChooser;
@@ -11,11 +14,18 @@ import javafx.stage.Stage;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Der {@code MainControllerFX} koordiniert die Benutzerinteraktionen in der Hauptanwendung.
@@ -23,11 +33,32 @@ import java.util.Optional;
  * Er verbindet die grafische Oberfläche mit der zugrunde liegenden Geschäftslogik
  * und verwaltet das Öffnen von Ansichten, Dateioperationen, Speicherpfade und
  * Darstellungsmodi wie z.B. den Dark Mode.
+ * <p>
+ * Termine und Ziele des Benutzers werden einmal pro Sitzung in den
+ * {@link SitzungsDaten} gehalten und von allen Ansichten gemeinsam verwendet. Jede
+ * Ansicht wird nur einmal erzeugt und beim erneuten Öffnen wiederverwendet; sie folgt
+ * Änderungen über die beobachtbaren Listen der Bestände.
+ * <p>
+ * Ansichten werden nicht auf dem JavaFX Application Thread geladen: Beim Öffnen
+ * erscheint sofort ein Platzhalter, die Dateien werden in einer {@link Task} gelesen
+ * und die fertige Ansicht danach eingesetzt. Wechselt der Benutzer vorher die
+ * Ansicht, wird der laufende Ladevorgang abgebrochen und sein Ergebnis verworfen.
  */
 public class MainControllerFX {
 
+    private static final ExecutorService LADER = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ansicht-laden");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final MainViewFX view;
     private final String username;
+    private final SitzungsDaten sitzung;
+    private Task<?> ladevorgang;
+    private TerminViewFX terminView;
+    private StatistikViewFX statistikView;
+    private ZieleViewFX zieleView;
     private boolean darkModeAktiv = false;
 
     /**
@@ -39,6 +70,18 @@ public class MainControllerFX {
     public MainControllerFX(MainViewFX view, String username) {
         this.view = view;
         this.username = username;
+        this.sitzung = new SitzungsDaten(username, text -> Platform.runLater(() ->
+                new Alert(Alert.AlertType.ERROR, text).showAndWait()));
+    }
+
+    /**
+     * Verwirft die erzeugten Ansichten, z.B. weil ein Bestand neu erzeugt wurde.
+     */
+    private void ansichtenVerwerfen() {
+        ladenAbbrechen();
+        terminView = null;
+        statistikView = null;
+        zieleView = null;
     }
 
     /**
@@ -57,13 +100,53 @@ public class MainControllerFX {
         return username;
     }
 
+    /**
+     * Lädt die Termine im Hintergrund und liefert danach die der nächsten Tage für
+     * die Startseite.
+     *
+     * @param tage     Anzahl Tage ab heute
+     * @param anzeigen Erhält die anstehenden Termine nach Datum sortiert (leer bei Ladefehlern)
+     */
+    public void anstehendeLaden(int tage, Consumer<List<Termin>> anzeigen) {
+        TerminBestand bestand = sitzung.getTermine();
+        laden(bestand::einlesen, gelesen -> {
+            bestand.uebernehmen(gelesen);
+            anzeigen.accept(bestand.anstehend(tage));
+        }, ex -> {
+            System.err.println("Fehler beim Laden der Termine: " + ex.getMessage());
+            anzeigen.accept(bestand.anstehend(tage));
+        });
+    }
+
+    /**
+     * Liefert den ersten Termin nach einem Tag.
+     *
+     * @param datum Tag, nach dem gesucht wird (exklusive)
+     * @return Der nächste Termin oder {@code Optional.empty()}
+     */
+    public Optional<Termin> getNaechsterTermin(LocalDate datum) {
+        return sitzung.getTermine().naechsterNach(datum);
+    }
+
     /**
      * Öffnet die Termin-Ansicht und aktualisiert den Footer.
      *
      * @param e Auslösendes ActionEvent
      */
     public void handleTermine(ActionEvent e) {
-        view.setCenterContent(new TerminViewFX(username));
+        TerminBestand bestand = sitzung.getTermine();
+        if (terminView != null) {
+            view.setCenterContent(terminView);
+            termineAktualisieren(bestand);
+        } else {
+            ansichtLaden("Termine werden geladen …", "Fehler beim Laden der Termine.", () -> {
+                List<Termin> gelesen = bestand.einlesen();
+                return () -> {
+                    bestand.uebernehmen(gelesen);
+                    return terminView = new TerminViewFX(bestand);
+                };
+            });
+        }
         updateFooter();
     }
 
@@ -73,7 +156,19 @@ public class MainControllerFX {
      * @param e Auslösendes ActionEvent
      */
     public void handleStatistik(ActionEvent e) {
-        view.setCenterContent(new StatistikViewFX(username));
+        TerminBestand bestand = sitzung.getTermine();
+        if (statistikView != null) {
+            view.setCenterContent(statistikView);
+            termineAktualisieren(bestand);
+        } else {
+            ansichtLaden("Statistik wird berechnet …", "Fehler beim Laden der Termine.", () -> {
+                List<Termin> gelesen = bestand.einlesen();
+                return () -> {
+                    bestand.uebernehmen(gelesen);
+                    return statistikView = new StatistikViewFX(username, bestand);
+                };
+            });
+        }
         updateFooter();
     }
 
@@ -83,45 +178,163 @@ public class MainControllerFX {
      * @param e Auslösendes ActionEvent
      */
     public void handleZiele(ActionEvent e) {
-        view.setCenterContent(new ZieleViewFX(username));
+        ZieleBestand bestand = sitzung.getZiele();
+        if (zieleView != null) {
+            view.setCenterContent(zieleView);
+        } else {
+            ansichtLaden("Ziele werden geladen …", "Fehler beim Laden der Ziele.", () -> {
+                List<Ziele> gelesen = bestand.einlesen();
+                return () -> {
+                    bestand.uebernehmen(gelesen);
+                    return zieleView = new ZieleViewFX(bestand);
+                };
+            });
+        }
         updateFooter();
     }
 
     /**
-     * Öffnet eine neue Instanz der Anwendung (funktioniert nur bei Start aus JAR-Datei).
+     * Prüft im Hintergrund, ob die Termin-Datei von außen geändert wurde, und lädt sie
+     * gegebenenfalls neu. Die bereits angezeigte Ansicht folgt der Liste.
      *
-     * @param e Auslösendes ActionEvent
+     * @param bestand Die Termine der Sitzung
      */
-    public void handleNeueInstanz(ActionEvent e) {
-        try {
-            File jarFile = new File(MainControllerFX.class.getProtectionDomain().getCodeSource().getLocation().toURI());
-            if (!jarFile.getName().endsWith(".jar")) {
-                new Alert(Alert.AlertType.WARNING, "Neue Instanz geht nur aus dem Jar-File.").showAndWait();
-                return;
+    private void termineAktualisieren(TerminBestand bestand) {
+        laden(bestand::einlesen, bestand::uebernehmen,
+                ex -> System.err.println("Fehler beim Laden der Termine: " + ex.getMessage()));
+    }
+
+    /**
+     * Zeigt sofort einen Platzhalter und setzt die Ansicht ein, sobald sie im
+     * Hintergrund geladen wurde.
+     *
+     * @param platzhalter Text des Platzhalters
+     * @param fehlerText  Meldung, falls das Laden fehlschlägt
+     * @param laden       Läuft im Hintergrund und liefert die Erzeugung der Ansicht,
+     *                    die danach auf dem JavaFX Application Thread ausgeführt wird
+     */
+    private void ansichtLaden(String platzhalter, String fehlerText, Callable<Supplier<Node>> laden) {
+        view.setCenterPlaceholder(platzhalter);
+        laden(laden, ansicht -> view.setCenterContent(ansicht.get()), ex -> {
+            System.err.println(fehlerText + " " + ex.getMessage());
+            view.setCenterPlaceholder(fehlerText);
+            new Alert(Alert.AlertType.ERROR, fehlerText).showAndWait();
+        });
+    }
+
+    /**
+     * Bricht einen laufenden Ladevorgang ab und startet einen neuen. Ergebnisse und
+     * Fehler abgebrochener Vorgänge werden nicht mehr gemeldet.
+     *
+     * @param laden    Läuft im Hintergrund
+     * @param fertig   Erhält das Ergebnis auf dem JavaFX Application Thread
+     * @param fehler   Erhält den Fehler auf dem JavaFX Application Thread
+     */
+    private <T> void laden(Callable<T> laden, Consumer<T> fertig, Consumer<Throwable> fehler) {
+        starten(new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return laden.call();
+            }
+        }, fertig, fehler);
+    }
+
+    /**
+     * Liest eine Import-Datei im Hintergrund und zeigt dabei den Fortschritt an.
+     * Wie beim Laden einer Ansicht wird der Import abgebrochen, wenn der Benutzer
+     * vorher eine andere Ansicht öffnet; übernommen wird dann nichts.
+     *
+     * @param text   Beschreibung für die Fortschrittsanzeige
+     * @param vorgang Läuft im Hintergrund und meldet seinen Fortschritt
+     * @param fertig Erhält das Ergebnis auf dem JavaFX Application Thread
+     * @param fehler Erhält den Fehler auf dem JavaFX Application Thread
+     */
+    private <T> void importieren(String text, Importschritt<T> vorgang,
+                                 Consumer<ImportAbgleich.Ergebnis<T>> fertig, Consumer<Throwable> fehler) {
+        Task<ImportAbgleich.Ergebnis<T>> task = new Task<>() {
+            @Override
+            protected ImportAbgleich.Ergebnis<T> call() throws Exception {
+                updateMessage(text + " …");
+                return vorgang.ausfuehren((gelesen, gesamt, neu) -> {
+                    updateProgress(gelesen, gesamt);
+                    updateMessage(text + " … " + neu + " neue Einträge");
+                });
             }
-            String javaExe = System.getProperty("os.name").toLowerCase().contains("win") ? "javaw" : "java";
-            new ProcessBuilder(javaExe, "-jar", jarFile.getPath()).start();
-        } catch (URISyntaxException | IOException ex) {
-            new Alert(Alert.AlertType.ERROR, "Fehler beim Öffnen einer neuen Instanz.").showAndWait();
+        };
+        view.setCenterProgress(task);
+        starten(task, fertig, fehler);
+    }
+
+    /**
+     * Ein Import, der seinen Fortschritt meldet.
+     */
+    @FunctionalInterface
+    private interface Importschritt<T> {
+        ImportAbgleich.Ergebnis<T> ausfuehren(ImportAbgleich.Fortschritt fortschritt) throws IOException;
+    }
+
+    /**
+     * Bricht einen laufenden Vorgang ab und startet die neue Aufgabe.
+     */
+    private <T> void starten(Task<T> task, Consumer<T> fertig, Consumer<Throwable> fehler) {
+        ladenAbbrechen();
+        task.setOnSucceeded(ev -> {
+            if (ladevorgang == task) {
+                ladevorgang = null;
+                fertig.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(ev -> {
+            if (ladevorgang == task) {
+                ladevorgang = null;
+                fehler.accept(task.getException());
+            }
+        });
+        ladevorgang = task;
+        LADER.execute(task);
+    }
+
+    /**
+     * Bricht den laufenden Ladevorgang einer Ansicht ab, z.B. weil der Benutzer
+     * inzwischen eine andere Ansicht geöffnet hat.
+     */
+    public void ladenAbbrechen() {
+        if (ladevorgang != null) {
+            ladevorgang.cancel();
+            ladevorgang = null;
         }
     }
 
+    /**
+     * Öffnet ein neues Login-Fenster in derselben JVM. Fenster desselben Benutzers
+     * gleichen ihre Daten über die Dateibeobachtung der {@link SitzungsDaten} ab.
+     *
+     * @param e Auslösendes ActionEvent
+     */
+    public void handleNeueInstanz(ActionEvent e) {
+        new LoginViewFX(new Stage());
+    }
+
     /**
      * Ändert den Speicherort für Termin-Daten.
      *
      * @param e Auslösendes ActionEvent
      */
     public void handlePfadAendernTermine(ActionEvent e) {
+        SpeicherPlaner.getInstanz().flush();
         DirectoryChooser chooser = new DirectoryChooser();
         chooser.setTitle("Neuen Speicherort wählen (Termine)");
         File selectedDir = chooser.showDialog(null);
         if (selectedDir != null) {
             File neueDatei = new File(selectedDir.getAbsolutePath() + "/" + username + "_termine.csv");
             try {
+                TerminJournal.zusammenfuehren(PfadManager.getTerminPfad(username));
                 Files.move(new File(PfadManager.getTerminPfad(username)).toPath(), neueDatei.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                TerminSnapshot.verwerfen(PfadManager.getTerminPfad(username));
                 PfadManager.setTerminPfad(username, neueDatei.getAbsolutePath());
-                updateFooter();
-                view.setCenterContent(new TerminViewFX(username));
+                sitzung.pfadeUebernehmen();
+                ansichtenVerwerfen();
+                handleTermine(e);
             } catch (IOException ex) {
                 new Alert(Alert.AlertType.ERROR, "Datei noch nicht vorhanden").showAndWait();
             }
@@ -134,6 +347,7 @@ public class MainControllerFX {
      * @param e Auslösendes ActionEvent
      */
     public void handlePfadAendernZiele(ActionEvent e) {
+        SpeicherPlaner.getInstanz().flush();
         DirectoryChooser chooser = new DirectoryChooser();
         chooser.setTitle("Neuen Speicherort wählen (Ziele)");
         File selectedDir = chooser.showDialog(null);
@@ -142,8 +356,9 @@ public class MainControllerFX {
             try {
                 Files.move(new File(PfadManager.getZielePfad(username)).toPath(), neueDatei.toPath(), StandardCopyOption.REPLACE_EXISTING);
                 PfadManager.setZielePfad(username, neueDatei.getAbsolutePath());
-                updateFooter();
-                view.setCenterContent(new ZieleViewFX(username));
+                sitzung.pfadeUebernehmen();
+                ansichtenVerwerfen();
+                handleZiele(e);
             } catch (IOException ex) {
                 new Alert(Alert.AlertType.ERROR, "Datei noch nicht vorhanden").showAndWait();
             }
@@ -157,6 +372,7 @@ public class MainControllerFX {
      * @param e Auslösendes ActionEvent
      */
     public void handlePfadZuruecksetzen(ActionEvent e) {
+        SpeicherPlaner.getInstanz().flush();
         String defaultTermine = PfadManager.getDefaultTerminPfad(username);
         String defaultZiele = PfadManager.getDefaultZielePfad(username);
 
@@ -174,7 +390,9 @@ public class MainControllerFX {
 
         try {
             if (termineExistieren) {
+                TerminJournal.zusammenfuehren(aktuelleTermine.getPath());
                 Files.move(aktuelleTermine.toPath(), new File(defaultTermine).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                TerminSnapshot.verwerfen(aktuelleTermine.getPath());
             }
             if (zieleExistieren) {
                 Files.move(aktuelleZiele.toPath(), new File(defaultZiele).toPath(), StandardCopyOption.REPLACE_EXISTING);
@@ -184,8 +402,10 @@ public class MainControllerFX {
                     "Fehler beim Zurücksetzen der Pfade. Möglicherweise sind die Dateien gerade geöffnet oder gesperrt.").showAndWait();
         }
 
-        PfadManager.setTerminPfad(username, defaultTermine);
-        PfadManager.setZielePfad(username, defaultZiele);
+        PfadManager.resetPfade(username);
+        if (sitzung.pfadeUebernehmen()) {
+            ansichtenVerwerfen();
+        }
         updateFooter();
     }
 
@@ -201,27 +421,52 @@ public class MainControllerFX {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             handlePfadZuruecksetzen(new ActionEvent());
             new File(PfadManager.getTerminPfad(username)).delete();
+            try {
+                TerminJournal.verwerfen(PfadManager.getTerminPfad(username));
+                TerminSnapshot.verwerfen(PfadManager.getTerminPfad(username));
+            } catch (IOException ex) {
+                System.err.println("Termin-Journal oder Snapshot konnte nicht gelöscht werden.");
+            }
             new File(PfadManager.getZielePfad(username)).delete();
+            sitzung.verwerfen();
+            ansichtenVerwerfen();
             view.loadWelcomeCenter(username);
             updateFooter();
             darkModeAktiv = false;
             Scene scene = view.getScene();
             scene.getStylesheets().clear();
-            scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+            scene.getStylesheets().add(Stile.HELL);
             saveDarkModeState();
         }
     }
 
     /**
      * Meldet den Benutzer ab und öffnet das Login-Fenster neu.
+     * Offene Speichervorgänge werden vorher abgeschlossen.
      *
      * @param e Auslösendes ActionEvent
      */
     public void handleLogout(ActionEvent e) {
+        ladenAbbrechen();
+        SpeicherPlaner.getInstanz().flush();
+        sitzung.beenden();
         ((Stage) ((Button) e.getSource()).getScene().getWindow()).close();
         new LoginViewFX(new Stage());
     }
 
+    /**
+     * Schließt nur dieses Fenster. Ausstehende Speichervorgänge werden vorher
+     * geschrieben; die JVM endet erst, wenn das letzte Fenster geschlossen ist.
+     *
+     * @param stage Das Fenster dieser Sitzung
+     */
+    public void handleFensterSchliessen(Stage stage) {
+        ladenAbbrechen();
+        SpeicherPlaner.getInstanz().flush();
+        sitzung.beenden();
+        stage.close();
+    }
+
     /**
      * Aktiviert oder deaktiviert den Dark Mode und speichert die Auswahl.
      *
@@ -231,8 +476,7 @@ public class MainControllerFX {
     public void handleToggleDarkMode(MenuItem item, Scene scene) {
         darkModeAktiv = !darkModeAktiv;
         scene.getStylesheets().clear();
-        scene.getStylesheets().add(getClass().getResource(
-                darkModeAktiv ? "/dark.css" : "/styles.css").toExternalForm());
+        scene.getStylesheets().add(Stile.fuer(darkModeAktiv));
         item.setText(darkModeAktiv ? "Dark Mode deaktivieren" : "Dark Mode aktivieren");
         saveDarkModeState();
     }
@@ -261,7 +505,7 @@ public class MainControllerFX {
             if (file.exists() && Files.readString(file.toPath()).contains("dark=true")) {
                 darkModeAktiv = true;
                 scene.getStylesheets().clear();
-                scene.getStylesheets().add(getClass().getResource("/dark.css").toExternalForm());
+                scene.getStylesheets().add(Stile.DUNKEL);
             }
         } catch (IOException e) {
             System.err.println("Konnte DarkMode nicht laden.");
@@ -270,7 +514,8 @@ public class MainControllerFX {
 
     /**
      * Importiert eine CSV-Datei mit Terminen und fügt neue Einträge der eigenen Liste hinzu.
-     * Duplikate werden vermieden.
+     * Die Datei wird im Hintergrund zeilenweise gelesen und über {@link ImportAbgleich}
+     * mit den vorhandenen Terminen abgeglichen; nur neue Termine werden angehängt.
      *
      * @param e Auslösendes ActionEvent
      */
@@ -281,23 +526,21 @@ public class MainControllerFX {
         File file = chooser.showOpenDialog(null);
 
         if (file != null) {
-            try {
-                List<Termin> importiert = CsvManager.loadTermine(file.getAbsolutePath());
-                String eigenerPfad = PfadManager.getTerminPfad(username);
-                List<Termin> eigene = CsvManager.loadTermine(eigenerPfad);
-
-                for (Termin termin : importiert) {
-                    if (!eigene.contains(termin)) {
-                        eigene.add(termin);
-                    }
-                }
-
-                CsvManager.saveTermine(eigene, eigenerPfad);
-                view.setCenterContent(new TerminViewFX(username));
-                updateFooter();
-            } catch (IOException ex) {
-                new Alert(Alert.AlertType.ERROR, "Fehler beim Importieren der Termine: " + ex.getMessage()).showAndWait();
-            }
+            SpeicherPlaner.getInstanz().flush();
+            TerminBestand bestand = sitzung.getTermine();
+            Path quelle = file.toPath();
+            view.setCenterPlaceholder("Termine werden geladen …");
+            laden(bestand::einlesen, gelesen -> {
+                bestand.uebernehmen(gelesen);
+                List<Termin> vorhanden = bestand.momentaufnahme();
+                importieren("Termine werden importiert",
+                        fortschritt -> ImportAbgleich.termine(quelle, vorhanden, fortschritt),
+                        ergebnis -> {
+                            bestand.hinzufuegenAlle(ergebnis.getNeu());
+                            handleTermine(e);
+                            importMelden("Termine", ergebnis);
+                        }, ex -> importFehler("Fehler beim Importieren der Termine: ", ex));
+            }, ex -> importFehler("Fehler beim Importieren der Termine: ", ex));
         } else {
             System.err.println("Dateiauswahl für Terminimport wurde abgebrochen oder war ungültig.");
         }
@@ -305,7 +548,7 @@ public class MainControllerFX {
 
     /**
      * Importiert eine CSV-Datei mit Zielen und fügt neue Einträge der eigenen Liste hinzu.
-     * Duplikate werden vermieden.
+     * Ziele mit bereits vorhandenem Text werden übersprungen.
      *
      * @param e Auslösendes ActionEvent
      */
@@ -316,25 +559,37 @@ public class MainControllerFX {
         File file = chooser.showOpenDialog(null);
 
         if (file != null) {
-            try {
-                List<Ziele> importiert = CsvManager.loadZiele(file.getAbsolutePath());
-                String eigenerPfad = PfadManager.getZielePfad(username);
-                List<Ziele> eigene = CsvManager.loadZiele(eigenerPfad);
-
-                for (Ziele ziel : importiert) {
-                    if (!eigene.contains(ziel)) {
-                        eigene.add(ziel);
-                    }
-                }
-
-                CsvManager.saveZiele(eigene, eigenerPfad);
-                view.setCenterContent(new ZieleViewFX(username));
-                updateFooter();
-            } catch (IOException ex) {
-                new Alert(Alert.AlertType.ERROR, "Fehler beim Importieren der Ziele: " + ex.getMessage()).showAndWait();
-            }
+            SpeicherPlaner.getInstanz().flush();
+            ZieleBestand bestand = sitzung.getZiele();
+            Path quelle = file.toPath();
+            view.setCenterPlaceholder("Ziele werden geladen …");
+            laden(bestand::einlesen, gelesen -> {
+                bestand.uebernehmen(gelesen);
+                List<Ziele> vorhanden = new ArrayList<>(bestand.getZiele());
+                importieren("Ziele werden importiert",
+                        fortschritt -> ImportAbgleich.ziele(quelle, vorhanden, fortschritt),
+                        ergebnis -> {
+                            bestand.getZiele().addAll(ergebnis.getNeu());
+                            handleZiele(e);
+                            importMelden("Ziele", ergebnis);
+                        }, ex -> importFehler("Fehler beim Importieren der Ziele: ", ex));
+            }, ex -> importFehler("Fehler beim Importieren der Ziele: ", ex));
         } else {
             System.err.println("Dateiauswahl abgebrochen oder ungültig.");
         }
     }
+
+    /**
+     * Zeigt die Zählerstände eines abgeschlossenen Imports an.
+     */
+    private void importMelden(String was, ImportAbgleich.Ergebnis<?> ergebnis) {
+        new Alert(Alert.AlertType.INFORMATION, ergebnis.getGelesen() + " " + was + " gelesen, "
+                + ergebnis.getNeu().size() + " neu übernommen, "
+                + ergebnis.getDoppelt() + " bereits vorhanden.").showAndWait();
+    }
+
+    private void importFehler(String text, Throwable ex) {
+        view.loadWelcomeCenter(username);
+        new Alert(Alert.AlertType.ERROR, text + ex.getMessage()).showAndWait();
+    }
 }
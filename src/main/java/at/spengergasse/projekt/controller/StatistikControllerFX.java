@@ -1,12 +1,13 @@
 package at.spengergasse.projekt.controller;
 
-import at.spengergasse.projekt.model.CsvManager;
-import at.spengergasse.projekt.model.PfadManager;
-import at.spengergasse.projekt.model.Termin;
+import at.spengergasse.projekt.model.TerminArt;
+import at.spengergasse.projekt.model.TerminBestand;
+import at.spengergasse.projekt.model.TerminHistogramm;
+import at.spengergasse.projekt.model.TerminStatistik;
+import javafx.beans.property.ReadOnlyLongProperty;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
@@ -17,27 +18,30 @@ import java.util.Map;
  *     <li>Ermittlung der Gesamtanzahl aller Termine</li>
  *     <li>Bestimmung der Häufigkeit eines bestimmten Termintyps</li>
  *     <li>Erstellung einer Verteilung nach Terminarten</li>
+ *     <li>Auswertung beliebiger Zeiträume, aufgeteilt nach Tag, Woche oder Monat</li>
  * </ul>
+ * Die Werte werden nicht neu gezählt, sondern aus der laufend nachgeführten
+ * {@link TerminStatistik} des {@link TerminBestand} gelesen.
  */
 public class StatistikControllerFX {
 
-    private final List<Termin> termine;
+    private final TerminStatistik statistik;
 
     /**
-     * Konstruktor. Lädt alle Termine für den angegebenen Benutzer.
-     * Bei Fehlern wird eine leere Liste verwendet.
+     * Konstruktor. Ausgewertet wird der aktuell geladene Stand; geladen wird vorher
+     * im Hintergrund (siehe {@link MainControllerFX#handleStatistik}).
      *
-     * @param username Der Benutzername, dessen Termine analysiert werden sollen.
+     * @param bestand Die Termine, die analysiert werden sollen.
      */
-    public StatistikControllerFX(String username) {
-        String pfad = PfadManager.getTerminPfad(username);
-        List<Termin> geladen;
-        try {
-            geladen = CsvManager.loadTermine(pfad);
-        } catch (IOException e) {
-            geladen = List.of(); // falls Datei fehlt oder defekt
-        }
-        this.termine = geladen;
+    public StatistikControllerFX(TerminBestand bestand) {
+        this.statistik = bestand.getStatistik();
+    }
+
+    /**
+     * @return Zähler, der bei jeder Änderung der Termine erhöht wird
+     */
+    public ReadOnlyLongProperty standProperty() {
+        return statistik.standProperty();
     }
 
     /**
@@ -46,34 +50,98 @@ public class StatistikControllerFX {
      * @return Gesamtanzahl als {@code int}
      */
     public int getGesamtAnzahl() {
-        return termine.size();
+        return statistik.getGesamtAnzahl();
     }
 
     /**
-     * Zählt die Anzahl der Termine mit einer bestimmten Art.
-     * Die Art wird dabei case-insensitive verglichen.
+     * Gibt die Anzahl der Termine mit einer bestimmten Art zurück.
      *
-     * @param art Die Terminart (z.B. "Prüfung", "Meeting", etc.)
+     * @param art Die Terminart (z.B. {@link TerminArt#PRUEFUNG})
      * @return Anzahl der entsprechenden Termine
      */
-    public int getAnzahlNachArt(String art) {
-        return (int) termine.stream()
-                .filter(t -> t.getArt().equalsIgnoreCase(art))
-                .count();
+    public int getAnzahlNachArt(TerminArt art) {
+        return statistik.getAnzahl(art);
+    }
+
+    /**
+     * Erstellt eine Statistik über alle vorkommenden Terminarten.
+     * Arten ohne Termine werden nicht aufgeführt.
+     *
+     * @return {@code Map<TerminArt, Integer>} mit Terminart als Schlüssel und Anzahl als Wert,
+     *         in der Reihenfolge der Arten
+     */
+    public Map<TerminArt, Integer> getVerteilungNachArt() {
+        return statistik.getVerteilung();
+    }
+
+    /**
+     * Zählt die Termine einer Art in einem Zeitraum.
+     *
+     * @param art Die Terminart oder {@code null} für alle Arten
+     * @param von Erster Tag (inklusive)
+     * @param bis Letzter Tag (inklusive)
+     * @return Anzahl der Termine im Zeitraum
+     */
+    public int getAnzahlZwischen(TerminArt art, LocalDate von, LocalDate bis) {
+        return statistik.getHistogramm().anzahl(art, von, bis);
     }
 
     /**
-     * Erstellt eine Statistik über alle verschiedenen Terminarten.
-     * Jede Art wird einmalig als Schlüssel in der Map aufgeführt.
+     * Erstellt die Verteilung nach Terminarten für einen Zeitraum.
+     * Arten ohne Termine werden nicht aufgeführt.
      *
-     * @return {@code Map<String, Integer>} mit Terminart als Schlüssel und Anzahl als Wert
+     * @param von Erster Tag (inklusive)
+     * @param bis Letzter Tag (inklusive)
+     * @return Anzahl je Terminart im Zeitraum
      */
-    public Map<String, Integer> getVerteilungNachArt() {
-        Map<String, Integer> verteilung = new HashMap<>();
-        for (Termin t : termine) {
-            String art = t.getArt();
-            verteilung.put(art, verteilung.getOrDefault(art, 0) + 1);
+    public Map<TerminArt, Integer> getVerteilungNachArt(LocalDate von, LocalDate bis) {
+        Map<TerminArt, Integer> verteilung = new EnumMap<>(TerminArt.class);
+        for (TerminArt art : TerminArt.values()) {
+            int anzahl = getAnzahlZwischen(art, von, bis);
+            if (anzahl > 0) {
+                verteilung.put(art, anzahl);
+            }
         }
         return verteilung;
     }
+
+    /**
+     * Teilt einen Zeitraum in Tage, Wochen oder Monate und zählt die Termine einer Art je Abschnitt.
+     *
+     * @param art       Die Terminart oder {@code null} für alle Arten
+     * @param von       Erster Tag (inklusive)
+     * @param bis       Letzter Tag (inklusive)
+     * @param intervall Größe der Abschnitte
+     * @return Anzahl je Abschnitt, nach dessen erstem Tag sortiert
+     */
+    public Map<LocalDate, Integer> getVerlauf(TerminArt art, LocalDate von, LocalDate bis,
+                                              TerminHistogramm.Intervall intervall) {
+        return statistik.getHistogramm().verlauf(art, von, bis, intervall);
+    }
+
+    /**
+     * Liefert den Beginn des Semesters, in dem ein Tag liegt
+     * (Wintersemester ab 1. September, Sommersemester ab 1. Februar).
+     *
+     * @param tag Beliebiger Tag
+     * @return Erster Tag des Semesters
+     */
+    public static LocalDate getSemesterBeginn(LocalDate tag) {
+        if (tag.getMonthValue() >= 9) return LocalDate.of(tag.getYear(), 9, 1);
+        if (tag.getMonthValue() >= 2) return LocalDate.of(tag.getYear(), 2, 1);
+        return LocalDate.of(tag.getYear() - 1, 9, 1);
+    }
+
+    /**
+     * Liefert das Ende des Semesters, in dem ein Tag liegt.
+     *
+     * @param tag Beliebiger Tag
+     * @return Letzter Tag des Semesters (31. Jänner bzw. 31. August)
+     */
+    public static LocalDate getSemesterEnde(LocalDate tag) {
+        LocalDate beginn = getSemesterBeginn(tag);
+        return beginn.getMonthValue() == 9
+                ? LocalDate.of(beginn.getYear() + 1, 1, 31)
+                : LocalDate.of(beginn.getYear(), 8, 31);
+    }
 }
@@ -1,17 +1,19 @@
 package at.spengergasse.projekt.controller;
 
 import at.spengergasse.projekt.model.Termin;
-import at.spengergasse.projekt.model.CsvManager;
-import at.spengergasse.projekt.model.PfadManager;
+import at.spengergasse.projekt.model.TerminArt;
+import at.spengergasse.projekt.model.TerminBestand;
+import at.spengergasse.projekt.model.TerminJournal;
+import at.spengergasse.projekt.model.SpeicherPlaner;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.layout.HBox;
 
-import java.io.IOException;
 import java.time.LocalDate;
 import java.util.Optional;
 
@@ -23,32 +25,60 @@ import java.util.Optional;
  *     <li>Erstellen neuer Termine</li>
  *     <li>Bearbeiten von Notizen</li>
  *     <li>Löschen bestehender Einträge</li>
+ *     <li>Suchen in Titel und Notiz</li>
  *     <li>Speichern und Laden über CSV-Dateien</li>
  * </ul>
+ * Die Termine stammen aus dem {@link TerminBestand} der Sitzung. Änderungen werden
+ * nicht durch Neuschreiben der ganzen Datei, sondern als Einträge im
+ * {@link TerminJournal} gespeichert. Das Schreiben übernimmt der
+ * {@link SpeicherPlaner} gebündelt im Hintergrund.
+ * <p>
+ * Während einer Suche zeigt die Tabelle nur die Treffer aus dem
+ * {@link at.spengergasse.projekt.model.TerminSuchIndex}; Änderungen werden über die
+ * Identität des Termins auf seine Position im Bestand abgebildet.
+ * <p>
+ * Sortiert wird nur die Anzeige: Die Tabelle zeigt eine {@link SortedList} über den
+ * Terminen bzw. den Treffern, die Reihenfolge im Bestand und in der Datei bleibt gleich.
  */
 public class TerminControllerFX {
 
-    private final String username;
+    private final TerminBestand bestand;
     private final ObservableList<Termin> termine;
+    private final ObservableList<Termin> treffer = FXCollections.observableArrayList();
+    /** Alle Termine nach der Sortierung der Tabelle; seitenweise unsortiert die Termine selbst. */
+    private final ObservableList<Termin> alle;
+    private final SortedList<Termin> trefferSortiert;
     private final TableView<Termin> tableView;
 
+    private final TextField suchFeld = new TextField();
+    private final Label trefferLabel = new Label();
+
     private final TextField titelField = new TextField();
     private final DatePicker datumPicker = new DatePicker();
-    private final ComboBox<String> artBox = new ComboBox<>();
+    private final ComboBox<TerminArt> artBox = new ComboBox<>();
     private final TextField notizField = new TextField();
     private final Button speichernButton = new Button("Speichern");
     private final Button löschenButton = new Button("Löschen");
 
     /**
-     * Konstruktor: Initialisiert Controller und lädt Termine für den angegebenen Benutzer.
+     * Konstruktor: Initialisiert den Controller. Die Termine sind bereits geladen
+     * (siehe {@link MainControllerFX#handleTermine}).
      *
-     * @param username Aktueller Benutzername
+     * @param bestand Termine des aktuellen Benutzers
      */
-    public TerminControllerFX(String username) {
-        this.username = username;
-        this.termine = FXCollections.observableArrayList();
+    public TerminControllerFX(TerminBestand bestand) {
+        this.bestand = bestand;
+        this.termine = bestand.getTermine();
+        // Eine SortedList über seitenweise geöffnete Termine würde jede Zeile dekodieren
+        this.alle = bestand.isSeitenweise() ? termine : new SortedList<>(termine);
+        this.trefferSortiert = new SortedList<>(treffer);
         this.tableView = createTable();
-        loadTermine();
+        if (alle instanceof SortedList<Termin> sortiert) {
+            sortiert.comparatorProperty().bind(tableView.comparatorProperty());
+        } else {
+            tableView.getColumns().forEach(spalte -> spalte.setSortable(false));
+        }
+        trefferSortiert.comparatorProperty().bind(tableView.comparatorProperty());
     }
 
     /**
@@ -60,6 +90,26 @@ public class TerminControllerFX {
         return tableView;
     }
 
+    /**
+     * Erstellt das Suchfeld über der Tabelle. Gesucht wird bei jeder Eingabe.
+     *
+     * @return HBox mit Suchfeld und Trefferanzahl
+     */
+    public HBox getSuche() {
+        suchFeld.setPromptText("Suchen in Titel und Notiz");
+        suchFeld.setPrefWidth(300);
+        suchFeld.textProperty().addListener((obs, alt, neu) -> suchen());
+        if (bestand.isSeitenweise()) {
+            suchFeld.setDisable(true);
+            trefferLabel.setText("Sehr große Datei: Suchen und Sortieren sind nicht verfügbar.");
+        }
+
+        HBox box = new HBox(10, suchFeld, trefferLabel);
+        box.setAlignment(Pos.CENTER_LEFT);
+        box.getStyleClass().add("termin-suche");
+        return box;
+    }
+
     /**
      * Erstellt das Eingabeformular für neue Termine.
      *
@@ -68,7 +118,7 @@ public class TerminControllerFX {
     public HBox getFormular() {
         titelField.setPromptText("Titel");
         datumPicker.setPromptText("Datum");
-        artBox.getItems().setAll("Prüfung", "Hausaufgabe", "Event", "Sonstiges");
+        artBox.getItems().setAll(TerminArt.values());
         artBox.setPromptText("Art");
         notizField.setPromptText("Notiz (optional)");
 
@@ -116,7 +166,7 @@ public class TerminControllerFX {
      * @return Fertig konfigurierte {@code TableView}
      */
     private TableView<Termin> createTable() {
-        TableView<Termin> table = new TableView<>(termine);
+        TableView<Termin> table = new TableView<>(alle);
         table.setEditable(true);
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
@@ -128,7 +178,7 @@ public class TerminControllerFX {
         datumCol.setCellValueFactory(data -> data.getValue().datumProperty());
         datumCol.setStyle("-fx-alignment: CENTER;");
 
-        TableColumn<Termin, String> artCol = new TableColumn<>("Art");
+        TableColumn<Termin, TerminArt> artCol = new TableColumn<>("Art");
         artCol.setCellValueFactory(data -> data.getValue().artProperty());
         artCol.setStyle("-fx-alignment: CENTER;");
 
@@ -138,7 +188,8 @@ public class TerminControllerFX {
         notizCol.setOnEditCommit(e -> {
             Termin t = e.getRowValue();
             t.setNotiz(e.getNewValue());
-            saveTermine();
+            int index = bestand.indexVon(t);
+            if (index >= 0) bestand.geaendert(index);
         });
         notizCol.setStyle("-fx-alignment: CENTER;");
 
@@ -156,7 +207,7 @@ public class TerminControllerFX {
     private void handleSpeichern() {
         String titel = titelField.getText().trim();
         LocalDate datum = datumPicker.getValue();
-        String art = artBox.getValue();
+        TerminArt art = artBox.getValue();
         String notiz = notizField.getText().trim();
 
         if (titel.isEmpty() || datum == null || art == null) {
@@ -180,9 +231,8 @@ public class TerminControllerFX {
             }
         }
 
-        Termin neu = new Termin(titel, datum, art, notiz);
-        termine.add(neu);
-        saveTermine();
+        bestand.hinzufuegen(new Termin(titel, datum, art, notiz));
+        suchen();
 
         titelField.clear();
         datumPicker.setValue(null);
@@ -194,35 +244,34 @@ public class TerminControllerFX {
      * Löscht den aktuell ausgewählten Termin aus der Tabelle und speichert die Änderung.
      */
     private void handleLöschen() {
-        Termin ausgewählt = tableView.getSelectionModel().getSelectedItem();
-        if (ausgewählt != null) {
-            termine.remove(ausgewählt);
-            saveTermine();
+        int zeile = tableView.getSelectionModel().getSelectedIndex();
+        if (zeile < 0) return;
+
+        Termin termin = tableView.getItems().get(zeile);
+        int index = bestand.indexVon(termin);
+        if (tableView.getItems() == trefferSortiert) {
+            treffer.removeIf(t -> t == termin);
+            trefferLabel.setText(treffer.size() + " Treffer");
         }
-    }
-
-    /**
-     * Lädt alle gespeicherten Termine aus der CSV-Datei des Benutzers.
-     */
-    private void loadTermine() {
-        try {
-            String pfad = PfadManager.getTerminPfad(username);
-            termine.setAll(CsvManager.loadTermine(pfad));
-        } catch (IOException e) {
-            showFehler("Fehler beim Laden der Termine.");
+        if (index >= 0) {
+            bestand.entfernen(index);
         }
     }
 
     /**
-     * Speichert die aktuelle Liste von Terminen in die CSV-Datei des Benutzers.
+     * Zeigt die Treffer der aktuellen Suche in der Tabelle, bei leerem Suchfeld alle Termine.
      */
-    private void saveTermine() {
-        try {
-            String pfad = PfadManager.getTerminPfad(username);
-            CsvManager.saveTermine(termine, pfad);
-        } catch (IOException e) {
-            showFehler("Fehler beim Speichern der Termine.");
+    private void suchen() {
+        String anfrage = suchFeld.getText();
+        if (anfrage == null || anfrage.isBlank()) {
+            tableView.setItems(alle);
+            treffer.clear();
+            trefferLabel.setText("");
+            return;
         }
+        treffer.setAll(bestand.suchen(anfrage));
+        tableView.setItems(trefferSortiert);
+        trefferLabel.setText(treffer.size() + " Treffer");
     }
 
     /**
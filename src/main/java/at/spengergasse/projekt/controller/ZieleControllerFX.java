@@ -1,41 +1,33 @@
 package at.spengergasse.projekt.controller;
 
 import at.spengergasse.projekt.model.Ziele;
-import at.spengergasse.projekt.model.PfadManager;
-import javafx.collections.FXCollections;
+import at.spengergasse.projekt.model.ZieleBestand;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-
 /**
  * Der {@code ZieleControllerFX} verwaltet alle Ziele eines Benutzers innerhalb der Anwendung.
  * <p>
  * Verantwortlich für:
  * <ul>
  *     <li>Hinzufügen und Entfernen von Zielen</li>
- *     <li>Speichern und Laden im CSV-Format</li>
  *     <li>GUI-Interaktion via {@code ListView} und {@code CheckBox}</li>
  * </ul>
+ * Die Ziele stammen aus dem {@link ZieleBestand} der Sitzung, der jede Änderung
+ * selbst speichert.
  */
 public class ZieleControllerFX {
 
-    private final String username;
     private final ObservableList<Ziele> zieleListe;
 
     /**
-     * Konstruktor initialisiert Benutzerkontext und lädt vorhandene Ziele.
+     * Konstruktor. Die Ziele sind bereits geladen (siehe {@link MainControllerFX#handleZiele}).
      *
-     * @param username Der aktuelle Benutzername
+     * @param bestand Die Ziele des aktuellen Benutzers
      */
-    public ZieleControllerFX(String username) {
-        this.username = username;
-        this.zieleListe = FXCollections.observableArrayList();
-        load();
+    public ZieleControllerFX(ZieleBestand bestand) {
+        this.zieleListe = bestand.getZiele();
     }
 
     /**
@@ -48,25 +40,23 @@ public class ZieleControllerFX {
     }
 
     /**
-     * Fügt ein Ziel zur Liste hinzu, wenn es noch nicht existiert, und speichert.
+     * Fügt ein Ziel zur Liste hinzu, wenn es noch nicht existiert.
      *
      * @param ziel Das hinzuzufügende Ziel
      */
     public void addZiel(Ziele ziel) {
         if (!zieleListe.contains(ziel)) {
             zieleListe.add(ziel);
-            save();
         }
     }
 
     /**
-     * Entfernt ein Ziel aus der Liste und speichert den neuen Zustand.
+     * Entfernt ein Ziel aus der Liste.
      *
      * @param ziel Das zu entfernende Ziel
      */
     public void removeZiel(Ziele ziel) {
         zieleListe.remove(ziel);
-        save();
     }
 
     /**
@@ -112,10 +102,7 @@ public class ZieleControllerFX {
                     } else {
                         CheckBox checkBox = new CheckBox(item.getZielText());
                         checkBox.setSelected(item.isErledigt());
-                        checkBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
-                            item.setErledigt(newVal);
-                            save();
-                        });
+                        checkBox.selectedProperty().addListener((obs, oldVal, newVal) -> item.setErledigt(newVal));
                         setGraphic(checkBox);
                     }
                 }
@@ -132,54 +119,4 @@ public class ZieleControllerFX {
             return cell;
         });
     }
-
-    /**
-     * Lädt Ziele aus der Datei des jeweiligen Benutzers.
-     * Erwartet UTF-8-Codierung, Format: {@code erledigt;zieltext}.
-     * Leere oder ungültige Zeilen werden ignoriert.
-     */
-    private void load() {
-        String pfad = PfadManager.getZielePfad(username);
-        Path path = Path.of(pfad);
-        if (!Files.exists(path)) return;
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                new FileInputStream(pfad), StandardCharsets.UTF_8))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(";", 2);
-                if (parts.length == 2) {
-                    boolean erledigt = Boolean.parseBoolean(parts[0].trim());
-                    String text = parts[1].trim();
-                    zieleListe.add(new Ziele(text, erledigt));
-                }
-            }
-
-        } catch (IOException e) {
-            System.err.println("Fehler beim Laden der Ziele-Datei.");
-        }
-    }
-
-    /**
-     * Speichert die aktuelle Zielliste in die benutzerbezogene Datei.
-     * UTF-8-Codierung, Format pro Zeile: {@code erledigt;zieltext}
-     */
-    public void save() {
-        String pfad = PfadManager.getZielePfad(username);
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
-                new FileOutputStream(pfad), StandardCharsets.UTF_8))) {
-
-            for (Ziele ziel : zieleListe) {
-                writer.write(ziel.isErledigt() + ";" + ziel.getZielText());
-                writer.newLine();
-            }
-
-        } catch (IOException e) {
-            System.err.println("Fehler beim Speichern der Ziele-Datei.");
-        }
-    }
 }
@@ -3,9 +3,11 @@ package at.spengergasse.projekt.model;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Die Klasse {@code CsvManager} verwaltet alle Dateioperationen im Zusammenhang mit:
@@ -20,6 +22,8 @@ import java.util.stream.Collectors;
 public class CsvManager {
 
     private static final String BENUTZER_PFAD = "data/benutzer.csv";
+    private static final UserVerzeichnis USER_VERZEICHNIS = new UserVerzeichnis(Paths.get(BENUTZER_PFAD));
+    private static final Zeitmessung ANMELDE_MESSUNG = new Zeitmessung("Anmeldung");
 
     /**
      * Prüft, ob ein Benutzer in der Datei vorhanden ist.
@@ -29,10 +33,18 @@ public class CsvManager {
      * @throws IOException Bei Dateifehlern
      */
     public static boolean userExists(String name) throws IOException {
-        if (!Files.exists(Paths.get(BENUTZER_PFAD))) return false;
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(BENUTZER_PFAD), StandardCharsets.UTF_8)) {
-            return reader.lines().anyMatch(line -> line.startsWith(name + ";"));
-        }
+        return USER_VERZEICHNIS.existiert(name);
+    }
+
+    /**
+     * Sucht einen Benutzer im Benutzerverzeichnis.
+     *
+     * @param name Benutzername (exakt, mit Groß-/Kleinschreibung)
+     * @return Der Benutzer oder {@code Optional.empty()}
+     * @throws IOException Bei Datei-Leseproblemen
+     */
+    public static Optional<User> findUser(String name) throws IOException {
+        return USER_VERZEICHNIS.finden(name);
     }
 
     /**
@@ -43,13 +55,7 @@ public class CsvManager {
      * @throws IOException Bei Datei-Leseproblemen
      */
     public static String getUserRole(String username) throws IOException {
-        List<String[]> lines = loadBenutzer();
-        for (String[] line : lines) {
-            if (line[0].equalsIgnoreCase(username)) {
-                return line[1];
-            }
-        }
-        return "user";
+        return findUser(username).map(User::getRolle).orElse("user");
     }
 
     /**
@@ -61,45 +67,108 @@ public class CsvManager {
      * @throws IOException Bei Fehlern beim Lesen
      */
     public static boolean isPasswordCorrect(String name, String plainPassword) throws IOException {
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(BENUTZER_PFAD), StandardCharsets.UTF_8)) {
-            return reader.lines()
-                    .filter(line -> line.startsWith(name + ";"))
-                    .map(line -> line.split(";"))
-                    .anyMatch(parts -> parts.length == 3 && encodeString(plainPassword).equals(parts[2]));
+        Optional<User> user = findUser(name);
+        return user.isPresent() && PasswortHash.pruefen(plainPassword, user.get().getVerschlüsseltesPasswort());
+    }
+
+    /**
+     * Prüft Benutzername und Passwort in einem Durchgang.
+     * <p>
+     * Der Benutzer wird mit einer einzigen Abfrage im Benutzerverzeichnis gesucht,
+     * das Passwort genau einmal über {@link PasswortHash} geprüft. Liegt der gespeicherte
+     * Hash noch im alten Format vor (oder mit zu wenigen Iterationen), wird er nach
+     * erfolgreicher Prüfung durch einen neuen ersetzt. Die Dauer der einzelnen Schritte
+     * wird in {@link #getAnmeldeMessung()} festgehalten.
+     * <p>
+     * Die Prüfung dauert bewusst einige hundert Millisekunden und sollte daher in einem
+     * Hintergrund-Thread aufgerufen werden.
+     *
+     * @param name          Benutzername
+     * @param plainPassword Klartext-Passwort
+     * @return Der angemeldete Benutzer (inkl. Rolle) oder {@code Optional.empty()}
+     * @throws IOException Bei Fehlern beim Lesen
+     */
+    public static Optional<User> authenticate(String name, String plainPassword) throws IOException {
+        long t = System.nanoTime();
+        Optional<User> user = USER_VERZEICHNIS.finden(name);
+        t = ANMELDE_MESSUNG.erfassen("suchen", t);
+        if (user.isEmpty()) {
+            // Gleicher Aufwand wie bei falschem Passwort, damit die Antwortzeit nicht
+            // verrät, ob es den Benutzer gibt
+            PasswortHash.pruefen(plainPassword, PasswortHash.platzhalter());
+            ANMELDE_MESSUNG.erfassen("prüfen", t);
+            return user;
+        }
+
+        String gespeichert = user.get().getVerschlüsseltesPasswort();
+        boolean korrekt = PasswortHash.pruefen(plainPassword, gespeichert);
+        t = ANMELDE_MESSUNG.erfassen("prüfen", t);
+        if (!korrekt) return Optional.empty();
+
+        if (PasswortHash.veraltet(gespeichert)) {
+            try {
+                updatePasswortHash(user.get().getBenutzername(), PasswortHash.erzeugen(plainPassword));
+            } catch (IOException e) {
+                // Die Anmeldung gelingt trotzdem, umgestellt wird beim nächsten Mal
+                System.err.println("Passwort-Hash konnte nicht aktualisiert werden: " + e.getMessage());
+            }
+            ANMELDE_MESSUNG.erfassen("umstellen", t);
         }
+        return user;
     }
 
     /**
-     * Speichert einen neuen Benutzer mit verschlüsseltem Passwort.
+     * Liefert die gesammelten Laufzeiten aller bisherigen {@link #authenticate}-Aufrufe.
+     *
+     * @return Messung mit den Phasen "suchen", "prüfen" und (falls nötig) "umstellen"
+     */
+    public static Zeitmessung getAnmeldeMessung() {
+        return ANMELDE_MESSUNG;
+    }
+
+    /**
+     * Speichert einen neuen Benutzer mit gesalzenem Passwort-Hash (siehe {@link PasswortHash}).
      *
      * @param name     Benutzername
      * @param password Klartext-Passwort
      * @param rolle    Benutzerrolle (z.B. "admin")
+     * @return Der gespeicherte Benutzer
      * @throws IOException Bei Schreibfehlern
      */
-    public static void saveUser(String name, String password, String rolle) throws IOException {
-        String zeile = name + ";" + rolle + ";" + encodeString(password);
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(BENUTZER_PFAD), StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
-            writer.write(zeile);
-            writer.newLine();
-        }
+    public static User saveUser(String name, String password, String rolle) throws IOException {
+        User user = new User(name, rolle, PasswortHash.erzeugen(password));
+        benutzerSchreiben(() -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(BENUTZER_PFAD), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(zeile(user));
+                writer.newLine();
+            }
+        }, liste -> liste.add(user));
+        return user;
     }
 
     /**
-     * Lädt alle Benutzer als Liste von String-Arrays.
+     * Setzt ein neues Passwort für einen Benutzer. Der Datensatz wird in einem
+     * Durchgang über die Datei ersetzt, Name und Rolle bleiben erhalten.
+     *
+     * @param name     Benutzername (wie in der Datei)
+     * @param password Neues Klartext-Passwort
+     * @return Der geänderte Benutzer oder {@code Optional.empty()}, wenn er nicht existiert
+     * @throws IOException Bei Datei- oder Schreibfehlern
+     */
+    public static Optional<User> updatePasswort(String name, String password) throws IOException {
+        String hash = PasswortHash.erzeugen(password);
+        return benutzerErsetzen(name, u -> new User(u.getBenutzername(), u.getRolle(), hash));
+    }
+
+    /**
+     * Lädt alle Benutzer in der Reihenfolge der Datei.
      *
      * @return Benutzerliste
-     * @throws IOException Wenn Datei fehlt oder nicht lesbar ist
+     * @throws IOException Wenn die Datei nicht lesbar ist
      */
-    public static List<String[]> loadBenutzer() throws IOException {
-        if (!Files.exists(Paths.get(BENUTZER_PFAD))) return new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(BENUTZER_PFAD), StandardCharsets.UTF_8)) {
-            return reader.lines()
-                    .map(l -> l.split(";"))
-                    .filter(p -> p.length >= 2)
-                    .collect(Collectors.toList());
-        }
+    public static List<User> loadBenutzer() throws IOException {
+        return USER_VERZEICHNIS.alle();
     }
 
     /**
@@ -109,82 +178,124 @@ public class CsvManager {
      * @throws IOException Bei Bearbeitungsfehlern
      */
     public static void deleteUser(String name) throws IOException {
-        if (!Files.exists(Paths.get(BENUTZER_PFAD))) return;
-        List<String> lines = Files.readAllLines(Paths.get(BENUTZER_PFAD), StandardCharsets.UTF_8);
-        List<String> filtered = lines.stream()
-                .filter(l -> !l.startsWith(name + ";"))
-                .toList();
-        Files.write(Paths.get(BENUTZER_PFAD), filtered, StandardCharsets.UTF_8);
+        benutzerErsetzen(name, u -> null);
     }
 
+    /**
+     * Lädt Termine aus einer CSV-Datei im UTF-8-Format.
+     * Passt der binäre {@link TerminSnapshot} noch zur Datei, wird dieser statt der
+     * CSV-Zeilen gelesen. Existiert neben der Datei ein Änderungsjournal
+     * ({@link TerminJournal}), wird es nach dem Einlesen nachgespielt.
+     *
+     * @param pfad Pfad zur Termin-Datei
+     * @return Liste der Termine (leer, wenn die Datei fehlt)
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
     public static List<Termin> loadTermine(String pfad) throws IOException {
-        if (!Files.exists(Paths.get(pfad))) return new ArrayList<>();
-
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(pfad), StandardCharsets.UTF_8)) {
-            List<Termin> termine = new ArrayList<>();
-            int zeileNr = 0;
-
-            while (reader.ready()) {
-                String line = reader.readLine();
-                zeileNr++;
+        return DateiSperre.gesperrt(Paths.get(pfad), () -> {
+            if (TerminJournal.existiert(pfad)) {
+                return new TerminJournal(pfad).laden();
+            }
+            return TerminSnapshot.laden(pfad);
+        });
+    }
 
-                if (line.trim().isEmpty()) continue;
+    /**
+     * Liest Termine zeilenweise im Format {@code titel;datum;art[;notiz]}.
+     * Zeilenweiser Referenzweg über {@code BufferedReader}; eingelesen wird über den
+     * schnelleren {@link TerminCsvParser}, dieser Weg dient dem Vergleich im
+     * {@code TerminParserBenchmark} (Test-Quellen).
+     *
+     * @param reader Quelle der CSV-Zeilen
+     * @return Liste der Termine
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
+    static List<Termin> parseTermine(BufferedReader reader) throws IOException {
+        List<Termin> termine = new ArrayList<>();
+        int zeileNr = 0;
+        String line;
 
-                String[] p = line.split(";", -1);
-                if (p.length < 3 || p.length > 4) {
-                    throw new IOException("Ungültiges Format in Termine-Datei (Zeile " + zeileNr + "): " + line);
-                }
+        while ((line = reader.readLine()) != null) {
+            zeileNr++;
 
-                String titel = p[0].trim();
-                LocalDate datum;
-                try {
-                    datum = LocalDate.parse(p[1].trim());
-                } catch (Exception e) {
-                    throw new IOException("Ungültiges Datum in Termine-Datei (Zeile " + zeileNr + "): " + p[1]);
-                }
+            if (line.trim().isEmpty()) continue;
+            termine.add(parseTermin(line, zeileNr));
+        }
 
-                String art = switch (p[2].trim().toLowerCase()) {
-                    case "prüfung", "test", "sa", "schularbeit" -> "Prüfung";
-                    case "hausaufgabe", "hausübung", "übung", "hw", "hü" -> "Hausaufgabe";
-                    case "event", "veranstaltung", "termin" -> "Event";
-                    default -> "Sonstiges";
-                };
+        return termine;
+    }
 
-                String notiz = p.length == 4 ? p[3].trim() : "";
-                termine.add(new Termin(titel, datum, art, notiz));
-            }
+    /**
+     * Wandelt eine CSV-Zeile in einen Termin um und klassifiziert dabei die Art.
+     *
+     * @param line    Zeile im Format {@code titel;datum;art[;notiz]}
+     * @param zeileNr Zeilennummer für Fehlermeldungen
+     * @return Der gelesene Termin
+     * @throws IOException Bei ungültigem Format oder Datum
+     */
+    static Termin parseTermin(String line, int zeileNr) throws IOException {
+        String[] p = line.split(";", -1);
+        if (p.length < 3 || p.length > 4) {
+            throw new IOException("Ungültiges Format in Termine-Datei (Zeile " + zeileNr + "): " + line);
+        }
 
-            return termine;
+        String titel = p[0].trim();
+        LocalDate datum = IsoDatum.lesen(p[1].trim());
+        if (datum == null) {
+            throw new IOException("Ungültiges Datum in Termine-Datei (Zeile " + zeileNr + "): " + p[1]);
         }
+
+        TerminArt art = TerminArt.klassifizieren(p[2].trim());
+        String notiz = p.length == 4 ? p[3].trim() : "";
+        return new Termin(titel, datum, art, notiz);
     }
 
+    /**
+     * Wandelt einen Termin in eine CSV-Zeile (ohne Zeilenumbruch) um.
+     * Titel und Notiz werden wie beim Einlesen getrimmt, damit Schreiben und
+     * erneutes Lesen immer dieselbe Zeile ergeben.
+     *
+     * @param t Der Termin
+     * @return Zeile im Format {@code titel;datum;art;notiz}
+     */
+    static String toCsvZeile(Termin t) {
+        String notiz = t.getNotiz() == null ? "" : t.getNotiz().trim();
+        TerminArt art = t.getArt() == null ? TerminArt.SONSTIGES : t.getArt();
+        return t.getTitel().trim() + ";" + t.getDatum() + ";" + art.getBezeichnung() + ";" + notiz;
+    }
 
     /**
      * Speichert eine Liste von Terminen als CSV-Datei im UTF-8 Format.
+     * Ein vorhandenes Änderungsjournal und der binäre Snapshot werden dabei
+     * verworfen, da die Datei danach den vollständigen Stand enthält.
      *
      * @param termine Liste mit Terminen
      * @param pfad    Zielpfad
      * @throws IOException Bei Fehlern beim Schreiben
      */
     public static void saveTermine(List<Termin> termine, String pfad) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(pfad), StandardCharsets.UTF_8)) {
-            for (Termin t : termine) {
-                writer.write(t.getTitel() + ";" + t.getDatum() + ";" + t.getArt() + ";" + t.getNotiz());
-                writer.newLine();
+        DateiSperre.schreiben(Paths.get(pfad), () -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(pfad), StandardCharsets.UTF_8)) {
+                for (Termin t : termine) {
+                    writer.write(toCsvZeile(t));
+                    writer.newLine();
+                }
             }
-        }
+            TerminJournal.verwerfen(pfad);
+            TerminSnapshot.verwerfen(pfad);
+        });
     }
 
     /**
-     * Verschlüsselt einen String mit SHA-256.
+     * Verschlüsselt einen String mit SHA-256 über den {@link HashDienst}.
+     * Für Passwörter nur noch zum Prüfen alter Einträge verwendet.
      *
      * @param input Eingabetext
      * @return Hashwert als Hex-String
      */
     public static String encodeString(String input) {
         try {
-            Encoding enc = new Encoding(input, Encoding.EncodingType.SHA256);
-            return enc.bytesToHex();
+            return HashDienst.hex(input, Encoding.EncodingType.SHA256);
         } catch (Exception e) {
             return "ERROR";
         }
@@ -196,23 +307,112 @@ public class CsvManager {
      *
      * @param alterName Bisheriger Name
      * @param neuerName Neuer Name
+     * @return Der umbenannte Benutzer oder {@code Optional.empty()}, wenn er nicht existiert
      * @throws IOException Bei Datei- oder Schreibfehlern
      */
-    public static void updateBenutzername(String alterName, String neuerName) throws IOException {
+    public static Optional<User> updateBenutzername(String alterName, String neuerName) throws IOException {
+        return benutzerErsetzen(alterName, u -> new User(neuerName, u.getRolle(), u.getVerschlüsseltesPasswort()));
+    }
+
+    /**
+     * Ersetzt den gespeicherten Passwort-Hash eines Benutzers.
+     * Name und Rolle bleiben erhalten.
+     *
+     * @param name Benutzername (wie in der Datei)
+     * @param hash Neuer Hash aus {@link PasswortHash#erzeugen(String)}
+     * @throws IOException Bei Datei- oder Schreibfehlern
+     */
+    static void updatePasswortHash(String name, String hash) throws IOException {
+        benutzerErsetzen(name, u -> new User(u.getBenutzername(), u.getRolle(), hash));
+    }
+
+    /**
+     * Ersetzt oder entfernt die Datensätze eines Benutzers in einem Durchgang: Die Datei
+     * wird zeilenweise in eine temporäre Datei kopiert, die anschließend atomar an ihre
+     * Stelle verschoben wird. Das {@link UserVerzeichnis} wird direkt angepasst.
+     *
+     * @param name      Benutzername (wie in der Datei)
+     * @param aenderung Liefert den neuen Datensatz oder {@code null} zum Entfernen
+     * @return Der neue Datensatz (leer, wenn der Benutzer fehlt oder entfernt wurde)
+     * @throws IOException Bei Datei- oder Schreibfehlern
+     */
+    private static Optional<User> benutzerErsetzen(String name, UnaryOperator<User> aenderung) throws IOException {
         Path path = Paths.get(BENUTZER_PFAD);
-        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
-        List<String> updatedLines = new ArrayList<>();
-
-        for (String line : lines) {
-            String[] parts = line.split(";");
-            if (parts.length == 3 && parts[0].equals(alterName)) {
-                updatedLines.add(neuerName + ";" + parts[1] + ";" + parts[2]);
-            } else {
-                updatedLines.add(line);
+        if (!Files.exists(path)) return Optional.empty();
+
+        boolean[] gefunden = {false};
+        User[] neu = new User[1];
+        benutzerSchreiben(() -> {
+            Path tmp = Paths.get(BENUTZER_PFAD + ".tmp");
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                 BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(";");
+                    if (parts.length == 3 && parts[0].equals(name)) {
+                        gefunden[0] = true;
+                        neu[0] = aenderung.apply(new User(parts[0], parts[1], parts[2]));
+                        if (neu[0] == null) continue;
+                        line = zeile(neu[0]);
+                    }
+                    writer.write(line);
+                    writer.newLine();
+                }
             }
+            if (!gefunden[0]) {
+                Files.delete(tmp);
+                return;
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }, liste -> {
+            if (!gefunden[0]) return;
+            ListIterator<User> it = liste.listIterator();
+            while (it.hasNext()) {
+                if (!it.next().getBenutzername().equals(name)) continue;
+                if (neu[0] == null) it.remove();
+                else it.set(neu[0]);
+            }
+        });
+        return Optional.ofNullable(neu[0]);
+    }
+
+    /**
+     * Führt einen Schreibvorgang auf der Benutzerdatei unter der {@link DateiSperre} aus
+     * und übernimmt dieselbe Änderung in das {@link UserVerzeichnis}.
+     *
+     * @param schreiben Der Schreibvorgang
+     * @param aenderung Die entsprechende Änderung an der Benutzerliste
+     * @throws IOException Bei Schreibfehlern
+     */
+    private static void benutzerSchreiben(DateiSperre.Aktion schreiben, Consumer<List<User>> aenderung)
+            throws IOException {
+        Path path = Paths.get(BENUTZER_PFAD);
+        try {
+            DateiSperre.schreiben(path, () -> {
+                BasicFileAttributes vorher = attribute(path);
+                schreiben.ausfuehren();
+                USER_VERZEICHNIS.geschrieben(vorher, attribute(path), aenderung);
+            });
+        } catch (IOException e) {
+            USER_VERZEICHNIS.invalidieren();
+            throw e;
         }
+    }
 
-        Files.write(path, updatedLines, StandardCharsets.UTF_8);
+    private static BasicFileAttributes attribute(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static String zeile(User u) {
+        return u.getBenutzername() + ";" + u.getRolle() + ";" + u.getVerschlüsseltesPasswort();
     }
 
     /**
@@ -225,30 +425,42 @@ public class CsvManager {
      * @throws IOException Bei Lese- oder Formatfehlern
      */
     public static List<Ziele> loadZiele(String pfad) throws IOException {
-        List<Ziele> liste = new ArrayList<>();
         Path path = Path.of(pfad);
-        if (!Files.exists(path)) return liste;
-
-        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-            String line;
-            int zeileNr = 0;
-            while ((line = reader.readLine()) != null) {
-                zeileNr++;
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split(";", 2);
-                if (parts.length != 2 || !(parts[0].equalsIgnoreCase("true") || parts[0].equalsIgnoreCase("false"))) {
-                    throw new IOException("Ungültiges Format in Ziele-Datei (Zeile " + zeileNr + "): " + line);
+        if (!Files.exists(path)) return new ArrayList<>();
+
+        return DateiSperre.gesperrt(path, () -> {
+            List<Ziele> liste = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                int zeileNr = 0;
+                while ((line = reader.readLine()) != null) {
+                    zeileNr++;
+                    line = line.trim();
+                    if (line.isEmpty()) continue;
+                    liste.add(parseZiel(line, zeileNr));
                 }
-
-                boolean erledigt = Boolean.parseBoolean(parts[0].trim());
-                String text = parts[1].trim();
-                liste.add(new Ziele(text, erledigt));
             }
+            return liste;
+        });
+    }
+
+    /**
+     * Wandelt eine (getrimmte) CSV-Zeile in ein Ziel um.
+     *
+     * @param line    Zeile im Format {@code erledigt;zieltext}
+     * @param zeileNr Zeilennummer für Fehlermeldungen
+     * @return Das gelesene Ziel
+     * @throws IOException Bei ungültigem Format
+     */
+    static Ziele parseZiel(String line, int zeileNr) throws IOException {
+        String[] parts = line.split(";", 2);
+        if (parts.length != 2 || !(parts[0].equalsIgnoreCase("true") || parts[0].equalsIgnoreCase("false"))) {
+            throw new IOException("Ungültiges Format in Ziele-Datei (Zeile " + zeileNr + "): " + line);
         }
 
-        return liste;
+        boolean erledigt = Boolean.parseBoolean(parts[0].trim());
+        String text = parts[1].trim();
+        return new Ziele(text, erledigt);
     }
 
 
@@ -261,12 +473,14 @@ public class CsvManager {
      * @throws IOException Wenn beim Schreiben ein Fehler auftritt
      */
     public static void saveZiele(List<Ziele> ziele, String pfad) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(pfad), StandardCharsets.UTF_8)) {
-            for (Ziele z : ziele) {
-                writer.write(z.isErledigt() + ";" + z.getZielText());
-                writer.newLine();
+        DateiSperre.schreiben(Paths.get(pfad), () -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(pfad), StandardCharsets.UTF_8)) {
+                for (Ziele z : ziele) {
+                    writer.write(z.isErledigt() + ";" + z.getZielText());
+                    writer.newLine();
+                }
             }
-        }
+        });
     }
 
 
@@ -0,0 +1,180 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Der {@code DateiBeobachter} meldet Änderungen an einzelnen Dateien, z.B. wenn eine
+ * zweite Instanz der Anwendung die Termine desselben Benutzers speichert.
+ * <p>
+ * Beobachtet werden die Verzeichnisse der registrierten Dateien über einen
+ * {@link WatchService}. Ein eigener Hintergrund-Thread sammelt die Ereignisse und
+ * ruft die Rückmeldungen erst auf, wenn für {@link #RUHE_MS} Millisekunden keine
+ * weiteren Ereignisse mehr eintreffen, sodass ein Speichervorgang aus mehreren
+ * Schritten (temporäre Datei, Verschieben, Journal) nur eine Meldung auslöst.
+ * <p>
+ * Eigene Schreibvorgänge werden ebenfalls gemeldet. Die Rückmeldungen prüfen daher
+ * selbst (über Größe und Änderungszeitpunkt), ob sich die Datei gegenüber dem
+ * zuletzt gelesenen oder geschriebenen Stand verändert hat. Sie laufen auf dem
+ * Beobachter-Thread und dürfen die Oberfläche nicht direkt verändern.
+ */
+public final class DateiBeobachter {
+
+    /** Wartezeit ohne neue Ereignisse, bevor Änderungen gemeldet werden. */
+    public static final long RUHE_MS = 150;
+
+    private static final DateiBeobachter INSTANZ = new DateiBeobachter();
+
+    private final Map<Path, List<Registrierung>> dateien = new HashMap<>();
+    private final Map<Path, WatchKey> verzeichnisse = new HashMap<>();
+    private WatchService dienst;
+
+    private DateiBeobachter() {
+    }
+
+    /**
+     * @return Der anwendungsweit verwendete Beobachter
+     */
+    public static DateiBeobachter getInstanz() {
+        return INSTANZ;
+    }
+
+    /**
+     * Eine Anmeldung beim Beobachter; mit {@link #beenden()} wieder abmelden.
+     */
+    public final class Registrierung {
+        private final Path datei;
+        private final Runnable beiAenderung;
+
+        private Registrierung(Path datei, Runnable beiAenderung) {
+            this.datei = datei;
+            this.beiAenderung = beiAenderung;
+        }
+
+        /**
+         * Beendet die Beobachtung. Eine bereits gesammelte Änderung kann noch gemeldet werden.
+         */
+        public void beenden() {
+            abmelden(this);
+        }
+    }
+
+    /**
+     * Meldet eine Datei zur Beobachtung an. Die Datei muss noch nicht existieren,
+     * ihr Verzeichnis wird bei Bedarf angelegt.
+     *
+     * @param datei        Die zu beobachtende Datei
+     * @param beiAenderung Wird nach einer Änderung im Beobachter-Thread aufgerufen
+     * @return Die Anmeldung
+     * @throws IOException Wenn das Verzeichnis nicht beobachtet werden kann
+     */
+    public synchronized Registrierung beobachten(Path datei, Runnable beiAenderung) throws IOException {
+        Path pfad = datei.toAbsolutePath().normalize();
+        Path verzeichnis = pfad.getParent();
+        if (dienst == null) {
+            dienst = FileSystems.getDefault().newWatchService();
+            Thread t = new Thread(this::laufen, "datei-beobachter");
+            t.setDaemon(true);
+            t.start();
+        }
+        if (!verzeichnisse.containsKey(verzeichnis)) {
+            Files.createDirectories(verzeichnis);
+            verzeichnisse.put(verzeichnis, verzeichnis.register(dienst,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE));
+        }
+        Registrierung r = new Registrierung(pfad, beiAenderung);
+        dateien.computeIfAbsent(pfad, k -> new ArrayList<>()).add(r);
+        return r;
+    }
+
+    private synchronized void abmelden(Registrierung r) {
+        List<Registrierung> liste = dateien.get(r.datei);
+        if (liste == null || !liste.remove(r)) return;
+        if (liste.isEmpty()) dateien.remove(r.datei);
+
+        Path verzeichnis = r.datei.getParent();
+        boolean genutzt = dateien.keySet().stream().anyMatch(p -> p.getParent().equals(verzeichnis));
+        if (!genutzt) {
+            WatchKey key = verzeichnisse.remove(verzeichnis);
+            if (key != null) key.cancel();
+        }
+    }
+
+    /**
+     * Schleife des Beobachter-Threads.
+     */
+    private void laufen() {
+        WatchService ws;
+        synchronized (this) {
+            ws = dienst;
+        }
+        try {
+            while (true) {
+                Set<Path> geaendert = new LinkedHashSet<>();
+                sammeln(ws.take(), geaendert);
+                WatchKey key;
+                while ((key = ws.poll(RUHE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    sammeln(key, geaendert);
+                }
+                melden(geaendert);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Anwendung wird beendet
+        }
+    }
+
+    private void sammeln(WatchKey key, Set<Path> geaendert) {
+        Path verzeichnis = (Path) key.watchable();
+        for (WatchEvent<?> ereignis : key.pollEvents()) {
+            if (ereignis.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Ereignisse verloren: alle Dateien des Verzeichnisses prüfen
+                synchronized (this) {
+                    for (Path p : dateien.keySet()) {
+                        if (p.getParent().equals(verzeichnis)) geaendert.add(p);
+                    }
+                }
+            } else {
+                geaendert.add(verzeichnis.resolve((Path) ereignis.context()));
+            }
+        }
+        key.reset();
+    }
+
+    private void melden(Set<Path> geaendert) {
+        List<Runnable> aufrufe = new ArrayList<>();
+        synchronized (this) {
+            for (Path p : geaendert) {
+                List<Registrierung> liste = dateien.get(p);
+                if (liste == null) continue;
+                for (Registrierung r : liste) {
+                    if (!aufrufe.contains(r.beiAenderung)) aufrufe.add(r.beiAenderung);
+                }
+            }
+        }
+        for (Runnable aufruf : aufrufe) {
+            try {
+                aufruf.run();
+            } catch (RuntimeException e) {
+                System.err.println("Fehler beim Verarbeiten einer Dateiänderung: " + e);
+            }
+        }
+    }
+}
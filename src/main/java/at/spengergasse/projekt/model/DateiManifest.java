@@ -0,0 +1,253 @@
+package at.spengergasse.projekt.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Ein {@code DateiManifest} enthält den SHA-256-Hash jeder Datei eines Verzeichnisses
+ * bzw. eines Benutzers und dient zur Prüfung, ob Dateien seit dem Erstellen verändert
+ * wurden.
+ * <p>
+ * Die Dateien werden parallel gehasht (ein Thread pro Prozessorkern), jede einzelne
+ * über {@link HashDienst#datei(Path, Encoding.EncodingType)}. Gespeichert wird im
+ * Format von {@code sha256sum}: pro Zeile {@code hash  dateiname}, sortiert nach Namen.
+ * Temporäre Dateien ({@code .tmp}) und das Manifest selbst werden nicht aufgenommen.
+ */
+public final class DateiManifest {
+
+    /** Dateiendung der Manifest-Dateien. */
+    public static final String ENDUNG = ".sha256";
+
+    private final Map<String, String> hashes;
+
+    private DateiManifest(Map<String, String> hashes) {
+        this.hashes = Collections.unmodifiableMap(hashes);
+    }
+
+    /**
+     * @return Hash (Hex) pro Dateiname, sortiert nach Dateiname
+     */
+    public Map<String, String> getHashes() {
+        return hashes;
+    }
+
+    /** Dateien neben einer Termin- bzw. Ziele-Datei, die zu ihrem Stand gehören. */
+    private static final String[] BEGLEITDATEIEN = {"", ".journal", ".journal.alt", ".snap"};
+
+    /**
+     * Erstellt das Manifest für alle Dateien eines Benutzers: die Termin- und die
+     * Ziele-Datei laut {@link PfadManager} (auch außerhalb von {@code ~/SchulManager/data})
+     * sowie deren Journal und Snapshot, soweit vorhanden.
+     *
+     * @param username Benutzername
+     * @return Das erstellte Manifest
+     * @throws IOException Bei Fehlern beim Lesen
+     */
+    public static DateiManifest fuerBenutzer(String username) throws IOException {
+        return erstellen(benutzerDateien(username), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param username Benutzername
+     * @return Vorhandene Dateien des Benutzers, sortiert nach Dateiname
+     */
+    static List<Path> benutzerDateien(String username) {
+        Set<Path> dateien = new TreeSet<>(Comparator.comparing((Path p) -> p.getFileName().toString())
+                .thenComparing(Comparator.naturalOrder()));
+        for (String pfad : List.of(PfadManager.getTerminPfad(username), PfadManager.getZielePfad(username))) {
+            for (String endung : BEGLEITDATEIEN) {
+                Path datei = Paths.get(pfad + endung).toAbsolutePath().normalize();
+                if (Files.isRegularFile(datei)) dateien.add(datei);
+            }
+        }
+        return new ArrayList<>(dateien);
+    }
+
+    /**
+     * @return Das Standard-Datenverzeichnis {@code ~/SchulManager/data}
+     */
+    public static Path getDatenVerzeichnis() {
+        return Paths.get(System.getProperty("user.home"), "SchulManager", "data");
+    }
+
+    /**
+     * Erstellt das Manifest für alle regulären Dateien eines Verzeichnisses
+     * (ohne Unterverzeichnisse), deren Name den Filter erfüllt.
+     *
+     * @param verzeichnis Das Verzeichnis
+     * @param filter      Prüft den Dateinamen
+     * @return Das erstellte Manifest (leer, wenn das Verzeichnis fehlt)
+     * @throws IOException Bei Fehlern beim Lesen
+     */
+    public static DateiManifest erstellen(Path verzeichnis, Predicate<String> filter) throws IOException {
+        return erstellen(dateien(verzeichnis, filter), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Hasht die angegebenen Dateien mit der angegebenen Anzahl an Threads.
+     *
+     * @param dateien Zu hashende Dateien
+     * @param threads Anzahl paralleler Threads (1 = im aufrufenden Thread)
+     * @return Das erstellte Manifest
+     * @throws IOException Bei Fehlern beim Lesen
+     */
+    static DateiManifest erstellen(List<Path> dateien, int threads) throws IOException {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        if (threads <= 1 || dateien.size() <= 1) {
+            for (Path datei : dateien) {
+                hashes.put(datei.getFileName().toString(), hashen(datei));
+            }
+            return new DateiManifest(hashes);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, dateien.size()), aufgabe -> {
+            Thread t = new Thread(aufgabe, "manifest");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<String>> ergebnisse = new ArrayList<>(dateien.size());
+            for (Path datei : dateien) {
+                ergebnisse.add(pool.submit(() -> hashen(datei)));
+            }
+            for (int i = 0; i < dateien.size(); i++) {
+                hashes.put(dateien.get(i).getFileName().toString(), ergebnisse.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Erstellen des Manifests wurde unterbrochen.", e);
+        } catch (ExecutionException e) {
+            Throwable ursache = e.getCause();
+            if (ursache instanceof IOException) throw (IOException) ursache;
+            throw new IOException("Fehler beim Hashen: " + ursache.getMessage(), ursache);
+        } finally {
+            pool.shutdownNow();
+        }
+        return new DateiManifest(hashes);
+    }
+
+    /**
+     * Liest ein gespeichertes Manifest.
+     *
+     * @param datei Manifest-Datei im Format {@code hash  dateiname}
+     * @return Das gelesene Manifest
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
+    public static DateiManifest lesen(Path datei) throws IOException {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        int zeileNr = 0;
+        for (String zeile : Files.readAllLines(datei, StandardCharsets.UTF_8)) {
+            zeileNr++;
+            if (zeile.isBlank()) continue;
+            int trenner = zeile.indexOf("  ");
+            if (trenner <= 0) {
+                throw new IOException("Ungültige Zeile " + zeileNr + " im Manifest: " + zeile);
+            }
+            hashes.put(zeile.substring(trenner + 2), zeile.substring(0, trenner));
+        }
+        return new DateiManifest(hashes);
+    }
+
+    /**
+     * Schreibt das Manifest in eine Datei.
+     *
+     * @param datei Ziel-Datei
+     * @throws IOException Bei Schreibfehlern
+     */
+    public void speichern(Path datei) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(datei, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> e : hashes.entrySet()) {
+                writer.write(e.getValue());
+                writer.write("  ");
+                writer.write(e.getKey());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Vergleicht dieses (aktuelle) Manifest mit einem früher gespeicherten.
+     *
+     * @param frueher Das frühere Manifest
+     * @return Namen aller Dateien, die hinzugekommen, verändert oder entfernt wurden
+     */
+    public List<String> abweichungen(DateiManifest frueher) {
+        List<String> liste = new ArrayList<>();
+        for (Map.Entry<String, String> e : hashes.entrySet()) {
+            if (!e.getValue().equals(frueher.hashes.get(e.getKey()))) liste.add(e.getKey());
+        }
+        for (String name : frueher.hashes.keySet()) {
+            if (!hashes.containsKey(name)) liste.add(name);
+        }
+        Collections.sort(liste);
+        return liste;
+    }
+
+    private static List<Path> dateien(Path verzeichnis, Predicate<String> filter) throws IOException {
+        if (!Files.isDirectory(verzeichnis)) return List.of();
+        try (Stream<Path> inhalt = Files.list(verzeichnis)) {
+            return inhalt.filter(Files::isRegularFile)
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return filter.test(name) && !name.endsWith(".tmp") && !name.endsWith(ENDUNG);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String hashen(Path datei) throws IOException {
+        try {
+            return HashDienst.dateiHex(datei, Encoding.EncodingType.SHA256);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 ist in jeder Java-Laufzeit vorhanden
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Erstellt das Manifest eines Benutzers und vergleicht es mit dem zuletzt
+     * gespeicherten; anschließend wird das neue Manifest gespeichert.
+     * <p>
+     * Aufruf: {@code java -cp target/classes at.spengergasse.projekt.model.DateiManifest <benutzer>}
+     *
+     * @param args Benutzername
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Aufruf: DateiManifest <benutzer>");
+            return;
+        }
+        try {
+            Path ziel = getDatenVerzeichnis().resolve(args[0] + ENDUNG);
+            DateiManifest aktuell = fuerBenutzer(args[0]);
+            if (Files.exists(ziel)) {
+                List<String> geaendert = aktuell.abweichungen(lesen(ziel));
+                System.out.println(geaendert.isEmpty() ? "Keine Änderungen." : "Geändert: " + geaendert);
+            }
+            aktuell.speichern(ziel);
+            System.out.println(aktuell.getHashes().size() + " Dateien in " + ziel);
+        } catch (IOException e) {
+            System.err.println("Fehler beim Erstellen des Manifests: " + e.getMessage());
+        }
+    }
+}
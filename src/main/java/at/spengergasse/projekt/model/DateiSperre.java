@@ -0,0 +1,111 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code DateiSperre} stimmt Zugriffe auf gemeinsam genutzte Dateien zwischen
+ * mehreren Instanzen der Anwendung ab. Der {@link at.spengergasse.projekt.InstanzServer}
+ * leitet einen zweiten Start normalerweise an die laufende Instanz weiter; eigene JVMs
+ * auf denselben Dateien gibt es trotzdem, z.B. nach einem normalen Start, weil die
+ * laufende Instanz nicht rechtzeitig antwortete, oder bei Daten auf einem Netzlaufwerk.
+ * <p>
+ * Gesperrt wird über {@link FileChannel#lock()} auf einer eigenen, versteckten
+ * Sperrdatei neben der Datei ({@code .<name>.lock}). Die Datei selbst wird nicht
+ * gesperrt, da sie beim Schreiben teilweise atomar ersetzt wird. Innerhalb einer JVM
+ * sorgt zusätzlich ein {@link ReentrantLock} pro Datei dafür, dass nur ein Thread die
+ * Betriebssystem-Sperre anfordert; verschachtelte Aufrufe für dieselbe Datei im selben
+ * Thread sind erlaubt.
+ * <p>
+ * Lesende und schreibende Zugriffe verwenden dieselbe exklusive Sperre, damit nie eine
+ * halb geschriebene Datei gelesen wird. Die Sperre wird für die Dauer des Lesens bzw.
+ * Schreibens gehalten; beim Anhängen an ein Journal ist das kurz, beim Schreiben eines
+ * neuen Snapshots oder beim Einlesen eines fremden Stands dauert es so lange wie das
+ * Schreiben bzw. Lesen der ganzen Datei.
+ */
+public final class DateiSperre {
+
+    private static final ConcurrentHashMap<Path, ReentrantLock> LOKAL = new ConcurrentHashMap<>();
+
+    private DateiSperre() {
+    }
+
+    /**
+     * Ein Dateizugriff mit Ergebnis.
+     *
+     * @param <T> Typ des Ergebnisses
+     */
+    @FunctionalInterface
+    public interface Vorgang<T> {
+        T ausfuehren() throws IOException;
+    }
+
+    /**
+     * Ein Dateizugriff ohne Ergebnis.
+     */
+    @FunctionalInterface
+    public interface Aktion {
+        void ausfuehren() throws IOException;
+    }
+
+    /**
+     * Führt einen schreibenden Zugriff unter der Sperre der Datei aus.
+     *
+     * @param datei  Die zu schreibende Datei
+     * @param aktion Der Schreibvorgang
+     * @throws IOException Bei Fehlern beim Sperren oder Schreiben
+     */
+    public static void schreiben(Path datei, Aktion aktion) throws IOException {
+        gesperrt(datei, () -> {
+            aktion.ausfuehren();
+            return null;
+        });
+    }
+
+    /**
+     * Führt einen Zugriff mit Ergebnis unter der Sperre der Datei aus, z.B. ein Lesen
+     * oder ein Prüfen und anschließendes Schreiben.
+     *
+     * @param datei   Die betroffene Datei
+     * @param vorgang Der Zugriff
+     * @return Ergebnis des Vorgangs
+     * @throws IOException Bei Fehlern beim Sperren oder im Vorgang
+     */
+    public static <T> T gesperrt(Path datei, Vorgang<T> vorgang) throws IOException {
+        Path schluessel = datei.toAbsolutePath().normalize();
+        ReentrantLock lokal = LOKAL.computeIfAbsent(schluessel, k -> new ReentrantLock());
+        lokal.lock();
+        try {
+            if (lokal.getHoldCount() > 1) {
+                // Sperre wird von diesem Thread bereits gehalten
+                return vorgang.ausfuehren();
+            }
+            Path sperrdatei = sperrdatei(schluessel);
+            if (sperrdatei.getParent() != null) Files.createDirectories(sperrdatei.getParent());
+            try (FileChannel kanal = FileChannel.open(sperrdatei, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock sperre = kanal.lock();
+                try {
+                    return vorgang.ausfuehren();
+                } finally {
+                    sperre.release();
+                }
+            }
+        } finally {
+            lokal.unlock();
+        }
+    }
+
+    /**
+     * @param datei Absoluter Pfad der Datei
+     * @return Pfad der zugehörigen Sperrdatei
+     */
+    static Path sperrdatei(Path datei) {
+        return datei.resolveSibling("." + datei.getFileName() + ".lock");
+    }
+}
@@ -1,8 +1,6 @@
 package at.spengergasse.projekt.model;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -60,7 +58,8 @@ public class Encoding {
     }
 
     /**
-     * Erzeugt einen Hash aus einer Datei.
+     * Erzeugt einen Hash aus einer Datei. Gelesen wird über den {@link HashDienst}
+     * mit einem {@code FileChannel}; die Datei wird auch im Fehlerfall geschlossen.
      *
      * @param fileToEncode Die Datei, die gehasht werden soll
      * @param encodingType Der Hash-Algorithmus
@@ -75,35 +74,19 @@ public class Encoding {
         this.encodingType = encodingType;
         this.fileToEncode = fileToEncode;
         this.stringToEncode = null;
-        setMessageDigest();
         if (!fileToEncode.isFile())
             throw new EncodingException(fileToEncode.getName() + " is not a file!");
-        BufferedInputStream bfis = new BufferedInputStream(new FileInputStream(fileToEncode));
-        byte[] buffer = new byte[1024];
-        int readBuffer = bfis.read(buffer);
-        while (readBuffer != -1) {
-            md.update(buffer, 0, readBuffer);
-            readBuffer = bfis.read(buffer);
-        }
-        bfis.close();
-        hash = md.digest();
+        hash = HashDienst.datei(fileToEncode.toPath(), encodingType);
     }
 
     /**
-     * Initialisiert den entsprechenden {@code MessageDigest} basierend auf dem EncodingType.
+     * Holt den {@code MessageDigest} des aktuellen Threads für den EncodingType
+     * aus dem {@link HashDienst}, anstatt jedes Mal einen neuen anzulegen.
      *
      * @throws NoSuchAlgorithmException Falls der Algorithmus nicht vorhanden ist
      */
     private void setMessageDigest() throws NoSuchAlgorithmException {
-        switch (encodingType) {
-            case SHA512 -> md = MessageDigest.getInstance("SHA-512");
-            case SHA384 -> md = MessageDigest.getInstance("SHA-384");
-            case SHA256 -> md = MessageDigest.getInstance("SHA-256");
-            case SHA1 -> md = MessageDigest.getInstance("SHA-1");
-            case MD5 -> md = MessageDigest.getInstance("MD5");
-            case MD2 -> md = MessageDigest.getInstance("MD2");
-            default -> throw new NoSuchAlgorithmException();
-        }
+        md = HashDienst.digest(encodingType);
     }
 
     /**
@@ -112,13 +95,7 @@ public class Encoding {
      * @return Hex-String der Kodierung
      */
     public String bytesToHex() {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hash) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) hexString.append('0');
-            hexString.append(hex);
-        }
-        return hexString.toString();
+        return HashDienst.hex(hash);
     }
 
     /**
@@ -0,0 +1,201 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Der {@code HashDienst} berechnet Hashwerte, ohne bei jedem Aufruf einen neuen
+ * {@link MessageDigest} anzulegen.
+ * <p>
+ * Jeder Thread erhält pro {@link Encoding.EncodingType} einen eigenen
+ * {@code MessageDigest}, der nach jeder Berechnung zurückgesetzt wird. Ergebnis und
+ * Hex-Zeichen werden in ebenfalls pro Thread wiederverwendete Puffer geschrieben;
+ * die Umwandlung in Hex erfolgt über eine Nachschlagetabelle. Pro Hash wird so nur
+ * noch der Ergebnis-String angelegt.
+ * <p>
+ * Dateien werden mit {@link #datei(Path, Encoding.EncodingType)} über einen
+ * {@link FileChannel} in einen pro Thread wiederverwendeten Direct-Buffer gelesen.
+ * Memory-Mapping wird nicht verwendet, da eine eingeblendete Datei unter Windows bis
+ * zur Garbage Collection gesperrt bleibt und z.B. eine gerade gehashte Termin-Datei
+ * dann nicht mehr ersetzt werden könnte.
+ * <p>
+ * Gespeicherte Hashwerte sollten mit {@link #gleich(String, String)} verglichen
+ * werden, dessen Laufzeit nicht davon abhängt, ab welchem Zeichen sie sich unterscheiden.
+ */
+public final class HashDienst {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Encoding.EncodingType[] TYPEN = Encoding.EncodingType.values();
+
+    /** Größte Digest-Länge aller Typen (SHA-512) in Bytes. */
+    private static final int MAX_LAENGE = 64;
+
+    /** Größe des Lesepuffers für Dateien. */
+    static final int LESE_PUFFER = 256 * 1024;
+
+    private static final ThreadLocal<Puffer> PUFFER = ThreadLocal.withInitial(Puffer::new);
+
+    private HashDienst() {
+    }
+
+    /**
+     * Liefert den {@code MessageDigest} des aktuellen Threads für einen Algorithmus,
+     * zurückgesetzt und bereit für {@code update}. Die Instanz darf nicht an andere
+     * Threads weitergegeben werden.
+     *
+     * @param typ Der Hash-Algorithmus
+     * @return Wiederverwendeter MessageDigest
+     * @throws NoSuchAlgorithmException Wenn der Algorithmus nicht verfügbar ist
+     */
+    public static MessageDigest digest(Encoding.EncodingType typ) throws NoSuchAlgorithmException {
+        MessageDigest md = PUFFER.get().digest(typ);
+        md.reset();
+        return md;
+    }
+
+    /**
+     * Hasht einen String (Bytes in der Standard-Zeichenkodierung, wie bisher in
+     * {@link Encoding}) und liefert den Hashwert als Hex-String in Kleinbuchstaben.
+     *
+     * @param eingabe Der zu hashende Text
+     * @param typ     Der Hash-Algorithmus
+     * @return Hex-String des Hashwerts
+     * @throws NoSuchAlgorithmException Wenn der Algorithmus nicht verfügbar ist
+     */
+    public static String hex(String eingabe, Encoding.EncodingType typ) throws NoSuchAlgorithmException {
+        Puffer puffer = PUFFER.get();
+        MessageDigest md = puffer.digest(typ);
+        md.reset();
+        md.update(eingabe.getBytes(Charset.defaultCharset()));
+        int laenge;
+        try {
+            laenge = md.digest(puffer.ergebnis, 0, MAX_LAENGE);
+        } catch (DigestException e) {
+            // Kann nicht auftreten, der Puffer ist groß genug für alle Typen
+            throw new IllegalStateException(e);
+        }
+        return hex(puffer.ergebnis, laenge, puffer.zeichen);
+    }
+
+    /**
+     * Berechnet den Hashwert einer Datei.
+     *
+     * @param datei Die zu hashende Datei
+     * @param typ   Der Hash-Algorithmus
+     * @return Hashwert als Byte-Array
+     * @throws IOException              Bei Fehlern beim Lesen
+     * @throws NoSuchAlgorithmException Wenn der Algorithmus nicht verfügbar ist
+     */
+    public static byte[] datei(Path datei, Encoding.EncodingType typ) throws IOException, NoSuchAlgorithmException {
+        Puffer puffer = PUFFER.get();
+        MessageDigest md = puffer.digest(typ);
+        md.reset();
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            ByteBuffer lesen = puffer.lesePuffer();
+            lesen.clear();
+            while (kanal.read(lesen) != -1) {
+                lesen.flip();
+                md.update(lesen);
+                lesen.clear();
+            }
+            return md.digest();
+        } finally {
+            md.reset();
+        }
+    }
+
+    /**
+     * Berechnet den Hashwert einer Datei als Hex-String in Kleinbuchstaben.
+     *
+     * @param datei Die zu hashende Datei
+     * @param typ   Der Hash-Algorithmus
+     * @return Hex-String des Hashwerts
+     * @throws IOException              Bei Fehlern beim Lesen
+     * @throws NoSuchAlgorithmException Wenn der Algorithmus nicht verfügbar ist
+     */
+    public static String dateiHex(Path datei, Encoding.EncodingType typ) throws IOException, NoSuchAlgorithmException {
+        return hex(datei(datei, typ));
+    }
+
+    /**
+     * Wandelt Bytes in einen Hex-String in Kleinbuchstaben um.
+     *
+     * @param bytes Die umzuwandelnden Bytes
+     * @return Hex-String mit zwei Zeichen pro Byte
+     */
+    public static String hex(byte[] bytes) {
+        char[] zeichen = bytes.length <= MAX_LAENGE ? PUFFER.get().zeichen : new char[bytes.length * 2];
+        return hex(bytes, bytes.length, zeichen);
+    }
+
+    private static String hex(byte[] bytes, int laenge, char[] zeichen) {
+        for (int i = 0, j = 0; i < laenge; i++) {
+            int b = bytes[i] & 0xff;
+            zeichen[j++] = HEX[b >>> 4];
+            zeichen[j++] = HEX[b & 0x0f];
+        }
+        return new String(zeichen, 0, laenge * 2);
+    }
+
+    /**
+     * Vergleicht zwei Hashwerte in konstanter Zeit: Es werden immer alle Zeichen
+     * verglichen, auch wenn sich die Werte schon früher unterscheiden.
+     *
+     * @param a Erster Wert (darf {@code null} sein)
+     * @param b Zweiter Wert (darf {@code null} sein)
+     * @return true, wenn beide Werte gleich und nicht {@code null} sind
+     */
+    public static boolean gleich(String a, String b) {
+        if (a == null || b == null) return false;
+        int laenge = Math.max(a.length(), b.length());
+        int unterschied = a.length() ^ b.length();
+        for (int i = 0; i < laenge; i++) {
+            char x = i < a.length() ? a.charAt(i) : 0;
+            char y = i < b.length() ? b.charAt(i) : 0;
+            unterschied |= x ^ y;
+        }
+        return unterschied == 0;
+    }
+
+    private static String algorithmus(Encoding.EncodingType typ) {
+        return switch (typ) {
+            case SHA512 -> "SHA-512";
+            case SHA384 -> "SHA-384";
+            case SHA256 -> "SHA-256";
+            case SHA1 -> "SHA-1";
+            case MD5 -> "MD5";
+            case MD2 -> "MD2";
+        };
+    }
+
+    /**
+     * Wiederverwendete Objekte eines Threads.
+     */
+    private static final class Puffer {
+        private final MessageDigest[] digests = new MessageDigest[TYPEN.length];
+        private final byte[] ergebnis = new byte[MAX_LAENGE];
+        private final char[] zeichen = new char[MAX_LAENGE * 2];
+        private ByteBuffer lesen;
+
+        ByteBuffer lesePuffer() {
+            if (lesen == null) lesen = ByteBuffer.allocateDirect(LESE_PUFFER);
+            return lesen;
+        }
+
+        MessageDigest digest(Encoding.EncodingType typ) throws NoSuchAlgorithmException {
+            MessageDigest md = digests[typ.ordinal()];
+            if (md == null) {
+                md = MessageDigest.getInstance(algorithmus(typ));
+                digests[typ.ordinal()] = md;
+            }
+            return md;
+        }
+    }
+}
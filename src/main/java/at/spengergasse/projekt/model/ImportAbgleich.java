@@ -0,0 +1,230 @@
+package at.spengergasse.projekt.model;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@code ImportAbgleich} liest eine zu importierende Termin- oder Ziele-Datei
+ * zeilenweise und liefert nur die Einträge, die noch nicht vorhanden sind.
+ * <p>
+ * Anstatt für jede gelesene Zeile die ganze vorhandene Liste mit {@code contains}
+ * zu durchsuchen (O(n·m)), wird für die vorhandenen Einträge einmal ein
+ * {@link HashSet} von Schlüsseln aufgebaut. Ein Schlüssel enthält die verglichenen
+ * Felder und seinen einmal berechneten Hashwert; die Prüfung pro Zeile kostet damit
+ * O(1). Doppelte Zeilen innerhalb der importierten Datei werden ebenfalls nur einmal
+ * übernommen. Verglichen wird wie bei {@link Termin#equals(Object)} bzw.
+ * {@link Ziele#equals(Object)}.
+ * <p>
+ * Die Datei wird nicht vollständig eingelesen; über {@link Fortschritt} wird
+ * regelmäßig gemeldet, wie viele Bytes bereits verarbeitet sind. Die Methoden
+ * verändern keine Listen und können in einem Hintergrund-Thread laufen.
+ */
+public final class ImportAbgleich {
+
+    /** Nach so vielen Zeilen wird der Fortschritt gemeldet. */
+    private static final int MELDE_INTERVALL = 4096;
+
+    private ImportAbgleich() {
+    }
+
+    /**
+     * Empfängt den Fortschritt eines Imports.
+     */
+    @FunctionalInterface
+    public interface Fortschritt {
+        /**
+         * @param gelesenBytes Bereits gelesene Bytes der Datei
+         * @param gesamtBytes  Größe der Datei
+         * @param neu          Bisher gefundene neue Einträge
+         */
+        void melden(long gelesenBytes, long gesamtBytes, int neu);
+    }
+
+    /**
+     * Ergebnis eines Imports.
+     *
+     * @param <T> Termin oder Ziele
+     */
+    public static final class Ergebnis<T> {
+        private final List<T> neu;
+        private final int gelesen;
+
+        Ergebnis(List<T> neu, int gelesen) {
+            this.neu = neu;
+            this.gelesen = gelesen;
+        }
+
+        /** @return Einträge, die noch nicht vorhanden waren, in Dateireihenfolge */
+        public List<T> getNeu() {
+            return neu;
+        }
+
+        /** @return Anzahl gelesener (nicht leerer) Zeilen */
+        public int getGelesen() {
+            return gelesen;
+        }
+
+        /** @return Anzahl gelesener Zeilen, die bereits vorhanden oder doppelt waren */
+        public int getDoppelt() {
+            return gelesen - neu.size();
+        }
+    }
+
+    /**
+     * Liest eine Termin-Datei im Format {@code titel;datum;art[;notiz]} und gleicht
+     * sie mit den vorhandenen Terminen ab.
+     *
+     * @param quelle     Zu importierende Datei
+     * @param vorhanden  Bereits vorhandene Termine
+     * @param fortschritt Empfängt den Fortschritt
+     * @return Neue Termine und Zählerstände
+     * @throws IOException Bei Lese- oder Formatfehlern (mit Zeilennummer)
+     */
+    public static Ergebnis<Termin> termine(Path quelle, List<Termin> vorhanden, Fortschritt fortschritt) throws IOException {
+        Set<TerminSchluessel> bekannt = new HashSet<>(Math.max(16, (vorhanden.size() * 4) / 3 + 1));
+        for (Termin t : vorhanden) {
+            bekannt.add(new TerminSchluessel(t));
+        }
+        return abgleichen(quelle, fortschritt, (zeile, nr) -> {
+            Termin termin = CsvManager.parseTermin(zeile, nr);
+            return bekannt.add(new TerminSchluessel(termin)) ? termin : null;
+        });
+    }
+
+    /**
+     * Liest eine Ziele-Datei im Format {@code erledigt;zieltext} und gleicht sie mit
+     * den vorhandenen Zielen ab (gleicher Zieltext gilt als vorhanden).
+     *
+     * @param quelle     Zu importierende Datei
+     * @param vorhanden  Bereits vorhandene Ziele
+     * @param fortschritt Empfängt den Fortschritt
+     * @return Neue Ziele und Zählerstände
+     * @throws IOException Bei Lese- oder Formatfehlern (mit Zeilennummer)
+     */
+    public static Ergebnis<Ziele> ziele(Path quelle, List<Ziele> vorhanden, Fortschritt fortschritt) throws IOException {
+        Set<String> bekannt = new HashSet<>(Math.max(16, (vorhanden.size() * 4) / 3 + 1));
+        for (Ziele z : vorhanden) {
+            bekannt.add(z.getZielText());
+        }
+        return abgleichen(quelle, fortschritt, (zeile, nr) -> {
+            Ziele ziel = CsvManager.parseZiel(zeile.trim(), nr);
+            return bekannt.add(ziel.getZielText()) ? ziel : null;
+        });
+    }
+
+    /**
+     * Wandelt eine Zeile um und liefert den Eintrag nur, wenn er neu ist.
+     */
+    @FunctionalInterface
+    private interface Zeilenabgleich<T> {
+        T neuOderNull(String zeile, int zeileNr) throws IOException;
+    }
+
+    private static <T> Ergebnis<T> abgleichen(Path quelle, Fortschritt fortschritt, Zeilenabgleich<T> abgleich) throws IOException {
+        if (!Files.exists(quelle)) return new Ergebnis<>(Collections.emptyList(), 0);
+
+        long gesamt = Files.size(quelle);
+        List<T> neu = new ArrayList<>();
+        int gelesen = 0;
+        int zeileNr = 0;
+
+        try (ZaehlenderStream ein = new ZaehlenderStream(Files.newInputStream(quelle));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(ein, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                zeileNr++;
+                if (line.trim().isEmpty()) continue;
+
+                gelesen++;
+                T eintrag = abgleich.neuOderNull(line, zeileNr);
+                if (eintrag != null) neu.add(eintrag);
+
+                if (zeileNr % MELDE_INTERVALL == 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IOException("Import wurde abgebrochen.");
+                    }
+                    fortschritt.melden(ein.gelesen, gesamt, neu.size());
+                }
+            }
+        }
+        fortschritt.melden(gesamt, gesamt, neu.size());
+        return new Ergebnis<>(neu, gelesen);
+    }
+
+    /**
+     * Vergleichsschlüssel eines Termins mit vorab berechnetem Hashwert.
+     */
+    private static final class TerminSchluessel {
+        private final String titel;
+        private final LocalDate datum;
+        private final TerminArt art;
+        private final String notiz;
+        private final int hash;
+
+        TerminSchluessel(Termin t) {
+            this.titel = t.getTitel();
+            this.datum = t.getDatum();
+            this.art = t.getArt();
+            this.notiz = t.getNotiz();
+            int h = Objects.hashCode(titel);
+            h = 31 * h + Objects.hashCode(datum);
+            h = 31 * h + Objects.hashCode(art);
+            this.hash = 31 * h + Objects.hashCode(notiz);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TerminSchluessel)) return false;
+            TerminSchluessel s = (TerminSchluessel) o;
+            return hash == s.hash
+                    && Objects.equals(titel, s.titel)
+                    && Objects.equals(datum, s.datum)
+                    && art == s.art
+                    && Objects.equals(notiz, s.notiz);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Zählt die aus dem Datenstrom gelesenen Bytes für die Fortschrittsanzeige.
+     */
+    private static final class ZaehlenderStream extends FilterInputStream {
+        private long gelesen;
+
+        ZaehlenderStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) gelesen++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] puffer, int von, int laenge) throws IOException {
+            int n = super.read(puffer, von, laenge);
+            if (n > 0) gelesen += n;
+            return n;
+        }
+    }
+}
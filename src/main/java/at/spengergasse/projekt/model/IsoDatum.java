@@ -0,0 +1,107 @@
+package at.spengergasse.projekt.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Schneller Leser für Datumsangaben im Format {@code yyyy-MM-dd}.
+ * <p>
+ * Die feste Form (genau zehn Zeichen, Bindestriche an Position 4 und 7) wird direkt
+ * aus Zeichen bzw. Bytes gelesen und ohne Ausnahmen auf gültige Bereiche geprüft
+ * (inkl. Schaltjahre). Nur bei abweichender Form (z.B. fünfstellige Jahre) wird auf
+ * {@link LocalDate#parse(CharSequence)} zurückgegriffen, das dieselben Angaben
+ * akzeptiert.
+ */
+public final class IsoDatum {
+
+    private static final int LAENGE = 10;
+
+    private IsoDatum() {
+    }
+
+    /**
+     * Liest ein Datum aus einer Zeichenkette.
+     *
+     * @param text Datum im ISO-Format (bereits getrimmt)
+     * @return Das Datum oder {@code null}, wenn es ungültig ist
+     */
+    public static LocalDate lesen(CharSequence text) {
+        if (text.length() == LAENGE && text.charAt(4) == '-' && text.charAt(7) == '-') {
+            int jahr = ziffern(text.charAt(0), text.charAt(1), text.charAt(2), text.charAt(3));
+            int monat = ziffern(text.charAt(5), text.charAt(6));
+            int tag = ziffern(text.charAt(8), text.charAt(9));
+            if (jahr >= 0 && monat >= 0 && tag >= 0) {
+                return datum(jahr, monat, tag);
+            }
+        }
+        return vollstaendigLesen(text);
+    }
+
+    /**
+     * Liest ein Datum direkt aus UTF-8-Bytes.
+     *
+     * @param daten Puffer mit den Bytes (absolute Positionen)
+     * @param von   Erstes Byte des (getrimmten) Datums
+     * @param bis   Erstes Byte nach dem Datum
+     * @return Das Datum oder {@code null}, wenn es ungültig ist
+     */
+    public static LocalDate lesen(ByteBuffer daten, int von, int bis) {
+        if (bis - von == LAENGE && daten.get(von + 4) == '-' && daten.get(von + 7) == '-') {
+            int jahr = ziffern(daten.get(von), daten.get(von + 1), daten.get(von + 2), daten.get(von + 3));
+            int monat = ziffern(daten.get(von + 5), daten.get(von + 6));
+            int tag = ziffern(daten.get(von + 8), daten.get(von + 9));
+            if (jahr >= 0 && monat >= 0 && tag >= 0) {
+                return datum(jahr, monat, tag);
+            }
+        }
+        byte[] bytes = new byte[bis - von];
+        daten.get(von, bytes);
+        return vollstaendigLesen(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Erzeugt das Datum nach Prüfung der Bereiche, ohne dass {@link LocalDate#of} wirft.
+     */
+    private static LocalDate datum(int jahr, int monat, int tag) {
+        if (monat < 1 || monat > 12 || tag < 1 || tag > tageImMonat(jahr, monat)) return null;
+        return LocalDate.of(jahr, monat, tag);
+    }
+
+    private static int tageImMonat(int jahr, int monat) {
+        return switch (monat) {
+            case 2 -> (jahr % 4 == 0 && (jahr % 100 != 0 || jahr % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Rückfallweg für nicht kanonische Angaben.
+     */
+    private static LocalDate vollstaendigLesen(CharSequence text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Wert der Ziffern oder -1, wenn ein Zeichen keine Ziffer ist
+     */
+    private static int ziffern(int a, int b) {
+        int x = a - '0';
+        int y = b - '0';
+        if ((x | y) < 0 || x > 9 || y > 9) return -1;
+        return x * 10 + y;
+    }
+
+    private static int ziffern(int a, int b, int c, int d) {
+        int hoch = ziffern(a, b);
+        int tief = ziffern(c, d);
+        if ((hoch | tief) < 0) return -1;
+        return hoch * 100 + tief;
+    }
+}
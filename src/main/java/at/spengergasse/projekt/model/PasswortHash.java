@@ -0,0 +1,189 @@
+package at.spengergasse.projekt.model;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@code PasswortHash} erzeugt und prüft Passwort-Hashes mit PBKDF2 (HMAC-SHA-256).
+ * <p>
+ * Jedes Passwort erhält ein eigenes, zufälliges Salt. Gespeichert wird
+ * {@code pbkdf2$iterationen$salt$hash} (Salt und Hash Base64-kodiert), sodass ein
+ * Hash auch nach einer späteren Änderung der Iterationszahl prüfbar bleibt.
+ * <p>
+ * Die Iterationszahl für neue Hashes wird beim Start einmal im Hintergrund
+ * ({@link #kalibrieren()}) so gewählt, dass eine Berechnung auf diesem Rechner etwa
+ * {@link #ZIEL_MS} Millisekunden dauert (änderbar über die System-Property
+ * {@code schulmanager.passwort.zielMs}), mindestens aber {@link #MIN_ITERATIONEN}.
+ * <p>
+ * Ältere Einträge (ungesalzenes SHA-256 als Hex-String) werden weiterhin erkannt;
+ * {@link #veraltet(String)} zeigt an, dass sie nach erfolgreicher Anmeldung neu
+ * gehasht werden sollten. Da eine Prüfung bewusst langsam ist, sollte sie nicht auf
+ * dem JavaFX Application Thread laufen.
+ */
+public final class PasswortHash {
+
+    /** Angestrebte Dauer einer Hash-Berechnung in Millisekunden. */
+    public static final int ZIEL_MS = Integer.getInteger("schulmanager.passwort.zielMs", 250);
+
+    /** Untergrenze der Iterationen, unabhängig vom Rechner. */
+    public static final int MIN_ITERATIONEN = 100_000;
+
+    private static final int MAX_ITERATIONEN = 10_000_000;
+    private static final int MESS_ITERATIONEN = 20_000;
+    private static final int MESSUNGEN = 5;
+    private static final String ALGORITHMUS = "PBKDF2WithHmacSHA256";
+    private static final String PRAEFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom ZUFALL = new SecureRandom();
+    private static CompletableFuture<Integer> kalibrierung;
+
+    private PasswortHash() {
+    }
+
+    /**
+     * Startet die Kalibrierung der Iterationszahl in einem Hintergrund-Thread,
+     * falls sie noch nicht läuft. Sollte beim Programmstart aufgerufen werden,
+     * damit das erste Speichern eines Passworts nicht darauf warten muss.
+     */
+    public static synchronized void kalibrieren() {
+        if (kalibrierung != null) return;
+        kalibrierung = CompletableFuture.supplyAsync(PasswortHash::messen, aufgabe -> {
+            Thread t = new Thread(aufgabe, "passwort-kalibrierung");
+            t.setDaemon(true);
+            t.start();
+        });
+    }
+
+    /**
+     * Liefert die Iterationszahl für neue Hashes und wartet dazu gegebenenfalls
+     * auf das Ende der Kalibrierung.
+     *
+     * @return Kalibrierte Iterationszahl
+     */
+    public static int getIterationen() {
+        CompletableFuture<Integer> k;
+        synchronized (PasswortHash.class) {
+            kalibrieren();
+            k = kalibrierung;
+        }
+        return k.join();
+    }
+
+    /**
+     * Erzeugt einen neuen Hash mit zufälligem Salt und der kalibrierten Iterationszahl.
+     *
+     * @param passwort Klartext-Passwort
+     * @return Hash im Format {@code pbkdf2$iterationen$salt$hash}
+     */
+    public static String erzeugen(String passwort) {
+        int iterationen = getIterationen();
+        byte[] salt = new byte[SALT_BYTES];
+        ZUFALL.nextBytes(salt);
+        byte[] hash = pbkdf2(passwort, salt, iterationen);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PRAEFIX + iterationen + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    /**
+     * Prüft ein Passwort gegen einen gespeicherten Hash (neues oder altes Format).
+     * Der Vergleich erfolgt in konstanter Zeit.
+     *
+     * @param passwort    Klartext-Passwort
+     * @param gespeichert Gespeicherter Hash
+     * @return true, wenn das Passwort passt
+     */
+    public static boolean pruefen(String passwort, String gespeichert) {
+        if (gespeichert == null || gespeichert.isEmpty()) return false;
+        if (!gespeichert.startsWith(PRAEFIX)) {
+            return HashDienst.gleich(CsvManager.encodeString(passwort), gespeichert);
+        }
+
+        String[] teile = gespeichert.split("\\$");
+        if (teile.length != 4) return false;
+        try {
+            int iterationen = Integer.parseInt(teile[1]);
+            if (iterationen < 1) return false;
+            Base64.Decoder b64 = Base64.getDecoder();
+            byte[] salt = b64.decode(teile[2]);
+            byte[] erwartet = b64.decode(teile[3]);
+            return MessageDigest.isEqual(pbkdf2(passwort, salt, iterationen), erwartet);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ungültiger Passwort-Hash: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Liefert einen festen Hash mit der kalibrierten Iterationszahl, zu dem kein
+     * Passwort passt. Wird geprüft, wenn es den Benutzer nicht gibt, damit eine
+     * Anmeldung mit unbekanntem Namen gleich lange dauert wie mit falschem Passwort.
+     *
+     * @return Platzhalter-Hash im Format {@code pbkdf2$iterationen$salt$hash}
+     */
+    public static String platzhalter() {
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PRAEFIX + getIterationen() + "$" + b64.encodeToString(new byte[SALT_BYTES])
+                + "$" + b64.encodeToString(new byte[HASH_BITS / 8]);
+    }
+
+    /**
+     * Gibt an, ob ein gespeicherter Hash neu erzeugt werden sollte: wenn er noch im
+     * alten Format vorliegt oder mit deutlich weniger Iterationen (weniger als die
+     * Hälfte der kalibrierten Zahl) erzeugt wurde.
+     *
+     * @param gespeichert Gespeicherter Hash
+     * @return true, wenn der Hash ersetzt werden sollte
+     */
+    public static boolean veraltet(String gespeichert) {
+        if (gespeichert == null || !gespeichert.startsWith(PRAEFIX)) return true;
+        int ende = gespeichert.indexOf('$', PRAEFIX.length());
+        try {
+            int iterationen = Integer.parseInt(gespeichert.substring(PRAEFIX.length(), ende));
+            return iterationen < getIterationen() / 2;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Misst die Dauer einer Berechnung und rechnet sie auf {@link #ZIEL_MS} hoch.
+     * Die schnellste von fünf Messungen zählt, damit JIT-Übersetzung und einzelne
+     * Ausreißer das Ergebnis nicht verfälschen.
+     */
+    private static int messen() {
+        byte[] salt = new byte[SALT_BYTES];
+        long beste = Long.MAX_VALUE;
+        for (int i = 0; i < MESSUNGEN; i++) {
+            long start = System.nanoTime();
+            pbkdf2("kalibrierung", salt, MESS_ITERATIONEN);
+            beste = Math.min(beste, System.nanoTime() - start);
+        }
+        double nsProIteration = Math.max(1.0, (double) beste / MESS_ITERATIONEN);
+        long iterationen = (long) (ZIEL_MS * 1_000_000.0 / nsProIteration);
+        iterationen = Math.max(MIN_ITERATIONEN, Math.min(MAX_ITERATIONEN, iterationen));
+        iterationen = (iterationen / 1000) * 1000;
+        if (Boolean.getBoolean("schulmanager.profil")) {
+            System.out.println("Passwort-Hash: " + iterationen + " Iterationen für ca. " + ZIEL_MS + " ms");
+        }
+        return (int) iterationen;
+    }
+
+    private static byte[] pbkdf2(String passwort, byte[] salt, int iterationen) {
+        PBEKeySpec spec = new PBEKeySpec(passwort.toCharArray(), salt, iterationen, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHMUS).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // PBKDF2WithHmacSHA256 ist in jeder Java-Laufzeit ab Version 8 vorhanden
+            throw new IllegalStateException(ALGORITHMUS + " nicht verfügbar", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -1,24 +1,134 @@
 package at.spengergasse.projekt.model;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Der {@code PfadManager} verwaltet benutzerabhängige Speicherpfade
  * für Termin- und Ziel-Dateien.
  * <p>
- * Die Pfade werden in einer CSV-Datei gespeichert und beim Programmstart geladen.
+ * Die Pfade werden in einer CSV-Datei gespeichert und beim Programmstart im Hintergrund
+ * vorgeladen (siehe {@code Startvorgang}); spätestens der erste Zugriff lädt sie.
  * Benutzer können individuelle Speicherorte für ihre Daten definieren.
  * Die Klasse ist Teil des Model-Layers im MVC-Konzept.
+ * <p>
+ * Gelesen wird ohne Sperre aus einem unveränderlichen Stand, der nach jeder Änderung
+ * als Ganzes ersetzt wird. Mehrere zusammengehörige Änderungen werden mit
+ * {@link #transaktion(Consumer)} gebündelt: Sie werden gemeinsam sichtbar und mit
+ * einem einzigen Schreibvorgang (temporäre Datei, danach atomar verschoben) gespeichert.
+ * <p>
+ * Da mehrere Instanzen der Anwendung dieselbe Datei verwenden können, läuft jede
+ * Transaktion unter der {@link DateiSperre} und liest die Datei vorher neu ein, falls sie
+ * sich seit dem letzten Lesen oder Schreiben geändert hat. Auch vor jedem lesenden Zugriff
+ * werden Größe und Änderungszeitpunkt der Datei verglichen, sodass Pfade, die eine andere
+ * Instanz geändert hat, ohne Neustart gelten.
  */
 public class PfadManager {
 
-    private static final Map<String, String> terminPfadMap = new HashMap<>();
-    private static final Map<String, String> zielePfadMap = new HashMap<>();
     private static final String PFAD_DATEI = "data/pfade.csv";
 
+    /** Aktueller Stand: Benutzer → {Termin-Pfad, Ziele-Pfad}; Einträge können {@code null} sein. */
+    private static volatile Map<String, String[]> pfade = Map.of();
+    private static volatile boolean geladen;
+    /** Größe und Änderungszeitpunkt der Datei beim letzten Lesen oder Schreiben. */
+    private static volatile String stempel;
+
+    /**
+     * Sammelt die Änderungen einer {@link #transaktion(Consumer)}.
+     */
+    public static final class Transaktion {
+        private final Map<String, String[]> arbeitsstand;
+
+        private Transaktion(Map<String, String[]> arbeitsstand) {
+            this.arbeitsstand = arbeitsstand;
+        }
+
+        /**
+         * @param username Benutzername
+         * @param pfad     Neuer Pfad zur Termin-Datei
+         * @return Diese Transaktion
+         */
+        public Transaktion setTerminPfad(String username, String pfad) {
+            eintrag(username)[0] = pfad;
+            return this;
+        }
+
+        /**
+         * @param username Benutzername
+         * @param pfad     Neuer Pfad zur Ziele-Datei
+         * @return Diese Transaktion
+         */
+        public Transaktion setZielePfad(String username, String pfad) {
+            eintrag(username)[1] = pfad;
+            return this;
+        }
+
+        /**
+         * Entfernt die benutzerdefinierten Pfade; danach gelten die Standardpfade.
+         *
+         * @param username Benutzername
+         * @return Diese Transaktion
+         */
+        public Transaktion zuruecksetzen(String username) {
+            arbeitsstand.remove(username);
+            return this;
+        }
+
+        /**
+         * Überträgt die Pfade eines Benutzers auf einen neuen Namen.
+         *
+         * @param alterName Bisheriger Benutzername
+         * @param neuerName Neuer Benutzername
+         * @return Diese Transaktion
+         */
+        public Transaktion umbenennen(String alterName, String neuerName) {
+            String[] eintrag = arbeitsstand.remove(alterName);
+            if (eintrag != null) arbeitsstand.put(neuerName, eintrag);
+            return this;
+        }
+
+        private String[] eintrag(String username) {
+            return arbeitsstand.computeIfAbsent(username, k -> new String[2]);
+        }
+    }
+
+    /**
+     * Führt mehrere Änderungen als Einheit aus. Sie werden erst nach Ende der
+     * Transaktion gemeinsam sichtbar und mit einem Schreibvorgang gespeichert.
+     * Wirft die Transaktion eine Ausnahme, bleibt alles unverändert.
+     * <p>
+     * Kann die Datei nicht geschrieben werden, gelten die Änderungen nur bis zum
+     * Programmende; der Fehler wird auf {@code System.err} gemeldet.
+     *
+     * @param aenderungen Erhält die {@link Transaktion} und trägt darin die Änderungen ein
+     */
+    public static synchronized void transaktion(Consumer<Transaktion> aenderungen) {
+        try {
+            DateiSperre.schreiben(Paths.get(PFAD_DATEI), () -> {
+                if (!geladen || !Objects.equals(stempel, stempel())) einlesen();
+
+                Map<String, String[]> arbeitsstand = new LinkedHashMap<>();
+                pfade.forEach((user, eintrag) -> arbeitsstand.put(user, eintrag.clone()));
+                aenderungen.accept(new Transaktion(arbeitsstand));
+                if (gleich(arbeitsstand, pfade)) return;
+
+                pfade = Collections.unmodifiableMap(arbeitsstand);
+                schreiben();
+            });
+        } catch (IOException e) {
+            System.err.println("Fehler beim Speichern der Pfade: " + e.getMessage());
+        }
+    }
+
     /**
      * Speichert den benutzerdefinierten Pfad für die Termin-Datei.
      * Die Änderung wird sofort in der Datei persistiert.
@@ -27,8 +137,7 @@ public class PfadManager {
      * @param pfad     Neuer Pfad zur Termin-Datei
      */
     public static void setTerminPfad(String username, String pfad) {
-        terminPfadMap.put(username, pfad);
-        savePfade();
+        transaktion(t -> t.setTerminPfad(username, pfad));
     }
 
     /**
@@ -39,8 +148,7 @@ public class PfadManager {
      * @param pfad     Neuer Pfad zur Ziele-Datei
      */
     public static void setZielePfad(String username, String pfad) {
-        zielePfadMap.put(username, pfad);
-        savePfade();
+        transaktion(t -> t.setZielePfad(username, pfad));
     }
 
     /**
@@ -51,7 +159,8 @@ public class PfadManager {
      * @return Absoluter Pfad zur Termin-Datei
      */
     public static String getTerminPfad(String username) {
-        return terminPfadMap.getOrDefault(username, getDefaultTerminPfad(username));
+        String[] eintrag = stand().get(username);
+        return eintrag != null && eintrag[0] != null ? eintrag[0] : getDefaultTerminPfad(username);
     }
 
     /**
@@ -62,7 +171,8 @@ public class PfadManager {
      * @return Absoluter Pfad zur Ziele-Datei
      */
     public static String getZielePfad(String username) {
-        return zielePfadMap.getOrDefault(username, getDefaultZielePfad(username));
+        String[] eintrag = stand().get(username);
+        return eintrag != null && eintrag[1] != null ? eintrag[1] : getDefaultZielePfad(username);
     }
 
     /**
@@ -91,54 +201,32 @@ public class PfadManager {
      * @param username Benutzername
      */
     public static void resetPfade(String username) {
-        terminPfadMap.remove(username);
-        zielePfadMap.remove(username);
-        savePfade();
+        transaktion(t -> t.zuruecksetzen(username));
     }
 
     /**
-     * Lädt gespeicherte Pfad-Zuordnungen aus der CSV-Datei.
-     * Sollte beim Start der Anwendung einmalig aufgerufen werden.
+     * Lädt gespeicherte Pfad-Zuordnungen aus der CSV-Datei, sofern sie sich seit dem
+     * letzten Lesen oder Schreiben geändert hat.
+     * Wird beim Start im Hintergrund bzw. beim ersten Zugriff aufgerufen.
      */
-    public static void loadPfade() {
-        terminPfadMap.clear();
-        zielePfadMap.clear();
-
+    public static synchronized void loadPfade() {
         try {
-            if (!Files.exists(Paths.get(PFAD_DATEI))) return;
-
-            List<String> lines = Files.readAllLines(Paths.get(PFAD_DATEI));
-            for (String line : lines) {
-                String[] parts = line.split(";", 3);
-                if (parts.length == 3) {
-                    String user = parts[0];
-                    terminPfadMap.put(user, parts[1]);
-                    zielePfadMap.put(user, parts[2]);
-                }
-            }
+            DateiSperre.schreiben(Paths.get(PFAD_DATEI), () -> {
+                if (!geladen || !Objects.equals(stempel, stempel())) einlesen();
+            });
         } catch (IOException e) {
             System.err.println("Fehler beim Laden der Pfade: " + e.getMessage());
+            geladen = true;
         }
     }
 
     /**
      * Speichert alle aktuellen Pfad-Zuordnungen in die CSV-Datei.
-     * Wird bei jeder Änderung automatisch aufgerufen.
+     * Änderungen über {@link #transaktion(Consumer)} werden automatisch gespeichert.
      */
-    public static void savePfade() {
+    public static synchronized void savePfade() {
         try {
-            File dir = new File("data");
-            if (!dir.exists()) dir.mkdirs();
-
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(PFAD_DATEI))) {
-                for (String user : terminPfadMap.keySet()) {
-                    String termin = terminPfadMap.get(user);
-                    String ziele = zielePfadMap.getOrDefault(user, getDefaultZielePfad(user));
-                    writer.write(user + ";" + termin + ";" + ziele);
-                    writer.newLine();
-                }
-            }
-
+            DateiSperre.schreiben(Paths.get(PFAD_DATEI), PfadManager::schreiben);
         } catch (IOException e) {
             System.err.println("Fehler beim Speichern der Pfade: " + e.getMessage());
         }
@@ -152,16 +240,87 @@ public class PfadManager {
      * @param neuerName Der neue Benutzername
      */
     public static void updateBenutzername(String alterName, String neuerName) {
-        String terminPfad = terminPfadMap.remove(alterName);
-        String zielePfad = zielePfadMap.remove(alterName);
+        transaktion(t -> t.umbenennen(alterName, neuerName));
+    }
 
-        if (terminPfad != null) {
-            terminPfadMap.put(neuerName, terminPfad);
+    private static Map<String, String[]> stand() {
+        if (!geladen || veraltet()) loadPfade();
+        return pfade;
+    }
+
+    /**
+     * @return true, wenn sich die Datei seit dem letzten Lesen oder Schreiben geändert hat
+     */
+    private static boolean veraltet() {
+        try {
+            return !Objects.equals(stempel, stempel());
+        } catch (IOException e) {
+            return false;
         }
-        if (zielePfad != null) {
-            zielePfadMap.put(neuerName, zielePfad);
+    }
+
+    /**
+     * Liest die Datei. Muss unter der {@link DateiSperre} laufen.
+     */
+    private static void einlesen() throws IOException {
+        String neuerStempel = stempel();
+        Map<String, String[]> gelesen = new LinkedHashMap<>();
+        if (neuerStempel != null) {
+            for (String line : Files.readAllLines(Paths.get(PFAD_DATEI), StandardCharsets.UTF_8)) {
+                String[] parts = line.split(";", 3);
+                if (parts.length == 3) {
+                    gelesen.put(parts[0], new String[]{parts[1], parts[2]});
+                }
+            }
         }
+        pfade = Collections.unmodifiableMap(gelesen);
+        stempel = neuerStempel;
+        geladen = true;
+    }
 
-        savePfade();
+    /**
+     * Schreibt den aktuellen Stand über eine temporäre Datei, die anschließend atomar
+     * verschoben wird. Muss unter der {@link DateiSperre} laufen.
+     */
+    private static void schreiben() throws IOException {
+        Path ziel = Paths.get(PFAD_DATEI);
+        Files.createDirectories(ziel.toAbsolutePath().getParent());
+        Path tmp = Paths.get(PFAD_DATEI + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String[]> e : pfade.entrySet()) {
+                String user = e.getKey();
+                String termin = e.getValue()[0] != null ? e.getValue()[0] : getDefaultTerminPfad(user);
+                String ziele = e.getValue()[1] != null ? e.getValue()[1] : getDefaultZielePfad(user);
+                writer.write(user + ";" + termin + ";" + ziele);
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(tmp, ziel, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, ziel, StandardCopyOption.REPLACE_EXISTING);
+        }
+        stempel = stempel();
+    }
+
+    private static boolean gleich(Map<String, String[]> a, Map<String, String[]> b) {
+        if (a.size() != b.size()) return false;
+        for (Map.Entry<String, String[]> e : a.entrySet()) {
+            if (!Arrays.equals(e.getValue(), b.get(e.getKey()))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Größe und Änderungszeitpunkt der Datei oder {@code null}, wenn sie fehlt
+     */
+    private static String stempel() throws IOException {
+        try {
+            BasicFileAttributes a = Files.readAttributes(Paths.get(PFAD_DATEI), BasicFileAttributes.class);
+            return a.size() + "@" + a.lastModifiedTime().toMillis();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,126 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Die {@code SitzungsDaten} halten alle Daten eines angemeldeten Benutzers für die
+ * Dauer einer Sitzung: seine Termine im {@link TerminBestand} und seine Ziele im
+ * {@link ZieleBestand}.
+ * <p>
+ * Sie werden beim Anmelden einmal erzeugt. Alle Ansichten arbeiten auf denselben
+ * beobachtbaren Listen, sodass jede Datei nur einmal gelesen wird und Änderungen in
+ * einer Ansicht sofort in den anderen ankommen (Listenänderungen und Property-Änderungen
+ * der einzelnen Einträge, bei den Terminen zusätzlich
+ * {@link TerminStatistik#standProperty()}).
+ * <p>
+ * Ändert sich ein Speicherpfad, wird nur der betroffene Bestand neu erzeugt
+ * (siehe {@link #pfadeUebernehmen()}).
+ * <p>
+ * Solange die Sitzung läuft, werden die Dateien auf Änderungen durch andere Instanzen
+ * der Anwendung beobachtet; {@link #beenden()} beendet die Beobachtung.
+ */
+public class SitzungsDaten {
+
+    private final String username;
+    private final Consumer<String> fehlerMeldung;
+    private TerminBestand termine;
+    private ZieleBestand ziele;
+
+    /**
+     * Erstellt die (noch nicht geladenen) Daten eines Benutzers für die aktuellen Speicherpfade.
+     *
+     * @param username      Der angemeldete Benutzer
+     * @param fehlerMeldung Erhält Meldungen zu Fehlern beim Speichern und zu verworfenen
+     *                      Journal-Einträgen; der Aufruf kann aus einem Hintergrund-Thread
+     *                      erfolgen
+     */
+    public SitzungsDaten(String username, Consumer<String> fehlerMeldung) {
+        this.username = username;
+        this.fehlerMeldung = fehlerMeldung;
+        verwerfen();
+    }
+
+    /**
+     * @return Der angemeldete Benutzer
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return Die Termine des Benutzers
+     */
+    public TerminBestand getTermine() {
+        return termine;
+    }
+
+    /**
+     * @return Die Ziele des Benutzers
+     */
+    public ZieleBestand getZiele() {
+        return ziele;
+    }
+
+    /**
+     * Erzeugt die Bestände neu, deren Speicherpfad sich im {@link PfadManager} geändert hat.
+     *
+     * @return true, wenn mindestens ein Bestand neu erzeugt wurde
+     */
+    public boolean pfadeUebernehmen() {
+        boolean geaendert = false;
+        if (!Objects.equals(termine.getPfad(), PfadManager.getTerminPfad(username))) {
+            termine.beobachtungBeenden();
+            termine = neueTermine();
+            geaendert = true;
+        }
+        if (!Objects.equals(ziele.getPfad(), PfadManager.getZielePfad(username))) {
+            ziele.beobachtungBeenden();
+            ziele = neueZiele();
+            geaendert = true;
+        }
+        return geaendert;
+    }
+
+    /**
+     * Verwirft alle geladenen Daten, z.B. nachdem die Dateien gelöscht wurden.
+     * Beim nächsten Zugriff wird neu geladen.
+     */
+    public void verwerfen() {
+        beenden();
+        termine = neueTermine();
+        ziele = neueZiele();
+    }
+
+    /**
+     * Beendet die Beobachtung der Dateien, z.B. beim Abmelden.
+     */
+    public void beenden() {
+        if (termine != null) termine.beobachtungBeenden();
+        if (ziele != null) ziele.beobachtungBeenden();
+    }
+
+    private TerminBestand neueTermine() {
+        TerminBestand bestand = new TerminBestand(PfadManager.getTerminPfad(username));
+        bestand.setFehlerBehandlung(e -> melden("Fehler beim Speichern der Termine.", e));
+        bestand.setWarnung(text -> {
+            System.err.println(text);
+            fehlerMeldung.accept(text);
+        });
+        bestand.beobachtungStarten();
+        return bestand;
+    }
+
+    private ZieleBestand neueZiele() {
+        ZieleBestand bestand = new ZieleBestand(PfadManager.getZielePfad(username));
+        bestand.setFehlerBehandlung(e -> melden("Fehler beim Speichern der Ziele-Datei.", e));
+        bestand.beobachtungStarten();
+        return bestand;
+    }
+
+    private void melden(String text, IOException e) {
+        System.err.println(text + " " + e.getMessage());
+        fehlerMeldung.accept(text);
+    }
+}
@@ -0,0 +1,171 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Der {@code SpeicherPlaner} führt Speichervorgänge verzögert und gebündelt im
+ * Hintergrund aus (Write-Behind).
+ * <p>
+ * Pro Datei wird höchstens ein Auftrag vorgemerkt. Weitere Änderungen innerhalb des
+ * Zeitfensters ersetzen den vorgemerkten Auftrag, sodass z.B. schnelles Anklicken
+ * mehrerer Checkboxen nur einen einzigen Schreibvorgang auslöst. Die Aufträge
+ * arbeiten auf unveränderlichen Kopien der Daten und laufen auf einem eigenen
+ * Thread, nicht auf dem JavaFX Application Thread.
+ * <p>
+ * Beim Abmelden und beim Beenden der Anwendung werden alle offenen Aufträge
+ * mit {@link #flush()} sofort geschrieben.
+ * <p>
+ * Arbeiten mehrere Fenster auf derselben Datei, verwendet jedes einen eigenen
+ * Schlüssel (siehe {@link #schluessel(String)}), damit sich ihre Aufträge nicht ersetzen.
+ */
+public class SpeicherPlaner {
+
+    /** Standard-Zeitfenster, in dem Änderungen zusammengefasst werden. */
+    public static final long STANDARD_FENSTER_MS = 200;
+
+    private static final SpeicherPlaner INSTANZ = new SpeicherPlaner(STANDARD_FENSTER_MS);
+    private static final AtomicInteger NUMMER = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(INSTANZ::flush, "speicher-flush"));
+    }
+
+    private final long fensterMs;
+    private final ScheduledExecutorService executor;
+    private final Map<String, Auftrag> offen = new HashMap<>();
+
+    /**
+     * Erstellt einen Planer mit eigenem Hintergrund-Thread.
+     *
+     * @param fensterMs Zeitfenster in Millisekunden, in dem Änderungen zusammengefasst werden
+     */
+    public SpeicherPlaner(long fensterMs) {
+        this.fensterMs = fensterMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "speicher-planer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return Der anwendungsweit verwendete Planer
+     */
+    public static SpeicherPlaner getInstanz() {
+        return INSTANZ;
+    }
+
+    /**
+     * Liefert einen eindeutigen Schlüssel für einen Bestand, der eine Datei schreibt.
+     *
+     * @param datei Pfad der Datei
+     * @return Pfad mit angehängter laufender Nummer
+     */
+    public static String schluessel(String datei) {
+        return datei + "#" + NUMMER.incrementAndGet();
+    }
+
+    /**
+     * Merkt einen Speicherauftrag für eine Datei vor.
+     * Ein noch nicht ausgeführter Auftrag für dieselbe Datei wird ersetzt.
+     *
+     * @param datei  Schlüssel der Datei (üblicherweise der Pfad)
+     * @param aktion Schreibvorgang; muss mit einer unveränderlichen Kopie der Daten arbeiten
+     * @param fehler Wird bei einem Fehler im Hintergrund-Thread aufgerufen
+     */
+    public synchronized void planen(String datei, Speicheraktion aktion, Consumer<IOException> fehler) {
+        Auftrag auftrag = offen.get(datei);
+        if (auftrag != null) {
+            auftrag.aktion = aktion;
+            auftrag.fehler = fehler;
+            return;
+        }
+
+        Auftrag neu = new Auftrag(aktion, fehler);
+        offen.put(datei, neu);
+        neu.zeitplan = executor.schedule(() -> ausfuehren(datei), fensterMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schreibt den offenen Auftrag einer Datei sofort und wartet darauf.
+     *
+     * @param datei Schlüssel der Datei
+     */
+    public void flush(String datei) {
+        Future<?> f;
+        synchronized (this) {
+            if (!offen.containsKey(datei)) return;
+            f = executor.submit(() -> ausfuehren(datei));
+        }
+        warten(f);
+    }
+
+    /**
+     * Schreibt alle offenen Aufträge sofort und wartet, bis sie abgeschlossen sind.
+     */
+    public void flush() {
+        List<Future<?>> futures = new ArrayList<>();
+        synchronized (this) {
+            for (String datei : offen.keySet()) {
+                futures.add(executor.submit(() -> ausfuehren(datei)));
+            }
+        }
+        futures.forEach(this::warten);
+    }
+
+    /**
+     * Führt den offenen Auftrag einer Datei aus (im Hintergrund-Thread).
+     *
+     * @param datei Schlüssel der Datei
+     */
+    private void ausfuehren(String datei) {
+        Auftrag auftrag;
+        synchronized (this) {
+            auftrag = offen.remove(datei);
+        }
+        if (auftrag == null) return;
+        auftrag.zeitplan.cancel(false);
+
+        try {
+            auftrag.aktion.speichern();
+        } catch (IOException e) {
+            auftrag.fehler.accept(e);
+        }
+    }
+
+    private void warten(Future<?> f) {
+        try {
+            f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Fehler beim Speichern: " + e.getCause());
+        }
+    }
+
+    /**
+     * Ein Schreibvorgang, der im Hintergrund ausgeführt wird.
+     */
+    @FunctionalInterface
+    public interface Speicheraktion {
+        void speichern() throws IOException;
+    }
+
+    private static final class Auftrag {
+        private Speicheraktion aktion;
+        private Consumer<IOException> fehler;
+        private ScheduledFuture<?> zeitplan;
+
+        private Auftrag(Speicheraktion aktion, Consumer<IOException> fehler) {
+            this.aktion = aktion;
+            this.fehler = fehler;
+        }
+    }
+}
@@ -13,20 +13,20 @@ import java.util.Objects;
  */
 public class Termin {
 
-    private final StringProperty titel = new SimpleStringProperty();
-    private final ObjectProperty<LocalDate> datum = new SimpleObjectProperty<>();
-    private final StringProperty art = new SimpleStringProperty();
-    private final StringProperty notiz = new SimpleStringProperty();
+    private final StringProperty titel = new SimpleStringProperty(this, "titel");
+    private final ObjectProperty<LocalDate> datum = new SimpleObjectProperty<>(this, "datum");
+    private final ObjectProperty<TerminArt> art = new SimpleObjectProperty<>(this, "art");
+    private final StringProperty notiz = new SimpleStringProperty(this, "notiz");
 
     /**
      * Erstellt ein neues {@code Termin}-Objekt mit allen Angaben.
      *
      * @param titel Titel des Termins (z.B. "Mathematik-Test")
      * @param datum Datum des Termins
-     * @param art   Art des Termins (z.B. "Prüfung", "Event", ...)
+     * @param art   Art des Termins (z.B. {@link TerminArt#PRUEFUNG})
      * @param notiz Zusätzliche Notiz oder Beschreibung
      */
-    public Termin(String titel, LocalDate datum, String art, String notiz) {
+    public Termin(String titel, LocalDate datum, TerminArt art, String notiz) {
         this.titel.set(titel);
         this.datum.set(datum);
         this.art.set(art);
@@ -63,18 +63,18 @@ public class Termin {
         return datum;
     }
 
-    /** @return Die Art des Termins (z.B. "Prüfung") */
-    public String getArt() {
+    /** @return Die Art des Termins (z.B. {@link TerminArt#PRUEFUNG}) */
+    public TerminArt getArt() {
         return art.get();
     }
 
     /** @param a Neue Art */
-    public void setArt(String a) {
+    public void setArt(TerminArt a) {
         art.set(a);
     }
 
     /** @return Art-Property für JavaFX-Datenbindung */
-    public StringProperty artProperty() {
+    public ObjectProperty<TerminArt> artProperty() {
         return art;
     }
 
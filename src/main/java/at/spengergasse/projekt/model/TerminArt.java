@@ -0,0 +1,246 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Die festen Kategorien, in die Termine beim Einlesen eingeordnet werden.
+ * <p>
+ * Frei eingegebene Bezeichnungen (z.B. "SA", "hü", "Veranstaltung") werden über eine
+ * Alias-Tabelle zugeordnet; unbekannte Bezeichnungen landen bei {@link #SONSTIGES}.
+ * Zusätzliche Aliase können in {@code data/terminarten.csv} im Format
+ * {@code alias;Kategorie} hinterlegt oder mit {@link #aliasSetzen(String, TerminArt)}
+ * ergänzt werden.
+ * <p>
+ * Die Zuordnung vergleicht Groß-/Kleinschreibung unabhängig, ohne dafür Strings zu
+ * erzeugen: Für Zeichenketten wird jedes Zeichen einzeln gefaltet, für UTF-8-Bytes
+ * (beim Einlesen der CSV-Datei) werden ASCII-Buchstaben und die Latin-1-Zeichen
+ * wie Ä, Ö und Ü direkt im Puffer gefaltet.
+ * <p>
+ * Die Reihenfolge der Konstanten ist Teil des {@link TerminSnapshot}-Formats und
+ * darf nicht geändert werden.
+ */
+public enum TerminArt {
+
+    PRUEFUNG("Prüfung"),
+    HAUSAUFGABE("Hausaufgabe"),
+    EVENT("Event"),
+    SONSTIGES("Sonstiges");
+
+    private static final String ALIAS_PFAD = "data/terminarten.csv";
+
+    private static final Map<String, TerminArt> ALIASE = new LinkedHashMap<>();
+    private static volatile AliasTabelle tabelle;
+
+    static {
+        standardAliaseSetzen();
+        aliaseLaden(Paths.get(ALIAS_PFAD));
+    }
+
+    private final String bezeichnung;
+
+    TerminArt(String bezeichnung) {
+        this.bezeichnung = bezeichnung;
+    }
+
+    /**
+     * @return Anzeigename und Schreibweise in der CSV-Datei (z.B. "Prüfung")
+     */
+    public String getBezeichnung() {
+        return bezeichnung;
+    }
+
+    /**
+     * @return Die Bezeichnung, damit z.B. ComboBox und Tabelle sie direkt anzeigen
+     */
+    @Override
+    public String toString() {
+        return bezeichnung;
+    }
+
+    /**
+     * Ordnet eine frei eingegebene Terminart einer Kategorie zu.
+     *
+     * @param art Eingelesene Art (bereits getrimmt)
+     * @return Zugeordnete Kategorie, {@link #SONSTIGES} wenn unbekannt
+     */
+    public static TerminArt klassifizieren(CharSequence art) {
+        if (art == null) return SONSTIGES;
+        AliasTabelle t = tabelle;
+        int hash = 0;
+        for (int i = 0; i < art.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(art.charAt(i));
+        }
+        for (int i = hash & t.maske; t.zeichen[i] != null; i = (i + 1) & t.maske) {
+            if (t.zeichenHash[i] == hash && gleich(t.zeichen[i], art)) return t.zeichenWerte[i];
+        }
+        return SONSTIGES;
+    }
+
+    /**
+     * Ordnet eine Terminart direkt aus UTF-8-Bytes zu, ohne einen String zu erzeugen.
+     *
+     * @param daten Puffer mit den Bytes (absolute Positionen)
+     * @param von   Erstes Byte der (getrimmten) Art
+     * @param bis   Erstes Byte nach der Art
+     * @return Zugeordnete Kategorie, {@link #SONSTIGES} wenn unbekannt
+     */
+    public static TerminArt klassifizieren(ByteBuffer daten, int von, int bis) {
+        AliasTabelle t = tabelle;
+        int hash = 0;
+        byte vorher = 0;
+        for (int i = von; i < bis; i++) {
+            byte b = daten.get(i);
+            hash = 31 * hash + falten(vorher, b);
+            vorher = b;
+        }
+        for (int i = hash & t.maske; t.bytes[i] != null; i = (i + 1) & t.maske) {
+            if (t.bytesHash[i] == hash && gleich(t.bytes[i], daten, von, bis)) return t.byteWerte[i];
+        }
+        return SONSTIGES;
+    }
+
+    /**
+     * Sucht eine Kategorie anhand ihrer Bezeichnung oder ihres Namens.
+     *
+     * @param text z.B. "Prüfung" oder "PRUEFUNG"
+     * @return Die Kategorie oder {@code null}
+     */
+    public static TerminArt vonBezeichnung(String text) {
+        for (TerminArt art : values()) {
+            if (art.bezeichnung.equalsIgnoreCase(text) || art.name().equalsIgnoreCase(text)) return art;
+        }
+        return null;
+    }
+
+    /**
+     * Ergänzt oder ändert einen Alias.
+     *
+     * @param alias Frei eingegebene Bezeichnung (Groß-/Kleinschreibung egal)
+     * @param art   Kategorie, der der Alias zugeordnet wird
+     */
+    public static synchronized void aliasSetzen(String alias, TerminArt art) {
+        ALIASE.put(alias.trim().toLowerCase(Locale.ROOT), art);
+        tabelle = new AliasTabelle(ALIASE);
+    }
+
+    /**
+     * Lädt zusätzliche Aliase aus einer Datei im Format {@code alias;Kategorie}.
+     * Ungültige Zeilen werden übersprungen; fehlt die Datei, bleibt die Tabelle unverändert.
+     *
+     * @param datei Pfad zur Alias-Datei
+     */
+    public static synchronized void aliaseLaden(Path datei) {
+        if (Files.exists(datei)) {
+            try {
+                List<String> lines = Files.readAllLines(datei, StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    String[] parts = line.split(";", 2);
+                    TerminArt art = parts.length == 2 ? vonBezeichnung(parts[1].trim()) : null;
+                    if (art != null && !parts[0].isBlank()) {
+                        ALIASE.put(parts[0].trim().toLowerCase(Locale.ROOT), art);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Fehler beim Laden der Terminarten: " + e.getMessage());
+            }
+        }
+        tabelle = new AliasTabelle(ALIASE);
+    }
+
+    /**
+     * Setzt die Alias-Tabelle auf die eingebauten Aliase zurück.
+     */
+    public static synchronized void standardAliaseSetzen() {
+        ALIASE.clear();
+        for (String a : new String[]{"prüfung", "test", "sa", "schularbeit"}) ALIASE.put(a, PRUEFUNG);
+        for (String a : new String[]{"hausaufgabe", "hausübung", "übung", "hw", "hü"}) ALIASE.put(a, HAUSAUFGABE);
+        for (String a : new String[]{"event", "veranstaltung", "termin"}) ALIASE.put(a, EVENT);
+        ALIASE.put("sonstiges", SONSTIGES);
+        tabelle = new AliasTabelle(ALIASE);
+    }
+
+    /**
+     * Faltet ein UTF-8-Byte auf Kleinbuchstaben: ASCII A-Z sowie die Latin-1-Großbuchstaben
+     * À bis Þ (zweites Byte nach 0xC3, außer ×).
+     */
+    private static int falten(byte vorher, byte b) {
+        if (b >= 'A' && b <= 'Z') return b + 32;
+        if (vorher == (byte) 0xC3 && (b & 0xff) >= 0x80 && (b & 0xff) <= 0x9E && (b & 0xff) != 0x97) {
+            return (b & 0xff) + 0x20;
+        }
+        return b & 0xff;
+    }
+
+    private static boolean gleich(String alias, CharSequence art) {
+        if (alias.length() != art.length()) return false;
+        for (int i = 0; i < alias.length(); i++) {
+            if (alias.charAt(i) != Character.toLowerCase(art.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean gleich(byte[] alias, ByteBuffer daten, int von, int bis) {
+        if (alias.length != bis - von) return false;
+        byte vorher = 0;
+        for (int i = 0; i < alias.length; i++) {
+            byte b = daten.get(von + i);
+            if ((alias[i] & 0xff) != falten(vorher, b)) return false;
+            vorher = b;
+        }
+        return true;
+    }
+
+    /**
+     * Unveränderliche Hashtabelle (offene Adressierung) über die gefalteten Aliase,
+     * einmal als Zeichen und einmal als UTF-8-Bytes. Wird bei jeder Änderung neu
+     * aufgebaut und als Ganzes ausgetauscht.
+     */
+    private static final class AliasTabelle {
+        private final int maske;
+        private final String[] zeichen;
+        private final int[] zeichenHash;
+        private final TerminArt[] zeichenWerte;
+        private final byte[][] bytes;
+        private final int[] bytesHash;
+        private final TerminArt[] byteWerte;
+
+        private AliasTabelle(Map<String, TerminArt> aliase) {
+            int groesse = Integer.highestOneBit(Math.max(4, aliase.size() * 4) - 1) << 1;
+            maske = groesse - 1;
+            zeichen = new String[groesse];
+            zeichenHash = new int[groesse];
+            zeichenWerte = new TerminArt[groesse];
+            bytes = new byte[groesse][];
+            bytesHash = new int[groesse];
+            byteWerte = new TerminArt[groesse];
+
+            for (Map.Entry<String, TerminArt> e : aliase.entrySet()) {
+                String alias = e.getKey();
+                int h = alias.hashCode();
+                int i = h & maske;
+                while (zeichen[i] != null) i = (i + 1) & maske;
+                zeichen[i] = alias;
+                zeichenHash[i] = h;
+                zeichenWerte[i] = e.getValue();
+
+                byte[] b = alias.getBytes(StandardCharsets.UTF_8);
+                int bh = 0;
+                for (byte x : b) bh = 31 * bh + (x & 0xff);
+                int k = bh & maske;
+                while (bytes[k] != null) k = (k + 1) & maske;
+                bytes[k] = b;
+                bytesHash[k] = bh;
+                byteWerte[k] = e.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package at.spengergasse.projekt.model;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Der {@code TerminBestand} hält die Termine eines Benutzers für die Dauer einer Sitzung.
+ * <p>
+ * Alle Ansichten arbeiten auf derselben beobachtbaren Liste, sodass die Datei nur
+ * einmal geladen wird. Änderungen werden im {@link TerminJournal} vermerkt und über
+ * den {@link SpeicherPlaner} gebündelt geschrieben; die {@link TerminStatistik},
+ * der {@link TerminDatumsIndex} und der {@link TerminSuchIndex} folgen der Liste laufend.
+ * <p>
+ * Neu geladen wird nur beim ersten Zugriff, auf ausdrücklichen Wunsch oder wenn die
+ * Datei von außen geändert wurde (siehe {@link #aktualisieren()}). Das Lesen kann mit
+ * {@link #einlesen()} in einem Hintergrund-Thread erfolgen, das Übernehmen in die Liste
+ * mit {@link #uebernehmen(List)} auf dem JavaFX Application Thread.
+ * <p>
+ * Mit {@link #beobachtungStarten()} werden Änderungen durch eine andere Instanz der
+ * Anwendung erkannt ({@link DateiBeobachter}). Der neue Stand wird mit den eigenen,
+ * noch nicht gespeicherten Änderungen zusammengeführt und nur der geänderte Teil der
+ * Liste ersetzt, sodass Ansichten und Indizes nicht neu aufgebaut werden.
+ * <p>
+ * Ist die Datei beim ersten Laden mindestens {@link TerminSeiten#SCHWELLE} groß, wird sie
+ * für die ganze Sitzung seitenweise als {@link TerminSeiten} geöffnet. Die Liste,
+ * die Statistik und die Abfragen nach Datum stammen dann von den {@link TerminSeiten};
+ * Such- und Datumsindex bleiben leer, und ein fremder Stand ersetzt die eigenen,
+ * noch nicht gespeicherten Änderungen, anstatt mit ihnen zusammengeführt zu werden.
+ */
+public class TerminBestand {
+
+    private final String pfad;
+    private final ObservableList<Termin> termine = FXCollections.observableArrayList();
+    private final TerminJournal journal;
+    private final String speicherSchluessel;
+    private final TerminStatistik statistik;
+    private final TerminDatumsIndex datumsIndex;
+    private final TerminSuchIndex suchIndex;
+
+    private Consumer<IOException> fehlerBehandlung =
+            e -> System.err.println("Fehler beim Speichern der Termine: " + e.getMessage());
+    private volatile boolean geladen;
+    private volatile boolean seitenweise;
+    private TerminSeiten seiten;
+    private final Runnable pruefer = this::pruefen;
+    private final List<DateiBeobachter.Registrierung> beobachtung = new ArrayList<>();
+
+    /**
+     * Erstellt einen (noch leeren) Bestand für eine Termin-Datei.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     */
+    public TerminBestand(String pfad) {
+        this.pfad = pfad;
+        this.journal = new TerminJournal(pfad);
+        this.speicherSchluessel = SpeicherPlaner.schluessel(journal.getJournalPfad());
+        this.statistik = new TerminStatistik(termine);
+        this.datumsIndex = new TerminDatumsIndex(termine);
+        this.suchIndex = new TerminSuchIndex(termine);
+        journal.setFremdeAenderung(fremd -> Platform.runLater(() -> fremdenStandUebernehmen(fremd)));
+    }
+
+    /**
+     * @return Pfad zur Termin-CSV-Datei
+     */
+    public String getPfad() {
+        return pfad;
+    }
+
+    /**
+     * @return Die Termine in Dateireihenfolge; Änderungen nur über die Methoden dieses
+     *         Bestands vornehmen. Zum Sortieren eine {@link javafx.collections.transformation.SortedList}
+     *         darüberlegen, die Reihenfolge der Liste selbst wird nicht verändert.
+     */
+    public ObservableList<Termin> getTermine() {
+        return seiten != null ? seiten : termine;
+    }
+
+    /**
+     * @return true, wenn die Datei seitenweise geöffnet wurde; Sortieren und Suchen
+     *         stehen dann nicht zur Verfügung
+     */
+    public boolean isSeitenweise() {
+        return seiten != null;
+    }
+
+    /**
+     * @return Laufend nachgeführte Statistik über die Termine
+     */
+    public TerminStatistik getStatistik() {
+        return seiten != null ? seiten.getStatistik() : statistik;
+    }
+
+    /**
+     * @return Laufend nachgeführter Index der Termine nach Datum; seitenweise leer,
+     *         stattdessen {@link #anstehend(int)} bzw. {@link #naechsterNach(LocalDate)} verwenden
+     */
+    public TerminDatumsIndex getDatumsIndex() {
+        return datumsIndex;
+    }
+
+    /**
+     * @return Laufend nachgeführter Volltextindex über Titel und Notiz; seitenweise leer
+     */
+    public TerminSuchIndex getSuchIndex() {
+        return suchIndex;
+    }
+
+    /**
+     * Termine von heute bis einschließlich {@code tage} Tage danach.
+     *
+     * @param tage Anzahl Tage ab heute
+     * @return Termine nach Datum sortiert
+     */
+    public List<Termin> anstehend(int tage) {
+        if (seiten == null) return datumsIndex.anstehend(tage);
+        LocalDate heute = LocalDate.now();
+        return seiten.zwischen(heute, heute.plusDays(tage));
+    }
+
+    /**
+     * Der erste Termin nach einem Tag.
+     *
+     * @param datum Tag, nach dem gesucht wird (exklusive)
+     * @return Der nächste Termin oder {@code Optional.empty()}, wenn keiner mehr folgt
+     */
+    public Optional<Termin> naechsterNach(LocalDate datum) {
+        return seiten == null ? datumsIndex.naechsterNach(datum) : seiten.naechsterNach(datum);
+    }
+
+    /**
+     * Unveränderlicher Stand der Termine, der in einem Hintergrund-Thread gelesen werden
+     * darf, z.B. für einen Import-Abgleich. Seitenweise werden die Termine erst beim Lesen
+     * dekodiert.
+     *
+     * @return Die aktuellen Termine
+     */
+    public List<Termin> momentaufnahme() {
+        return seiten != null ? seiten.momentaufnahme() : new ArrayList<>(termine);
+    }
+
+    /**
+     * Sucht Termine über den {@link TerminSuchIndex}. Seitenweise gibt es keinen
+     * Suchindex; das Ergebnis ist dann leer.
+     *
+     * @param anfrage Suchbegriffe
+     * @return Gefundene Termine in der Reihenfolge der Liste; bei leerer Anfrage alle Termine
+     */
+    public List<Termin> suchen(String anfrage) {
+        if (seiten != null) return new ArrayList<>();
+        Set<Termin> treffer = suchIndex.suchen(anfrage);
+        if (treffer == null) return new ArrayList<>(termine);
+
+        List<Termin> ergebnis = new ArrayList<>(treffer.size());
+        if (treffer.isEmpty()) return ergebnis;
+        for (Termin t : termine) {
+            if (treffer.contains(t)) ergebnis.add(t);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Position eines Termins in der Liste. Verglichen wird die Identität, nicht der
+     * Inhalt, da mehrere Termine gleich sein können.
+     *
+     * @param termin Der gesuchte Termin
+     * @return Position oder -1, wenn der Termin nicht (mehr) im Bestand ist
+     */
+    public int indexVon(Termin termin) {
+        if (seiten != null) return seiten.indexVon(termin);
+        for (int i = 0; i < termine.size(); i++) {
+            if (termine.get(i) == termin) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Legt fest, wie Fehler beim Speichern gemeldet werden. Der Aufruf kann aus
+     * einem Hintergrund-Thread erfolgen.
+     *
+     * @param fehlerBehandlung Wird mit dem aufgetretenen Fehler aufgerufen
+     */
+    public void setFehlerBehandlung(Consumer<IOException> fehlerBehandlung) {
+        this.fehlerBehandlung = fehlerBehandlung;
+    }
+
+    /**
+     * Legt fest, wie Probleme mit dem Journal gemeldet werden, z.B. ein Journal, das
+     * nicht zur Termin-Datei passt und deshalb nicht angewendet wurde. Der Aufruf kann
+     * aus einem Hintergrund-Thread erfolgen.
+     *
+     * @param warnung Erhält den Meldungstext
+     */
+    public void setWarnung(Consumer<String> warnung) {
+        journal.setWarnung(warnung);
+    }
+
+    /**
+     * Beginnt, die Termin-Datei und ihr Journal auf Änderungen durch andere Instanzen
+     * zu beobachten.
+     */
+    public void beobachtungStarten() {
+        if (!beobachtung.isEmpty()) return;
+        try {
+            beobachtung.add(DateiBeobachter.getInstanz().beobachten(Paths.get(pfad), pruefer));
+            beobachtung.add(DateiBeobachter.getInstanz().beobachten(Paths.get(journal.getJournalPfad()), pruefer));
+        } catch (IOException e) {
+            System.err.println("Termin-Datei kann nicht beobachtet werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Beendet die Beobachtung, z.B. beim Abmelden oder nach einem Wechsel des Pfads.
+     */
+    public void beobachtungBeenden() {
+        beobachtung.forEach(DateiBeobachter.Registrierung::beenden);
+        beobachtung.clear();
+    }
+
+    /**
+     * Lädt die Termine, falls das noch nicht geschehen ist oder die Datei seitdem
+     * von außen geändert wurde. Sonst passiert nichts.
+     *
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
+    public void aktualisieren() throws IOException {
+        uebernehmen(einlesen());
+    }
+
+    /**
+     * Lädt die Termine neu aus der Datei (inkl. Journal).
+     *
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
+    public void laden() throws IOException {
+        uebernehmen(neuEinlesen());
+    }
+
+    /**
+     * Liest die Termine, falls sie noch nicht geladen sind. Die Liste wird dabei nicht
+     * verändert, der Aufruf darf daher in einem Hintergrund-Thread erfolgen.
+     * <p>
+     * Sind sie bereits geladen, wird nur geprüft, ob die Dateien von außen geändert
+     * wurden; ein neuer Stand wird dann mit den eigenen Änderungen zusammengeführt
+     * (asynchron auf dem JavaFX Application Thread).
+     *
+     * @return Gelesene Termine (seitenweise als {@link TerminSeiten}) oder {@code null},
+     *         wenn sie bereits geladen sind
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
+    public List<Termin> einlesen() throws IOException {
+        if (geladen) {
+            journal.pruefen();
+            return null;
+        }
+        return neuEinlesen();
+    }
+
+    /**
+     * Übernimmt mit {@link #einlesen()} gelesene Termine in die Liste. Nur auf dem
+     * JavaFX Application Thread aufrufen.
+     *
+     * @param gelesen Gelesene Termine; bei {@code null} passiert nichts
+     */
+    public void uebernehmen(List<Termin> gelesen) {
+        if (gelesen == null) return;
+        if (gelesen instanceof TerminSeiten neu) {
+            if (seiten == null) {
+                seiten = neu;
+            } else {
+                seiten.uebernehmen(neu);
+            }
+        } else {
+            termine.setAll(gelesen);
+        }
+        geladen = true;
+    }
+
+    private List<Termin> neuEinlesen() throws IOException {
+        SpeicherPlaner.getInstanz().flush(speicherSchluessel);
+        if (seitenweise || (!geladen && TerminSeiten.istGross(Paths.get(pfad)))) {
+            seitenweise = true;
+            return journal.seitenLaden();
+        }
+        return journal.laden();
+    }
+
+    /**
+     * Hängt einen neuen Termin an und vermerkt ihn im Journal.
+     *
+     * @param termin Der neue Termin
+     */
+    public void hinzufuegen(Termin termin) {
+        List<Termin> liste = getTermine();
+        liste.add(termin);
+        int index = liste.size() - 1;
+        journalSchreiben(() -> journal.einfuegen(index, termin));
+    }
+
+    /**
+     * Hängt mehrere Termine mit einer einzigen Listenänderung an und vermerkt sie
+     * im Journal, z.B. nach einem Import.
+     *
+     * @param neue Die neuen Termine
+     */
+    public void hinzufuegenAlle(List<Termin> neue) {
+        if (neue.isEmpty()) return;
+        List<Termin> liste = getTermine();
+        int start = liste.size();
+        liste.addAll(neue);
+        journalSchreiben(() -> {
+            for (int i = 0; i < neue.size(); i++) {
+                journal.einfuegen(start + i, neue.get(i));
+            }
+        });
+    }
+
+    /**
+     * Entfernt einen Termin und vermerkt das im Journal.
+     *
+     * @param index Position des Termins
+     */
+    public void entfernen(int index) {
+        getTermine().remove(index);
+        journalSchreiben(() -> journal.loeschen(index));
+    }
+
+    /**
+     * Vermerkt, dass ein Termin direkt (z.B. in der Tabelle) bearbeitet wurde.
+     *
+     * @param index Position des geänderten Termins
+     */
+    public void geaendert(int index) {
+        if (seiten != null) seiten.festhalten(index);
+        Termin termin = getTermine().get(index);
+        journalSchreiben(() -> journal.aendern(index, termin));
+    }
+
+    /**
+     * Vermerkt eine Änderung im Journal und plant das Schreiben im Hintergrund.
+     * Überschreitet das Journal seine Schwelle, wird es kompaktiert.
+     *
+     * @param eintrag Die auszuführende Journal-Operation
+     */
+    private void journalSchreiben(Runnable eintrag) {
+        eintrag.run();
+        SpeicherPlaner.getInstanz().planen(speicherSchluessel, journal::flush, e -> fehlerBehandlung.accept(e));
+        if (journal.mussKompaktieren()) {
+            journal.kompaktieren(seiten != null ? seiten.momentaufnahme() : termine);
+        }
+    }
+
+    /**
+     * Wird vom {@link DateiBeobachter} aufgerufen (Hintergrund-Thread).
+     */
+    private void pruefen() {
+        if (!geladen) return;
+        try {
+            journal.pruefen();
+        } catch (IOException e) {
+            System.err.println("Fehler beim Prüfen der Termin-Datei: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Übernimmt einen von einer anderen Instanz geschriebenen Stand.
+     * <p>
+     * Gibt es keine eigenen Änderungen gegenüber dem zuletzt gespeicherten Stand, wird
+     * der fremde Stand direkt übernommen. Sonst werden die eigenen Änderungen (als
+     * Differenz der Termine gegenüber dem zuletzt gespeicherten Stand) auf den fremden
+     * Stand angewendet: selbst entfernte Termine werden entfernt, selbst hinzugefügte
+     * angehängt, bearbeitete gelten als entfernt und neu hinzugefügt. Das Ergebnis wird
+     * anschließend vollständig gespeichert.
+     *
+     * @param fremd Der neu gelesene Stand der Dateien
+     */
+    void fremdenStandUebernehmen(TerminJournal.Dateistand fremd) {
+        if (!geladen) return;
+        if (fremd.istSeitenweise()) {
+            journal.synchronisieren(fremd, null);
+            uebernehmen(fremd.termine);
+            return;
+        }
+
+        List<String> gespeichert = journal.getSynchron();
+        List<String> eigene = new ArrayList<>(termine.size());
+        for (Termin t : termine) eigene.add(CsvManager.toCsvZeile(t));
+
+        boolean geaendert = !eigene.equals(gespeichert);
+        angleichen(geaendert ? zusammenfuehren(gespeichert, eigene, fremd) : fremd.termine);
+        journal.synchronisieren(fremd, geaendert ? new ArrayList<>(termine) : null);
+        if (geaendert) {
+            SpeicherPlaner.getInstanz().planen(speicherSchluessel, journal::flush, e -> fehlerBehandlung.accept(e));
+        }
+    }
+
+    /**
+     * Wendet die eigenen Änderungen (gespeichert → eigene) auf den fremden Stand an.
+     * Verglichen wird über die CSV-Zeilen der Termine.
+     */
+    private List<Termin> zusammenfuehren(List<String> gespeichert, List<String> eigene, TerminJournal.Dateistand fremd) {
+        Map<String, Integer> differenz = new HashMap<>();
+        for (String z : gespeichert) differenz.merge(z, -1, Integer::sum);
+        for (String z : eigene) differenz.merge(z, 1, Integer::sum);
+
+        List<Termin> ergebnis = new ArrayList<>(fremd.termine.size() + 16);
+        for (int i = 0; i < fremd.termine.size(); i++) {
+            String z = fremd.zeilen.get(i);
+            int d = differenz.getOrDefault(z, 0);
+            if (d < 0) {
+                differenz.put(z, d + 1);   // selbst entfernt
+            } else {
+                ergebnis.add(fremd.termine.get(i));
+            }
+        }
+        for (int i = 0; i < eigene.size(); i++) {
+            String z = eigene.get(i);
+            int d = differenz.getOrDefault(z, 0);
+            if (d > 0) {
+                differenz.put(z, d - 1);   // selbst hinzugefügt
+                ergebnis.add(termine.get(i));
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Bringt die Liste auf den Inhalt von {@code ziel}. Gleicher Anfang und gleiches Ende
+     * bleiben erhalten (dieselben Objekte), nur der Bereich dazwischen wird ersetzt.
+     * Die Änderung wird nicht im Journal vermerkt.
+     */
+    private void angleichen(List<Termin> ziel) {
+        int min = Math.min(termine.size(), ziel.size());
+        int anfang = 0;
+        while (anfang < min && termine.get(anfang).equals(ziel.get(anfang))) anfang++;
+        int ende = 0;
+        while (ende < min - anfang
+                && termine.get(termine.size() - 1 - ende).equals(ziel.get(ziel.size() - 1 - ende))) {
+            ende++;
+        }
+
+        int altEnde = termine.size() - ende;
+        List<Termin> mitte = new ArrayList<>(ziel.subList(anfang, ziel.size() - ende));
+        if (altEnde > anfang) termine.remove(anfang, altEnde);
+        if (!mitte.isEmpty()) termine.addAll(anfang, mitte);
+    }
+}
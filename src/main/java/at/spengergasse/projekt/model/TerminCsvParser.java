@@ -0,0 +1,366 @@
+package at.spengergasse.projekt.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Der {@code TerminCsvParser} liest Termin-Dateien direkt aus den UTF-8-Bytes.
+ * <p>
+ * Anstatt jede Zeile als {@code String} zu erzeugen und mit {@code split(";")} zu
+ * zerlegen, werden {@code ;} und Zeilenumbrüche direkt im Puffer gesucht. Strings
+ * entstehen nur für die Felder, die im {@link Termin} landen. Die Datei wird dafür in
+ * einem Stück in einen Heap-Puffer gelesen.
+ * <p>
+ * Format und Fehlermeldungen (inkl. Zeilennummer) entsprechen
+ * {@link CsvManager#parseTermine(java.io.BufferedReader)}.
+ * <p>
+ * Ab {@link #PARALLEL_SCHWELLE} wird die Datei an Zeilengrenzen in Abschnitte
+ * geteilt, die parallel im {@link ForkJoinPool} gelesen und danach in der
+ * ursprünglichen Reihenfolge zusammengefügt werden.
+ * <p>
+ * Die Datei wird bewusst nicht über {@link FileChannel#map} eingeblendet: Unter
+ * Windows bleibt eine eingeblendete Datei bis zur Garbage Collection gesperrt, und
+ * das anschließende Ersetzen durch {@link TerminJournal} oder Überschreiben durch
+ * {@link CsvManager#saveTermine(List, String)} würde fehlschlagen.
+ */
+public final class TerminCsvParser {
+
+    /** Datengröße in Bytes, ab der parallel gelesen wird. */
+    public static final int PARALLEL_SCHWELLE = 8 << 20;
+
+    private static final int MIN_ABSCHNITT = 1 << 20;
+
+    private TerminCsvParser() {
+    }
+
+    /**
+     * Liest alle Termine aus einer Datei.
+     *
+     * @param datei Pfad zur Termin-Datei
+     * @return Liste der Termine in Dateireihenfolge
+     * @throws IOException Bei Lese- oder Formatfehlern
+     */
+    public static List<Termin> parse(Path datei) throws IOException {
+        return parse(einlesen(datei));
+    }
+
+    /**
+     * Liest den Inhalt einer Datei in einen Heap-Puffer. Nach der Rückkehr hält nichts
+     * mehr die Datei offen, sie darf also sofort ersetzt oder überschrieben werden.
+     *
+     * @param datei Pfad zur Datei
+     * @return Puffer mit dem Dateiinhalt (von {@code position} bis {@code limit})
+     * @throws IOException Bei Lesefehlern oder zu großen Dateien
+     */
+    static ByteBuffer einlesen(Path datei) throws IOException {
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            long groesse = kanal.size();
+            if (groesse > Integer.MAX_VALUE) {
+                throw new IOException("Termine-Datei ist zu groß: " + datei);
+            }
+
+            ByteBuffer daten = ByteBuffer.allocate((int) groesse);
+            while (daten.hasRemaining() && kanal.read(daten, daten.position()) >= 0) {
+                // weiterlesen, bis der Puffer voll ist
+            }
+            daten.flip();
+            return daten;
+        }
+    }
+
+    /**
+     * Liest alle Termine aus einem Puffer (von {@code position} bis {@code limit}).
+     *
+     * @param daten UTF-8-codierter Dateiinhalt
+     * @return Liste der Termine in Dateireihenfolge
+     * @throws IOException Bei Formatfehlern
+     */
+    public static List<Termin> parse(ByteBuffer daten) throws IOException {
+        int parallelitaet = ForkJoinPool.getCommonPoolParallelism();
+        if (daten.remaining() < PARALLEL_SCHWELLE || parallelitaet < 2) {
+            return parseSequenziell(daten);
+        }
+        return parseParallel(daten, parallelitaet);
+    }
+
+    /**
+     * Liest alle Termine in einem einzigen Durchlauf im aufrufenden Thread.
+     *
+     * @param daten UTF-8-codierter Dateiinhalt
+     * @return Liste der Termine in Dateireihenfolge
+     * @throws IOException Bei Formatfehlern
+     */
+    static List<Termin> parseSequenziell(ByteBuffer daten) throws IOException {
+        List<Termin> termine = new ArrayList<>();
+        try {
+            new Zeilenleser(daten).lesen(daten.position(), daten.limit(), 1, termine);
+        } catch (ZeilenFehler e) {
+            throw e.alsIOException(0);
+        }
+        return termine;
+    }
+
+    /**
+     * Teilt den Puffer an Zeilenumbrüchen in Abschnitte und liest diese parallel.
+     * Jeder Abschnitt zählt seine Zeilen relativ; die Zeilennummern von
+     * Fehlermeldungen werden beim Zusammenfügen auf die ganze Datei umgerechnet.
+     *
+     * @param daten         UTF-8-codierter Dateiinhalt
+     * @param parallelitaet Anzahl verfügbarer Threads
+     * @return Liste der Termine in Dateireihenfolge
+     * @throws IOException Bei Formatfehlern (erster Fehler in Dateireihenfolge)
+     */
+    static List<Termin> parseParallel(ByteBuffer daten, int parallelitaet) throws IOException {
+        int von = daten.position();
+        int bis = daten.limit();
+        int groesse = Math.max(MIN_ABSCHNITT, (bis - von) / (parallelitaet * 4));
+
+        List<Callable<Abschnitt>> aufgaben = new ArrayList<>();
+        int start = von;
+        while (start < bis) {
+            int ende = Math.min(bis, start + groesse);
+            while (ende < bis && daten.get(ende - 1) != '\n') ende++;
+            int a = start;
+            int b = ende;
+            aufgaben.add(() -> Abschnitt.lesen(daten.duplicate(), a, b));
+            start = ende;
+        }
+
+        List<Future<Abschnitt>> ergebnisse = ForkJoinPool.commonPool().invokeAll(aufgaben);
+
+        List<Abschnitt> abschnitte = new ArrayList<>(ergebnisse.size());
+        int gesamt = 0;
+        for (Future<Abschnitt> f : ergebnisse) {
+            try {
+                Abschnitt abschnitt = f.get();
+                abschnitte.add(abschnitt);
+                gesamt += abschnitt.termine.size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Einlesen der Termine wurde unterbrochen.", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Fehler beim Einlesen der Termine.", e.getCause());
+            }
+        }
+
+        List<Termin> termine = new ArrayList<>(gesamt);
+        int zeilenDavor = 0;
+        for (Abschnitt abschnitt : abschnitte) {
+            if (abschnitt.fehler != null) {
+                throw abschnitt.fehler.alsIOException(zeilenDavor);
+            }
+            termine.addAll(abschnitt.termine);
+            zeilenDavor += abschnitt.zeilen;
+        }
+        return termine;
+    }
+
+    /**
+     * Ergebnis eines parallel gelesenen Abschnitts.
+     */
+    private static final class Abschnitt {
+        private final List<Termin> termine = new ArrayList<>();
+        private int zeilen;
+        private ZeilenFehler fehler;
+
+        static Abschnitt lesen(ByteBuffer daten, int von, int bis) {
+            Abschnitt abschnitt = new Abschnitt();
+            try {
+                abschnitt.zeilen = new Zeilenleser(daten).lesen(von, bis, 1, abschnitt.termine);
+            } catch (ZeilenFehler e) {
+                abschnitt.fehler = e;
+            }
+            return abschnitt;
+        }
+    }
+
+    /**
+     * Formatfehler mit (ggf. relativer) Zeilennummer. Die Meldung wird erst beim
+     * Umwandeln mit der endgültigen Zeilennummer erzeugt.
+     */
+    static final class ZeilenFehler extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final String art;
+        private final int zeile;
+        private final String inhalt;
+
+        ZeilenFehler(String art, int zeile, String inhalt) {
+            super(null, null, false, false);
+            this.art = art;
+            this.zeile = zeile;
+            this.inhalt = inhalt;
+        }
+
+        IOException alsIOException(int zeilenDavor) {
+            return new IOException("Ungültiges " + art + " in Termine-Datei (Zeile "
+                    + (zeilenDavor + zeile) + "): " + inhalt);
+        }
+    }
+
+    /**
+     * Zerlegt einen Bereich eines Puffers in Zeilen und Felder.
+     * Hält einen wiederverwendbaren Zwischenpuffer für das Dekodieren von Feldern.
+     */
+    static final class Zeilenleser {
+
+        /** Ergebnis von {@link #kennwerte(int, int, int)} für eine Leerzeile. */
+        static final long LEER = Long.MIN_VALUE;
+
+        private final ByteBuffer daten;
+        private final int[] trenner = new int[3];
+        private byte[] kopie = new byte[64];
+
+        Zeilenleser(ByteBuffer daten) {
+            this.daten = daten;
+        }
+
+        /**
+         * Liest alle Zeilen im Bereich {@code [von, bis)}.
+         *
+         * @param von        Erstes Byte
+         * @param bis        Erstes Byte nach dem Bereich
+         * @param ersteZeile Zeilennummer der ersten Zeile im Bereich
+         * @param ziel       Liste, an die die Termine angehängt werden
+         * @return Anzahl der gelesenen Zeilen (inkl. Leerzeilen)
+         * @throws ZeilenFehler Bei Formatfehlern
+         */
+        int lesen(int von, int bis, int ersteZeile, List<Termin> ziel) throws ZeilenFehler {
+            int zeileNr = ersteZeile - 1;
+            int pos = von;
+            while (pos < bis) {
+                int start = pos;
+                int ende = start;
+                while (ende < bis) {
+                    byte b = daten.get(ende);
+                    if (b == '\n' || b == '\r') break;
+                    ende++;
+                }
+
+                pos = ende;
+                if (pos < bis) {
+                    pos += daten.get(pos) == '\r' && pos + 1 < bis && daten.get(pos + 1) == '\n' ? 2 : 1;
+                }
+
+                zeileNr++;
+                zeileVerarbeiten(start, ende, zeileNr, ziel);
+            }
+            return zeileNr - ersteZeile + 1;
+        }
+
+        /**
+         * Verarbeitet eine Zeile ohne Zeilenumbruch.
+         */
+        private void zeileVerarbeiten(int start, int ende, int zeileNr, List<Termin> ziel) throws ZeilenFehler {
+            if (trimStart(start, ende) == ende) return;
+
+            int anzahl = trennen(start, ende, zeileNr);
+            String titel = feld(start, trenner[0]);
+            LocalDate datum = datum(zeileNr);
+            TerminArt art = art(anzahl, ende);
+            String notiz = anzahl == 3 ? feld(trenner[2] + 1, ende) : "";
+
+            ziel.add(new Termin(titel, datum, art, notiz));
+        }
+
+        /**
+         * Prüft eine Zeile ohne Zeilenumbruch wie beim Lesen, dekodiert aber weder Titel
+         * noch Notiz. Verwendet von {@link TerminSeiten}, um nur die Spalten für Datum
+         * und Art im Speicher zu halten.
+         *
+         * @return {@code epochDay << 8 | art.ordinal()} oder {@link #LEER} für eine Leerzeile
+         * @throws ZeilenFehler Bei Formatfehlern
+         */
+        long kennwerte(int start, int ende, int zeileNr) throws ZeilenFehler {
+            if (trimStart(start, ende) == ende) return LEER;
+
+            int anzahl = trennen(start, ende, zeileNr);
+            return datum(zeileNr).toEpochDay() << 8 | art(anzahl, ende).ordinal();
+        }
+
+        /**
+         * Sucht die Trennzeichen einer Zeile.
+         *
+         * @return Anzahl der Trennzeichen (2 oder 3)
+         */
+        private int trennen(int start, int ende, int zeileNr) throws ZeilenFehler {
+            int anzahl = 0;
+            for (int i = start; i < ende; i++) {
+                if (daten.get(i) == ';') {
+                    if (anzahl == trenner.length) {
+                        throw formatFehler(start, ende, zeileNr);
+                    }
+                    trenner[anzahl++] = i;
+                }
+            }
+            if (anzahl < 2) {
+                throw formatFehler(start, ende, zeileNr);
+            }
+            return anzahl;
+        }
+
+        private LocalDate datum(int zeileNr) throws ZeilenFehler {
+            int datumStart = trimStart(trenner[0] + 1, trenner[1]);
+            LocalDate datum = IsoDatum.lesen(daten, datumStart, trimEnde(datumStart, trenner[1]));
+            if (datum == null) {
+                throw new ZeilenFehler("Datum", zeileNr, text(trenner[0] + 1, trenner[1]));
+            }
+            return datum;
+        }
+
+        private TerminArt art(int anzahl, int ende) {
+            int artStart = trimStart(trenner[1] + 1, anzahl == 3 ? trenner[2] : ende);
+            int artEnde = trimEnde(artStart, anzahl == 3 ? trenner[2] : ende);
+            return TerminArt.klassifizieren(daten, artStart, artEnde);
+        }
+
+        private ZeilenFehler formatFehler(int start, int ende, int zeileNr) {
+            return new ZeilenFehler("Format", zeileNr, text(start, ende));
+        }
+
+        /**
+         * @return Getrimmter Inhalt des Bereichs als String
+         */
+        private String feld(int von, int bis) {
+            von = trimStart(von, bis);
+            return text(von, trimEnde(von, bis));
+        }
+
+        private int trimEnde(int von, int bis) {
+            while (bis > von && (daten.get(bis - 1) & 0xff) <= ' ') bis--;
+            return bis;
+        }
+
+        private int trimStart(int von, int bis) {
+            while (von < bis && (daten.get(von) & 0xff) <= ' ') von++;
+            return von;
+        }
+
+        /**
+         * Dekodiert einen Bereich als UTF-8 ohne Umweg über eine Zeile.
+         */
+        private String text(int von, int bis) {
+            int laenge = bis - von;
+            if (laenge == 0) return "";
+            if (daten.hasArray()) {
+                return new String(daten.array(), daten.arrayOffset() + von, laenge, StandardCharsets.UTF_8);
+            }
+            if (kopie.length < laenge) {
+                kopie = new byte[Math.max(laenge, kopie.length * 2)];
+            }
+            daten.get(von, kopie, 0, laenge);
+            return new String(kopie, 0, laenge, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package at.spengergasse.projekt.model;
+
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Der {@code TerminDatumsIndex} hält die Termine einer beobachteten Liste nach Datum
+ * sortiert.
+ * <p>
+ * Die Liste selbst bleibt in Dateireihenfolge.
+ * Fragen wie "was steht in den nächsten 7 Tagen an?" werden über eine
+ * {@link TreeMap} vom Datum auf die Termine dieses Tages beantwortet, in
+ * O(log n + k) für k gefundene Termine, ohne die Liste zu durchsuchen oder zu sortieren.
+ * Hinzufügen, Entfernen und Datumsänderungen werden laufend nachgeführt.
+ * <p>
+ * Der Index ist nicht threadsicher und wird nur auf dem JavaFX Application Thread verändert.
+ */
+public class TerminDatumsIndex {
+
+    private final NavigableMap<LocalDate, List<Termin>> nachDatum = new TreeMap<>();
+
+    private final ChangeListener<LocalDate> datumBeobachter = (obs, alt, neu) -> {
+        Termin t = (Termin) ((ReadOnlyProperty<?>) obs).getBean();
+        austragen(alt, t);
+        eintragen(neu, t);
+    };
+
+    /**
+     * Erstellt den Index für die aktuelle Liste und beobachtet sie danach.
+     *
+     * @param termine Die zu beobachtende Terminliste
+     */
+    public TerminDatumsIndex(ObservableList<Termin> termine) {
+        hinzugefuegt(termine);
+        termine.addListener((ListChangeListener<Termin>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated() || c.wasUpdated()) continue;
+                for (Termin t : c.getRemoved()) {
+                    t.datumProperty().removeListener(datumBeobachter);
+                    austragen(t.getDatum(), t);
+                }
+                hinzugefuegt(c.getAddedSubList());
+            }
+        });
+    }
+
+    /**
+     * Termine von heute bis einschließlich {@code tage} Tage in der Zukunft.
+     *
+     * @param tage Anzahl Tage ab heute
+     * @return Termine nach Datum sortiert
+     */
+    public List<Termin> anstehend(int tage) {
+        return anstehend(LocalDate.now(), tage);
+    }
+
+    /**
+     * Termine ab einem Stichtag bis einschließlich {@code tage} Tage danach.
+     *
+     * @param ab   Stichtag (inklusive)
+     * @param tage Anzahl Tage ab dem Stichtag
+     * @return Termine nach Datum sortiert
+     */
+    public List<Termin> anstehend(LocalDate ab, int tage) {
+        return zwischen(ab, ab.plusDays(tage));
+    }
+
+    /**
+     * Termine in einem Zeitraum.
+     *
+     * @param von Erster Tag (inklusive)
+     * @param bis Letzter Tag (inklusive)
+     * @return Termine nach Datum sortiert, innerhalb eines Tages in Einfügereihenfolge
+     */
+    public List<Termin> zwischen(LocalDate von, LocalDate bis) {
+        List<Termin> ergebnis = new ArrayList<>();
+        if (bis.isBefore(von)) return ergebnis;
+        for (List<Termin> tag : nachDatum.subMap(von, true, bis, true).values()) {
+            ergebnis.addAll(tag);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Der erste Termin nach einem Tag.
+     *
+     * @param datum Tag, nach dem gesucht wird (exklusive)
+     * @return Der nächste Termin oder {@code Optional.empty()}, wenn keiner mehr folgt
+     */
+    public Optional<Termin> naechsterNach(LocalDate datum) {
+        Map.Entry<LocalDate, List<Termin>> eintrag = nachDatum.higherEntry(datum);
+        return eintrag == null ? Optional.empty() : Optional.of(eintrag.getValue().get(0));
+    }
+
+    private void hinzugefuegt(List<? extends Termin> termine) {
+        for (Termin t : termine) {
+            eintragen(t.getDatum(), t);
+            t.datumProperty().addListener(datumBeobachter);
+        }
+    }
+
+    private void eintragen(LocalDate datum, Termin t) {
+        if (datum == null) return;
+        nachDatum.computeIfAbsent(datum, d -> new ArrayList<>(1)).add(t);
+    }
+
+    /**
+     * Entfernt genau dieses Objekt (nicht ein gleiches) aus dem Tag.
+     */
+    private void austragen(LocalDate datum, Termin t) {
+        if (datum == null) return;
+        List<Termin> tag = nachDatum.get(datum);
+        if (tag == null) return;
+        for (Iterator<Termin> it = tag.iterator(); it.hasNext(); ) {
+            if (it.next() == t) {
+                it.remove();
+                break;
+            }
+        }
+        if (tag.isEmpty()) nachDatum.remove(datum);
+    }
+}
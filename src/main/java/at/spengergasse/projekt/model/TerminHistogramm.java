@@ -0,0 +1,279 @@
+package at.spengergasse.projekt.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Das {@code TerminHistogramm} zählt Termine je Tag und Terminart.
+ * <p>
+ * Gezählt wird zweistufig: Die Tage mit mindestens einem Termin liegen in einer
+ * sortierten Map (Epoch-Day → Anzahl je Art), Monate zusätzlich in einem
+ * {@code int}-Array pro Art mit einem Fenwick-Baum (Binary Indexed Tree) darüber.
+ * Ein Zeitraum wird in die angeschnittenen Randmonate (höchstens 62 Tage aus der Map)
+ * und die vollen Monate dazwischen (O(log n) im Baum) zerlegt, ohne die Terminliste
+ * erneut zu durchlaufen.
+ * <p>
+ * Das Monatsfenster verdoppelt sich bei Bedarf, umfasst aber höchstens
+ * {@link #MAX_MONATE} Monate. Monate außerhalb davon (z.B. ein Tippfehler wie
+ * {@code 0202-01-01}) werden in einer eigenen sortierten Map gezählt, sodass jedes
+ * gültige Datum angenommen wird und der Speicherbedarf nicht vom Abstand der Daten
+ * abhängt.
+ * <p>
+ * Die Klasse ist nicht threadsicher.
+ */
+public class TerminHistogramm {
+
+    /** Zeiteinheit, nach der ein Zeitraum aufgeteilt wird. */
+    public enum Intervall {
+        TAG, WOCHE, MONAT;
+
+        /**
+         * @param tag Beliebiger Tag
+         * @return Erster Tag des Intervalls, in dem {@code tag} liegt (Wochen beginnen am Montag)
+         */
+        public LocalDate anfang(LocalDate tag) {
+            return switch (this) {
+                case TAG -> tag;
+                case WOCHE -> tag.with(DayOfWeek.MONDAY);
+                case MONAT -> tag.withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * @param anfang Erster Tag eines Intervalls
+         * @return Erster Tag des folgenden Intervalls
+         */
+        public LocalDate naechstes(LocalDate anfang) {
+            return switch (this) {
+                case TAG -> anfang.plusDays(1);
+                case WOCHE -> anfang.plusWeeks(1);
+                case MONAT -> anfang.plusMonths(1);
+            };
+        }
+    }
+
+    private static final int START_MONATE = 64;
+    /** Höchstgröße des Monatsfensters (100 Jahre); ältere bzw. spätere Monate zählen sparsam. */
+    static final int MAX_MONATE = 12 * 100;
+    private static final TerminArt[] ARTEN = TerminArt.values();
+
+    /** Epoch-Day → Anzahl je Art; nur Tage mit Terminen */
+    private final TreeMap<Long, int[]> tage = new TreeMap<>();
+    /** Monatsnummer → Anzahl je Art; nur Monate außerhalb des Fensters */
+    private final TreeMap<Long, int[]> ausserhalb = new TreeMap<>();
+    /** Monatsnummer des ersten Monats im Fenster */
+    private long basis;
+    private int groesse;
+    private int[][] monate = new int[ARTEN.length][0];
+    private int[][] baum = new int[ARTEN.length][1];
+
+    /**
+     * Zählt einen Termin.
+     *
+     * @param datum Datum des Termins ({@code null} wird ignoriert)
+     * @param art   Art des Termins
+     */
+    public void hinzufuegen(LocalDate datum, TerminArt art) {
+        aendern(datum, art, 1);
+    }
+
+    /**
+     * Nimmt einen zuvor gezählten Termin wieder heraus.
+     *
+     * @param datum Datum des Termins ({@code null} wird ignoriert)
+     * @param art   Art des Termins
+     */
+    public void entfernen(LocalDate datum, TerminArt art) {
+        aendern(datum, art, -1);
+    }
+
+    /**
+     * Anzahl der Termine einer Art in einem Zeitraum, in O(log n) zuzüglich der
+     * höchstens 62 Tage der angeschnittenen Randmonate.
+     *
+     * @param art Die Terminart oder {@code null} für alle Arten
+     * @param von Erster Tag (inklusive)
+     * @param bis Letzter Tag (inklusive)
+     * @return Anzahl der Termine im Zeitraum
+     */
+    public int anzahl(TerminArt art, LocalDate von, LocalDate bis) {
+        if (bis.isBefore(von)) return 0;
+        long erster = monat(von);
+        long letzter = monat(bis);
+        if (erster == letzter) {
+            return tageZaehlen(art, von, bis);
+        }
+        return tageZaehlen(art, von, von.withDayOfMonth(von.lengthOfMonth()))
+                + monateZaehlen(art, erster + 1, letzter - 1)
+                + tageZaehlen(art, bis.withDayOfMonth(1), bis);
+    }
+
+    /**
+     * Teilt einen Zeitraum in Tage, Wochen oder Monate und zählt je Abschnitt.
+     *
+     * @param art       Die Terminart oder {@code null} für alle Arten
+     * @param von       Erster Tag (inklusive)
+     * @param bis       Letzter Tag (inklusive)
+     * @param intervall Größe der Abschnitte
+     * @return Anzahl je Abschnitt, nach dessen erstem Tag sortiert (auch leere Abschnitte)
+     */
+    public Map<LocalDate, Integer> verlauf(TerminArt art, LocalDate von, LocalDate bis, Intervall intervall) {
+        Map<LocalDate, Integer> verlauf = new TreeMap<>();
+        for (LocalDate anfang = intervall.anfang(von); !anfang.isAfter(bis); anfang = intervall.naechstes(anfang)) {
+            LocalDate ende = intervall.naechstes(anfang).minusDays(1);
+            LocalDate a = anfang.isBefore(von) ? von : anfang;
+            LocalDate b = ende.isAfter(bis) ? bis : ende;
+            verlauf.put(anfang, anzahl(art, a, b));
+        }
+        return verlauf;
+    }
+
+    /**
+     * Ändert die Anzahl der Termine eines Tages und einer Art um {@code delta}.
+     */
+    void aendern(LocalDate datum, TerminArt art, int delta) {
+        if (datum == null) return;
+        int a = (art == null ? TerminArt.SONSTIGES : art).ordinal();
+        zaehlen(tage, datum.toEpochDay(), a, delta);
+
+        long m = monat(datum);
+        if (groesse == 0) {
+            bereichSetzen(m - START_MONATE / 2, START_MONATE);
+        }
+        if ((m < basis || m >= basis + groesse) && !erweitern(m)) {
+            zaehlen(ausserhalb, m, a, delta);
+            return;
+        }
+
+        int index = (int) (m - basis);
+        monate[a][index] += delta;
+        int[] f = baum[a];
+        for (int i = index + 1; i <= groesse; i += i & -i) {
+            f[i] += delta;
+        }
+    }
+
+    /**
+     * Verdoppelt das Fenster so lange, bis {@code monat} darin liegt, übernimmt die
+     * Monate, die nun im Fenster liegen, und baut die Bäume neu auf.
+     *
+     * @return false, wenn das Fenster dafür größer als {@link #MAX_MONATE} werden müsste
+     */
+    private boolean erweitern(long monat) {
+        long neueBasis = basis;
+        long neueGroesse = groesse;
+        while (monat < neueBasis && neueGroesse <= MAX_MONATE) {
+            neueBasis -= neueGroesse;
+            neueGroesse *= 2;
+        }
+        while (monat >= neueBasis + neueGroesse && neueGroesse <= MAX_MONATE) {
+            neueGroesse *= 2;
+        }
+        if (neueGroesse > MAX_MONATE) return false;
+
+        int verschiebung = (int) (basis - neueBasis);
+        int[][] alteMonate = monate;
+        int alteGroesse = groesse;
+        bereichSetzen(neueBasis, (int) neueGroesse);
+        for (int a = 0; a < ARTEN.length; a++) {
+            System.arraycopy(alteMonate[a], 0, monate[a], verschiebung, alteGroesse);
+        }
+        Map<Long, int[]> hereingeholt = ausserhalb.subMap(neueBasis, neueBasis + neueGroesse);
+        for (Map.Entry<Long, int[]> e : hereingeholt.entrySet()) {
+            for (int a = 0; a < ARTEN.length; a++) {
+                monate[a][(int) (e.getKey() - neueBasis)] += e.getValue()[a];
+            }
+        }
+        hereingeholt.clear();
+
+        for (int a = 0; a < ARTEN.length; a++) {
+            int[] f = baum[a];
+            // Fenwick-Baum in O(n) aus den Monatswerten aufbauen
+            for (int i = 1; i <= groesse; i++) {
+                f[i] += monate[a][i - 1];
+                int j = i + (i & -i);
+                if (j <= groesse) f[j] += f[i];
+            }
+        }
+        return true;
+    }
+
+    private void bereichSetzen(long neueBasis, int neueGroesse) {
+        basis = neueBasis;
+        groesse = neueGroesse;
+        monate = new int[ARTEN.length][neueGroesse];
+        baum = new int[ARTEN.length][neueGroesse + 1];
+    }
+
+    /**
+     * @return Anzahl in den Tagen {@code von} bis {@code bis} (inklusive) laut Tages-Map
+     */
+    private int tageZaehlen(TerminArt art, LocalDate von, LocalDate bis) {
+        int anzahl = 0;
+        for (int[] werte : tage.subMap(von.toEpochDay(), true, bis.toEpochDay(), true).values()) {
+            anzahl += wert(werte, art);
+        }
+        return anzahl;
+    }
+
+    /**
+     * @return Anzahl in den vollen Monaten {@code von} bis {@code bis} (inklusive)
+     */
+    private int monateZaehlen(TerminArt art, long von, long bis) {
+        if (von > bis) return 0;
+        int anzahl = 0;
+        for (int[] werte : ausserhalb.subMap(von, true, bis, true).values()) {
+            anzahl += wert(werte, art);
+        }
+
+        int a = (int) Math.max(0, von - basis);
+        int b = (int) Math.min(groesse - 1L, bis - basis);
+        if (groesse == 0 || a > b) return anzahl;
+        if (art != null) {
+            return anzahl + summe(baum[art.ordinal()], b + 1) - summe(baum[art.ordinal()], a);
+        }
+        for (int[] f : baum) {
+            anzahl += summe(f, b + 1) - summe(f, a);
+        }
+        return anzahl;
+    }
+
+    private static int wert(int[] werte, TerminArt art) {
+        if (art != null) return werte[art.ordinal()];
+        int summe = 0;
+        for (int w : werte) summe += w;
+        return summe;
+    }
+
+    /**
+     * Ändert einen Zähler in einer sparsamen Map; leere Einträge werden entfernt.
+     */
+    private static void zaehlen(TreeMap<Long, int[]> map, long schluessel, int art, int delta) {
+        int[] werte = map.computeIfAbsent(schluessel, k -> new int[ARTEN.length]);
+        werte[art] += delta;
+        for (int w : werte) {
+            if (w != 0) return;
+        }
+        map.remove(schluessel);
+    }
+
+    /**
+     * @return Fortlaufende Monatsnummer ({@code jahr * 12 + monat - 1})
+     */
+    private static long monat(LocalDate datum) {
+        return datum.getYear() * 12L + datum.getMonthValue() - 1;
+    }
+
+    /**
+     * @return Summe der ersten {@code n} Monate
+     */
+    private static int summe(int[] f, int n) {
+        int summe = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            summe += f[i];
+        }
+        return summe;
+    }
+}
@@ -0,0 +1,899 @@
+package at.spengergasse.projekt.model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Das {@code TerminJournal} speichert Änderungen an einer Termin-Datei als
+ * angehängte Einträge in einer Journal-Datei ({@code <pfad>.journal}), anstatt bei
+ * jeder Änderung die gesamte CSV-Datei neu zu schreiben.
+ * <p>
+ * Format des Journals:
+ * <pre>
+ * #basis;&lt;crc32 der CSV-Datei&gt;
+ * E;index;titel;datum;art;notiz   (Einfügen)
+ * U;index;titel;datum;art;notiz   (Ändern)
+ * D;index                         (Löschen)
+ * P;von;p1,p2,...                 (Umordnen; wird nur noch aus älteren Journalen gelesen)
+ * </pre>
+ * Die Basis-Prüfsumme stellt sicher, dass ein Journal nur auf genau den
+ * CSV-Stand angewendet wird, auf dem es entstanden ist. Überschreitet das Journal
+ * die eingestellte Größe, wird beim nächsten {@link #flush()} ein neuer Snapshot
+ * geschrieben (temporäre Datei und atomares Verschieben) und das Journal gelöscht.
+ * Ein {@code <pfad>.journal.alt} aus einer unterbrochenen Kompaktierung früherer
+ * Versionen wird beim Laden weiterhin nachgeholt. Ein Journal mit fremder Basis wird
+ * nicht angewendet, sondern als {@code <pfad>.journal.verworfen-<zeit>} aufbewahrt und
+ * über {@link #setWarnung(Consumer)} gemeldet. Unlesbare Einträge (z.B. eine beim
+ * Absturz abgeschnittene letzte Zeile) werden übersprungen; das Journal wird dann als
+ * {@code <pfad>.journal.fehlerhaft-<zeit>} kopiert, der gelesene Stand als neuer
+ * Snapshot geschrieben und die Anzahl der übersprungenen Einträge gemeldet.
+ * <p>
+ * Einträge werden zunächst im Speicher gesammelt und erst mit {@link #flush()}
+ * gemeinsam angehängt; üblicherweise geschieht das über den {@link SpeicherPlaner}.
+ * <p>
+ * Mehrere Instanzen der Anwendung können dieselbe Datei verwenden. Alle Zugriffe
+ * laufen unter der {@link DateiSperre} der CSV-Datei, und das Journal merkt sich,
+ * welchen Stand der Dateien (Größe und Änderungszeitpunkt der CSV-Datei, Länge des
+ * Journals) es zuletzt gelesen oder selbst geschrieben hat. Hat eine andere Instanz
+ * die Dateien seitdem verändert, wird nichts angehängt, da die Positionen der
+ * Einträge nicht mehr stimmen würden. Stattdessen wird der neue Stand gelesen und
+ * an {@link #setFremdeAenderung(Consumer)} gemeldet; der {@link TerminBestand}
+ * führt ihn mit den eigenen Änderungen zusammen und lässt das Ergebnis über
+ * {@link #synchronisieren(Dateistand, List)} vollständig schreiben.
+ * <p>
+ * Sehr große Dateien öffnet {@link #seitenLaden()} als {@link TerminSeiten}: Das Journal
+ * wird auf deren Zeilen nachgespielt, und kompaktiert wird aus einer
+ * {@link TerminSeiten#momentaufnahme()}, ohne die Termine zu dekodieren. Fremde Stände
+ * werden dann ebenfalls seitenweise gelesen; da sie sich nicht mit den eigenen Einträgen
+ * zusammenführen lassen, werden noch nicht geschriebene Einträge als
+ * {@code <pfad>.journal.verworfen-<zeit>} aufbewahrt und gemeldet.
+ * <p>
+ * Die Methoden zum Vermerken von Änderungen werden auf dem JavaFX Application Thread
+ * aufgerufen, {@link #flush()} im Hintergrund. Beide Seiten teilen sich nur die
+ * gesammelten Einträge und den vorgemerkten Snapshot, die unter einer kurzen Sperre
+ * auf dem Journal übergeben werden. Serialisieren, Lesen, die {@link DateiSperre} und
+ * alles Schreiben laufen außerhalb dieser Sperre; gleichzeitige Aufrufe von
+ * {@link #flush()}, {@link #laden()} und {@link #pruefen()} schließen sich über eine
+ * eigene Sperre aus.
+ */
+public class TerminJournal {
+
+    /** Standardgröße, ab der das Journal in einen neuen Snapshot übernommen wird. */
+    public static final long STANDARD_SCHWELLE = 256 * 1024;
+
+    private static final String BASIS_PREFIX = "#basis;";
+    private static final DateTimeFormatter ZEITSTEMPEL = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path csvPfad;
+    private final Path journalPfad;
+    private final Path altPfad;
+    private final long schwelle;
+
+    // Übergabe zwischen den Aufrufern und flush(), geschützt durch den Monitor des Journals
+    private List<String> ausstehend = new ArrayList<>();
+    private List<Termin> vorgemerkt;
+    private Dateistand uebernahme;
+    private long journalGroesse;
+    private int generation;
+    /** Seitenweise nicht zusammengeführte eigene Einträge, die noch aufbewahrt werden müssen. */
+    private List<String> beiseite = new ArrayList<>();
+    private boolean nichtZusammengefuehrt;
+
+    // Stand der Dateien, geschützt durch flushSperre
+    private final Object flushSperre = new Object();
+    private long basis;
+    private String basisStempel;
+    private long journalBekannt = -1;
+    private boolean seitenweise;
+    /**
+     * Wird nur ersetzt, nie verändert, und kann daher ohne Sperre gelesen werden.
+     * Seitenweise geöffnet {@code null}.
+     */
+    private volatile List<String> synchron = new ArrayList<>();
+
+    private Consumer<Dateistand> fremdeAenderung;
+    private Consumer<String> warnung = System.err::println;
+    /** Beim Lesen unter der Sperre gesammelte Warnungen, die danach gemeldet werden. */
+    private final List<String> warnungen = new ArrayList<>();
+
+    /**
+     * Stand der Dateien zu einem Zeitpunkt: die Termine, dieselben als CSV-Zeilen
+     * und die Merkmale, an denen eine spätere Änderung erkannt wird. Seitenweise
+     * gelesen sind die Termine {@link TerminSeiten} und es gibt keine CSV-Zeilen.
+     */
+    static final class Dateistand {
+        final List<Termin> termine;
+        final List<String> zeilen;
+        final long basis;
+        final String stempel;
+        final long journalLaenge;
+
+        private Dateistand(List<Termin> termine, long basis, String stempel, long journalLaenge) {
+            this(termine, new ArrayList<>(termine.size()), basis, stempel, journalLaenge);
+            for (Termin t : termine) zeilen.add(CsvManager.toCsvZeile(t));
+        }
+
+        private Dateistand(List<Termin> termine, List<String> zeilen, long basis, String stempel, long journalLaenge) {
+            this.termine = termine;
+            this.zeilen = zeilen;
+            this.basis = basis;
+            this.stempel = stempel;
+            this.journalLaenge = journalLaenge;
+        }
+
+        /**
+         * @return true, wenn die Termine seitenweise gelesen wurden
+         */
+        boolean istSeitenweise() {
+            return zeilen == null;
+        }
+    }
+
+    /**
+     * Von {@link #flush()} entnommene Einträge und Snapshot. Die Generation zeigt, ob
+     * sie bei einem Fehler zurückgelegt werden dürfen oder inzwischen überholt sind.
+     */
+    private static final class Auftrag {
+        private final List<Termin> stand;
+        private final List<String> zeilen;
+        private final int generation;
+
+        private Auftrag(List<Termin> stand, List<String> zeilen, int generation) {
+            this.stand = stand;
+            this.zeilen = zeilen;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Serialisierter Stand, der als Snapshot geschrieben wird.
+     */
+    private static final class Ersatz {
+        private final byte[] daten;
+        private final byte[] binaer;
+        private final List<String> zeilen;
+
+        private Ersatz(List<Termin> stand) {
+            this.zeilen = new ArrayList<>(stand.size());
+            for (Termin t : stand) zeilen.add(CsvManager.toCsvZeile(t));
+            this.daten = serialisieren(stand);
+            this.binaer = TerminSnapshot.kodieren(stand);
+        }
+    }
+
+    /**
+     * Erstellt ein Journal für die angegebene Termin-Datei mit Standard-Schwelle.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     */
+    public TerminJournal(String pfad) {
+        this(pfad, STANDARD_SCHWELLE);
+    }
+
+    /**
+     * Erstellt ein Journal für die angegebene Termin-Datei.
+     *
+     * @param pfad     Pfad zur Termin-CSV-Datei
+     * @param schwelle Journalgröße in Bytes, ab der kompaktiert werden soll
+     */
+    public TerminJournal(String pfad, long schwelle) {
+        this.csvPfad = Paths.get(pfad);
+        this.journalPfad = Paths.get(pfad + ".journal");
+        this.altPfad = Paths.get(pfad + ".journal.alt");
+        this.schwelle = schwelle;
+    }
+
+    /**
+     * Prüft, ob zu einer Termin-Datei ein Journal existiert.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     * @return true, wenn Journal oder unterbrochene Kompaktierung vorhanden
+     */
+    public static boolean existiert(String pfad) {
+        return Files.exists(Paths.get(pfad + ".journal")) || Files.exists(Paths.get(pfad + ".journal.alt"));
+    }
+
+    /**
+     * Entfernt alle Journal-Dateien einer Termin-Datei, z.B. nachdem sie
+     * vollständig neu geschrieben oder gelöscht wurde.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     * @throws IOException Wenn eine Datei nicht gelöscht werden kann
+     */
+    public static void verwerfen(String pfad) throws IOException {
+        Files.deleteIfExists(Paths.get(pfad + ".journal"));
+        Files.deleteIfExists(Paths.get(pfad + ".journal.alt"));
+    }
+
+    /**
+     * Übernimmt ein vorhandenes Journal in die CSV-Datei, sodass diese
+     * allein den vollständigen Stand enthält. Wird vor dem Verschieben oder
+     * Umbenennen einer Termin-Datei aufgerufen.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     * @throws IOException Bei Lese- oder Schreibfehlern
+     */
+    public static void zusammenfuehren(String pfad) throws IOException {
+        DateiSperre.schreiben(Paths.get(pfad), () -> {
+            if (existiert(pfad)) {
+                CsvManager.saveTermine(new TerminJournal(pfad).laden(), pfad);
+            }
+        });
+    }
+
+    /**
+     * Lädt den Snapshot aus der CSV-Datei (über {@link TerminSnapshot}) und spielt
+     * das Journal nach. Noch nicht geschriebene Einträge werden verworfen.
+     * Eine unterbrochene Kompaktierung wird dabei abgeschlossen, ein Journal
+     * mit fremder Basis (CSV wurde extern geändert) beiseitegelegt und gemeldet.
+     *
+     * @return Aktueller Stand aller Termine
+     * @throws IOException Bei Lese- oder Formatfehlern in der CSV-Datei
+     */
+    public List<Termin> laden() throws IOException {
+        synchronized (flushSperre) {
+            seitenweise = false;
+            Dateistand stand = DateiSperre.gesperrt(csvPfad, this::lesen);
+            uebernehmen(stand);
+            warnen();
+            return stand.termine;
+        }
+    }
+
+    /**
+     * Öffnet die CSV-Datei als {@link TerminSeiten} und spielt das Journal darauf nach,
+     * ohne alle Termine zu erzeugen. Noch nicht geschriebene Einträge werden verworfen.
+     * Muss wie bei {@link #laden()} erst etwas repariert werden (unterbrochene
+     * Kompaktierung, Journal mit fremder Basis oder unlesbare Einträge), geschieht das
+     * über den vollständigen Weg; danach wird die Datei erneut seitenweise geöffnet.
+     * Auch spätere fremde Stände werden danach seitenweise gelesen.
+     *
+     * @return Aktueller Stand aller Termine
+     * @throws IOException Bei Lese- oder Formatfehlern in der CSV-Datei
+     */
+    public TerminSeiten seitenLaden() throws IOException {
+        synchronized (flushSperre) {
+            seitenweise = true;
+            Dateistand stand = DateiSperre.gesperrt(csvPfad, this::seitenLesen);
+            uebernehmen(stand);
+            warnen();
+            return (TerminSeiten) stand.termine;
+        }
+    }
+
+    /**
+     * Legt fest, wie Probleme mit dem Journal gemeldet werden, die den geladenen Stand
+     * betreffen (z.B. ein verworfenes Journal). Standardmäßig auf {@code System.err}.
+     * Der Aufruf kann aus einem Hintergrund-Thread erfolgen.
+     *
+     * @param warnung Erhält den Meldungstext
+     */
+    void setWarnung(Consumer<String> warnung) {
+        this.warnung = warnung;
+    }
+
+    /**
+     * Legt fest, wer über Änderungen durch andere Instanzen benachrichtigt wird.
+     * Der Aufruf erfolgt aus einem Hintergrund-Thread.
+     *
+     * @param fremdeAenderung Erhält den neu gelesenen Stand der Dateien
+     */
+    void setFremdeAenderung(Consumer<Dateistand> fremdeAenderung) {
+        this.fremdeAenderung = fremdeAenderung;
+    }
+
+    /**
+     * Prüft, ob die Dateien seit dem letzten Lesen oder Schreiben von außen verändert
+     * wurden, und meldet den neuen Stand gegebenenfalls an
+     * {@link #setFremdeAenderung(Consumer)}. Wird vom {@link DateiBeobachter} aufgerufen.
+     *
+     * @throws IOException Bei Lesefehlern
+     */
+    public void pruefen() throws IOException {
+        Dateistand fremd;
+        synchronized (flushSperre) {
+            nachziehen();
+            fremd = DateiSperre.gesperrt(csvPfad, () -> fremdGeaendert() ? neuLesen() : null);
+            warnen();
+        }
+        melden(fremd);
+    }
+
+    /**
+     * Übernimmt einen gemeldeten fremden Stand als neue Grundlage. Noch nicht
+     * geschriebene Einträge werden verworfen; sie müssen im übergebenen
+     * zusammengeführten Stand enthalten sein, der dann beim nächsten
+     * {@link #flush()} vollständig geschrieben wird.
+     * <p>
+     * Der fremde Stand wird erst vom nächsten {@link #flush()} bzw. {@link #pruefen()}
+     * als Grundlage eingetragen, sodass der Aufruf nicht auf ein laufendes Schreiben wartet.
+     * <p>
+     * Ein seitenweise gelesener Stand wird immer unverändert übernommen; noch nicht
+     * geschriebene Einträge werden dann beim nächsten {@link #flush()} bzw.
+     * {@link #pruefen()} aufbewahrt und gemeldet.
+     *
+     * @param fremd          Der gemeldete Stand der Dateien
+     * @param zusammengefuehrt Zu schreibender Stand oder {@code null}, wenn der
+     *                       fremde Stand unverändert übernommen wurde
+     */
+    synchronized void synchronisieren(Dateistand fremd, List<Termin> zusammengefuehrt) {
+        if (fremd.istSeitenweise() && (!ausstehend.isEmpty() || vorgemerkt != null)) {
+            beiseite.addAll(ausstehend);
+            nichtZusammengefuehrt = true;
+        }
+        uebernahme = fremd;
+        ausstehend = new ArrayList<>();
+        vorgemerkt = zusammengefuehrt == null ? null : new ArrayList<>(zusammengefuehrt);
+        journalGroesse = Math.max(0, fremd.journalLaenge);
+        generation++;
+    }
+
+    /**
+     * @return Die Termine (als CSV-Zeilen) des zuletzt gelesenen oder geschriebenen Stands
+     */
+    List<String> getSynchron() {
+        synchronized (this) {
+            if (uebernahme != null) return new ArrayList<>(uebernahme.zeilen);
+        }
+        return new ArrayList<>(synchron);
+    }
+
+    /**
+     * Liest den aktuellen Stand der Dateien. Muss unter der {@link DateiSperre} laufen.
+     */
+    private Dateistand lesen() throws IOException {
+        String stempel = stempel();
+        TerminSnapshot.Stand stand = TerminSnapshot.lesen(csvPfad);
+        long crc = stand.crc;
+
+        List<Termin> termine = stand.termine;
+
+        boolean unterbrochen = Files.exists(altPfad);
+        boolean neuSchreiben = unterbrochen;
+        if (unterbrochen && basisVon(altPfad) == crc) {
+            // Snapshot wurde nicht mehr geschrieben: altes Journal zuerst anwenden
+            fehlerhaftMelden(altPfad, nachspielen(altPfad, termine));
+            crc = crc32(serialisieren(termine));
+        }
+
+        if (Files.exists(journalPfad)) {
+            if (basisVon(journalPfad) == crc) {
+                // Übersprungene Einträge: Stand neu schreiben, damit nicht hinter einer
+                // abgeschnittenen Zeile weiter angehängt wird
+                neuSchreiben |= fehlerhaftMelden(journalPfad, nachspielen(journalPfad, termine));
+            } else {
+                Path verworfen = beiseitelegen(journalPfad, "verworfen");
+                warnungen.add("Das Termin-Journal passt nicht zur Termin-Datei, die außerhalb der "
+                        + "Anwendung geändert wurde. Die darin gespeicherten Änderungen wurden nicht "
+                        + "übernommen und unter " + verworfen + " aufbewahrt.");
+            }
+        }
+
+        if (neuSchreiben) {
+            // Kompaktierung nachholen, damit CSV wieder allein den Stand enthält
+            byte[] daten = serialisieren(termine);
+            snapshotSchreiben(daten, TerminSnapshot.kodieren(termine));
+            verwerfen(csvPfad.toString());
+            return new Dateistand(termine, crc32(daten), stempel(), -1);
+        }
+        return new Dateistand(termine, stand.crc, stempel, journalLaenge());
+    }
+
+    /**
+     * Liest den aktuellen Stand der Dateien so, wie zuletzt geladen wurde. Muss unter der
+     * {@link DateiSperre} laufen.
+     */
+    private Dateistand neuLesen() throws IOException {
+        return seitenweise ? seitenLesen() : lesen();
+    }
+
+    /**
+     * Öffnet den aktuellen Stand seitenweise, bei Bedarf nach einer Reparatur über
+     * {@link #lesen()}. Muss unter der {@link DateiSperre} laufen.
+     */
+    private Dateistand seitenLesen() throws IOException {
+        Dateistand stand = seitenOeffnen();
+        if (stand == null) {
+            // Reparieren wie beim vollständigen Laden; danach passen Datei und Journal zusammen
+            lesen();
+            stand = seitenOeffnen();
+            if (stand == null) {
+                throw new IOException("Termin-Datei kann nicht seitenweise geöffnet werden: " + csvPfad);
+            }
+        }
+        return stand;
+    }
+
+    /**
+     * @return Seitenweise geöffneter Stand oder {@code null}, wenn erst repariert werden muss
+     */
+    private Dateistand seitenOeffnen() throws IOException {
+        if (Files.exists(altPfad)) return null;
+        String stempel = stempel();
+        TerminSeiten seiten = TerminSeiten.oeffnen(csvPfad);
+        long crc = seiten.crc();
+        long laenge = journalLaenge();
+        if (laenge >= 0) {
+            if (basisVon(journalPfad) != crc) return null;
+            List<String> eintraege = Files.readAllLines(journalPfad, StandardCharsets.UTF_8);
+            try (Closeable offen = seiten.offenHalten()) {
+                if (nachspielen(eintraege, 1, seiten, CsvManager::parseTermin, journalPfad) > 0) return null;
+            }
+        }
+        return new Dateistand(seiten, null, crc, stempel, laenge);
+    }
+
+    /**
+     * Übernimmt einen gelesenen Stand als Grundlage und verwirft alles Vorgemerkte.
+     * Muss unter {@code flushSperre} laufen.
+     */
+    private void uebernehmen(Dateistand stand) {
+        grundlage(stand);
+        synchronized (this) {
+            uebernahme = null;
+            ausstehend = new ArrayList<>();
+            vorgemerkt = null;
+            journalGroesse = Math.max(0, stand.journalLaenge);
+            generation++;
+        }
+    }
+
+    /**
+     * Trägt einen mit {@link #synchronisieren(Dateistand, List)} übergebenen Stand als
+     * Grundlage ein und bewahrt dabei nicht zusammengeführte Einträge auf. Muss unter
+     * {@code flushSperre} laufen.
+     *
+     * @throws IOException Wenn die Einträge nicht aufbewahrt werden können
+     */
+    private void nachziehen() throws IOException {
+        List<String> verworfen;
+        boolean melden;
+        synchronized (this) {
+            verworfen = beiseite;
+            melden = nichtZusammengefuehrt;
+            beiseite = new ArrayList<>();
+            nichtZusammengefuehrt = false;
+            if (uebernahme != null) {
+                grundlage(uebernahme);
+                uebernahme = null;
+            }
+        }
+        if (!melden) return;
+
+        String text = "Die Termin-Datei wurde von einer anderen Instanz geändert. Eigene, noch nicht "
+                + "gespeicherte Änderungen lassen sich bei dieser Dateigröße nicht zusammenführen und wurden verworfen.";
+        if (!verworfen.isEmpty()) {
+            Path datei = sicherungsPfad(journalPfad, "verworfen");
+            Files.write(datei, verworfen, StandardCharsets.UTF_8);
+            text += " Die Journal-Einträge liegen unter " + datei + ".";
+        }
+        warnungen.add(text);
+    }
+
+    private void grundlage(Dateistand stand) {
+        basis = stand.basis;
+        basisStempel = stand.stempel;
+        journalBekannt = stand.journalLaenge;
+        synchron = stand.zeilen;
+    }
+
+    /**
+     * Benennt eine Journal-Datei mit Zeitstempel um, damit sie nicht mehr angewendet,
+     * aber auch nicht gelöscht wird.
+     *
+     * @param datei Journal-Datei
+     * @param grund Namenszusatz, z.B. {@code verworfen}
+     * @return Neuer Pfad der Datei
+     * @throws IOException Wenn die Datei nicht umbenannt werden kann
+     */
+    private static Path beiseitelegen(Path datei, String grund) throws IOException {
+        return Files.move(datei, sicherungsPfad(datei, grund));
+    }
+
+    /**
+     * Kopiert ein Journal, in dem Einträge übersprungen wurden, und merkt eine Warnung vor.
+     *
+     * @param datei         Journal-Datei
+     * @param uebersprungen Anzahl der übersprungenen Einträge
+     * @return true, wenn Einträge übersprungen wurden
+     * @throws IOException Wenn die Kopie nicht angelegt werden kann
+     */
+    private boolean fehlerhaftMelden(Path datei, int uebersprungen) throws IOException {
+        if (uebersprungen == 0) return false;
+        Path kopie = Files.copy(datei, sicherungsPfad(datei, "fehlerhaft"));
+        warnungen.add("Unlesbare Einträge im Termin-Journal übersprungen: " + uebersprungen
+                + ". Eine Kopie des Journals liegt unter " + kopie + ".");
+        return true;
+    }
+
+    private static Path sicherungsPfad(Path datei, String grund) {
+        return datei.resolveSibling(datei.getFileName() + "." + grund + "-" + LocalDateTime.now().format(ZEITSTEMPEL));
+    }
+
+    /**
+     * Meldet die gesammelten Warnungen an {@link #setWarnung(Consumer)}.
+     */
+    private void warnen() {
+        for (String text : warnungen) {
+            warnung.accept(text);
+        }
+        warnungen.clear();
+    }
+
+    private void melden(Dateistand fremd) {
+        if (fremd == null) return;
+        Consumer<Dateistand> empfaenger = fremdeAenderung;
+        if (empfaenger != null) {
+            empfaenger.accept(fremd);
+        } else {
+            System.err.println("Termin-Datei wurde von außen geändert: " + csvPfad);
+        }
+    }
+
+    /**
+     * @return true, wenn CSV-Datei oder Journal nicht mehr dem zuletzt gelesenen
+     *         oder geschriebenen Stand entsprechen
+     */
+    private boolean fremdGeaendert() throws IOException {
+        return !Objects.equals(basisStempel, stempel()) || journalLaenge() != journalBekannt
+                || Files.exists(altPfad);
+    }
+
+    /**
+     * Protokolliert einen neu eingefügten Termin.
+     *
+     * @param index  Position des neuen Termins
+     * @param termin Der neue Termin
+     */
+    public synchronized void einfuegen(int index, Termin termin) {
+        anhaengen("E;" + index + ";" + CsvManager.toCsvZeile(termin));
+    }
+
+    /**
+     * Protokolliert die Änderung eines Termins.
+     *
+     * @param index  Position des Termins
+     * @param termin Der geänderte Termin
+     */
+    public synchronized void aendern(int index, Termin termin) {
+        anhaengen("U;" + index + ";" + CsvManager.toCsvZeile(termin));
+    }
+
+    /**
+     * Protokolliert das Löschen eines Termins.
+     *
+     * @param index Position des gelöschten Termins
+     */
+    public synchronized void loeschen(int index) {
+        anhaengen("D;" + index);
+    }
+
+    /**
+     * @return true, wenn das Journal die Schwelle überschritten hat und
+     *         noch keine Kompaktierung vorgemerkt ist
+     */
+    public synchronized boolean mussKompaktieren() {
+        return journalGroesse > schwelle && vorgemerkt == null;
+    }
+
+    /**
+     * Merkt den übergebenen Stand als neuen Snapshot vor; beim nächsten {@link #flush()}
+     * wird er im Hintergrund serialisiert und geschrieben und das Journal gelöscht.
+     * <p>
+     * Kopiert wird nur die Liste, sodass sie danach weiter verändert werden darf; eine
+     * {@link TerminSeiten#momentaufnahme()} wird unverändert übernommen.
+     * Spätere Änderungen an einem Termin selbst werden ohnehin als Eintrag nach dem
+     * Snapshot angehängt. Noch nicht geschriebene Einträge sind im Stand enthalten und
+     * werden verworfen.
+     *
+     * @param stand Vollständiger aktueller Stand aller Termine
+     */
+    public void kompaktieren(List<Termin> stand) {
+        // Eine Momentaufnahme ist bereits unveränderlich und würde beim Kopieren dekodiert
+        List<Termin> kopie = stand instanceof TerminSeiten.Momentaufnahme ? stand : new ArrayList<>(stand);
+        synchronized (this) {
+            vorgemerkt = kopie;
+            ausstehend = new ArrayList<>();
+            journalGroesse = 0;
+            generation++;
+        }
+    }
+
+    /**
+     * Prüft, ob die CSV-Datei seit dem letzten {@link #laden()} bzw. dem letzten
+     * eigenen Schreiben von außen ersetzt oder geändert wurde.
+     *
+     * @return true, wenn der geladene Stand veraltet ist
+     * @throws IOException Bei Fehlern beim Lesen der Attribute
+     */
+    public boolean csvGeaendert() throws IOException {
+        synchronized (flushSperre) {
+            nachziehen();
+            return basisStempel != null && !basisStempel.equals(stempel());
+        }
+    }
+
+    /**
+     * @return Pfad der Journal-Datei
+     */
+    public String getJournalPfad() {
+        return journalPfad.toString();
+    }
+
+    /**
+     * Schreibt einen vorgemerkten Snapshot und hängt alle gesammelten Einträge in einem
+     * Schreibvorgang an das Journal an (bei Bedarf mit Kopfzeile).
+     * <p>
+     * Wurden die Dateien inzwischen von einer anderen Instanz verändert, wird nichts
+     * geschrieben und der fremde Stand gemeldet (siehe {@link #setFremdeAenderung(Consumer)}).
+     * Bei einem Fehler bleiben die Einträge für den nächsten Versuch erhalten.
+     * <p>
+     * Die Einträge werden zu Beginn entnommen; während geschrieben wird, können
+     * bereits neue vermerkt werden, die der nächste Aufruf schreibt.
+     *
+     * @throws IOException Bei Schreibfehlern
+     */
+    public void flush() throws IOException {
+        Dateistand fremd;
+        synchronized (flushSperre) {
+            nachziehen();
+            Auftrag auftrag = entnehmen();
+            if (auftrag == null) return;
+
+            boolean geschrieben = false;
+            try {
+                Ersatz ersatz = auftrag.stand == null || auftrag.stand instanceof TerminSeiten.Momentaufnahme
+                        ? null : new Ersatz(auftrag.stand);
+                fremd = DateiSperre.gesperrt(csvPfad, () -> {
+                    if (fremdGeaendert()) return neuLesen();
+                    if (auftrag.stand instanceof TerminSeiten.Momentaufnahme seiten) seitenSchreiben(seiten);
+                    schreiben(ersatz, auftrag.zeilen);
+                    return null;
+                });
+                geschrieben = fremd == null;
+            } finally {
+                if (!geschrieben) zuruecklegen(auftrag);
+            }
+            warnen();
+        }
+        melden(fremd);
+    }
+
+    /**
+     * Schreibt Snapshot und Einträge eines {@link Auftrag}s. Muss unter der
+     * {@link DateiSperre} und {@code flushSperre} laufen.
+     *
+     * @param ersatz Zu schreibender Snapshot oder {@code null}
+     * @param zeilen Anzuhängende Einträge
+     * @throws IOException Bei Schreibfehlern
+     */
+    private void schreiben(Ersatz ersatz, List<String> zeilen) throws IOException {
+        if (ersatz != null) {
+            snapshotSchreiben(ersatz.daten, ersatz.binaer);
+            verwerfen(csvPfad.toString());
+            basis = crc32(ersatz.daten);
+            basisStempel = stempel();
+            journalBekannt = -1;
+            synchron = ersatz.zeilen;
+        }
+        if (!zeilen.isEmpty()) {
+            if (!Files.exists(journalPfad)) kopfSchreiben();
+            StringBuilder sb = new StringBuilder();
+            for (String zeile : zeilen) {
+                sb.append(zeile).append('\n');
+            }
+            Files.write(journalPfad, sb.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (synchron != null) {
+                List<String> neu = new ArrayList<>(synchron);
+                nachspielen(zeilen, 0, neu, (zeile, nr) -> zeile, journalPfad);
+                synchron = neu;
+            }
+            journalBekannt = journalLaenge();
+        }
+    }
+
+    /**
+     * Schreibt eine Momentaufnahme von {@link TerminSeiten} als neuen Snapshot, ohne die
+     * Termine aus der Datei zu dekodieren. Einen binären {@link TerminSnapshot} gibt es
+     * dafür nicht. Muss unter der {@link DateiSperre} und {@code flushSperre} laufen.
+     *
+     * @param stand Der zu schreibende Stand
+     * @throws IOException Bei Lese- oder Schreibfehlern
+     */
+    private void seitenSchreiben(TerminSeiten.Momentaufnahme stand) throws IOException {
+        long crc = stand.schreiben();
+        TerminSnapshot.verwerfen(csvPfad.toString());
+        verwerfen(csvPfad.toString());
+        basis = crc;
+        basisStempel = stempel();
+        journalBekannt = -1;
+    }
+
+    /**
+     * Entnimmt die gesammelten Einträge und den vorgemerkten Snapshot.
+     *
+     * @return Auftrag oder {@code null}, wenn nichts zu schreiben ist
+     */
+    private synchronized Auftrag entnehmen() {
+        if (ausstehend.isEmpty() && vorgemerkt == null) return null;
+        Auftrag auftrag = new Auftrag(vorgemerkt, ausstehend, generation);
+        ausstehend = new ArrayList<>();
+        vorgemerkt = null;
+        return auftrag;
+    }
+
+    /**
+     * Legt einen nicht geschriebenen Auftrag vor die inzwischen gesammelten Einträge
+     * zurück. Wurde seitdem kompaktiert, neu geladen oder synchronisiert, ist er im
+     * neuen Stand enthalten bzw. überholt und wird verworfen.
+     */
+    private synchronized void zuruecklegen(Auftrag auftrag) {
+        if (auftrag.generation != generation) return;
+        vorgemerkt = auftrag.stand;
+        ausstehend.addAll(0, auftrag.zeilen);
+    }
+
+    /**
+     * Merkt eine Zeile für das nächste {@link #flush()} vor.
+     *
+     * @param zeile Journal-Eintrag ohne Zeilenumbruch
+     */
+    private void anhaengen(String zeile) {
+        ausstehend.add(zeile);
+        journalGroesse += zeile.length() + 1;
+    }
+
+    /**
+     * Legt ein neues, leeres Journal mit der aktuellen Basis an.
+     *
+     * @throws IOException Bei Schreibfehlern
+     */
+    private void kopfSchreiben() throws IOException {
+        byte[] kopf = (BASIS_PREFIX + Long.toHexString(basis) + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.write(journalPfad, kopf);
+    }
+
+    /**
+     * Schreibt einen Snapshot über eine temporäre Datei und ersetzt die CSV-Datei atomar.
+     * Anschließend wird der passende {@link TerminSnapshot} geschrieben.
+     *
+     * @param daten  Inhalt der neuen CSV-Datei
+     * @param binaer Derselbe Stand, kodiert mit {@link TerminSnapshot#kodieren(List)}
+     * @throws IOException Bei Schreibfehlern
+     */
+    private void snapshotSchreiben(byte[] daten, byte[] binaer) throws IOException {
+        Path tmp = Paths.get(csvPfad + ".tmp");
+        Files.write(tmp, daten);
+        try {
+            Files.move(tmp, csvPfad, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, csvPfad, StandardCopyOption.REPLACE_EXISTING);
+        }
+        TerminSnapshot.schreiben(csvPfad, binaer, crc32(daten));
+    }
+
+    /**
+     * Spielt alle Einträge eines Journals auf die Liste nach.
+     *
+     * @param datei   Journal-Datei
+     * @param termine Liste, auf die die Änderungen angewendet werden
+     * @return Anzahl der übersprungenen, unlesbaren Einträge
+     * @throws IOException Bei Lesefehlern
+     */
+    private static int nachspielen(Path datei, List<Termin> termine) throws IOException {
+        return nachspielen(Files.readAllLines(datei, StandardCharsets.UTF_8), 1, termine, CsvManager::parseTermin, datei);
+    }
+
+    /**
+     * Wandelt den Termin-Teil eines Eintrags um.
+     */
+    @FunctionalInterface
+    private interface Eintragsleser<T> {
+        T lesen(String zeile, int zeileNr) throws IOException;
+    }
+
+    /**
+     * Spielt Journal-Einträge auf eine Liste nach, entweder auf Termine oder auf
+     * deren CSV-Zeilen. Unlesbare oder nicht anwendbare Einträge, z.B. eine beim
+     * Absturz unvollständig geschriebene Zeile, werden übersprungen und gezählt.
+     *
+     * @param zeilen Journal-Zeilen
+     * @param ab     Index der ersten Eintragszeile (1, wenn die Kopfzeile enthalten ist)
+     * @param liste  Liste, auf die die Änderungen angewendet werden
+     * @param leser  Wandelt den Termin-Teil eines Eintrags um
+     * @param quelle Datei für Fehlermeldungen
+     * @return Anzahl der übersprungenen Einträge
+     */
+    private static <T> int nachspielen(List<String> zeilen, int ab, List<T> liste, Eintragsleser<T> leser, Path quelle) {
+        int uebersprungen = 0;
+        for (int i = ab; i < zeilen.size(); i++) {
+            String zeile = zeilen.get(i);
+            try {
+                String[] p = zeile.split(";", 3);
+                int index = Integer.parseInt(p[1]);
+                switch (p[0]) {
+                    case "E" -> liste.add(index, leser.lesen(p[2], i + 1));
+                    case "U" -> liste.set(index, leser.lesen(p[2], i + 1));
+                    case "D" -> liste.remove(index);
+                    case "P" -> {
+                        String[] positionen = p[2].split(",");
+                        List<T> vorher = new ArrayList<>(liste.subList(index, index + positionen.length));
+                        for (int k = 0; k < positionen.length; k++) {
+                            liste.set(Integer.parseInt(positionen[k]), vorher.get(k));
+                        }
+                    }
+                    default -> throw new IOException("Unbekannter Eintrag");
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Termin-Journal: Zeile " + (i + 1) + " übersprungen (" + quelle + ")");
+                uebersprungen++;
+            }
+        }
+        return uebersprungen;
+    }
+
+    /**
+     * Liest die Basis-Prüfsumme aus der ersten Zeile eines Journals.
+     *
+     * @param datei Journal-Datei
+     * @return Prüfsumme oder -1, wenn die Kopfzeile fehlt
+     * @throws IOException Bei Lesefehlern
+     */
+    private static long basisVon(Path datei) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(datei, StandardCharsets.UTF_8)) {
+            String kopf = reader.readLine();
+            if (kopf == null || !kopf.startsWith(BASIS_PREFIX)) return -1;
+            try {
+                return Long.parseLong(kopf.substring(BASIS_PREFIX.length()), 16);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @return Länge des Journals in Bytes oder -1, wenn es nicht existiert
+     * @throws IOException Bei Fehlern beim Lesen der Attribute
+     */
+    private long journalLaenge() throws IOException {
+        try {
+            return Files.size(journalPfad);
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return Größe und Änderungszeitpunkt der CSV-Datei als Vergleichswert
+     * @throws IOException Bei Fehlern beim Lesen der Attribute
+     */
+    private String stempel() throws IOException {
+        if (!Files.exists(csvPfad)) return "-";
+        BasicFileAttributes a = Files.readAttributes(csvPfad, BasicFileAttributes.class);
+        return a.size() + "@" + a.lastModifiedTime().toMillis();
+    }
+
+    private static byte[] serialisieren(List<Termin> termine) {
+        StringBuilder sb = new StringBuilder(termine.size() * 48);
+        for (Termin t : termine) {
+            sb.append(CsvManager.toCsvZeile(t)).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long crc32(byte[] daten) {
+        CRC32 crc = new CRC32();
+        crc.update(daten);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,1030 @@
+package at.spengergasse.projekt.model;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+
+/**
+ * Die {@code TerminSeiten} stellen eine sehr große Termin-Datei als bearbeitbare,
+ * beobachtbare Liste dar, ohne jede Zeile als {@link Termin} zu erzeugen.
+ * <p>
+ * Beim Öffnen wird die Datei einmal blockweise gelesen und jede Zeile wie beim
+ * vollständigen Laden geprüft. Behalten werden nur der Anfang jeder Zeile in der Datei
+ * sowie Datum und Art als Spalten (9 Byte pro Zeile). Termine entstehen erst beim
+ * Zugriff, jeweils für eine ganze Seite von {@link #SEITE} Zeilen; höchstens
+ * {@link #MAX_SEITEN} dekodierte Seiten bleiben erhalten, die am längsten nicht
+ * verwendete fällt zuerst heraus. Liegt ein Zugriff weniger als {@link #VORLAUF}
+ * Zeilen vor dem Rand einer Seite, wird die Nachbarseite gleich mit gelesen.
+ * <p>
+ * Änderungen überlagern die Datei: Die Liste hält je Position entweder die Nummer einer
+ * Zeile der Datei oder einen eigenen Termin (eingefügt, ersetzt oder mit
+ * {@link #festhalten(int)} als bearbeitet vermerkt). Das {@link TerminJournal} spielt
+ * seine Einträge beim Öffnen auf diese Liste nach und schreibt beim Kompaktieren aus einer
+ * {@link #momentaufnahme()} eine neue Datei, ohne dafür Termine zu dekodieren. Danach
+ * stellt die Liste ihre Zeilennummern auf die neue Datei um und gibt eigene Termine, die
+ * seit der Momentaufnahme nicht mehr bearbeitet wurden, wieder frei.
+ * <p>
+ * {@link #indexOf(Object)} vergleicht, wie {@link TerminBestand#indexVon(Termin)}, nur die
+ * Identität, da ein Vergleich über {@code equals} alle Zeilen dekodieren würde. Aus
+ * demselben Grund gibt es keinen Such- oder Datumsindex; {@link #zwischen(LocalDate, LocalDate)}
+ * und {@link #naechsterNach(LocalDate)} durchsuchen die Datumsspalte.
+ * <p>
+ * Die Liste wird nur auf dem JavaFX Application Thread verwendet; Öffnen und das Lesen
+ * einer Momentaufnahme dürfen im Hintergrund erfolgen.
+ */
+public final class TerminSeiten extends ObservableListBase<Termin> implements RandomAccess {
+
+    /** Dateigröße in Bytes, ab der eine Termin-Datei seitenweise geöffnet wird. */
+    public static final long SCHWELLE = 32L << 20;
+
+    /** Anzahl der Zeilen, die gemeinsam dekodiert werden. */
+    static final int SEITE = 256;
+    /** Höchstzahl gleichzeitig dekodierter Seiten. */
+    static final int MAX_SEITEN = 32;
+    /** Abstand zum Seitenrand, ab dem die Nachbarseite mitgelesen wird. */
+    static final int VORLAUF = 64;
+
+    private static final int LESEPUFFER = 1 << 20;
+    private static final TerminArt[] ARTEN = TerminArt.values();
+
+    private Basis basis;
+    /** Je Position: Zeile der Datei (ab 0) oder {@code -(k + 1)} für den eigenen Termin k. */
+    private int[] zeilen;
+    private int groesse;
+
+    /** Eigene Termine; freigegebene Plätze bleiben {@code null} und werden nicht wiederverwendet. */
+    private Termin[] eigene = new Termin[16];
+    /** Stand von {@link #aenderungen} bei der letzten Änderung des eigenen Termins. */
+    private int[] geaendertBei = new int[16];
+    private int anzahlEigene;
+    private int aenderungen;
+
+    private final Seitenspeicher seiten = new Seitenspeicher();
+    private final TerminStatistik statistik = new TerminStatistik();
+    private FileChannel offen;
+
+    // Zuletzt angefragte Positionen, ungefähr der sichtbare Bereich einer Tabelle
+    private int sichtVon = -1;
+    private int sichtBis = -1;
+
+    private TerminSeiten(Basis basis) {
+        this.basis = basis;
+        this.groesse = basis.anzahl;
+        this.zeilen = new int[Math.max(16, groesse)];
+        for (int i = 0; i < groesse; i++) zeilen[i] = i;
+        statistik.zaehlen(basis.tag, basis.art, basis.anzahl);
+    }
+
+    /**
+     * Prüft, ob eine Termin-Datei so groß ist, dass sie seitenweise geöffnet werden sollte.
+     *
+     * @param datei Pfad zur Termin-Datei
+     * @return true ab {@link #SCHWELLE} Bytes
+     * @throws IOException Bei Fehlern beim Lesen der Attribute
+     */
+    public static boolean istGross(Path datei) throws IOException {
+        return Files.exists(datei) && Files.size(datei) >= SCHWELLE;
+    }
+
+    /**
+     * Öffnet eine Termin-Datei. Liest und prüft die ganze Datei, erzeugt aber keine Termine.
+     * Eine fehlende Datei ergibt eine leere Liste.
+     *
+     * @param datei Pfad zur Termin-Datei
+     * @return Die geöffnete Liste
+     * @throws IOException Bei Lese- oder Formatfehlern (Meldungen wie beim vollständigen Laden)
+     */
+    static TerminSeiten oeffnen(Path datei) throws IOException {
+        return new TerminSeiten(Basis.vermessen(datei));
+    }
+
+    /**
+     * @return CRC32 der geöffneten bzw. zuletzt geschriebenen Datei
+     */
+    long crc() {
+        nachfuehren();
+        return basis.crc;
+    }
+
+    /**
+     * @return Laufend nachgeführte Statistik über die Termine
+     */
+    public TerminStatistik getStatistik() {
+        return statistik;
+    }
+
+    /**
+     * @return Anzahl der aktuell dekodierten Seiten (höchstens {@link #MAX_SEITEN})
+     */
+    int dekodierteSeiten() {
+        return seiten.size();
+    }
+
+    /**
+     * @return Anzahl der eigenen Termine, die die Datei überlagern
+     */
+    int eigeneTermine() {
+        int anzahl = 0;
+        for (int i = 0; i < anzahlEigene; i++) {
+            if (eigene[i] != null) anzahl++;
+        }
+        return anzahl;
+    }
+
+    @Override
+    public int size() {
+        return groesse;
+    }
+
+    @Override
+    public Termin get(int index) {
+        Objects.checkIndex(index, groesse);
+        nachfuehren();
+        sichten(index);
+        int zeile = zeilen[index];
+        if (zeile < 0) return eigene[-zeile - 1];
+        Termin termin = ausSeite(zeile);
+        vorauslesen(zeile);
+        return termin;
+    }
+
+    @Override
+    public void add(int index, Termin termin) {
+        Objects.checkIndex(index, groesse + 1);
+        nachfuehren();
+        platzSchaffen(1);
+        System.arraycopy(zeilen, index, zeilen, index + 1, groesse - index);
+        zeilen[index] = eigenerEintrag(termin);
+        groesse++;
+        modCount++;
+        statistik.hinzugefuegt(Collections.singletonList(termin));
+        statistik.geaendert();
+
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Termin> termine) {
+        if (termine.isEmpty()) return false;
+        nachfuehren();
+        List<Termin> neue = new ArrayList<>(termine);
+        int start = groesse;
+        platzSchaffen(neue.size());
+        for (Termin t : neue) {
+            zeilen[groesse++] = eigenerEintrag(t);
+        }
+        modCount++;
+        statistik.hinzugefuegt(neue);
+        statistik.geaendert();
+
+        beginChange();
+        nextAdd(start, groesse);
+        endChange();
+        return true;
+    }
+
+    @Override
+    public Termin set(int index, Termin termin) {
+        Objects.checkIndex(index, groesse);
+        nachfuehren();
+        Termin alt = austragen(zeilen[index]);
+        zeilen[index] = eigenerEintrag(termin);
+        statistik.hinzugefuegt(Collections.singletonList(termin));
+        statistik.geaendert();
+
+        beginChange();
+        nextSet(index, alt);
+        endChange();
+        return alt;
+    }
+
+    @Override
+    public Termin remove(int index) {
+        Objects.checkIndex(index, groesse);
+        nachfuehren();
+        Termin alt = austragen(zeilen[index]);
+        System.arraycopy(zeilen, index + 1, zeilen, index, groesse - index - 1);
+        groesse--;
+        modCount++;
+        statistik.geaendert();
+
+        beginChange();
+        nextRemove(index, alt);
+        endChange();
+        return alt;
+    }
+
+    /**
+     * Sucht einen Termin über seine Identität, nicht über {@code equals}.
+     *
+     * @param o Der gesuchte Termin
+     * @return Position oder -1, wenn er nicht (mehr) in der Liste ist
+     */
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Termin termin ? indexVon(termin) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * Position eines Termins. Gesucht wird unter den eigenen und den dekodierten Terminen;
+     * ein Termin, dessen Seite inzwischen verworfen wurde, wird nicht mehr gefunden.
+     *
+     * @param termin Der gesuchte Termin
+     * @return Position oder -1
+     */
+    int indexVon(Termin termin) {
+        nachfuehren();
+        int gesucht = eintragVon(termin);
+        if (gesucht == Integer.MIN_VALUE) return -1;
+        for (int i = 0; i < groesse; i++) {
+            if (zeilen[i] == gesucht) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Vermerkt, dass der Termin an dieser Position direkt bearbeitet wurde. Ein Termin aus
+     * der Datei wird dabei zum eigenen Termin, damit die Änderung nicht mit seiner Seite
+     * verloren geht, und in der Statistik mit seinen neuen Werten gezählt.
+     *
+     * @param index Position des bearbeiteten Termins
+     */
+    void festhalten(int index) {
+        Objects.checkIndex(index, groesse);
+        nachfuehren();
+        int zeile = zeilen[index];
+        if (zeile < 0) {
+            geaendertBei[-zeile - 1] = ++aenderungen;
+            return;
+        }
+        Termin termin = ausSeite(zeile);
+        statistik.zaehlen(LocalDate.ofEpochDay(basis.tag[zeile]), ARTEN[basis.art[zeile]], -1);
+        statistik.hinzugefuegt(Collections.singletonList(termin));
+        statistik.geaendert();
+        zeilen[index] = eigenerEintrag(termin);
+    }
+
+    /**
+     * Termine in einem Zeitraum, wie {@link TerminDatumsIndex#zwischen(LocalDate, LocalDate)}.
+     * Durchsucht wird die Datumsspalte; gelesen werden nur die gefundenen Zeilen.
+     *
+     * @param von Erster Tag (inklusive)
+     * @param bis Letzter Tag (inklusive)
+     * @return Termine nach Datum sortiert, innerhalb eines Tages in Listenreihenfolge
+     */
+    public List<Termin> zwischen(LocalDate von, LocalDate bis) {
+        nachfuehren();
+        List<Termin> ergebnis = new ArrayList<>();
+        if (bis.isBefore(von)) return ergebnis;
+
+        long erster = von.toEpochDay();
+        long letzter = bis.toEpochDay();
+        long[] treffer = new long[16];
+        int anzahl = 0;
+        for (int i = 0; i < groesse; i++) {
+            long tag = tag(i);
+            if (tag < erster || tag > letzter) continue;
+            if (anzahl == treffer.length) treffer = Arrays.copyOf(treffer, anzahl * 2);
+            treffer[anzahl++] = (tag - erster) << 32 | i;
+        }
+        Arrays.sort(treffer, 0, anzahl);
+
+        try (Closeable ignored = offenHalten()) {
+            for (int k = 0; k < anzahl; k++) {
+                ergebnis.add(termin(zeilen[(int) treffer[k]]));
+            }
+        } catch (IOException e) {
+            System.err.println("Termine konnten nicht gelesen werden: " + e.getMessage());
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Der erste Termin nach einem Tag, wie {@link TerminDatumsIndex#naechsterNach(LocalDate)}.
+     *
+     * @param datum Tag, nach dem gesucht wird (exklusive)
+     * @return Der nächste Termin oder {@code Optional.empty()}, wenn keiner mehr folgt
+     */
+    public Optional<Termin> naechsterNach(LocalDate datum) {
+        nachfuehren();
+        long nach = datum.toEpochDay();
+        long bester = Long.MAX_VALUE;
+        int position = -1;
+        for (int i = 0; i < groesse; i++) {
+            long tag = tag(i);
+            if (tag > nach && tag < bester) {
+                bester = tag;
+                position = i;
+            }
+        }
+        return position < 0 ? Optional.empty() : Optional.of(termin(zeilen[position]));
+    }
+
+    /**
+     * Unveränderliche Sicht auf den aktuellen Stand, die in einem Hintergrund-Thread
+     * gelesen und vom {@link TerminJournal} als neuer Snapshot geschrieben werden kann.
+     *
+     * @return Momentaufnahme der Liste
+     */
+    Momentaufnahme momentaufnahme() {
+        nachfuehren();
+        return new Momentaufnahme(basis, Arrays.copyOf(zeilen, groesse),
+                Arrays.copyOf(eigene, anzahlEigene), aenderungen);
+    }
+
+    /**
+     * Übernimmt eine im Hintergrund neu geöffnete Liste, z.B. nachdem eine andere Instanz
+     * die Datei geändert hat. Beobachter erhalten eine einzige Änderung, die alle Termine
+     * ersetzt.
+     *
+     * @param neu Die neu geöffnete Liste; sie wird danach nicht mehr verwendet
+     */
+    void uebernehmen(TerminSeiten neu) {
+        Momentaufnahme vorher = momentaufnahme();
+        statistik.loslassen(vorhandeneEigene());
+        neu.statistik.loslassen(neu.vorhandeneEigene());
+
+        basis = neu.basis;
+        zeilen = neu.zeilen;
+        groesse = neu.groesse;
+        eigene = neu.eigene;
+        geaendertBei = neu.geaendertBei;
+        anzahlEigene = neu.anzahlEigene;
+        aenderungen = neu.aenderungen;
+        seiten.clear();
+        sichtVon = sichtBis = -1;
+        modCount++;
+
+        statistik.uebernehmen(neu.statistik);
+        statistik.beobachten(vorhandeneEigene());
+        fireChange(new Ersetzt(this, vorher));
+    }
+
+    /**
+     * Hält die Datei für mehrere Zugriffe hintereinander offen, z.B. beim Nachspielen
+     * eines Journals, anstatt sie für jede Seite neu zu öffnen.
+     *
+     * @return Schließt die Datei wieder
+     * @throws IOException Wenn die Datei nicht geöffnet werden kann
+     */
+    Closeable offenHalten() throws IOException {
+        if (offen != null || basis.anzahl == 0) return () -> { };
+        offen = FileChannel.open(basis.datei, StandardOpenOption.READ);
+        return () -> {
+            FileChannel kanal = offen;
+            offen = null;
+            kanal.close();
+        };
+    }
+
+    private Termin ausSeite(int zeile) {
+        Termin[] seite = seiten.get(zeile / SEITE);
+        if (seite == null || seite[zeile % SEITE] == null) {
+            seite = seiteLesen(zeile / SEITE, seite);
+            if (seite == null) return platzhalter();
+        }
+        return seite[zeile % SEITE];
+    }
+
+    /**
+     * Dekodiert eine Seite und füllt deren noch leere Plätze.
+     *
+     * @return Die Seite oder {@code null}, wenn die Datei nicht mehr gelesen werden kann
+     */
+    private Termin[] seiteLesen(int nr, Termin[] seite) {
+        int von = nr * SEITE;
+        List<Termin> gelesen = basis.dekodieren(offen, von, Math.min(von + SEITE, basis.anzahl));
+        if (gelesen == null) return null;
+        if (seite == null) {
+            seite = new Termin[SEITE];
+            seiten.put(nr, seite);
+        }
+        for (int i = 0; i < gelesen.size(); i++) {
+            if (seite[i] == null) seite[i] = gelesen.get(i);
+        }
+        return seite;
+    }
+
+    private void vorauslesen(int zeile) {
+        int nr = zeile / SEITE;
+        int inSeite = zeile % SEITE;
+        if (inSeite >= SEITE - VORLAUF && (nr + 1) * SEITE < basis.anzahl && !seiten.containsKey(nr + 1)) {
+            seiteLesen(nr + 1, null);
+        } else if (inSeite < VORLAUF && nr > 0 && !seiten.containsKey(nr - 1)) {
+            seiteLesen(nr - 1, null);
+        }
+    }
+
+    /**
+     * Ein einzelner Termin ohne Umweg über eine Seite, z.B. für Abfragen oder einen
+     * gelöschten Termin, der danach nicht mehr gebraucht wird.
+     */
+    private Termin termin(int zeile) {
+        if (zeile < 0) return eigene[-zeile - 1];
+        Termin[] seite = seiten.get(zeile / SEITE);
+        if (seite != null && seite[zeile % SEITE] != null) return seite[zeile % SEITE];
+        List<Termin> gelesen = basis.dekodieren(offen, zeile, zeile + 1);
+        return gelesen == null ? platzhalter() : gelesen.get(0);
+    }
+
+    private long tag(int index) {
+        int zeile = zeilen[index];
+        if (zeile >= 0) return basis.tag[zeile];
+        LocalDate datum = eigene[-zeile - 1].getDatum();
+        return datum == null ? Long.MIN_VALUE : datum.toEpochDay();
+    }
+
+    /**
+     * Nimmt den Termin einer Position aus Statistik und eigenen Terminen heraus.
+     *
+     * @return Der bisherige Termin
+     */
+    private Termin austragen(int zeile) {
+        if (zeile < 0) {
+            Termin termin = eigene[-zeile - 1];
+            eigene[-zeile - 1] = null;
+            statistik.entfernt(Collections.singletonList(termin));
+            return termin;
+        }
+        statistik.zaehlen(LocalDate.ofEpochDay(basis.tag[zeile]), ARTEN[basis.art[zeile]], -1);
+        return termin(zeile);
+    }
+
+    private int eigenerEintrag(Termin termin) {
+        if (anzahlEigene == eigene.length) {
+            eigene = Arrays.copyOf(eigene, anzahlEigene * 2);
+            geaendertBei = Arrays.copyOf(geaendertBei, anzahlEigene * 2);
+        }
+        int k = anzahlEigene++;
+        eigene[k] = termin;
+        geaendertBei[k] = ++aenderungen;
+        return -(k + 1);
+    }
+
+    /**
+     * @return Eintrag in {@link #zeilen} für diesen Termin oder {@link Integer#MIN_VALUE}
+     */
+    private int eintragVon(Termin termin) {
+        for (int k = 0; k < anzahlEigene; k++) {
+            if (eigene[k] == termin) return -(k + 1);
+        }
+        for (Map.Entry<Integer, Termin[]> seite : seiten.entrySet()) {
+            Termin[] termine = seite.getValue();
+            for (int i = 0; i < termine.length; i++) {
+                if (termine[i] == termin) return seite.getKey() * SEITE + i;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private List<Termin> vorhandeneEigene() {
+        List<Termin> vorhanden = new ArrayList<>();
+        for (int k = 0; k < anzahlEigene; k++) {
+            if (eigene[k] != null) vorhanden.add(eigene[k]);
+        }
+        return vorhanden;
+    }
+
+    private void platzSchaffen(int anzahl) {
+        if (groesse + anzahl > zeilen.length) {
+            zeilen = Arrays.copyOf(zeilen, Math.max(groesse + anzahl, zeilen.length * 2));
+        }
+    }
+
+    private void sichten(int index) {
+        if (index < sichtVon - SEITE || index > sichtBis + SEITE || sichtBis - sichtVon > 4 * SEITE) {
+            sichtVon = sichtBis = index;
+        } else {
+            sichtVon = Math.min(sichtVon, index);
+            sichtBis = Math.max(sichtBis, index);
+        }
+    }
+
+    /**
+     * Stellt die Liste auf Dateien um, die seit dem letzten Zugriff durch Kompaktieren
+     * entstanden sind.
+     */
+    private void nachfuehren() {
+        for (Basis neu = basis.nachfolger; neu != null; neu = basis.nachfolger) {
+            umstellen(neu);
+        }
+    }
+
+    /**
+     * Bildet Zeilen und dekodierte Seiten auf die neue Datei ab. Eigene Termine, die dort
+     * unverändert stehen, werden wieder zu Zeilen der Datei; ausgenommen sind die zuletzt
+     * angefragten Positionen, damit eine Tabelle dort weiter dieselben Objekte findet.
+     */
+    private void umstellen(Basis neu) {
+        List<Integer> nummern = new ArrayList<>(seiten.keySet());
+        List<Termin[]> inhalte = new ArrayList<>(seiten.values());
+        seiten.clear();
+        for (int s = 0; s < nummern.size(); s++) {
+            Termin[] seite = inhalte.get(s);
+            for (int i = 0; i < SEITE; i++) {
+                int zeile = nummern.get(s) * SEITE + i;
+                if (seite[i] != null && zeile < neu.ausAlt.length && neu.ausAlt[zeile] >= 0) {
+                    zwischenspeichern(neu.ausAlt[zeile], seite[i]);
+                }
+            }
+        }
+
+        List<Termin> freigegeben = new ArrayList<>();
+        for (int i = 0; i < groesse; i++) {
+            int zeile = zeilen[i];
+            if (zeile >= 0) {
+                zeilen[i] = neu.ausAlt[zeile];
+                continue;
+            }
+            int k = -zeile - 1;
+            boolean sichtbar = i >= sichtVon - SEITE && i <= sichtBis + SEITE;
+            if (k < neu.ausEigenen.length && neu.ausEigenen[k] >= 0 && geaendertBei[k] <= neu.stand && !sichtbar) {
+                freigegeben.add(eigene[k]);
+                eigene[k] = null;
+                zeilen[i] = neu.ausEigenen[k];
+            }
+        }
+        // Gleicher Inhalt wie in der Datei, die Zähler bleiben daher unverändert
+        statistik.loslassen(freigegeben);
+        basis = neu;
+    }
+
+    private void zwischenspeichern(int zeile, Termin termin) {
+        Termin[] seite = seiten.get(zeile / SEITE);
+        if (seite == null) {
+            seite = new Termin[SEITE];
+            seiten.put(zeile / SEITE, seite);
+        }
+        seite[zeile % SEITE] = termin;
+    }
+
+    private static Termin platzhalter() {
+        return new Termin("(nicht lesbar)", null, TerminArt.SONSTIGES, "");
+    }
+
+    private static byte artIndex(TerminArt art) {
+        return (byte) (art == null ? TerminArt.SONSTIGES : art).ordinal();
+    }
+
+    /**
+     * Dekodierte Seiten, die am längsten nicht verwendete wird zuerst verworfen.
+     */
+    private static final class Seitenspeicher extends LinkedHashMap<Integer, Termin[]> {
+        private static final long serialVersionUID = 1L;
+
+        private Seitenspeicher() {
+            super(MAX_SEITEN * 2, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Termin[]> eldest) {
+            return size() > MAX_SEITEN;
+        }
+    }
+
+    /**
+     * Eine einzige Änderung, die alle Termine ersetzt. Die entfernten Termine werden
+     * dabei nicht kopiert.
+     */
+    private static final class Ersetzt extends ListChangeListener.Change<Termin> {
+        private final List<Termin> vorher;
+        private int position = -1;
+
+        private Ersetzt(TerminSeiten liste, List<Termin> vorher) {
+            super(liste);
+            this.vorher = vorher;
+        }
+
+        @Override
+        public boolean next() {
+            return ++position == 0;
+        }
+
+        @Override
+        public void reset() {
+            position = -1;
+        }
+
+        @Override
+        public int getFrom() {
+            return 0;
+        }
+
+        @Override
+        public int getTo() {
+            return getList().size();
+        }
+
+        @Override
+        public List<Termin> getRemoved() {
+            return vorher;
+        }
+
+        @Override
+        protected int[] getPermutation() {
+            return new int[0];
+        }
+    }
+
+    /**
+     * Eine geöffnete oder durch Kompaktieren geschriebene Datei: Anfang, Datum und Art
+     * jeder Termin-Zeile. Nach dem Kompaktieren verweist die bisherige Basis auf ihren
+     * {@link #nachfolger}, der ihre Zeilennummern auf die neue Datei abbildet.
+     */
+    static final class Basis {
+        final Path datei;
+        /** Gemeinsam für alle Nachfolger; schützt Lesen und Ersetzen der Datei. */
+        final Object sperre;
+        final int anzahl;
+        /** Anfang jeder Zeile, zusätzlich das Dateiende an Position {@code anzahl}. */
+        final int[] anfang;
+        final int[] tag;
+        final byte[] art;
+        final long crc;
+        final boolean ohneUmbruch;
+        private final long groesse;
+        private final long zeit;
+
+        /** Zeile der Vorgänger-Datei → Zeile hier, -1 wenn sie nicht übernommen wurde. */
+        final int[] ausAlt;
+        /** Eigener Termin der Momentaufnahme → Zeile hier, -1 wenn er keiner war. */
+        final int[] ausEigenen;
+        /** Änderungszähler zur Zeit der Momentaufnahme. */
+        final int stand;
+        volatile Basis nachfolger;
+
+        private Basis(Path datei, Object sperre, int anzahl, int[] anfang, int[] tag, byte[] art, long crc,
+                      boolean ohneUmbruch, int[] ausAlt, int[] ausEigenen, int stand) throws IOException {
+            this.datei = datei;
+            this.sperre = sperre;
+            this.anzahl = anzahl;
+            this.anfang = anfang;
+            this.tag = tag;
+            this.art = art;
+            this.crc = crc;
+            this.ohneUmbruch = ohneUmbruch;
+            this.ausAlt = ausAlt;
+            this.ausEigenen = ausEigenen;
+            this.stand = stand;
+            if (Files.exists(datei)) {
+                BasicFileAttributes a = Files.readAttributes(datei, BasicFileAttributes.class);
+                this.groesse = a.size();
+                this.zeit = a.lastModifiedTime().toMillis();
+            } else {
+                this.groesse = -1;
+                this.zeit = -1;
+            }
+        }
+
+        /**
+         * Liest eine Datei blockweise, prüft jede Zeile und merkt sich Anfang, Datum und Art.
+         */
+        static Basis vermessen(Path datei) throws IOException {
+            int[] anfang = new int[1024];
+            int[] tag = new int[1024];
+            byte[] art = new byte[1024];
+            int anzahl = 0;
+            CRC32 crc = new CRC32();
+            boolean ohneUmbruch = false;
+
+            ByteBuffer puffer = ByteBuffer.allocate(LESEPUFFER);
+            TerminCsvParser.Zeilenleser leser = new TerminCsvParser.Zeilenleser(puffer);
+            int versatz = 0;
+            int zeileNr = 0;
+            try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+                if (kanal.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Termine-Datei ist zu groß: " + datei);
+                }
+                boolean ende = false;
+                while (!ende) {
+                    int vorher = puffer.position();
+                    ende = kanal.read(puffer) < 0;
+                    crc.update(puffer.array(), vorher, puffer.position() - vorher);
+
+                    int bis = puffer.position();
+                    int pos = 0;
+                    while (pos < bis) {
+                        int start = pos;
+                        int e = start;
+                        while (e < bis && puffer.get(e) != '\n' && puffer.get(e) != '\r') e++;
+                        if (!ende && (e == bis || (e == bis - 1 && puffer.get(e) == '\r'))) {
+                            break;   // Zeile (oder \r\n) wird im nächsten Block fortgesetzt
+                        }
+                        pos = e;
+                        if (pos < bis) {
+                            pos += puffer.get(pos) == '\r' && pos + 1 < bis && puffer.get(pos + 1) == '\n' ? 2 : 1;
+                        }
+
+                        zeileNr++;
+                        long werte;
+                        try {
+                            werte = leser.kennwerte(start, e, zeileNr);
+                        } catch (TerminCsvParser.ZeilenFehler f) {
+                            throw f.alsIOException(0);
+                        }
+                        if (werte == TerminCsvParser.Zeilenleser.LEER) continue;
+
+                        if (anzahl == tag.length) {
+                            anfang = Arrays.copyOf(anfang, anzahl * 2 + 1);
+                            tag = Arrays.copyOf(tag, anzahl * 2);
+                            art = Arrays.copyOf(art, anzahl * 2);
+                        }
+                        anfang[anzahl] = versatz + start;
+                        tag[anzahl] = (int) (werte >> 8);
+                        art[anzahl] = (byte) (werte & 0xff);
+                        anzahl++;
+                    }
+                    if (ende && bis > 0) {
+                        byte letztes = puffer.get(bis - 1);
+                        ohneUmbruch = letztes != '\n' && letztes != '\r';
+                    }
+
+                    // Angefangene Zeile an den Anfang des Puffers schieben
+                    puffer.limit(bis).position(pos);
+                    puffer.compact();
+                    versatz += pos;
+                    if (!puffer.hasRemaining()) {
+                        ByteBuffer groesser = ByteBuffer.allocate(puffer.capacity() * 2);
+                        groesser.put(puffer.flip());
+                        puffer = groesser;
+                        leser = new TerminCsvParser.Zeilenleser(puffer);
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                versatz = 0;
+            }
+
+            anfang = Arrays.copyOf(anfang, anzahl + 1);
+            anfang[anzahl] = versatz;
+            return new Basis(datei, new Object(), anzahl, anfang, Arrays.copyOf(tag, anzahl),
+                    Arrays.copyOf(art, anzahl), crc.getValue(), ohneUmbruch, null, null, 0);
+        }
+
+        /**
+         * Dekodiert die Zeilen {@code [von, bis)}.
+         *
+         * @param offen Bereits geöffnete Datei oder {@code null}
+         * @return Die Termine oder {@code null}, wenn die Datei inzwischen ersetzt oder von
+         *         außen geändert wurde
+         */
+        List<Termin> dekodieren(FileChannel offen, int von, int bis) {
+            try {
+                ByteBuffer inhalt;
+                synchronized (sperre) {
+                    if (offen != null) {
+                        inhalt = lesen(offen, anfang[von], anfang[bis]);
+                    } else {
+                        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+                            inhalt = lesen(kanal, anfang[von], anfang[bis]);
+                        }
+                    }
+                }
+                if (inhalt == null) return null;
+
+                List<Termin> termine = new ArrayList<>(bis - von);
+                new TerminCsvParser.Zeilenleser(inhalt).lesen(0, inhalt.limit(), 1, termine);
+                return termine.size() == bis - von ? termine : null;
+            } catch (IOException e) {
+                System.err.println("Termine konnten nicht gelesen werden: " + e.getMessage());
+                return null;
+            } catch (TerminCsvParser.ZeilenFehler e) {
+                return null;
+            }
+        }
+
+        /**
+         * Liest einen Bereich der Datei. Muss unter {@link #sperre} laufen.
+         */
+        private ByteBuffer lesen(FileChannel kanal, int von, int bis) throws IOException {
+            if (nachfolger != null || !unveraendert()) return null;
+            ByteBuffer inhalt = ByteBuffer.allocate(bis - von);
+            while (inhalt.hasRemaining() && kanal.read(inhalt, von + inhalt.position()) >= 0) {
+                // weiterlesen, bis der Bereich vollständig ist
+            }
+            if (inhalt.hasRemaining() || !unveraendert()) return null;
+            return inhalt.flip();
+        }
+
+        private boolean unveraendert() throws IOException {
+            BasicFileAttributes a = Files.readAttributes(datei, BasicFileAttributes.class);
+            return a.size() == groesse && a.lastModifiedTime().toMillis() == zeit;
+        }
+
+        /**
+         * @return Die aktuelle Basis am Ende der Kette der Nachfolger
+         */
+        Basis aktuell() {
+            Basis b = this;
+            while (b.nachfolger != null) b = b.nachfolger;
+            return b;
+        }
+    }
+
+    /**
+     * Unveränderlicher Stand der Liste. Zeilen der Datei werden beim Lesen auf die
+     * aktuelle Datei umgerechnet und in einem eigenen Puffer dekodiert; eigene Termine sind
+     * dieselben Objekte wie in der Liste. Eine Momentaufnahme wird nur von einem Thread gelesen.
+     */
+    static final class Momentaufnahme extends AbstractList<Termin> implements RandomAccess {
+        private final Basis basis;
+        private final int[] zeilen;
+        private final Termin[] eigene;
+        private final int stand;
+
+        private Basis seiteBasis;
+        private int seiteNr = -1;
+        private List<Termin> seite;
+
+        private Momentaufnahme(Basis basis, int[] zeilen, Termin[] eigene, int stand) {
+            this.basis = basis;
+            this.zeilen = zeilen;
+            this.eigene = eigene;
+            this.stand = stand;
+        }
+
+        @Override
+        public int size() {
+            return zeilen.length;
+        }
+
+        @Override
+        public Termin get(int index) {
+            int zeile = zeilen[index];
+            if (zeile < 0) return eigene[-zeile - 1];
+
+            // Zweiter Versuch, falls die Datei währenddessen durch Kompaktieren ersetzt wurde
+            for (int versuch = 0; versuch < 2; versuch++) {
+                Basis b = basis;
+                int z = zeile;
+                while (b.nachfolger != null && z >= 0) {
+                    b = b.nachfolger;
+                    z = b.ausAlt[z];
+                }
+                if (z < 0) break;
+
+                int nr = z / SEITE;
+                if (b != seiteBasis || nr != seiteNr) {
+                    List<Termin> gelesen = b.dekodieren(null, nr * SEITE, Math.min((nr + 1) * SEITE, b.anzahl));
+                    if (gelesen == null) continue;
+                    seite = gelesen;
+                    seiteBasis = b;
+                    seiteNr = nr;
+                }
+                return seite.get(z % SEITE);
+            }
+            return platzhalter();
+        }
+
+        /**
+         * Schreibt den Stand als neue Termin-Datei und ersetzt die bisherige über eine
+         * temporäre Datei. Zeilen der Datei werden am Stück kopiert, nur eigene Termine als
+         * CSV-Zeile erzeugt. Anschließend wird die neue {@link Basis} an die bisherige
+         * gehängt, sodass die Liste beim nächsten Zugriff umgestellt wird.
+         * Muss unter der {@link DateiSperre} laufen.
+         *
+         * @return CRC32 der neuen Datei
+         * @throws IOException Bei Lese- oder Schreibfehlern
+         */
+        long schreiben() throws IOException {
+            Basis alt = basis.aktuell();
+            int n = zeilen.length;
+            int[] quelle = new int[n];
+            for (int i = 0; i < n; i++) {
+                int z = zeilen[i];
+                for (Basis b = basis; b != alt && z >= 0; ) {
+                    b = b.nachfolger;
+                    z = b.ausAlt[z];
+                }
+                if (z < 0 && zeilen[i] >= 0) {
+                    throw new IOException("Termin-Zeile fehlt in der aktuellen Datei: " + alt.datei);
+                }
+                quelle[i] = zeilen[i] < 0 ? zeilen[i] : z;
+            }
+
+            int[] anfang = new int[n + 1];
+            int[] tag = new int[n];
+            byte[] art = new byte[n];
+            int[] ausAlt = new int[alt.anzahl];
+            int[] ausEigenen = new int[eigene.length];
+            Arrays.fill(ausAlt, -1);
+            Arrays.fill(ausEigenen, -1);
+            CRC32 crc = new CRC32();
+
+            Path tmp = Paths.get(alt.datei + ".tmp");
+            try (FileChannel eingabe = alt.anzahl == 0 ? null : FileChannel.open(alt.datei, StandardOpenOption.READ);
+                 OutputStream aus = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                ByteBuffer puffer = ByteBuffer.allocate(LESEPUFFER);
+                long pos = 0;
+                int i = 0;
+                while (i < n) {
+                    int z = quelle[i];
+                    if (z < 0) {
+                        Termin t = eigene[-z - 1];
+                        byte[] zeile = (CsvManager.toCsvZeile(t) + "\n").getBytes(StandardCharsets.UTF_8);
+                        anfang[i] = (int) pos;
+                        tag[i] = (int) t.getDatum().toEpochDay();
+                        art[i] = artIndex(t.getArt());
+                        ausEigenen[-z - 1] = i;
+                        aus.write(zeile);
+                        crc.update(zeile);
+                        pos += zeile.length;
+                        i++;
+                    } else {
+                        // Aufeinanderfolgende Zeilen der alten Datei am Stück kopieren
+                        int ende = i + 1;
+                        while (ende < n && quelle[ende] == quelle[ende - 1] + 1) ende++;
+                        int von = alt.anfang[z];
+                        int letzte = quelle[ende - 1];
+                        for (int k = i; k < ende; k++) {
+                            int q = quelle[k];
+                            anfang[k] = (int) (pos + alt.anfang[q] - von);
+                            tag[k] = alt.tag[q];
+                            art[k] = alt.art[q];
+                            ausAlt[q] = k;
+                        }
+                        pos += kopieren(eingabe, von, alt.anfang[letzte + 1], aus, crc, puffer);
+                        if (letzte + 1 == alt.anzahl && alt.ohneUmbruch) {
+                            aus.write('\n');
+                            crc.update('\n');
+                            pos++;
+                        }
+                        i = ende;
+                    }
+                    if (pos > Integer.MAX_VALUE) {
+                        throw new IOException("Termine-Datei ist zu groß: " + alt.datei);
+                    }
+                }
+                anfang[n] = (int) pos;
+            }
+
+            synchronized (alt.sperre) {
+                if (alt.nachfolger != null) {
+                    Files.deleteIfExists(tmp);
+                    throw new IOException("Termin-Datei wurde bereits ersetzt: " + alt.datei);
+                }
+                try {
+                    Files.move(tmp, alt.datei, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, alt.datei, StandardCopyOption.REPLACE_EXISTING);
+                }
+                alt.nachfolger = new Basis(alt.datei, alt.sperre, n, anfang, tag, art, crc.getValue(),
+                        false, ausAlt, ausEigenen, stand);
+            }
+            return crc.getValue();
+        }
+
+        /**
+         * Kopiert den Bereich {@code [von, bis)} der Datei.
+         *
+         * @return Anzahl der kopierten Bytes
+         */
+        private static long kopieren(FileChannel eingabe, int von, int bis, OutputStream aus, CRC32 crc,
+                                     ByteBuffer puffer) throws IOException {
+            long pos = von;
+            while (pos < bis) {
+                puffer.clear().limit((int) Math.min(puffer.capacity(), bis - pos));
+                int gelesen = eingabe.read(puffer, pos);
+                if (gelesen < 0) throw new IOException("Termin-Datei ist kürzer als erwartet");
+                aus.write(puffer.array(), 0, gelesen);
+                crc.update(puffer.array(), 0, gelesen);
+                pos += gelesen;
+            }
+            return bis - von;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package at.spengergasse.projekt.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Der {@code TerminSnapshot} ist eine binäre Kopie einer Termin-Datei
+ * ({@code <pfad>.snap}), die ohne erneutes Zerlegen der CSV-Zeilen geladen werden kann.
+ * <p>
+ * Format (Big Endian):
+ * <pre>
+ * int    Kennung "SMTS"
+ * short  Version
+ * long   Größe der CSV-Datei
+ * long   Änderungszeitpunkt der CSV-Datei (ms)
+ * int    CRC32 der CSV-Datei
+ * int    Anzahl Strings, je Eintrag: int Länge + UTF-8-Bytes
+ * int    Anzahl Termine, je Eintrag: int Epoch-Day, byte Art, int Titel, int Notiz
+ * </pre>
+ * Titel und Notiz verweisen auf die String-Tabelle, gleiche Texte werden nur einmal
+ * gespeichert. Die Art wird als Ordinalzahl von {@link TerminArt} abgelegt.
+ * <p>
+ * Der Snapshot wird nur verwendet, solange Größe, Änderungszeitpunkt und CRC32 der
+ * CSV-Datei mit den gespeicherten Werten übereinstimmen. Die Prüfsumme wird dazu bei
+ * jedem Laden über die eingelesene CSV-Datei berechnet; das kostet nur einen
+ * Bruchteil des Zerlegens der Zeilen und erkennt auch Änderungen, bei denen Größe und
+ * Zeitstempel gleich bleiben (z.B. grob aufgelöste Zeitstempel oder zurückgesetzte
+ * Änderungszeitpunkte). Andernfalls wird die CSV-Datei zerlegt und der Snapshot neu
+ * geschrieben. Die CSV-Datei bleibt das maßgebliche Format für
+ * Import und Export; der Snapshot ist nur ein Zwischenspeicher und darf jederzeit
+ * gelöscht werden.
+ */
+public final class TerminSnapshot {
+
+    private static final int KENNUNG = 0x534D5453;
+    private static final short VERSION = 1;
+    private static final TerminArt[] ARTEN = TerminArt.values();
+
+    private TerminSnapshot() {
+    }
+
+    /**
+     * Ergebnis eines Ladevorgangs: die Termine und die Prüfsumme der CSV-Datei,
+     * auf der sie beruhen.
+     */
+    static final class Stand {
+        final List<Termin> termine;
+        final long crc;
+
+        private Stand(List<Termin> termine, long crc) {
+            this.termine = termine;
+            this.crc = crc;
+        }
+    }
+
+    /**
+     * Lädt alle Termine einer Termin-Datei, bevorzugt aus dem Snapshot.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     * @return Liste der Termine (leer, wenn die Datei fehlt)
+     * @throws IOException Bei Lese- oder Formatfehlern in der CSV-Datei
+     */
+    public static List<Termin> laden(String pfad) throws IOException {
+        return lesen(Paths.get(pfad)).termine;
+    }
+
+    /**
+     * Lädt den Stand einer Termin-Datei. Passt der Snapshot nicht (mehr) zur
+     * CSV-Datei, wird diese zerlegt und der Snapshot neu geschrieben.
+     *
+     * @param csv Pfad zur Termin-CSV-Datei
+     * @return Termine und Prüfsumme der CSV-Datei
+     * @throws IOException Bei Lese- oder Formatfehlern in der CSV-Datei
+     */
+    static Stand lesen(Path csv) throws IOException {
+        if (!Files.exists(csv)) return new Stand(new ArrayList<>(), 0);
+
+        BasicFileAttributes attribute = Files.readAttributes(csv, BasicFileAttributes.class);
+        ByteBuffer daten = TerminCsvParser.einlesen(csv);
+        CRC32 crc = new CRC32();
+        crc.update(daten.duplicate());
+
+        Path snap = snapshotPfad(csv);
+        if (Files.exists(snap)) {
+            try {
+                Stand stand = dekodieren(ByteBuffer.wrap(Files.readAllBytes(snap)), attribute, crc.getValue());
+                if (stand != null) return stand;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Termin-Snapshot unlesbar, CSV wird gelesen: " + snap);
+            }
+        }
+
+        List<Termin> termine = TerminCsvParser.parse(daten);
+
+        try {
+            schreiben(snap, attribute, kodieren(termine), crc.getValue());
+        } catch (IOException e) {
+            System.err.println("Termin-Snapshot konnte nicht geschrieben werden: " + e.getMessage());
+        }
+        return new Stand(termine, crc.getValue());
+    }
+
+    /**
+     * Kodiert Termine als Inhalt eines Snapshots (ohne Kopf). Kann im aufrufenden
+     * Thread erfolgen, während das Schreiben später im Hintergrund passiert.
+     *
+     * @param termine Zu speichernde Termine
+     * @return String-Tabelle und Datensätze
+     */
+    static byte[] kodieren(List<Termin> termine) {
+        Map<String, Integer> indizes = new HashMap<>();
+        List<String> tabelle = new ArrayList<>();
+        int[] datensaetze = new int[termine.size() * 4];
+
+        for (int i = 0; i < termine.size(); i++) {
+            Termin t = termine.get(i);
+            datensaetze[i * 4] = (int) t.getDatum().toEpochDay();
+            datensaetze[i * 4 + 1] = (t.getArt() == null ? TerminArt.SONSTIGES : t.getArt()).ordinal();
+            datensaetze[i * 4 + 2] = index(t.getTitel().trim(), indizes, tabelle);
+            datensaetze[i * 4 + 3] = index(t.getNotiz() == null ? "" : t.getNotiz().trim(), indizes, tabelle);
+        }
+
+        ByteArrayOutputStream puffer = new ByteArrayOutputStream(termine.size() * 24 + 64);
+        try (DataOutputStream out = new DataOutputStream(puffer)) {
+            out.writeInt(tabelle.size());
+            for (String s : tabelle) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(termine.size());
+            for (int i = 0; i < datensaetze.length; i += 4) {
+                out.writeInt(datensaetze[i]);
+                out.writeByte(datensaetze[i + 1]);
+                out.writeInt(datensaetze[i + 2]);
+                out.writeInt(datensaetze[i + 3]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return puffer.toByteArray();
+    }
+
+    /**
+     * Schreibt einen Snapshot für die aktuelle CSV-Datei. Wird aufgerufen, nachdem
+     * die CSV-Datei selbst geschrieben wurde.
+     *
+     * @param csv    Pfad zur Termin-CSV-Datei
+     * @param inhalt Ergebnis von {@link #kodieren(List)} für denselben Stand
+     * @param crc    CRC32 der geschriebenen CSV-Datei
+     * @throws IOException Bei Schreibfehlern
+     */
+    static void schreiben(Path csv, byte[] inhalt, long crc) throws IOException {
+        schreiben(snapshotPfad(csv), Files.readAttributes(csv, BasicFileAttributes.class), inhalt, crc);
+    }
+
+    /**
+     * Löscht den Snapshot einer Termin-Datei, z.B. wenn diese verschoben oder
+     * gelöscht wurde.
+     *
+     * @param pfad Pfad zur Termin-CSV-Datei
+     * @throws IOException Wenn die Datei nicht gelöscht werden kann
+     */
+    public static void verwerfen(String pfad) throws IOException {
+        Files.deleteIfExists(snapshotPfad(Paths.get(pfad)));
+    }
+
+    private static Path snapshotPfad(Path csv) {
+        return Paths.get(csv + ".snap");
+    }
+
+    /**
+     * Schreibt Kopf und Inhalt über eine temporäre Datei und ersetzt den Snapshot atomar.
+     */
+    private static void schreiben(Path snap, BasicFileAttributes csv, byte[] inhalt, long crc) throws IOException {
+        ByteBuffer kopf = ByteBuffer.allocate(4 + 2 + 8 + 8 + 4);
+        kopf.putInt(KENNUNG)
+                .putShort(VERSION)
+                .putLong(csv.size())
+                .putLong(csv.lastModifiedTime().toMillis())
+                .putInt((int) crc);
+
+        byte[] daten = new byte[kopf.capacity() + inhalt.length];
+        System.arraycopy(kopf.array(), 0, daten, 0, kopf.capacity());
+        System.arraycopy(inhalt, 0, daten, kopf.capacity(), inhalt.length);
+
+        Path tmp = Paths.get(snap + ".tmp");
+        Files.write(tmp, daten);
+        try {
+            Files.move(tmp, snap, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snap, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Liest einen Snapshot.
+     *
+     * @param daten Inhalt der Snapshot-Datei
+     * @param csv   Aktuelle Attribute der CSV-Datei
+     * @param crc   CRC32 des aktuellen Inhalts der CSV-Datei
+     * @return Der gespeicherte Stand oder {@code null}, wenn der Snapshot nicht zur CSV-Datei passt
+     * @throws IOException Bei beschädigtem Inhalt
+     */
+    private static Stand dekodieren(ByteBuffer daten, BasicFileAttributes csv, long crc) throws IOException {
+        try {
+            if (daten.getInt() != KENNUNG || daten.getShort() != VERSION) return null;
+            if (daten.getLong() != csv.size() || daten.getLong() != csv.lastModifiedTime().toMillis()) return null;
+            if ((daten.getInt() & 0xffffffffL) != crc) return null;
+
+            String[] tabelle = new String[daten.getInt()];
+            for (int i = 0; i < tabelle.length; i++) {
+                int laenge = daten.getInt();
+                tabelle[i] = new String(daten.array(), daten.position(), laenge, StandardCharsets.UTF_8);
+                daten.position(daten.position() + laenge);
+            }
+
+            int anzahl = daten.getInt();
+            List<Termin> termine = new ArrayList<>(anzahl);
+            for (int i = 0; i < anzahl; i++) {
+                LocalDate datum = LocalDate.ofEpochDay(daten.getInt());
+                TerminArt art = ARTEN[daten.get()];
+                String titel = tabelle[daten.getInt()];
+                String notiz = tabelle[daten.getInt()];
+                termine.add(new Termin(titel, datum, art, notiz));
+            }
+            if (daten.hasRemaining()) throw new IOException("Unerwartete Daten am Ende");
+            return new Stand(termine, crc);
+        } catch (RuntimeException e) {
+            throw new IOException("Termin-Snapshot ist beschädigt", e);
+        }
+    }
+
+    private static int index(String text, Map<String, Integer> indizes, List<String> tabelle) {
+        Integer index = indizes.get(text);
+        if (index == null) {
+            index = tabelle.size();
+            indizes.put(text, index);
+            tabelle.add(text);
+        }
+        return index;
+    }
+}
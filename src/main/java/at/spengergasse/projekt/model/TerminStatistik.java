@@ -0,0 +1,227 @@
+package at.spengergasse.projekt.model;
+
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Die {@code TerminStatistik} führt Zähler über eine beobachtete Terminliste.
+ * <p>
+ * Anstatt die Termine bei jedem Öffnen der Statistik neu zu laden und zu zählen,
+ * werden die Zähler bei jedem Hinzufügen, Entfernen und Ändern der Art eines
+ * Termins in O(1) nachgeführt. Ein vollständiges Neuladen der Liste (z.B. über
+ * {@code setAll}) läuft über denselben Weg und zählt dabei einmal neu.
+ * <p>
+ * Zusätzlich führt sie ein {@link TerminHistogramm} nach Datum und Art, das bei
+ * Änderungen von Art oder Datum in O(log n) angepasst wird und Abfragen über
+ * beliebige Zeiträume erlaubt.
+ * <p>
+ * Nach jeder Änderung wird {@link #standProperty()} erhöht, sodass eine angezeigte
+ * Statistik sich neu zeichnen kann, ohne die Liste selbst zu beobachten.
+ * <p>
+ * Die Statistik ist nicht threadsicher und wird, wie die Liste selbst, nur auf dem
+ * JavaFX Application Thread verändert.
+ */
+public class TerminStatistik {
+
+    private static final TerminArt[] ARTEN = TerminArt.values();
+
+    private final int[] anzahl = new int[ARTEN.length];
+    private TerminHistogramm histogramm = new TerminHistogramm();
+    private int gesamt;
+    private final ReadOnlyLongWrapper stand = new ReadOnlyLongWrapper(this, "stand");
+
+    private final ChangeListener<TerminArt> artBeobachter = (obs, alt, neu) -> {
+        anzahl[index(alt)]--;
+        anzahl[index(neu)]++;
+        LocalDate datum = termin(obs).getDatum();
+        histogramm.entfernen(datum, alt);
+        histogramm.hinzufuegen(datum, neu);
+        geaendert();
+    };
+
+    private final ChangeListener<LocalDate> datumBeobachter = (obs, alt, neu) -> {
+        TerminArt art = termin(obs).getArt();
+        histogramm.entfernen(alt, art);
+        histogramm.hinzufuegen(neu, art);
+        geaendert();
+    };
+
+    /**
+     * Erstellt eine Statistik, zählt die aktuelle Liste einmal und beobachtet sie danach.
+     *
+     * @param termine Die zu beobachtende Terminliste
+     */
+    public TerminStatistik(ObservableList<Termin> termine) {
+        hinzugefuegt(termine);
+        termine.addListener((ListChangeListener<Termin>) c -> {
+            boolean veraendert = false;
+            while (c.next()) {
+                if (c.wasPermutated() || c.wasUpdated()) continue;
+                entfernt(c.getRemoved());
+                hinzugefuegt(c.getAddedSubList());
+                veraendert = true;
+            }
+            if (veraendert) geaendert();
+        });
+    }
+
+    /**
+     * Erstellt eine leere Statistik ohne beobachtete Liste. Die {@link TerminSeiten}
+     * zählen damit selbst, da sie die meisten Termine nur als Spalten halten.
+     */
+    TerminStatistik() {
+    }
+
+    /**
+     * @return Zähler, der bei jeder Änderung der Statistik erhöht wird
+     */
+    public ReadOnlyLongProperty standProperty() {
+        return stand.getReadOnlyProperty();
+    }
+
+    /**
+     * @return Gesamtanzahl aller Termine
+     */
+    public int getGesamtAnzahl() {
+        return gesamt;
+    }
+
+    /**
+     * @param art Die Terminart
+     * @return Anzahl der Termine dieser Art
+     */
+    public int getAnzahl(TerminArt art) {
+        return anzahl[art.ordinal()];
+    }
+
+    /**
+     * @return Histogramm nach Datum und Art für Abfragen über Zeiträume
+     */
+    public TerminHistogramm getHistogramm() {
+        return histogramm;
+    }
+
+    /**
+     * @return Anzahl je Terminart (nur Arten mit mindestens einem Termin), in der Reihenfolge der Arten
+     */
+    public Map<TerminArt, Integer> getVerteilung() {
+        Map<TerminArt, Integer> verteilung = new EnumMap<>(TerminArt.class);
+        for (TerminArt art : ARTEN) {
+            if (anzahl[art.ordinal()] > 0) {
+                verteilung.put(art, anzahl[art.ordinal()]);
+            }
+        }
+        return verteilung;
+    }
+
+    /**
+     * Zählt Termine, die nur als Spalten vorliegen, ohne sie zu beobachten. Termine
+     * desselben Tages werden gemeinsam in das Histogramm eingetragen.
+     *
+     * @param tage    Datum je Termin als Epoch-Day
+     * @param arten   Ordinalzahl der Art je Termin
+     * @param anzahl  Anzahl der gültigen Einträge
+     */
+    void zaehlen(int[] tage, byte[] arten, int anzahl) {
+        Map<Integer, int[]> proTag = new HashMap<>();
+        for (int i = 0; i < anzahl; i++) {
+            proTag.computeIfAbsent(tage[i], t -> new int[ARTEN.length])[arten[i]]++;
+            this.anzahl[arten[i]]++;
+        }
+        for (Map.Entry<Integer, int[]> tag : proTag.entrySet()) {
+            LocalDate datum = LocalDate.ofEpochDay(tag.getKey());
+            for (TerminArt art : ARTEN) {
+                int n = tag.getValue()[art.ordinal()];
+                if (n > 0) histogramm.aendern(datum, art, n);
+            }
+        }
+        gesamt += anzahl;
+    }
+
+    /**
+     * Zählt einen einzelnen, nicht beobachteten Termin hinzu bzw. heraus.
+     *
+     * @param datum     Datum des Termins
+     * @param art       Art des Termins
+     * @param richtung  1 zum Hinzufügen, -1 zum Entfernen
+     */
+    void zaehlen(LocalDate datum, TerminArt art, int richtung) {
+        anzahl[index(art)] += richtung;
+        histogramm.aendern(datum, art, richtung);
+        gesamt += richtung;
+    }
+
+    /**
+     * Übernimmt die Zähler einer anderen Statistik, z.B. nachdem eine Datei im
+     * Hintergrund neu geöffnet wurde. Deren beobachtete Termine werden nicht übernommen.
+     *
+     * @param andere Die neu aufgebaute Statistik
+     */
+    void uebernehmen(TerminStatistik andere) {
+        System.arraycopy(andere.anzahl, 0, anzahl, 0, anzahl.length);
+        histogramm = andere.histogramm;
+        gesamt = andere.gesamt;
+        geaendert();
+    }
+
+    void hinzugefuegt(List<? extends Termin> termine) {
+        for (Termin t : termine) {
+            anzahl[index(t.getArt())]++;
+            histogramm.hinzufuegen(t.getDatum(), t.getArt());
+        }
+        gesamt += termine.size();
+        beobachten(termine);
+    }
+
+    void entfernt(List<? extends Termin> termine) {
+        loslassen(termine);
+        for (Termin t : termine) {
+            anzahl[index(t.getArt())]--;
+            histogramm.entfernen(t.getDatum(), t.getArt());
+        }
+        gesamt -= termine.size();
+    }
+
+    /**
+     * Folgt Änderungen von Art und Datum der Termine, ohne sie zu zählen.
+     */
+    void beobachten(List<? extends Termin> termine) {
+        for (Termin t : termine) {
+            t.artProperty().addListener(artBeobachter);
+            t.datumProperty().addListener(datumBeobachter);
+        }
+    }
+
+    /**
+     * Beendet die Beobachtung der Termine, ohne die Zähler zu ändern.
+     */
+    void loslassen(List<? extends Termin> termine) {
+        for (Termin t : termine) {
+            t.artProperty().removeListener(artBeobachter);
+            t.datumProperty().removeListener(datumBeobachter);
+        }
+    }
+
+    void geaendert() {
+        stand.set(stand.get() + 1);
+    }
+
+    private static Termin termin(ObservableValue<?> property) {
+        return (Termin) ((ReadOnlyProperty<?>) property).getBean();
+    }
+
+    private static int index(TerminArt art) {
+        return (art == null ? TerminArt.SONSTIGES : art).ordinal();
+    }
+}
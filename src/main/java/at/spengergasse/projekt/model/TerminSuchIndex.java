@@ -0,0 +1,254 @@
+package at.spengergasse.projekt.model;
+
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Der {@code TerminSuchIndex} ist ein invertierter Index über Titel und Notiz der
+ * Termine einer beobachteten Liste.
+ * <p>
+ * Texte werden in Wörter (Folgen von Buchstaben und Ziffern) zerlegt, klein geschrieben
+ * und Umlaute gefaltet ({@code ä → ae}, {@code ö → oe}, {@code ü → ue}, {@code ß → ss}),
+ * sodass "Prüfung", "PRUEFUNG" und "pruefung" dasselbe Wort ergeben. Jedes Wort zeigt
+ * auf die Termine, in denen es vorkommt.
+ * <p>
+ * Ein Suchbegriff mit weniger als drei Zeichen wird als Wortanfang über die sortierte
+ * Wortliste gesucht. Längere Begriffe werden über Trigramme (alle Teilstücke aus drei
+ * Zeichen) auch mitten im Wort gefunden: Die Trigramme des Begriffs grenzen die
+ * Kandidaten ein, danach wird nur noch bei diesen geprüft, ob der Begriff enthalten ist.
+ * Mehrere Suchbegriffe müssen alle vorkommen.
+ * <p>
+ * Hinzufügen, Entfernen und Ändern von Titel oder Notiz werden laufend nachgeführt,
+ * dabei wird nur der betroffene Termin neu zerlegt. Da {@link Termin#equals(Object)}
+ * den Inhalt vergleicht, werden Termine hier über ihre Identität verwaltet.
+ * <p>
+ * Der Index ist nicht threadsicher und wird nur auf dem JavaFX Application Thread verändert.
+ */
+public class TerminSuchIndex {
+
+    private static final int TRIGRAMM = 3;
+    /** Bis zu so vielen passenden Wörtern wird ein Begriff ohne Vereinigung geprüft */
+    private static final int DIREKT_PRUEFEN = 8;
+
+    /** Wort → Termine, in denen es vorkommt; sortiert für die Suche nach Wortanfängen */
+    private final NavigableMap<String, Set<Termin>> woerter = new TreeMap<>();
+    /** Trigramm → Wörter, die es enthalten */
+    private final Map<String, Set<String>> trigramme = new HashMap<>();
+    /** Termin → seine Wörter, zum Austragen bei Änderungen */
+    private final Map<Termin, Set<String>> woerterVon = new IdentityHashMap<>();
+
+    private final ChangeListener<String> textBeobachter = (obs, alt, neu) -> {
+        Termin t = (Termin) ((ReadOnlyProperty<?>) obs).getBean();
+        austragen(t);
+        eintragen(t);
+    };
+
+    /**
+     * Erstellt den Index für die aktuelle Liste und beobachtet sie danach.
+     *
+     * @param termine Die zu beobachtende Terminliste
+     */
+    public TerminSuchIndex(ObservableList<Termin> termine) {
+        hinzugefuegt(termine);
+        termine.addListener((ListChangeListener<Termin>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated() || c.wasUpdated()) continue;
+                for (Termin t : c.getRemoved()) {
+                    t.titelProperty().removeListener(textBeobachter);
+                    t.notizProperty().removeListener(textBeobachter);
+                    austragen(t);
+                }
+                hinzugefuegt(c.getAddedSubList());
+            }
+        });
+    }
+
+    /**
+     * Sucht Termine, deren Titel oder Notiz alle Begriffe der Anfrage enthalten.
+     *
+     * @param anfrage Ein oder mehrere Suchbegriffe, durch Leerzeichen oder Satzzeichen getrennt
+     * @return Gefundene Termine (ohne bestimmte Reihenfolge) oder {@code null}, wenn die
+     *         Anfrage keinen Suchbegriff enthält
+     */
+    public Set<Termin> suchen(String anfrage) {
+        Set<String> begriffe = zerlegen(anfrage);
+        if (begriffe.isEmpty()) return null;
+
+        // Passende Wörter je Begriff; der Begriff mit den wenigsten Treffern liefert die Kandidaten
+        List<Collection<String>> passend = new ArrayList<>(begriffe.size());
+        int seltenster = 0;
+        int wenigste = Integer.MAX_VALUE;
+        for (String begriff : begriffe) {
+            Collection<String> w = passendeWoerter(begriff);
+            int anzahl = 0;
+            for (String wort : w) {
+                anzahl += woerter.get(wort).size();
+            }
+            if (anzahl == 0) return Collections.emptySet();
+            if (anzahl < wenigste) {
+                wenigste = anzahl;
+                seltenster = passend.size();
+            }
+            passend.add(w);
+        }
+
+        Set<Termin> kandidaten = neueMenge();
+        for (String wort : passend.get(seltenster)) {
+            kandidaten.addAll(woerter.get(wort));
+        }
+        if (passend.size() == 1) return kandidaten;
+
+        // Die übrigen Begriffe an den Kandidaten prüfen: bei wenigen passenden Wörtern direkt
+        // in deren Terminmengen, sonst in einer einmal gebildeten Vereinigung
+        List<List<Set<Termin>>> pruefungen = new ArrayList<>(passend.size() - 1);
+        for (int i = 0; i < passend.size(); i++) {
+            if (i == seltenster) continue;
+            List<Set<Termin>> mengen = new ArrayList<>();
+            if (passend.get(i).size() <= DIREKT_PRUEFEN) {
+                for (String wort : passend.get(i)) {
+                    mengen.add(woerter.get(wort));
+                }
+            } else {
+                Set<Termin> vereinigung = neueMenge();
+                for (String wort : passend.get(i)) {
+                    vereinigung.addAll(woerter.get(wort));
+                }
+                mengen.add(vereinigung);
+            }
+            pruefungen.add(mengen);
+        }
+
+        Set<Termin> ergebnis = neueMenge();
+        kandidaten:
+        for (Termin t : kandidaten) {
+            for (List<Set<Termin>> mengen : pruefungen) {
+                if (!enthalten(mengen, t)) continue kandidaten;
+            }
+            ergebnis.add(t);
+        }
+        return ergebnis;
+    }
+
+    private static boolean enthalten(List<Set<Termin>> mengen, Termin t) {
+        for (Set<Termin> menge : mengen) {
+            if (menge.contains(t)) return true;
+        }
+        return false;
+    }
+
+    private Collection<String> passendeWoerter(String begriff) {
+        if (begriff.length() < TRIGRAMM) {
+            return woerter.subMap(begriff, true, begriff + Character.MAX_VALUE, false).keySet();
+        }
+
+        // Kleinste Trigramm-Menge als Kandidaten, dann auf Enthaltensein prüfen
+        Set<String> kandidaten = null;
+        for (int i = 0; i + TRIGRAMM <= begriff.length(); i++) {
+            Set<String> w = trigramme.get(begriff.substring(i, i + TRIGRAMM));
+            if (w == null) return Collections.emptyList();
+            if (kandidaten == null || w.size() < kandidaten.size()) kandidaten = w;
+        }
+        List<String> passend = new ArrayList<>();
+        for (String wort : kandidaten) {
+            if (wort.contains(begriff)) passend.add(wort);
+        }
+        return passend;
+    }
+
+    private void hinzugefuegt(List<? extends Termin> termine) {
+        for (Termin t : termine) {
+            eintragen(t);
+            t.titelProperty().addListener(textBeobachter);
+            t.notizProperty().addListener(textBeobachter);
+        }
+    }
+
+    private void eintragen(Termin t) {
+        Set<String> eigene = zerlegen(t.getTitel());
+        eigene.addAll(zerlegen(t.getNotiz()));
+        woerterVon.put(t, eigene);
+        for (String wort : eigene) {
+            Set<Termin> termine = woerter.get(wort);
+            if (termine == null) {
+                termine = neueMenge();
+                woerter.put(wort, termine);
+                for (int i = 0; i + TRIGRAMM <= wort.length(); i++) {
+                    trigramme.computeIfAbsent(wort.substring(i, i + TRIGRAMM), k -> new HashSet<>()).add(wort);
+                }
+            }
+            termine.add(t);
+        }
+    }
+
+    private void austragen(Termin t) {
+        Set<String> eigene = woerterVon.remove(t);
+        if (eigene == null) return;
+        for (String wort : eigene) {
+            Set<Termin> termine = woerter.get(wort);
+            if (termine == null) continue;
+            termine.remove(t);
+            if (!termine.isEmpty()) continue;
+
+            // Wort kommt nicht mehr vor: auch aus den Trigrammen entfernen
+            woerter.remove(wort);
+            for (int i = 0; i + TRIGRAMM <= wort.length(); i++) {
+                String trigramm = wort.substring(i, i + TRIGRAMM);
+                Set<String> w = trigramme.get(trigramm);
+                if (w != null && w.remove(wort) && w.isEmpty()) trigramme.remove(trigramm);
+            }
+        }
+    }
+
+    /**
+     * Zerlegt einen Text in gefaltete Wörter.
+     *
+     * @param text Beliebiger Text ({@code null} ergibt keine Wörter)
+     * @return Die unterschiedlichen Wörter in der Reihenfolge ihres ersten Auftretens
+     */
+    static Set<String> zerlegen(String text) {
+        Set<String> ergebnis = new LinkedHashSet<>();
+        if (text == null) return ergebnis;
+
+        StringBuilder wort = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                falten(Character.toLowerCase(c), wort);
+            } else if (wort.length() > 0) {
+                ergebnis.add(wort.toString());
+                wort.setLength(0);
+            }
+        }
+        if (wort.length() > 0) ergebnis.add(wort.toString());
+        return ergebnis;
+    }
+
+    private static void falten(char c, StringBuilder ziel) {
+        switch (c) {
+            case 'ä' -> ziel.append("ae");
+            case 'ö' -> ziel.append("oe");
+            case 'ü' -> ziel.append("ue");
+            case 'ß' -> ziel.append("ss");
+            default -> ziel.append(c);
+        }
+    }
+
+    private static Set<Termin> neueMenge() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
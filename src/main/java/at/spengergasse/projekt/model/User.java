@@ -15,7 +15,7 @@ public class User {
      *
      * @param benutzername            Eindeutiger Benutzername
      * @param rolle                   Rolle des Benutzers (z. B. "admin" oder "user")
-     * @param verschlüsseltesPasswort Passwort als SHA256-Hash (bereits verschlüsselt)
+     * @param verschlüsseltesPasswort Passwort-Hash (siehe {@link PasswortHash}, ältere Einträge als SHA256-Hex)
      */
     public User(String benutzername, String rolle, String verschlüsseltesPasswort) {
         this.benutzername = benutzername;
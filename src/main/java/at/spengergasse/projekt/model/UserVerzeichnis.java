@@ -0,0 +1,229 @@
+package at.spengergasse.projekt.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Das {@code UserVerzeichnis} hält alle Benutzer aus {@code benutzer.csv} im Speicher.
+ * <p>
+ * Die Datei wird einmal eingelesen und in einen Hash-Index (Schlüssel: Benutzername)
+ * übernommen. Namen werden wie in der Datei und in allen Schreibvorgängen des
+ * {@link CsvManager} exakt verglichen, also mit Groß-/Kleinschreibung. Ein
+ * vorgeschalteter Bloom-Filter beantwortet negative Anfragen (z.B. bei der
+ * Registrierung) ohne Zugriff auf den Index.
+ * <p>
+ * Vor jeder Abfrage wird nur Änderungszeitpunkt und Größe der Datei geprüft;
+ * neu geladen wird ausschließlich, wenn sich eines davon geändert hat oder
+ * {@link #invalidieren()} aufgerufen wurde. Eigene Schreibvorgänge werden mit
+ * {@link #geschrieben(BasicFileAttributes, BasicFileAttributes, Consumer)} direkt
+ * übernommen, ohne die Datei erneut zu lesen.
+ */
+public class UserVerzeichnis {
+
+    private final Path datei;
+
+    private Map<String, User> index = Map.of();
+    private List<User> benutzer = List.of();
+    private BloomFilter bloomFilter = new BloomFilter(0);
+    private long geladenGeaendert = -1;
+    private long geladenGroesse = -1;
+
+    /**
+     * Erstellt ein Verzeichnis für die angegebene Benutzerdatei.
+     * Die Datei wird erst bei der ersten Abfrage gelesen.
+     *
+     * @param datei Pfad zur Benutzerdatei
+     */
+    public UserVerzeichnis(Path datei) {
+        this.datei = datei;
+    }
+
+    /**
+     * Sucht einen Benutzer über seinen Namen (exakt, mit Groß-/Kleinschreibung).
+     *
+     * @param name Benutzername
+     * @return Der gefundene Benutzer oder {@code Optional.empty()}
+     * @throws IOException Bei Fehlern beim Lesen der Datei
+     */
+    public synchronized Optional<User> finden(String name) throws IOException {
+        aktualisieren();
+        if (!bloomFilter.vielleichtEnthalten(name)) return Optional.empty();
+        return Optional.ofNullable(index.get(name));
+    }
+
+    /**
+     * Prüft, ob ein Benutzer vorhanden ist.
+     * Negative Antworten kommen in der Regel direkt aus dem Bloom-Filter.
+     *
+     * @param name Benutzername
+     * @return true, wenn der Benutzer existiert
+     * @throws IOException Bei Fehlern beim Lesen der Datei
+     */
+    public synchronized boolean existiert(String name) throws IOException {
+        return finden(name).isPresent();
+    }
+
+    /**
+     * Gibt alle Benutzer in der Reihenfolge der Datei zurück.
+     *
+     * @return Unveränderliche Liste aller Benutzer
+     * @throws IOException Bei Fehlern beim Lesen der Datei
+     */
+    public synchronized List<User> alle() throws IOException {
+        aktualisieren();
+        return benutzer;
+    }
+
+    /**
+     * Erzwingt ein erneutes Einlesen bei der nächsten Abfrage.
+     * Wird aufgerufen, wenn ein eigener Schreibzugriff fehlschlägt oder die Datei
+     * vor dem Schreiben nicht mehr dem geladenen Stand entsprach, da der Stand im
+     * Speicher dann nicht mehr sicher zur Datei passt.
+     */
+    public synchronized void invalidieren() {
+        geladenGeaendert = -1;
+        geladenGroesse = -1;
+    }
+
+    /**
+     * Übernimmt einen eigenen Schreibvorgang in den geladenen Stand, ohne die Datei
+     * erneut zu lesen. Das ist nur möglich, wenn der geladene Stand dem Stand vor dem
+     * Schreiben entsprach; sonst wird bei der nächsten Abfrage neu geladen.
+     * Muss unter der {@link DateiSperre} der Benutzerdatei aufgerufen werden.
+     *
+     * @param vorher    Attribute der Datei vor dem Schreiben ({@code null}, wenn sie fehlte)
+     * @param nachher   Attribute der Datei nach dem Schreiben
+     * @param aenderung Wendet dieselbe Änderung auf eine Kopie der Benutzerliste an
+     */
+    public synchronized void geschrieben(BasicFileAttributes vorher, BasicFileAttributes nachher,
+                                         Consumer<List<User>> aenderung) {
+        long geaendert = vorher == null ? 0 : vorher.lastModifiedTime().toMillis();
+        long groesse = vorher == null ? 0 : vorher.size();
+        if (geaendert != geladenGeaendert || groesse != geladenGroesse) {
+            invalidieren();
+            return;
+        }
+
+        List<User> liste = new ArrayList<>(benutzer);
+        aenderung.accept(liste);
+        setzen(liste);
+        geladenGeaendert = nachher.lastModifiedTime().toMillis();
+        geladenGroesse = nachher.size();
+    }
+
+    /**
+     * Lädt die Datei neu, falls sich Änderungszeitpunkt oder Größe geändert haben.
+     *
+     * @throws IOException Bei Fehlern beim Lesen der Datei
+     */
+    private void aktualisieren() throws IOException {
+        BasicFileAttributes attribute;
+        try {
+            attribute = Files.readAttributes(datei, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (geladenGroesse != 0 || geladenGeaendert != 0) {
+                setzen(List.of());
+                geladenGeaendert = 0;
+                geladenGroesse = 0;
+            }
+            return;
+        }
+
+        long geaendert = attribute.lastModifiedTime().toMillis();
+        long groesse = attribute.size();
+        if (geaendert == geladenGeaendert && groesse == geladenGroesse) return;
+
+        // Unter der Sperre lesen, damit keine halb geschriebene Datei gelesen wird;
+        // die Attribute werden dabei erneut gelesen, da die Datei inzwischen ersetzt sein kann
+        BasicFileAttributes[] gelesen = new BasicFileAttributes[1];
+        List<User> geladen = DateiSperre.gesperrt(datei, () -> {
+            gelesen[0] = Files.readAttributes(datei, BasicFileAttributes.class);
+            List<User> liste = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(datei, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] p = line.split(";");
+                    if (p.length < 2) continue;
+                    liste.add(new User(p[0], p[1], p.length >= 3 ? p[2] : ""));
+                }
+            }
+            return liste;
+        });
+
+        setzen(geladen);
+        geladenGeaendert = gelesen[0].lastModifiedTime().toMillis();
+        geladenGroesse = gelesen[0].size();
+    }
+
+    /**
+     * Baut Index und Bloom-Filter aus einer Benutzerliste neu auf.
+     * Bei doppelten Namen gewinnt der erste Eintrag.
+     *
+     * @param liste Benutzer in Dateireihenfolge
+     */
+    private void setzen(List<User> liste) {
+        Map<String, User> neuerIndex = new HashMap<>(Math.max(16, liste.size() * 2));
+        BloomFilter neuerFilter = new BloomFilter(liste.size());
+        for (User u : liste) {
+            neuerIndex.putIfAbsent(u.getBenutzername(), u);
+            neuerFilter.hinzufuegen(u.getBenutzername());
+        }
+        index = neuerIndex;
+        benutzer = Collections.unmodifiableList(liste);
+        bloomFilter = neuerFilter;
+    }
+
+    /**
+     * Einfacher Bloom-Filter über Strings mit drei Hashfunktionen
+     * (Double-Hashing aus {@code String.hashCode()}).
+     */
+    private static final class BloomFilter {
+
+        private static final int HASHES = 3;
+
+        private final long[] bits;
+        private final int anzahlBits;
+
+        /**
+         * @param erwarteteElemente Erwartete Anzahl an Einträgen (ca. 10 Bit pro Element)
+         */
+        BloomFilter(int erwarteteElemente) {
+            int n = Math.max(64, erwarteteElemente * 10);
+            this.bits = new long[(n + 63) >>> 6];
+            this.anzahlBits = bits.length << 6;
+        }
+
+        void hinzufuegen(String wert) {
+            int h1 = wert.hashCode();
+            int h2 = mischen(h1);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, anzahlBits);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean vielleichtEnthalten(String wert) {
+            int h1 = wert.hashCode();
+            int h2 = mischen(h1);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, anzahlBits);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        private static int mischen(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return h | 1;
+        }
+    }
+}
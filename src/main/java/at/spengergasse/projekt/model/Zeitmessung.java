@@ -0,0 +1,79 @@
+package at.spengergasse.projekt.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sammelt Laufzeiten einzelner Phasen eines wiederkehrenden Ablaufs (z.B. Login).
+ * <p>
+ * Pro Phase werden letzte Dauer, Summe und Anzahl der Messungen festgehalten,
+ * sodass sich auch bei vielen Durchläufen erkennen lässt, wo die Zeit verloren geht.
+ * Die Klasse ist threadsicher.
+ */
+public class Zeitmessung {
+
+    private final String name;
+    private final Map<String, long[]> phasen = new LinkedHashMap<>();
+
+    /**
+     * Erstellt eine neue, leere Messung.
+     *
+     * @param name Bezeichnung des gemessenen Ablaufs (für die Ausgabe)
+     */
+    public Zeitmessung(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Erfasst die Dauer einer Phase seit dem angegebenen Startzeitpunkt.
+     *
+     * @param phase     Name der Phase
+     * @param startNano Startzeitpunkt aus {@link System#nanoTime()}
+     * @return Der aktuelle Zeitpunkt, verwendbar als Start der nächsten Phase
+     */
+    public long erfassen(String phase, long startNano) {
+        long jetzt = System.nanoTime();
+        synchronized (this) {
+            long[] werte = phasen.computeIfAbsent(phase, k -> new long[3]);
+            long dauer = jetzt - startNano;
+            werte[0] = dauer;
+            werte[1] += dauer;
+            werte[2]++;
+        }
+        return jetzt;
+    }
+
+    /**
+     * @param phase Name der Phase
+     * @return Dauer der letzten Messung in Nanosekunden (0, wenn nie gemessen)
+     */
+    public synchronized long getLetzteDauer(String phase) {
+        long[] werte = phasen.get(phase);
+        return werte == null ? 0 : werte[0];
+    }
+
+    /**
+     * @param phase Name der Phase
+     * @return Durchschnittliche Dauer in Nanosekunden (0, wenn nie gemessen)
+     */
+    public synchronized long getDurchschnitt(String phase) {
+        long[] werte = phasen.get(phase);
+        return werte == null || werte[2] == 0 ? 0 : werte[1] / werte[2];
+    }
+
+    /**
+     * Gibt alle Phasen mit letzter und durchschnittlicher Dauer aus.
+     *
+     * @return Zusammenfassung in einer Zeile
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(name).append(':');
+        for (Map.Entry<String, long[]> e : phasen.entrySet()) {
+            long[] w = e.getValue();
+            sb.append(String.format(" %s=%.3fms (Ø %.3fms, n=%d)",
+                    e.getKey(), w[0] / 1e6, w[1] / 1e6 / w[2], w[2]));
+        }
+        return sb.toString();
+    }
+}
@@ -1,5 +1,8 @@
 package at.spengergasse.projekt.model;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+
 import java.util.Objects;
 
 /**
@@ -9,7 +12,7 @@ import java.util.Objects;
 public class Ziele {
 
     private String zielText;
-    private boolean erledigt;
+    private final BooleanProperty erledigt = new SimpleBooleanProperty(this, "erledigt");
 
     /**
      * Erstellt ein neues Ziel, das standardmäßig als nicht erledigt gilt.
@@ -18,7 +21,6 @@ public class Ziele {
      */
     public Ziele(String zielText) {
         this.zielText = zielText;
-        this.erledigt = false;
     }
 
     /**
@@ -29,7 +31,7 @@ public class Ziele {
      */
     public Ziele(String zielText, boolean erledigt) {
         this.zielText = zielText;
-        this.erledigt = erledigt;
+        this.erledigt.set(erledigt);
     }
 
     /** @return Der Zieltext */
@@ -44,12 +46,17 @@ public class Ziele {
 
     /** @return true, wenn das Ziel als erledigt markiert ist */
     public boolean isErledigt() {
-        return erledigt;
+        return erledigt.get();
     }
 
     /** @param erledigt Neuer Erledigt-Status */
     public void setErledigt(boolean erledigt) {
-        this.erledigt = erledigt;
+        this.erledigt.set(erledigt);
+    }
+
+    /** @return Erledigt-Property für JavaFX-Datenbindung */
+    public BooleanProperty erledigtProperty() {
+        return erledigt;
     }
 
     /**
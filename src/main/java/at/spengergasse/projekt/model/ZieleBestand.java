@@ -0,0 +1,345 @@
+package at.spengergasse.projekt.model;
+
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Der {@code ZieleBestand} hält die Ziele eines Benutzers für die Dauer einer Sitzung.
+ * <p>
+ * Die Liste meldet Hinzufügen, Entfernen und das Abhaken eines Ziels (über
+ * {@link Ziele#erledigtProperty()}) als Änderung. Jede Änderung plant das Speichern
+ * über den {@link SpeicherPlaner}; mehrere Änderungen kurz hintereinander werden
+ * zu einem Schreibvorgang zusammengefasst.
+ * <p>
+ * Wie beim {@link TerminBestand} kann mit {@link #einlesen()} im Hintergrund gelesen
+ * und mit {@link #uebernehmen(List)} auf dem JavaFX Application Thread übernommen werden.
+ * <p>
+ * Gelesen und geschrieben wird unter der {@link DateiSperre}. Hat eine andere Instanz
+ * die Datei seit dem letzten eigenen Lesen oder Schreiben verändert, wird nicht
+ * überschrieben, sondern der neue Stand mit den eigenen Änderungen zusammengeführt
+ * (siehe {@link #beobachtungStarten()}).
+ */
+public class ZieleBestand {
+
+    private final String pfad;
+    private final String speicherSchluessel;
+    private final ObservableList<Ziele> ziele =
+            FXCollections.observableArrayList(z -> new Observable[]{z.erledigtProperty()});
+
+    private Consumer<IOException> fehlerBehandlung =
+            e -> System.err.println("Fehler beim Speichern der Ziele-Datei: " + e.getMessage());
+    private volatile boolean geladen;
+    private boolean uebernehmend;
+
+    /** Größe und Änderungszeitpunkt der Datei beim letzten Lesen oder Schreiben. */
+    private String stempel;
+    /** Inhalt ({@code erledigt;zieltext}) beim letzten Lesen oder Schreiben. */
+    private List<String> synchron = List.of();
+
+    private final Runnable pruefer = this::pruefen;
+    private DateiBeobachter.Registrierung beobachtung;
+
+    /**
+     * Erstellt einen (noch leeren) Bestand für eine Ziele-Datei.
+     *
+     * @param pfad Pfad zur Ziele-CSV-Datei
+     */
+    public ZieleBestand(String pfad) {
+        this.pfad = pfad;
+        this.speicherSchluessel = SpeicherPlaner.schluessel(pfad);
+        ziele.addListener((ListChangeListener<Ziele>) c -> {
+            if (!uebernehmend) speichern();
+        });
+    }
+
+    /**
+     * @return Pfad zur Ziele-CSV-Datei
+     */
+    public String getPfad() {
+        return pfad;
+    }
+
+    /**
+     * @return Die Ziele; Änderungen werden automatisch gespeichert
+     */
+    public ObservableList<Ziele> getZiele() {
+        return ziele;
+    }
+
+    /**
+     * Legt fest, wie Fehler beim Speichern gemeldet werden. Der Aufruf erfolgt aus
+     * einem Hintergrund-Thread.
+     *
+     * @param fehlerBehandlung Wird mit dem aufgetretenen Fehler aufgerufen
+     */
+    public void setFehlerBehandlung(Consumer<IOException> fehlerBehandlung) {
+        this.fehlerBehandlung = fehlerBehandlung;
+    }
+
+    /**
+     * Beginnt, die Ziele-Datei auf Änderungen durch andere Instanzen zu beobachten.
+     */
+    public void beobachtungStarten() {
+        if (beobachtung != null) return;
+        try {
+            beobachtung = DateiBeobachter.getInstanz().beobachten(Path.of(pfad), pruefer);
+        } catch (IOException e) {
+            System.err.println("Ziele-Datei kann nicht beobachtet werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Beendet die Beobachtung, z.B. beim Abmelden oder nach einem Wechsel des Pfads.
+     */
+    public void beobachtungBeenden() {
+        if (beobachtung != null) beobachtung.beenden();
+        beobachtung = null;
+    }
+
+    /**
+     * Lädt die Ziele neu aus der Datei, z.B. nach einem Import.
+     */
+    public void laden() {
+        uebernehmen(neuEinlesen());
+    }
+
+    /**
+     * Liest die Ziele, falls sie noch nicht geladen sind. Die Liste wird dabei nicht
+     * verändert, der Aufruf darf daher in einem Hintergrund-Thread erfolgen.
+     *
+     * @return Gelesene Ziele oder {@code null}, wenn sie bereits geladen sind
+     */
+    public List<Ziele> einlesen() {
+        return geladen ? null : neuEinlesen();
+    }
+
+    /**
+     * Übernimmt mit {@link #einlesen()} gelesene Ziele in die Liste, ohne sie erneut zu
+     * speichern. Nur auf dem JavaFX Application Thread aufrufen.
+     *
+     * @param gelesen Gelesene Ziele; bei {@code null} passiert nichts
+     */
+    public void uebernehmen(List<Ziele> gelesen) {
+        if (gelesen == null) return;
+        uebernehmend = true;
+        try {
+            ziele.setAll(gelesen);
+        } finally {
+            uebernehmend = false;
+        }
+        geladen = true;
+    }
+
+    /**
+     * Liest die Ziele-Datei.
+     * Erwartet UTF-8-Codierung, Format: {@code erledigt;zieltext}.
+     * Leere oder ungültige Zeilen werden ignoriert.
+     *
+     * @return Die gelesenen Ziele (leer, wenn die Datei fehlt oder nicht lesbar ist)
+     */
+    private List<Ziele> neuEinlesen() {
+        SpeicherPlaner.getInstanz().flush(speicherSchluessel);
+        Path path = Path.of(pfad);
+        try {
+            return DateiSperre.gesperrt(path, () -> {
+                synchronized (this) {
+                    List<Ziele> liste = lesen(path);
+                    stempel = stempel(path);
+                    synchron = zeilen(liste);
+                    return liste;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Fehler beim Laden der Ziele-Datei.");
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<Ziele> lesen(Path path) throws IOException {
+        List<Ziele> liste = new ArrayList<>();
+        if (!Files.exists(path)) return liste;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                String[] parts = line.split(";", 2);
+                if (parts.length == 2) {
+                    boolean erledigt = Boolean.parseBoolean(parts[0].trim());
+                    String text = parts[1].trim();
+                    liste.add(new Ziele(text, erledigt));
+                }
+            }
+        }
+        return liste;
+    }
+
+    /**
+     * Plant das Speichern einer Kopie der aktuellen Liste.
+     * UTF-8-Codierung, Format pro Zeile: {@code erledigt;zieltext}
+     */
+    private void speichern() {
+        List<Ziele> kopie = new ArrayList<>(ziele.size());
+        for (Ziele ziel : ziele) {
+            kopie.add(new Ziele(ziel.getZielText(), ziel.isErledigt()));
+        }
+        SpeicherPlaner.getInstanz().planen(speicherSchluessel, () -> schreiben(kopie),
+                e -> fehlerBehandlung.accept(e));
+    }
+
+    /**
+     * Schreibt die Ziele, sofern die Datei seit dem letzten Lesen oder Schreiben nicht
+     * von außen verändert wurde. Sonst wird der fremde Stand gelesen und auf dem
+     * JavaFX Application Thread zusammengeführt, was ein erneutes Speichern plant.
+     */
+    private void schreiben(List<Ziele> kopie) throws IOException {
+        Path path = Path.of(pfad);
+        Dateistand fremd = DateiSperre.gesperrt(path, () -> {
+            synchronized (this) {
+                if (!Objects.equals(stempel, stempel(path))) {
+                    return new Dateistand(lesen(path), stempel(path));
+                }
+                CsvManager.saveZiele(kopie, pfad);
+                stempel = stempel(path);
+                synchron = zeilen(kopie);
+                return null;
+            }
+        });
+        if (fremd != null) Platform.runLater(() -> fremdenStandUebernehmen(fremd));
+    }
+
+    /**
+     * Wird vom {@link DateiBeobachter} aufgerufen (Hintergrund-Thread).
+     */
+    private void pruefen() {
+        if (!geladen) return;
+        Path path = Path.of(pfad);
+        try {
+            Dateistand fremd = DateiSperre.gesperrt(path, () -> {
+                synchronized (this) {
+                    String aktuell = stempel(path);
+                    return Objects.equals(stempel, aktuell) ? null : new Dateistand(lesen(path), aktuell);
+                }
+            });
+            if (fremd != null) Platform.runLater(() -> fremdenStandUebernehmen(fremd));
+        } catch (IOException e) {
+            System.err.println("Fehler beim Prüfen der Ziele-Datei: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Führt einen von einer anderen Instanz geschriebenen Stand mit den eigenen, noch
+     * nicht gespeicherten Änderungen zusammen. Ziele werden über ihren Text zugeordnet:
+     * Es gilt die Reihenfolge der Datei, selbst entfernte Ziele fehlen, selbst
+     * hinzugefügte werden angehängt und selbst abgehakte behalten ihren Zustand.
+     * Vorhandene {@link Ziele}-Objekte bleiben erhalten.
+     */
+    private void fremdenStandUebernehmen(Dateistand fremd) {
+        if (!geladen) return;
+
+        Map<String, Boolean> gespeichert = new HashMap<>();
+        List<String> vorher;
+        synchronized (this) {
+            vorher = synchron;
+        }
+        for (String zeile : vorher) {
+            String[] teile = zeile.split(";", 2);
+            gespeichert.put(teile[1], Boolean.parseBoolean(teile[0]));
+        }
+        Map<String, Ziele> eigene = new LinkedHashMap<>();
+        for (Ziele z : ziele) eigene.putIfAbsent(z.getZielText(), z);
+
+        Map<Ziele, Boolean> erledigt = new IdentityHashMap<>();
+        List<Ziele> ergebnis = new ArrayList<>(fremd.ziele.size() + 8);
+        for (Ziele z : fremd.ziele) {
+            String text = z.getZielText();
+            Ziele eigenes = eigene.remove(text);
+            Boolean alt = gespeichert.get(text);
+            if (eigenes == null) {
+                if (alt == null) ergebnis.add(z);   // sonst selbst entfernt
+                continue;
+            }
+            boolean selbstGeaendert = alt != null && alt != eigenes.isErledigt();
+            erledigt.put(eigenes, selbstGeaendert ? eigenes.isErledigt() : z.isErledigt());
+            ergebnis.add(eigenes);
+        }
+        for (Ziele z : eigene.values()) {
+            if (!gespeichert.containsKey(z.getZielText())) ergebnis.add(z);   // selbst hinzugefügt
+        }
+
+        uebernehmend = true;
+        try {
+            erledigt.forEach(Ziele::setErledigt);
+            if (!gleicheObjekte(ergebnis)) ziele.setAll(ergebnis);
+        } finally {
+            uebernehmend = false;
+        }
+        synchronized (this) {
+            stempel = fremd.stempel;
+            synchron = fremd.zeilen;
+        }
+        if (!zeilen(ziele).equals(fremd.zeilen)) speichern();
+    }
+
+    private boolean gleicheObjekte(List<Ziele> andere) {
+        if (andere.size() != ziele.size()) return false;
+        for (int i = 0; i < andere.size(); i++) {
+            if (andere.get(i) != ziele.get(i)) return false;
+        }
+        return true;
+    }
+
+    private static List<String> zeilen(List<Ziele> liste) {
+        List<String> zeilen = new ArrayList<>(liste.size());
+        for (Ziele z : liste) zeilen.add(z.isErledigt() + ";" + z.getZielText());
+        return zeilen;
+    }
+
+    /**
+     * @return Größe und Änderungszeitpunkt der Datei oder {@code null}, wenn sie fehlt
+     */
+    private static String stempel(Path path) throws IOException {
+        try {
+            BasicFileAttributes a = Files.readAttributes(path, BasicFileAttributes.class);
+            return a.size() + "@" + a.lastModifiedTime().toMillis();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Von einer anderen Instanz geschriebener Stand der Datei.
+     */
+    private static final class Dateistand {
+        private final List<Ziele> ziele;
+        private final List<String> zeilen;
+        private final String stempel;
+
+        private Dateistand(List<Ziele> ziele, String stempel) {
+            this.ziele = ziele;
+            this.zeilen = zeilen(ziele);
+            this.stempel = stempel;
+        }
+    }
+}
@@ -24,8 +24,12 @@ import javafx.stage.Stage;
  */
 public class AdminViewFX {
 
-    public AdminViewFX(Stage stage) {
-        AdminControllerFX controller = new AdminControllerFX();
+    /**
+     * @param stage    Die Stage, in der die Scene gesetzt wird
+     * @param username Angemeldeter Administrator
+     */
+    public AdminViewFX(Stage stage, String username) {
+        AdminControllerFX controller = new AdminControllerFX(username);
 
         Label title = new Label("Benutzerverwaltung (Admin-Modus)");
         title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
@@ -52,7 +56,7 @@ public class AdminViewFX {
         Scene scene = new Scene(root, 800, 600); // Größe wie du willst
         stage.setTitle("Admin-Bereich");
         stage.setScene(scene);
-        scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        scene.getStylesheets().add(Stile.HELL);
         stage.show();
     }
 }
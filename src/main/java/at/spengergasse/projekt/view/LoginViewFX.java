@@ -9,7 +9,6 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.io.File;
-import java.net.URL;
 
 /**
  * Repräsentiert das Login- und Registrierungsfenster der Anwendung.
@@ -78,9 +77,8 @@ public class LoginViewFX {
         root.getChildren().addAll(title, usernameField, passwordField, errorLabel, buttons, pfadLabel);
 
         Scene scene = new Scene(root, 420, 380);
-        URL css = getClass().getResource("/styles.css");
-        if (css != null) {
-            scene.getStylesheets().add(css.toExternalForm());
+        if (Stile.HELL != null) {
+            scene.getStylesheets().add(Stile.HELL);
         }
 
         stage.setTitle("SchulManager - Login");
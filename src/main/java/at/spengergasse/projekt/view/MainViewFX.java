@@ -1,6 +1,8 @@
 package at.spengergasse.projekt.view;
 
 import at.spengergasse.projekt.controller.MainControllerFX;
+import at.spengergasse.projekt.model.Termin;
+import javafx.concurrent.Worker;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -9,7 +11,10 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Hauptansicht der Anwendung.
@@ -23,6 +28,9 @@ import java.util.List;
  */
 public class MainViewFX {
 
+    private static final int ANSTEHEND_TAGE = 7;
+    private static final DateTimeFormatter DATUM_FORMAT = DateTimeFormatter.ofPattern("EE, dd.MM.yyyy");
+
     private final BorderPane root;
     private final MainControllerFX controller;
     private Scene scene;
@@ -46,7 +54,7 @@ public class MainViewFX {
         loadWelcomeCenter(username);
 
         scene = new Scene(root, 1120, 650);
-        scene.getStylesheets().add(getClass().getResource("/styles.css").toExternalForm());
+        scene.getStylesheets().add(Stile.HELL);
         controller.loadDarkModeState(scene);
 
         primaryStage.setScene(scene);
@@ -81,7 +89,7 @@ public class MainViewFX {
         MenuItem neueInstanz = new MenuItem("Neue Instanz öffnen");
         MenuItem fensterSchliessen = new MenuItem("Fenster schließen");
         neueInstanz.setOnAction(controller::handleNeueInstanz);
-        fensterSchliessen.setOnAction(e -> System.exit(0));
+        fensterSchliessen.setOnAction(e -> controller.handleFensterSchliessen((Stage) scene.getWindow()));
         fensterMenu.getItems().addAll(neueInstanz, fensterSchliessen);
 
         Menu einstellungenMenu = new Menu("Einstellungen");
@@ -123,7 +131,7 @@ public class MainViewFX {
     }
 
     /**
-     * Zeigt eine Willkommensansicht im Hauptbereich.
+     * Zeigt eine Willkommensansicht im Hauptbereich, darunter die Termine der nächsten Tage.
      *
      * @param username Der aktuell angemeldete Benutzername
      */
@@ -132,10 +140,47 @@ public class MainViewFX {
         centerBox.setAlignment(Pos.CENTER);
         Label welcome = new Label("Willkommen, " + username + "!");
         welcome.setStyle("-fx-font-size: 24px; -fx-font-weight: bold;");
-        centerBox.getChildren().add(welcome);
+        centerBox.getChildren().addAll(welcome, createAnstehendBox());
         root.setCenter(centerBox);
     }
 
+    /**
+     * Erstellt die Übersicht der anstehenden Termine für die Startseite.
+     *
+     * @return VBox mit Überschrift und einer Zeile pro Termin
+     */
+    private VBox createAnstehendBox() {
+        VBox box = new VBox(6);
+        box.setAlignment(Pos.CENTER);
+        box.getStyleClass().add("anstehend-box");
+
+        Label titel = new Label("Anstehend in den nächsten " + ANSTEHEND_TAGE + " Tagen");
+        titel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+        box.getChildren().add(titel);
+
+        Label laden = new Label("Termine werden geladen …");
+        box.getChildren().add(laden);
+        controller.anstehendeLaden(ANSTEHEND_TAGE, anstehend -> {
+            box.getChildren().remove(laden);
+            if (anstehend.isEmpty()) {
+                LocalDate bis = LocalDate.now().plusDays(ANSTEHEND_TAGE);
+                Optional<Termin> naechster = controller.getNaechsterTermin(bis);
+                box.getChildren().add(new Label(naechster
+                        .map(t -> "Keine Termine. Nächster Termin: " + zeile(t))
+                        .orElse("Keine anstehenden Termine.")));
+            } else {
+                for (Termin t : anstehend) {
+                    box.getChildren().add(new Label(zeile(t)));
+                }
+            }
+        });
+        return box;
+    }
+
+    private static String zeile(Termin t) {
+        return t.getDatum().format(DATUM_FORMAT) + " – " + t.getTitel() + " (" + t.getArt() + ")";
+    }
+
     /**
      * Erstellt den unteren Footerbereich mit Benutzername, Speicherpfad-Info und Logout-Button.
      *
@@ -184,6 +229,37 @@ public class MainViewFX {
         root.setCenter(node);
     }
 
+    /**
+     * Zeigt im Hauptbereich einen Platzhalter, solange eine Ansicht geladen wird.
+     *
+     * @param text Anzuzeigender Hinweis, z.B. "Termine werden geladen …"
+     */
+    public void setCenterPlaceholder(String text) {
+        ProgressIndicator fortschritt = new ProgressIndicator();
+        fortschritt.setMaxSize(48, 48);
+        VBox platzhalter = new VBox(15, fortschritt, new Label(text));
+        platzhalter.setAlignment(Pos.CENTER);
+        platzhalter.getStyleClass().add("platzhalter");
+        root.setCenter(platzhalter);
+    }
+
+    /**
+     * Zeigt im Hauptbereich den Fortschritt eines Vorgangs, z.B. eines Imports.
+     *
+     * @param vorgang Der laufende Vorgang; Fortschritt und Meldung werden gebunden
+     */
+    public void setCenterProgress(Worker<?> vorgang) {
+        ProgressBar fortschritt = new ProgressBar();
+        fortschritt.setPrefWidth(300);
+        fortschritt.progressProperty().bind(vorgang.progressProperty());
+        Label meldung = new Label();
+        meldung.textProperty().bind(vorgang.messageProperty());
+        VBox platzhalter = new VBox(15, fortschritt, meldung);
+        platzhalter.setAlignment(Pos.CENTER);
+        platzhalter.getStyleClass().add("platzhalter");
+        root.setCenter(platzhalter);
+    }
+
     /**
      * Gibt die aktuelle Scene zurück, z.B. für Theme-Umschaltung.
      *
@@ -1,58 +1,172 @@
 package at.spengergasse.projekt.view;
 
 import at.spengergasse.projekt.controller.StatistikControllerFX;
+import at.spengergasse.projekt.model.TerminArt;
+import at.spengergasse.projekt.model.TerminBestand;
+import at.spengergasse.projekt.model.TerminHistogramm.Intervall;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.PieChart;
+import javafx.scene.chart.StackedBarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
+import javafx.util.StringConverter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.Map;
 
 /**
  * GUI-Komponente zur Darstellung von Terminstatistiken für einen Benutzer.
  *
- * <p>Zeigt die prozentuale Verteilung der Terminarten als Kreisdiagramm sowie
- * eine Gesamtanzahl aller vorhandenen Termine. Daten werden über den zugehörigen
- * Controller aus CSV-Dateien geladen.</p>
+ * <p>Zeigt für einen wählbaren Zeitraum (Standard: aktuelles Semester) die Verteilung
+ * der Terminarten als Kreisdiagramm und die Belastung pro Tag, Woche oder Monat als
+ * gestapeltes Balkendiagramm, dazu die Gesamtanzahl aller vorhandenen Termine. Die
+ * Zahlen stammen aus der laufend nachgeführten Statistik des {@link TerminBestand};
+ * ändern sich die Termine, werden die Diagramme neu gezeichnet.</p>
  *
  * <p>Diese View ist rein visuell und übernimmt keine Logikverarbeitung.</p>
  */
 public class StatistikViewFX extends VBox {
 
+    private static final DateTimeFormatter TAG_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yy");
+    private static final DateTimeFormatter MONAT_FORMAT = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    private final StatistikControllerFX controller;
+    private final DatePicker vonPicker = new DatePicker();
+    private final DatePicker bisPicker = new DatePicker();
+    private final ComboBox<Intervall> intervallBox = new ComboBox<>();
+    private final PieChart chart = new PieChart();
+    private final StackedBarChart<String, Number> verlaufChart = new StackedBarChart<>(new CategoryAxis(), new NumberAxis());
+    private final Label zeitraumLabel = new Label();
+    private final Label gesamtLabel = new Label();
+
     /**
      * Konstruktor: Baut die Statistik-Oberfläche für einen bestimmten Benutzer auf.
      *
      * @param username Der eingeloggte Benutzer, dessen Termine ausgewertet werden
+     * @param bestand  Termine des Benutzers
      */
-    public StatistikViewFX(String username) {
+    public StatistikViewFX(String username, TerminBestand bestand) {
         setPadding(new Insets(30));
-        setSpacing(30);
+        setSpacing(20);
         setAlignment(Pos.TOP_CENTER);
         getStyleClass().add("statistik-view");
 
-        StatistikControllerFX controller = new StatistikControllerFX(username);
+        controller = new StatistikControllerFX(bestand);
 
         // Titel der Statistik
         Label headline = new Label("Statistik für " + username);
         headline.setFont(new Font(20));
         headline.getStyleClass().add("statistik-title");
 
-        // Kreisdiagramm zur Darstellung der Terminarten
-        PieChart chart = new PieChart();
-        controller.getVerteilungNachArt().forEach((art, anzahl) -> {
-            chart.getData().add(new PieChart.Data(art, anzahl));
+        // Auswahl des Zeitraums
+        LocalDate heute = LocalDate.now();
+        vonPicker.setValue(StatistikControllerFX.getSemesterBeginn(heute));
+        bisPicker.setValue(StatistikControllerFX.getSemesterEnde(heute));
+        intervallBox.getItems().setAll(Intervall.values());
+        intervallBox.setValue(Intervall.WOCHE);
+        intervallBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Intervall intervall) {
+                if (intervall == null) return "";
+                return switch (intervall) {
+                    case TAG -> "pro Tag";
+                    case WOCHE -> "pro Woche";
+                    case MONAT -> "pro Monat";
+                };
+            }
+
+            @Override
+            public Intervall fromString(String text) {
+                return null;
+            }
         });
+        vonPicker.valueProperty().addListener((obs, alt, neu) -> aktualisieren());
+        bisPicker.valueProperty().addListener((obs, alt, neu) -> aktualisieren());
+        intervallBox.valueProperty().addListener((obs, alt, neu) -> aktualisieren());
+
+        HBox zeitraumBox = new HBox(10, new Label("Von"), vonPicker, new Label("Bis"), bisPicker, intervallBox);
+        zeitraumBox.setAlignment(Pos.CENTER);
+        zeitraumBox.getStyleClass().add("statistik-zeitraum");
 
+        // Kreisdiagramm zur Darstellung der Terminarten
         chart.setLegendVisible(true);
         chart.setLabelsVisible(true);
         chart.setTitle("Verteilung nach Termin-Art");
         chart.getStyleClass().add("statistik-chart");
 
+        // Balkendiagramm zur Belastung im Zeitverlauf
+        verlaufChart.setTitle("Termine im Zeitverlauf");
+        verlaufChart.setAnimated(false);
+        verlaufChart.getStyleClass().add("statistik-chart");
+
+        HBox diagramme = new HBox(20, chart, verlaufChart);
+        diagramme.setAlignment(Pos.CENTER);
+
         // Gesamtanzahl der Termine als Text
-        Label gesamtLabel = new Label("Gesamte Termine: " + controller.getGesamtAnzahl());
+        zeitraumLabel.getStyleClass().add("statistik-gesamt");
         gesamtLabel.getStyleClass().add("statistik-gesamt");
 
+        aktualisieren();
+        controller.standProperty().addListener((obs, alt, neu) -> aktualisieren());
+
         // Zusammenbauen der GUI
-        getChildren().addAll(headline, chart, gesamtLabel);
+        getChildren().addAll(headline, zeitraumBox, diagramme, zeitraumLabel, gesamtLabel);
+    }
+
+    /**
+     * Befüllt die Diagramme für den gewählten Zeitraum neu.
+     */
+    private void aktualisieren() {
+        gesamtLabel.setText("Gesamte Termine: " + controller.getGesamtAnzahl());
+
+        LocalDate von = vonPicker.getValue();
+        LocalDate bis = bisPicker.getValue();
+        Intervall intervall = intervallBox.getValue();
+        if (von == null || bis == null || intervall == null || bis.isBefore(von)) {
+            zeitraumLabel.setText("Bitte einen gültigen Zeitraum wählen.");
+            return;
+        }
+
+        chart.getData().clear();
+        controller.getVerteilungNachArt(von, bis).forEach((art, anzahl) -> {
+            chart.getData().add(new PieChart.Data(art.getBezeichnung(), anzahl));
+        });
+
+        verlaufChart.getData().clear();
+        for (TerminArt art : TerminArt.values()) {
+            XYChart.Series<String, Number> serie = new XYChart.Series<>();
+            serie.setName(art.getBezeichnung());
+            for (Map.Entry<LocalDate, Integer> e : controller.getVerlauf(art, von, bis, intervall).entrySet()) {
+                serie.getData().add(new XYChart.Data<>(beschriftung(e.getKey(), intervall), e.getValue()));
+            }
+            verlaufChart.getData().add(serie);
+        }
+
+        zeitraumLabel.setText("Termine im Zeitraum: " + controller.getAnzahlZwischen(null, von, bis));
+    }
+
+    /**
+     * Die Beschriftung enthält immer das Jahr (bei Wochen das wochenbasierte Jahr),
+     * da die {@link CategoryAxis} gleich beschriftete Abschnitte zusammenlegt.
+     *
+     * @return Achsenbeschriftung für einen Abschnitt (z.B. "03.02.25", "KW 6/2025" oder "02/2025")
+     */
+    private static String beschriftung(LocalDate anfang, Intervall intervall) {
+        return switch (intervall) {
+            case TAG -> anfang.format(TAG_FORMAT);
+            case WOCHE -> "KW " + anfang.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)
+                    + "/" + anfang.get(IsoFields.WEEK_BASED_YEAR);
+            case MONAT -> anfang.format(MONAT_FORMAT);
+        };
     }
 }
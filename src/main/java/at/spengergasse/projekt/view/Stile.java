@@ -0,0 +1,57 @@
+package at.spengergasse.projekt.view;
+
+import javafx.css.CssParser;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Die {@code Stile} enthalten die Adressen der Stylesheets der Anwendung.
+ * <p>
+ * Die Adressen werden einmal beim Laden der Klasse ermittelt statt bei jedem Aufbau
+ * einer Ansicht. Mit {@link #klassenAufwaermen()} werden beim Start im Hintergrund die
+ * Klassen des CSS-Parsers von JavaFX geladen und initialisiert. Das Ergebnis des
+ * Parsens wird verworfen; die Stylesheets selbst lädt und cacht JavaFX erst, wenn das
+ * erste Fenster sie verwendet.
+ */
+public final class Stile {
+
+    /** Helles Standard-Stylesheet. */
+    public static final String HELL = adresse("/styles.css");
+
+    /** Stylesheet für den Dark Mode. */
+    public static final String DUNKEL = adresse("/dark.css");
+
+    private Stile() {
+    }
+
+    /**
+     * @param dunkel true für den Dark Mode
+     * @return Adresse des passenden Stylesheets
+     */
+    public static String fuer(boolean dunkel) {
+        return dunkel ? DUNKEL : HELL;
+    }
+
+    /**
+     * Parst beide Stylesheets einmal mit einem eigenen {@link CssParser}, damit dessen
+     * Klassen geladen sind (Klassen-Warm-up). Darf in einem Hintergrund-Thread
+     * aufgerufen werden.
+     */
+    public static void klassenAufwaermen() {
+        CssParser parser = new CssParser();
+        for (String adresse : new String[]{HELL, DUNKEL}) {
+            if (adresse == null) continue;
+            try {
+                parser.parse(new URL(adresse));
+            } catch (IOException e) {
+                System.err.println("Stylesheet konnte nicht geparst werden: " + adresse);
+            }
+        }
+    }
+
+    private static String adresse(String name) {
+        URL url = Stile.class.getResource(name);
+        return url == null ? null : url.toExternalForm();
+    }
+}
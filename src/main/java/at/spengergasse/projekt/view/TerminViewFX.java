@@ -2,9 +2,11 @@ package at.spengergasse.projekt.view;
 
 import at.spengergasse.projekt.controller.TerminControllerFX;
 import at.spengergasse.projekt.model.Termin;
+import at.spengergasse.projekt.model.TerminBestand;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
@@ -13,6 +15,7 @@ import javafx.scene.layout.VBox;
  *
  * <p>Diese View beinhaltet:</p>
  * <ul>
+ *     <li>Ein Suchfeld über Titel und Notiz</li>
  *     <li>Eine Tabelle zur Anzeige aller gespeicherten Termine</li>
  *     <li>Ein Eingabeformular zur Erstellung und Bearbeitung</li>
  *     <li>Aktionselemente wie Löschen, Speichern etc.</li>
@@ -27,16 +30,20 @@ public class TerminViewFX extends VBox {
     /**
      * Konstruktor: Erzeugt die gesamte Terminansicht für den gegebenen Benutzer.
      *
-     * @param username Benutzername, für den die Termin-Daten geladen und verwaltet werden
+     * @param bestand Termine des Benutzers, die angezeigt und verwaltet werden
      */
-    public TerminViewFX(String username) {
-        this.controller = new TerminControllerFX(username);
+    public TerminViewFX(TerminBestand bestand) {
+        this.controller = new TerminControllerFX(bestand);
 
         setSpacing(20);
         setPadding(new Insets(30));
         setAlignment(Pos.TOP_CENTER);
         getStyleClass().add("termin-view");
 
+        // Suchfeld
+        HBox sucheBox = controller.getSuche();
+        sucheBox.setMaxWidth(Double.MAX_VALUE);
+
         // Termin-Tabelle
         TableView<Termin> table = controller.getTable();
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
@@ -51,7 +58,7 @@ public class TerminViewFX extends VBox {
         VBox buttonBox = new VBox(controller.getAktionen());
         buttonBox.setAlignment(Pos.CENTER);
 
-        getChildren().addAll(table, formularBox, buttonBox);
+        getChildren().addAll(sucheBox, table, formularBox, buttonBox);
     }
 
     /**
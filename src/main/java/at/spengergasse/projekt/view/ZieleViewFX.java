@@ -2,6 +2,7 @@ package at.spengergasse.projekt.view;
 
 import at.spengergasse.projekt.controller.ZieleControllerFX;
 import at.spengergasse.projekt.model.Ziele;
+import at.spengergasse.projekt.model.ZieleBestand;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -32,10 +33,10 @@ public class ZieleViewFX extends VBox {
     /**
      * Konstruktor: Erzeugt die Zieleansicht für den gegebenen Benutzer.
      *
-     * @param username Aktueller Benutzername zur Ziel-Verwaltung
+     * @param bestand Die bereits geladenen Ziele des Benutzers
      */
-    public ZieleViewFX(String username) {
-        this.controller = new ZieleControllerFX(username);
+    public ZieleViewFX(ZieleBestand bestand) {
+        this.controller = new ZieleControllerFX(bestand);
 
         setSpacing(20);
         setPadding(new Insets(30));
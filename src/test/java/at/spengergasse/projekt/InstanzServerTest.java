@@ -0,0 +1,58 @@
+package at.spengergasse.projekt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft, dass weder ein stummer Client noch eine hängende Instanz weitere Starts blockiert.
+ */
+class InstanzServerTest {
+
+    @BeforeEach
+    void vorbereiten() throws IOException {
+        Files.createDirectories(InstanzServer.getSocketPfad().getParent());
+        Files.deleteIfExists(InstanzServer.getSocketPfad());
+    }
+
+    @AfterEach
+    void aufraeumen() throws IOException {
+        InstanzServer.beenden();
+        Files.deleteIfExists(InstanzServer.getSocketPfad());
+    }
+
+    @Test
+    void stummerClientBlockiertDenServerNurBisZurFrist() throws IOException {
+        AtomicInteger fenster = new AtomicInteger();
+        InstanzServer.starten(fenster::incrementAndGet);
+
+        try (SocketChannel stumm = SocketChannel.open(UnixDomainSocketAddress.of(InstanzServer.getSocketPfad()))) {
+            assertTrue(stumm.isConnected());
+            assertTrue(InstanzServer.weiterleiten());
+        }
+        assertEquals(1, fenster.get());
+    }
+
+    @Test
+    void haengendeInstanzFuehrtZumNormalenStart() throws IOException {
+        // Lauscht, nimmt aber keine Verbindung an und antwortet nie
+        try (ServerSocketChannel haengt = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            haengt.bind(UnixDomainSocketAddress.of(InstanzServer.getSocketPfad()));
+
+            long start = System.nanoTime();
+            assertFalse(InstanzServer.weiterleiten());
+            long dauerMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(dauerMs < InstanzServer.ANTWORT_MS + 1000, dauerMs + " ms");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Benutzerverwaltung des {@link CsvManager} auf {@code data/benutzer.csv}.
+ * <p>
+ * Die Tests laufen im Arbeitsverzeichnis {@code target/test-daten}; die Datei bleibt
+ * zwischen den Tests bestehen, daher verwendet jeder Test eigene Benutzernamen.
+ */
+class CsvManagerTest {
+
+    private static final Path BENUTZER = Paths.get("data/benutzer.csv");
+
+    private String name;
+
+    @BeforeEach
+    void vorbereiten() throws IOException {
+        Files.createDirectories(BENUTZER.getParent());
+        name = "test" + System.nanoTime();
+    }
+
+    @Test
+    void alterHashWirdBeiDerAnmeldungUmgestellt() throws IOException {
+        // Eintrag im alten Format (ungesalzenes SHA-256), wie ihn frühere Versionen schrieben
+        String alt = CsvManager.encodeString("geheim");
+        Files.writeString(BENUTZER, name + ";user;" + alt + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        assertTrue(PasswortHash.veraltet(alt));
+
+        assertTrue(CsvManager.authenticate(name, "falsch").isEmpty());
+        assertEquals(alt, gespeicherterHash(name), "Ohne erfolgreiche Anmeldung bleibt der Hash unverändert");
+
+        Optional<User> angemeldet = CsvManager.authenticate(name, "geheim");
+        assertTrue(angemeldet.isPresent());
+        assertEquals("user", angemeldet.get().getRolle());
+
+        String neu = gespeicherterHash(name);
+        assertTrue(neu.startsWith("pbkdf2$"), neu);
+        assertFalse(PasswortHash.veraltet(neu));
+        assertTrue(Files.readString(BENUTZER).contains(name + ";user;" + neu));
+
+        // Mit dem neuen Hash gelingt die Anmeldung weiterhin
+        assertTrue(CsvManager.authenticate(name, "geheim").isPresent());
+        assertTrue(CsvManager.authenticate(name, "falsch").isEmpty());
+    }
+
+    @Test
+    void unbekannterBenutzerWirdAbgewiesen() throws IOException {
+        assertTrue(CsvManager.authenticate(name, "geheim").isEmpty());
+        assertFalse(PasswortHash.pruefen("", PasswortHash.platzhalter()));
+        assertFalse(PasswortHash.pruefen("geheim", PasswortHash.platzhalter()));
+    }
+
+    @Test
+    void umbenennenBehaeltRolleUndPasswort() throws IOException {
+        String neuerName = name + "-neu";
+        User vorher = CsvManager.saveUser(name, "geheim", "admin");
+        User andere = CsvManager.saveUser(name + "-andere", "anders", "user");
+
+        Optional<User> umbenannt = CsvManager.updateBenutzername(name, neuerName);
+
+        assertTrue(umbenannt.isPresent());
+        assertEquals(neuerName, umbenannt.get().getBenutzername());
+        assertFalse(CsvManager.userExists(name));
+        assertEquals("admin", CsvManager.getUserRole(neuerName));
+        assertEquals(vorher.getVerschlüsseltesPasswort(), gespeicherterHash(neuerName));
+        assertTrue(CsvManager.authenticate(neuerName, "geheim").isPresent());
+        assertEquals(andere.getVerschlüsseltesPasswort(), gespeicherterHash(andere.getBenutzername()));
+
+        // Die Datei selbst wurde geändert, nicht nur das Verzeichnis im Speicher
+        String inhalt = Files.readString(BENUTZER);
+        assertTrue(inhalt.contains(neuerName + ";admin;" + vorher.getVerschlüsseltesPasswort()));
+        assertFalse(inhalt.contains(name + ";admin;"));
+    }
+
+    @Test
+    void loeschenEntferntNurDenBenutzer() throws IOException {
+        CsvManager.saveUser(name, "geheim", "user");
+        User andere = CsvManager.saveUser(name + "-andere", "anders", "user");
+        int anzahl = CsvManager.loadBenutzer().size();
+
+        CsvManager.deleteUser(name);
+
+        assertFalse(CsvManager.userExists(name));
+        assertTrue(CsvManager.authenticate(name, "geheim").isEmpty());
+        assertEquals(anzahl - 1, CsvManager.loadBenutzer().size());
+        assertEquals(andere.getVerschlüsseltesPasswort(), gespeicherterHash(andere.getBenutzername()));
+        assertFalse(Files.readString(BENUTZER).contains(name + ";user;"));
+    }
+
+    @Test
+    void namenWerdenExaktVerglichen() throws IOException {
+        String gross = name.toUpperCase();
+        CsvManager.saveUser(name, "geheim", "user");
+
+        assertTrue(CsvManager.updateBenutzername(gross, name + "-x").isEmpty());
+        CsvManager.deleteUser(gross);
+        assertTrue(CsvManager.userExists(name));
+        assertFalse(CsvManager.userExists(gross));
+
+        CsvManager.saveUser(gross, "anders", "admin");
+        CsvManager.deleteUser(name);
+        assertFalse(CsvManager.userExists(name));
+        assertEquals("admin", CsvManager.getUserRole(gross));
+    }
+
+    @Test
+    void unbekannterBenutzerLaesstDieDateiUnveraendert() throws IOException {
+        CsvManager.saveUser(name, "geheim", "user");
+        String vorher = Files.readString(BENUTZER);
+
+        assertTrue(CsvManager.updateBenutzername(name + "-fehlt", name + "-neu").isEmpty());
+        CsvManager.deleteUser(name + "-fehlt");
+
+        assertEquals(vorher, Files.readString(BENUTZER));
+        assertFalse(Files.exists(Paths.get(BENUTZER + ".tmp")));
+    }
+
+    private static String gespeicherterHash(String name) throws IOException {
+        return CsvManager.findUser(name).orElseThrow().getVerschlüsseltesPasswort();
+    }
+}
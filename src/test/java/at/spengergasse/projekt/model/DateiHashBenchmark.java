@@ -0,0 +1,127 @@
+package at.spengergasse.projekt.model;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Einfacher Kommandozeilen-Benchmark für das Hashen von Dateien.
+ * <p>
+ * Vergleicht die frühere Schleife aus {@link Encoding} ({@code BufferedInputStream}
+ * mit 1-KB-Puffer) mit {@link HashDienst#datei(Path, Encoding.EncodingType)}
+ * (FileChannel mit Direct-Buffer) und mit dem parallel erstellten
+ * {@link DateiManifest}. Gemessen wird einmal mit vielen kleinen und einmal mit
+ * wenigen großen Dateien; die Dateien liegen in einem temporären Verzeichnis und
+ * werden nach dem ersten Durchlauf aus dem Seitencache gelesen.
+ * <p>
+ * Aufruf nach {@code mvn test-compile}: {@code java -cp target/classes:target/test-classes at.spengergasse.projekt.model.DateiHashBenchmark [MB gesamt] [durchläufe]}
+ */
+public class DateiHashBenchmark {
+
+    /**
+     * Einstiegspunkt des Benchmarks.
+     *
+     * @param args Optional: Datenmenge pro Szenario in MB (Standard 256) und Messdurchläufe (Standard 5)
+     */
+    public static void main(String[] args) throws IOException {
+        int mb = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int durchlaeufe = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        Path verzeichnis = Files.createTempDirectory("hash-benchmark");
+        try {
+            for (int dateiKb : new int[]{256, 32 * 1024}) {
+                List<Path> dateien = erzeugen(verzeichnis.resolve(dateiKb + "kb"), mb * 1024 / dateiKb, dateiKb);
+                System.out.printf("%d Dateien à %d KB (%d MB), %d Threads%n", dateien.size(), dateiKb, mb, threads);
+                for (int i = 0; i < 2; i++) {
+                    mitSchleife(dateien);
+                    DateiManifest.erstellen(dateien, 1);
+                }
+                messen("1-KB-Schleife", mb, durchlaeufe, () -> mitSchleife(dateien));
+                messen("HashDienst", mb, durchlaeufe, () -> pruefsumme(DateiManifest.erstellen(dateien, 1)));
+                messen("Manifest parallel", mb, durchlaeufe,
+                        () -> pruefsumme(DateiManifest.erstellen(dateien, threads)));
+            }
+        } finally {
+            try (Stream<Path> alle = Files.walk(verzeichnis)) {
+                for (Path p : alle.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    private static List<Path> erzeugen(Path verzeichnis, int anzahl, int kb) throws IOException {
+        Files.createDirectories(verzeichnis);
+        Random zufall = new Random(42);
+        byte[] inhalt = new byte[kb * 1024];
+        List<Path> dateien = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            zufall.nextBytes(inhalt);
+            Path datei = verzeichnis.resolve("datei" + i + ".bin");
+            Files.write(datei, inhalt);
+            dateien.add(datei);
+        }
+        return dateien;
+    }
+
+    private static void messen(String name, int mb, int durchlaeufe, Variante variante) throws IOException {
+        long beste = Long.MAX_VALUE;
+        long summe = 0;
+        int pruefsumme = 0;
+        for (int i = 0; i < durchlaeufe; i++) {
+            long start = System.nanoTime();
+            pruefsumme = variante.hashen();
+            long dauer = System.nanoTime() - start;
+            beste = Math.min(beste, dauer);
+            summe += dauer;
+        }
+        System.out.printf("  %-20s bestes %.1f ms (%.0f MB/s), Ø %.1f ms (Prüfsumme %d)%n",
+                name, beste / 1e6, mb / (beste / 1e9), summe / 1e6 / durchlaeufe, pruefsumme);
+    }
+
+    @FunctionalInterface
+    private interface Variante {
+        int hashen() throws IOException;
+    }
+
+    private static int pruefsumme(DateiManifest manifest) {
+        int summe = 0;
+        for (String hash : manifest.getHashes().values()) {
+            summe += hash.hashCode();
+        }
+        return summe;
+    }
+
+    /**
+     * Die frühere Variante aus {@link Encoding}: neuer MessageDigest pro Datei und
+     * Lesen über einen BufferedInputStream mit 1-KB-Puffer.
+     */
+    private static int mitSchleife(List<Path> dateien) throws IOException {
+        int summe = 0;
+        for (Path datei : dateien) {
+            try (InputStream ein = new BufferedInputStream(new FileInputStream(datei.toFile()))) {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
+                byte[] buffer = new byte[1024];
+                int gelesen;
+                while ((gelesen = ein.read(buffer)) != -1) {
+                    md.update(buffer, 0, gelesen);
+                }
+                summe += HashDienst.hex(md.digest()).hashCode();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return summe;
+    }
+}
@@ -0,0 +1,60 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft, welche Dateien {@link DateiManifest#fuerBenutzer(String)} aufnimmt.
+ */
+class DateiManifestTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    private String name;
+
+    @BeforeEach
+    void vorbereiten() {
+        name = "max" + System.nanoTime();
+    }
+
+    @AfterEach
+    void aufraeumen() {
+        PfadManager.resetPfade(name);
+    }
+
+    @Test
+    void nimmtDieDateienDesBenutzersAufUndKeineMitGleichemPraefix() throws IOException {
+        Path termine = schreiben(PfadManager.getDefaultTerminPfad(name));
+        Path journal = schreiben(termine + ".journal");
+        Path snapshot = schreiben(termine + ".snap");
+        // Eigene Ziele-Datei außerhalb des Standardverzeichnisses
+        Path ziele = schreiben(verzeichnis.resolve("meine-ziele.csv").toString());
+        PfadManager.setZielePfad(name, ziele.toString());
+        // Gleicher Namensanfang, aber ein anderer Benutzer
+        schreiben(PfadManager.getDefaultTerminPfad(name + "_mustermann"));
+        schreiben(PfadManager.getDefaultZielePfad(name));
+
+        DateiManifest manifest = DateiManifest.fuerBenutzer(name);
+
+        assertEquals(Set.of(termine.getFileName().toString(), journal.getFileName().toString(),
+                snapshot.getFileName().toString(), "meine-ziele.csv"), manifest.getHashes().keySet());
+    }
+
+    private static Path schreiben(String pfad) throws IOException {
+        Path datei = Paths.get(pfad);
+        Files.createDirectories(datei.getParent());
+        Files.writeString(datei, pfad);
+        return datei;
+    }
+}
@@ -0,0 +1,100 @@
+package at.spengergasse.projekt.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Einfacher Kommandozeilen-Benchmark für das Lesen von Datumsangaben.
+ * <p>
+ * Vergleicht {@link LocalDate#parse(CharSequence)} mit {@link IsoDatum} auf Strings
+ * und direkt auf Bytes, einmal mit ausschließlich gültigen und einmal mit teilweise
+ * ungültigen Angaben (z.B. {@code 2024-02-30}), bei denen {@code LocalDate.parse}
+ * eine Ausnahme wirft.
+ * <p>
+ * Aufruf nach {@code mvn test-compile}: {@code java -cp target/classes:target/test-classes at.spengergasse.projekt.model.IsoDatumBenchmark [zeilen] [durchläufe]}
+ */
+public class IsoDatumBenchmark {
+
+    /**
+     * Einstiegspunkt des Benchmarks.
+     *
+     * @param args Optional: Anzahl Datumsangaben (Standard 1000000) und Messdurchläufe (Standard 5)
+     */
+    public static void main(String[] args) {
+        int zeilen = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int durchlaeufe = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        for (int fehlerAnteil : new int[]{0, 10}) {
+            String[] texte = new String[zeilen];
+            LocalDate start = LocalDate.of(2020, 1, 1);
+            for (int i = 0; i < zeilen; i++) {
+                texte[i] = fehlerAnteil > 0 && i % (100 / fehlerAnteil) == 0
+                        ? "2024-02-3" + (i % 2)
+                        : start.plusDays(i % 3000).toString();
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(String.join("", texte).getBytes(StandardCharsets.UTF_8));
+
+            System.out.printf("%d Datumsangaben, %d %% ungültig%n", zeilen, fehlerAnteil);
+            for (int i = 0; i < 3; i++) {
+                mitParse(texte);
+                mitIsoDatum(texte);
+                mitBytes(bytes, zeilen);
+            }
+            messen("LocalDate.parse", durchlaeufe, () -> mitParse(texte));
+            messen("IsoDatum (String)", durchlaeufe, () -> mitIsoDatum(texte));
+            messen("IsoDatum (Bytes)", durchlaeufe, () -> mitBytes(bytes, zeilen));
+        }
+    }
+
+    private static void messen(String name, int durchlaeufe, Variante variante) {
+        long beste = Long.MAX_VALUE;
+        long summe = 0;
+        long pruefsumme = 0;
+        for (int i = 0; i < durchlaeufe; i++) {
+            long start = System.nanoTime();
+            pruefsumme = variante.lesen();
+            long dauer = System.nanoTime() - start;
+            beste = Math.min(beste, dauer);
+            summe += dauer;
+        }
+        System.out.printf("  %-20s bestes %.1f ms, Ø %.1f ms (Prüfsumme %d)%n",
+                name, beste / 1e6, summe / 1e6 / durchlaeufe, pruefsumme);
+    }
+
+    @FunctionalInterface
+    private interface Variante {
+        long lesen();
+    }
+
+    private static long mitParse(String[] texte) {
+        long summe = 0;
+        for (String text : texte) {
+            try {
+                summe += LocalDate.parse(text).toEpochDay();
+            } catch (DateTimeParseException e) {
+                summe--;
+            }
+        }
+        return summe;
+    }
+
+    private static long mitIsoDatum(String[] texte) {
+        long summe = 0;
+        for (String text : texte) {
+            LocalDate datum = IsoDatum.lesen(text);
+            summe += datum == null ? -1 : datum.toEpochDay();
+        }
+        return summe;
+    }
+
+    private static long mitBytes(ByteBuffer bytes, int zeilen) {
+        long summe = 0;
+        for (int i = 0; i < zeilen; i++) {
+            LocalDate datum = IsoDatum.lesen(bytes, i * 10, i * 10 + 10);
+            summe += datum == null ? -1 : datum.toEpochDay();
+        }
+        return summe;
+    }
+}
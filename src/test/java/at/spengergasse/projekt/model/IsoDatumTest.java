@@ -0,0 +1,77 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vergleicht den schnellen Weg von {@link IsoDatum} (Zeichen und Bytes) mit
+ * {@link LocalDate#parse(CharSequence)}.
+ */
+class IsoDatumTest {
+
+    @Test
+    void jederTagStimmtMitLocalDateUeberein() {
+        // Inklusive Schaltjahren 2000 (ja) und 2100 (nein)
+        for (LocalDate d = LocalDate.of(1999, 1, 1); d.getYear() <= 2101; d = d.plusDays(1)) {
+            pruefen(d.toString());
+        }
+    }
+
+    @Test
+    void ungueltigeUndBesondereAngabenWieLocalDate() {
+        String[] angaben = {
+                "2023-02-29", "2024-02-29", "2100-02-29", "2000-02-29", "0000-02-29",
+                "2024-13-01", "2024-00-10", "2024-04-31", "2024-01-32", "2024-01-00",
+                "2024-1-01", "2024/01/01", "20240101", "2024-01-01x", "", "    -  -  ",
+                "+10000-01-01", "+99999-12-31", "-0001-01-01", "10000-01-01", "+123-01-01",
+                "２０２４-01-01", "2024-0a-01", "abcd-ef-gh", "2024--1-01"
+        };
+        for (String angabe : angaben) {
+            pruefen(angabe);
+        }
+    }
+
+    @Test
+    void zufaelligeZeichenfolgenWieLocalDate() {
+        Random zufall = new Random(42);
+        String zeichen = "0123456789-+ 1290";
+        char[] text = new char[10];
+        for (int n = 0; n < 50_000; n++) {
+            for (int i = 0; i < text.length; i++) {
+                text[i] = zeichen.charAt(zufall.nextInt(zeichen.length()));
+            }
+            // Meist die feste Form, damit der schnelle Weg auch getroffen wird
+            if (zufall.nextInt(4) != 0) {
+                text[4] = '-';
+                text[7] = '-';
+            }
+            pruefen(new String(text));
+        }
+    }
+
+    private static void pruefen(String angabe) {
+        LocalDate erwartet = referenz(angabe);
+        assertEquals(erwartet, IsoDatum.lesen(angabe), angabe);
+
+        // Byte-Weg mitten in einem größeren Puffer, wie beim Einlesen der CSV-Datei
+        byte[] bytes = ("x;" + angabe + ";y").getBytes(StandardCharsets.UTF_8);
+        int von = 2;
+        int bis = bytes.length - 2;
+        assertEquals(erwartet, IsoDatum.lesen(ByteBuffer.wrap(bytes), von, bis), angabe);
+    }
+
+    private static LocalDate referenz(String angabe) {
+        try {
+            return LocalDate.parse(angabe);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
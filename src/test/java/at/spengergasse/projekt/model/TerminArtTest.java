@@ -0,0 +1,73 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Zuordnung von {@link TerminArt} für Zeichenketten und UTF-8-Bytes,
+ * vor allem das Falten von Groß-/Kleinschreibung bei Umlauten.
+ */
+class TerminArtTest {
+
+    @BeforeEach
+    @AfterEach
+    void zuruecksetzen() {
+        TerminArt.standardAliaseSetzen();
+    }
+
+    @Test
+    void umlauteUndGrossschreibungWerdenGefaltet() {
+        beideWege(TerminArt.HAUSAUFGABE, "ÜBUNG");
+        beideWege(TerminArt.HAUSAUFGABE, "Hü");
+        beideWege(TerminArt.HAUSAUFGABE, "HÜ");
+        beideWege(TerminArt.HAUSAUFGABE, "hAuSüBuNg");
+        beideWege(TerminArt.PRUEFUNG, "PRÜFUNG");
+        beideWege(TerminArt.PRUEFUNG, "Prüfung");
+        beideWege(TerminArt.PRUEFUNG, "SA");
+        beideWege(TerminArt.PRUEFUNG, "sa");
+        beideWege(TerminArt.EVENT, "VERANSTALTUNG");
+        beideWege(TerminArt.SONSTIGES, "Sonstiges");
+    }
+
+    @Test
+    void unbekannteArtenSindSonstiges() {
+        beideWege(TerminArt.SONSTIGES, "Arzttermin");
+        beideWege(TerminArt.SONSTIGES, "");
+        // Keine Umschreibung von Umlauten
+        beideWege(TerminArt.SONSTIGES, "PRUEFUNG");
+        // Präfix bzw. Verlängerung eines Alias
+        beideWege(TerminArt.SONSTIGES, "S");
+        beideWege(TerminArt.SONSTIGES, "SAA");
+        // Nur die Großbuchstaben À bis Þ werden gefaltet, nicht z.B. das Multiplikationszeichen
+        beideWege(TerminArt.SONSTIGES, "h×");
+        assertEquals(TerminArt.SONSTIGES, TerminArt.klassifizieren((CharSequence) null));
+    }
+
+    @Test
+    void gesetzteAliaseGeltenFuerBeideWege() {
+        TerminArt.aliasSetzen(" Ausflug ", TerminArt.EVENT);
+        TerminArt.aliasSetzen("Präsentation", TerminArt.PRUEFUNG);
+
+        beideWege(TerminArt.EVENT, "AUSFLUG");
+        beideWege(TerminArt.PRUEFUNG, "PRÄSENTATION");
+        beideWege(TerminArt.PRUEFUNG, "präsentation");
+
+        TerminArt.standardAliaseSetzen();
+        beideWege(TerminArt.SONSTIGES, "Ausflug");
+    }
+
+    private static void beideWege(TerminArt erwartet, String art) {
+        assertEquals(erwartet, TerminArt.klassifizieren(art), art);
+
+        byte[] bytes = ("Titel;2024-01-01;" + art + ";Notiz").getBytes(StandardCharsets.UTF_8);
+        int von = "Titel;2024-01-01;".length();
+        int bis = von + art.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(erwartet, TerminArt.klassifizieren(ByteBuffer.wrap(bytes), von, bis), art);
+    }
+}
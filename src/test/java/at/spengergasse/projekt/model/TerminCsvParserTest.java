@@ -0,0 +1,147 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vergleicht die Wege des {@link TerminCsvParser} (Bytes, große Datei, parallel)
+ * mit dem zeilenweisen Referenzweg {@link CsvManager#parseTermine(BufferedReader)}.
+ */
+class TerminCsvParserTest {
+
+    private static final String BEISPIEL = String.join("\n",
+            "Mathe SA;2024-03-12;SA;Kapitel 1-4",
+            "",
+            "  Englisch ; 2024-03-13 ; hü ",
+            "Schulfest;2024-06-28;Veranstaltung;Turnsaal\r",
+            "Übung Physik;2024-02-29;ÜBUNG;Schaltjahr",
+            "Arzt;2024-01-05;Unbekannt;",
+            "   ",
+            "Projekt;2024-12-31;Prüfung;Abgabe; mit Strichpunkt?");
+
+    /** Größer als ein MiB, ab dem früher eingeblendet wurde. */
+    private static final long GROSS = (1L << 20) + 1024;
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    void bytesLiefernDasselbeWieDerReferenzweg() throws IOException {
+        String text = BEISPIEL.substring(0, BEISPIEL.lastIndexOf('\n')) + "\n";
+
+        List<Termin> erwartet = referenz(text);
+        List<Termin> gelesen = TerminCsvParser.parseSequenziell(puffer(text));
+
+        assertEquals(5, erwartet.size());
+        assertEquals(erwartet, gelesen);
+        assertEquals(TerminArt.HAUSAUFGABE, gelesen.get(1).getArt());
+        assertEquals("Englisch", gelesen.get(1).getTitel());
+        assertEquals(LocalDate.of(2024, 2, 29), gelesen.get(3).getDatum());
+    }
+
+    @Test
+    void fehlerHabenDieselbeMeldungWieDerReferenzweg() {
+        IOException erwartet = assertThrows(IOException.class, () -> referenz(BEISPIEL));
+        IOException gelesen = assertThrows(IOException.class,
+                () -> TerminCsvParser.parseSequenziell(puffer(BEISPIEL)));
+        assertEquals(erwartet.getMessage(), gelesen.getMessage());
+        assertTrue(gelesen.getMessage().contains("(Zeile 8)"), gelesen.getMessage());
+
+        String datumFalsch = "A;2024-01-01;Event\nB;2023-02-29;Event\n";
+        assertEquals(assertThrows(IOException.class, () -> referenz(datumFalsch)).getMessage(),
+                assertThrows(IOException.class, () -> TerminCsvParser.parseSequenziell(puffer(datumFalsch))).getMessage());
+    }
+
+    @Test
+    void grosseDateiLiefertDasselbeWieDerReferenzweg() throws IOException {
+        String text = grosserText(GROSS);
+        Path datei = verzeichnis.resolve("termine.csv");
+        Files.writeString(datei, text, StandardCharsets.UTF_8);
+
+        ByteBuffer daten = TerminCsvParser.einlesen(datei);
+        assertFalse(daten.isDirect(), "Die Datei wird nicht eingeblendet, sondern gelesen");
+        assertEquals(referenz(text), TerminCsvParser.parse(datei));
+    }
+
+    @Test
+    void grosseDateiKannNachDemLadenErsetztWerden() throws IOException {
+        Path datei = verzeichnis.resolve("termine.csv");
+        Files.writeString(datei, grosserText(GROSS), StandardCharsets.UTF_8);
+
+        // Laden liest CSV-Datei (und Prüfsumme) und schreibt den Snapshot
+        TerminJournal journal = new TerminJournal(datei.toString());
+        List<Termin> termine = new ArrayList<>(journal.laden());
+        termine.remove(0);
+        journal.loeschen(0);
+        // Kompaktieren ersetzt die CSV-Datei durch atomares Verschieben
+        journal.kompaktieren(termine);
+        journal.flush();
+        assertEquals(termine, new TerminJournal(datei.toString()).laden());
+
+        // Überschreiben an Ort und Stelle
+        termine.remove(0);
+        CsvManager.saveTermine(termine, datei.toString());
+        assertEquals(termine, TerminCsvParser.parse(datei));
+    }
+
+    @Test
+    void paralleleAbschnitteLiefernDieDateireihenfolge() throws IOException {
+        String text = grosserText(3L << 20);
+        List<Termin> erwartet = referenz(text);
+
+        assertEquals(erwartet, TerminCsvParser.parseParallel(puffer(text), 4));
+    }
+
+    @Test
+    void paralleleFehlerZaehlenZeilenUeberDieGanzeDatei() throws IOException {
+        String text = grosserText(3L << 20);
+        int zeilen = text.split("\n", -1).length - 1;
+        // Fehler kurz vor dem Ende, also im letzten Abschnitt
+        String fehlerhaft = text + "Kaputt;2024-13-01;Event;x\nNoch einer;2024-01-01;Event;x\n";
+
+        IOException erwartet = assertThrows(IOException.class, () -> referenz(fehlerhaft));
+        IOException gelesen = assertThrows(IOException.class,
+                () -> TerminCsvParser.parseParallel(puffer(fehlerhaft), 4));
+        assertEquals(erwartet.getMessage(), gelesen.getMessage());
+        assertTrue(gelesen.getMessage().contains("(Zeile " + (zeilen + 1) + ")"), gelesen.getMessage());
+    }
+
+    private static List<Termin> referenz(String text) throws IOException {
+        return CsvManager.parseTermine(new BufferedReader(new StringReader(text)));
+    }
+
+    private static ByteBuffer puffer(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Erzeugt gültige Zeilen (mit Leerzeilen, CRLF und Umlauten) bis zur gewünschten Größe.
+     */
+    private static String grosserText(long mindestens) {
+        String[] arten = {"SA", "Hausübung", "event", "Sonstiges", "Test", "ÜBUNG"};
+        StringBuilder sb = new StringBuilder((int) mindestens + 128);
+        LocalDate datum = LocalDate.of(2020, 1, 1);
+        for (int i = 0; sb.length() < mindestens; i++) {
+            if (i % 97 == 0) sb.append('\n');
+            sb.append("Termin ").append(i).append(';')
+                    .append(datum.plusDays(i % 1500)).append(';')
+                    .append(arten[i % arten.length]).append(';')
+                    .append(i % 3 == 0 ? "Notiz äöü " + i : "")
+                    .append(i % 11 == 0 ? "\r\n" : "\n");
+        }
+        return sb.toString();
+    }
+}
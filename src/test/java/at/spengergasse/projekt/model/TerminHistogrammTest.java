@@ -0,0 +1,120 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vergleicht die Zählung des {@link TerminHistogramm} mit einem einfachen Durchlauf
+ * über alle Termine.
+ */
+class TerminHistogrammTest {
+
+    private static final TerminArt[] ARTEN = TerminArt.values();
+
+    private final TerminHistogramm histogramm = new TerminHistogramm();
+    private final List<Termin> termine = new ArrayList<>();
+
+    @Test
+    void zeitraeumeStimmenMitDemDurchlaufUeberein() {
+        Random zufall = new Random(7);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 3000; i++) {
+            hinzufuegen(start.plusDays(zufall.nextInt(4 * 365)), ARTEN[zufall.nextInt(ARTEN.length)]);
+        }
+        // Einige wieder herausnehmen
+        for (int i = 0; i < 500; i++) {
+            entfernen(zufall.nextInt(termine.size()));
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            LocalDate von = start.plusDays(zufall.nextInt(5 * 365) - 180);
+            LocalDate bis = von.plusDays(zufall.nextInt(900) - 30);
+            pruefen(von, bis);
+        }
+        // Ganze Monate, ein einzelner Tag und ein leerer Zeitraum
+        pruefen(LocalDate.of(2021, 3, 1), LocalDate.of(2021, 5, 31));
+        pruefen(LocalDate.of(2022, 2, 14), LocalDate.of(2022, 2, 14));
+        assertEquals(0, histogramm.anzahl(null, LocalDate.of(2022, 1, 2), LocalDate.of(2022, 1, 1)));
+    }
+
+    @Test
+    void datenAusserhalbDesFenstersWerfenNicht() {
+        hinzufuegen(LocalDate.of(2024, 3, 5), TerminArt.PRUEFUNG);
+        // Tippfehler im Jahr, weit außerhalb des Monatsfensters
+        hinzufuegen(LocalDate.of(202, 3, 5), TerminArt.PRUEFUNG);
+        hinzufuegen(LocalDate.of(20240, 3, 5), TerminArt.EVENT);
+        hinzufuegen(LocalDate.MIN, TerminArt.HAUSAUFGABE);
+        hinzufuegen(LocalDate.MAX, TerminArt.HAUSAUFGABE);
+        hinzufuegen(LocalDate.of(2024, 3, 6), null);
+
+        pruefen(LocalDate.MIN, LocalDate.MAX);
+        pruefen(LocalDate.of(100, 1, 1), LocalDate.of(2024, 3, 5));
+        pruefen(LocalDate.of(202, 3, 5), LocalDate.of(202, 3, 5));
+        pruefen(LocalDate.of(2024, 1, 1), LocalDate.of(30000, 1, 1));
+        assertEquals(1, histogramm.anzahl(TerminArt.SONSTIGES, LocalDate.MIN, LocalDate.MAX));
+
+        entfernen(termine.indexOf(termin(LocalDate.of(202, 3, 5), TerminArt.PRUEFUNG)));
+        entfernen(termine.indexOf(termin(LocalDate.MAX, TerminArt.HAUSAUFGABE)));
+        pruefen(LocalDate.MIN, LocalDate.MAX);
+        pruefen(LocalDate.of(202, 1, 1), LocalDate.of(202, 12, 31));
+    }
+
+    @Test
+    void verlaufTeiltDenZeitraumInAbschnitte() {
+        hinzufuegen(LocalDate.of(2024, 1, 31), TerminArt.PRUEFUNG);
+        hinzufuegen(LocalDate.of(2024, 2, 1), TerminArt.PRUEFUNG);
+        hinzufuegen(LocalDate.of(2024, 2, 29), TerminArt.EVENT);
+        hinzufuegen(LocalDate.of(2024, 3, 4), TerminArt.PRUEFUNG);
+
+        Map<LocalDate, Integer> monate = histogramm.verlauf(TerminArt.PRUEFUNG,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 3), TerminHistogramm.Intervall.MONAT);
+        assertEquals(Map.of(
+                LocalDate.of(2024, 1, 1), 1,
+                LocalDate.of(2024, 2, 1), 1,
+                LocalDate.of(2024, 3, 1), 0), monate);
+
+        // 2024-02-26 ist ein Montag
+        Map<LocalDate, Integer> wochen = histogramm.verlauf(null,
+                LocalDate.of(2024, 2, 27), LocalDate.of(2024, 3, 10), TerminHistogramm.Intervall.WOCHE);
+        assertEquals(Map.of(
+                LocalDate.of(2024, 2, 26), 1,
+                LocalDate.of(2024, 3, 4), 1), wochen);
+    }
+
+    private void hinzufuegen(LocalDate datum, TerminArt art) {
+        termine.add(termin(datum, art));
+        histogramm.hinzufuegen(datum, art);
+    }
+
+    private void entfernen(int index) {
+        Termin t = termine.remove(index);
+        histogramm.entfernen(t.getDatum(), t.getArt());
+    }
+
+    private void pruefen(LocalDate von, LocalDate bis) {
+        for (TerminArt art : ARTEN) {
+            assertEquals(durchlauf(art, von, bis), histogramm.anzahl(art, von, bis), art + " " + von + ".." + bis);
+        }
+        assertEquals(durchlauf(null, von, bis), histogramm.anzahl(null, von, bis), von + ".." + bis);
+    }
+
+    private int durchlauf(TerminArt art, LocalDate von, LocalDate bis) {
+        int n = 0;
+        for (Termin t : termine) {
+            TerminArt a = t.getArt() == null ? TerminArt.SONSTIGES : t.getArt();
+            if ((art == null || a == art) && !t.getDatum().isBefore(von) && !t.getDatum().isAfter(bis)) n++;
+        }
+        return n;
+    }
+
+    private static Termin termin(LocalDate datum, TerminArt art) {
+        return new Termin("T", datum, art, "");
+    }
+}
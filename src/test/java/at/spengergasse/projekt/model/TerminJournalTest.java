@@ -0,0 +1,209 @@
+package at.spengergasse.projekt.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft das Nachspielen des {@link TerminJournal} nach einem Absturz bzw. mit
+ * beschädigtem oder nicht passendem Journal sowie das Vermerken während eines
+ * laufenden {@link TerminJournal#flush()}.
+ */
+class TerminJournalTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    private Path csv;
+    private Path journalDatei;
+    private final List<String> warnungen = new ArrayList<>();
+
+    @BeforeEach
+    void vorbereiten() throws IOException {
+        csv = verzeichnis.resolve("termine.csv");
+        journalDatei = verzeichnis.resolve("termine.csv.journal");
+        Files.writeString(csv, "A;2024-01-01;Prüfung;eins\nB;2024-01-02;Event;zwei\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void geschriebeneEintraegeUeberlebenEinenAbsturz() throws IOException {
+        TerminJournal journal = new TerminJournal(csv.toString());
+        journal.laden();
+        journal.einfuegen(2, termin("C", 3));
+        journal.aendern(0, termin("A2", 1));
+        journal.flush();
+        // Nicht mehr geschrieben: geht beim Absturz verloren
+        journal.loeschen(1);
+
+        List<Termin> geladen = neuLaden();
+
+        assertEquals(List.of("A2", "B", "C"), titel(geladen));
+        assertTrue(warnungen.isEmpty(), warnungen.toString());
+        assertTrue(Files.exists(journalDatei), "Ein intaktes Journal bleibt bestehen");
+    }
+
+    @Test
+    void abgeschnitteneLetzteZeileWirdUebersprungenUndGesichert() throws IOException {
+        TerminJournal journal = new TerminJournal(csv.toString());
+        journal.laden();
+        journal.einfuegen(2, termin("C", 3));
+        journal.loeschen(0);
+        journal.flush();
+        // Absturz mitten im Anhängen des nächsten Eintrags
+        Files.writeString(journalDatei, "E;2;D;2024-01-0", StandardOpenOption.APPEND);
+
+        List<Termin> geladen = neuLaden();
+
+        assertEquals(List.of("B", "C"), titel(geladen));
+        assertEquals(1, warnungen.size());
+        assertTrue(warnungen.get(0).contains("übersprungen: 1"), warnungen.get(0));
+        assertEquals(1, sicherungen("fehlerhaft").size());
+        // Der Stand wurde neu geschrieben, damit nicht hinter der kaputten Zeile weiter angehängt wird
+        assertFalse(Files.exists(journalDatei));
+        assertEquals(List.of("B", "C"), titel(TerminCsvParser.parse(csv)));
+    }
+
+    @Test
+    void eintraegeNachEinerKaputtenZeileWerdenNochAngewendet() throws IOException {
+        TerminJournal journal = new TerminJournal(csv.toString());
+        journal.laden();
+        journal.einfuegen(2, termin("C", 3));
+        journal.flush();
+        Files.writeString(journalDatei, "X;unsinn\nU;9;Z;2024-01-09;Event;\nU;1;B2;2024-01-02;Event;zwei\n",
+                StandardOpenOption.APPEND);
+
+        List<Termin> geladen = neuLaden();
+
+        assertEquals(List.of("A", "B2", "C"), titel(geladen));
+        assertEquals(1, warnungen.size());
+        assertTrue(warnungen.get(0).contains("übersprungen: 2"), warnungen.get(0));
+
+        // Nach dem Neuschreiben passt ein neues Journal wieder zur CSV-Datei
+        warnungen.clear();
+        TerminJournal weiter = new TerminJournal(csv.toString());
+        weiter.laden();
+        weiter.loeschen(0);
+        weiter.flush();
+        assertEquals(List.of("B2", "C"), titel(neuLaden()));
+        assertTrue(warnungen.isEmpty(), warnungen.toString());
+    }
+
+    @Test
+    void journalMitFremderBasisWirdBeiseitegelegtUndGemeldet() throws IOException {
+        TerminJournal journal = new TerminJournal(csv.toString());
+        journal.laden();
+        journal.einfuegen(2, termin("C", 3));
+        journal.flush();
+        // CSV-Datei wird außerhalb der Anwendung ersetzt
+        Files.writeString(csv, "X;2024-05-05;Event;\n", StandardCharsets.UTF_8);
+
+        List<Termin> geladen = neuLaden();
+
+        assertEquals(List.of("X"), titel(geladen));
+        assertEquals(1, warnungen.size());
+        assertFalse(Files.exists(journalDatei));
+        List<Path> verworfen = sicherungen("verworfen");
+        assertEquals(1, verworfen.size());
+        assertTrue(Files.readString(verworfen.get(0)).contains("E;2;C;"));
+    }
+
+    @Test
+    void vermerkenWartetNichtAufEinLaufendesSchreiben() throws Exception {
+        TerminJournal journal = new TerminJournal(csv.toString());
+        List<Termin> stand = new ArrayList<>(journal.laden());
+        journal.einfuegen(2, termin("C", 3));
+
+        // Eine andere Stelle hält die Datei-Sperre, das Schreiben bleibt darin stecken
+        CountDownLatch gesperrt = new CountDownLatch(1);
+        CountDownLatch freigeben = new CountDownLatch(1);
+        CompletableFuture<Void> sperre = CompletableFuture.runAsync(() -> {
+            try {
+                DateiSperre.schreiben(csv, () -> {
+                    gesperrt.countDown();
+                    try {
+                        freigeben.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(gesperrt.await(5, TimeUnit.SECONDS));
+        List<IOException> fehler = new ArrayList<>();
+        Thread schreiben = new Thread(() -> {
+            try {
+                journal.flush();
+            } catch (IOException e) {
+                fehler.add(e);
+            }
+        });
+        schreiben.start();
+        // Warten, bis das Schreiben die Einträge entnommen hat und an der Sperre wartet
+        long frist = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (schreiben.getState() != Thread.State.WAITING && System.nanoTime() < frist) {
+            Thread.sleep(5);
+        }
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                journal.aendern(0, termin("A2", 1));
+                journal.loeschen(1);
+                assertFalse(journal.mussKompaktieren());
+                stand.add(termin("C", 3));
+                stand.set(0, termin("A2", 1));
+                stand.remove(1);
+                journal.kompaktieren(stand);
+                journal.einfuegen(2, termin("D", 4));
+            });
+        } finally {
+            freigeben.countDown();
+        }
+        sperre.get(5, TimeUnit.SECONDS);
+        schreiben.join(5000);
+        assertTrue(fehler.isEmpty(), fehler.toString());
+        assertEquals(List.of("A", "B", "C"), titel(neuLaden()), "Das laufende Schreiben enthält nur C");
+
+        journal.flush();
+        assertEquals(List.of("A2", "C", "D"), titel(neuLaden()));
+        assertTrue(warnungen.isEmpty(), warnungen.toString());
+    }
+
+    private List<Termin> neuLaden() throws IOException {
+        TerminJournal journal = new TerminJournal(csv.toString());
+        journal.setWarnung(warnungen::add);
+        return journal.laden();
+    }
+
+    private List<Path> sicherungen(String grund) throws IOException {
+        try (Stream<Path> dateien = Files.list(verzeichnis)) {
+            return dateien.filter(p -> p.getFileName().toString().startsWith("termine.csv.journal." + grund + "-"))
+                    .toList();
+        }
+    }
+
+    private static Termin termin(String titel, int tag) {
+        return new Termin(titel, LocalDate.of(2024, 1, tag), TerminArt.EVENT, "");
+    }
+
+    private static List<String> titel(List<Termin> termine) {
+        return termine.stream().map(Termin::getTitel).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package at.spengergasse.projekt.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Einfacher Kommandozeilen-Benchmark für das Einlesen von Termin-Dateien.
+ * <p>
+ * Vergleicht den zeilenweisen Weg über {@code BufferedReader} und {@code split}
+ * mit dem {@link TerminCsvParser} (sequenziell und parallel). Es wird eine
+ * Testdatei mit der gewünschten Zeilenanzahl erzeugt, alle Varianten werden
+ * zuerst aufgewärmt und dann mehrfach gemessen.
+ * <p>
+ * Aufruf nach {@code mvn test-compile}: {@code java -cp target/classes:target/test-classes at.spengergasse.projekt.model.TerminParserBenchmark [zeilen] [durchläufe]}
+ */
+public class TerminParserBenchmark {
+
+    private static final String[] ARTEN = {"Test", "hü", "Veranstaltung", "SA", "Sonstiges", "HW"};
+
+    /**
+     * Einstiegspunkt des Benchmarks.
+     *
+     * @param args Optional: Anzahl Zeilen (Standard 500000) und Messdurchläufe (Standard 5)
+     * @throws IOException Bei Fehlern mit der Testdatei
+     */
+    public static void main(String[] args) throws IOException {
+        int zeilen = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int durchlaeufe = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path datei = testdateiErzeugen(zeilen);
+        try {
+            System.out.printf("Testdatei: %d Zeilen, %.1f MB%n", zeilen, Files.size(datei) / 1e6);
+
+            ByteBuffer daten = ByteBuffer.wrap(Files.readAllBytes(datei));
+            int kerne = ForkJoinPool.getCommonPoolParallelism();
+            for (int i = 0; i < 3; i++) {
+                mitReader(datei);
+                TerminCsvParser.parseSequenziell(daten.duplicate());
+                TerminCsvParser.parseParallel(daten.duplicate(), kerne);
+            }
+
+            double mb = daten.remaining() / 1e6;
+            messen("BufferedReader + split", durchlaeufe, mb, () -> mitReader(datei));
+            messen("TerminCsvParser", durchlaeufe, mb, () -> TerminCsvParser.parseSequenziell(daten.duplicate()));
+            messen("TerminCsvParser (" + kerne + " Threads)", durchlaeufe, mb,
+                    () -> TerminCsvParser.parseParallel(daten.duplicate(), kerne));
+        } finally {
+            Files.deleteIfExists(datei);
+        }
+    }
+
+    private static void messen(String name, int durchlaeufe, double mb, Variante variante) throws IOException {
+        long beste = Long.MAX_VALUE;
+        long summe = 0;
+        int anzahl = 0;
+        for (int i = 0; i < durchlaeufe; i++) {
+            long start = System.nanoTime();
+            List<Termin> termine = variante.lesen();
+            long dauer = System.nanoTime() - start;
+            beste = Math.min(beste, dauer);
+            summe += dauer;
+            anzahl = termine.size();
+        }
+        System.out.printf("%-32s bestes %.1f ms, Ø %.1f ms, %.0f MB/s (%d Termine)%n",
+                name, beste / 1e6, summe / 1e6 / durchlaeufe, mb / (beste / 1e9), anzahl);
+    }
+
+    @FunctionalInterface
+    private interface Variante {
+        List<Termin> lesen() throws IOException;
+    }
+
+    private static List<Termin> mitReader(Path datei) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(datei, StandardCharsets.UTF_8)) {
+            return CsvManager.parseTermine(reader);
+        }
+    }
+
+    private static Path testdateiErzeugen(int zeilen) throws IOException {
+        Path datei = Files.createTempFile("termine-benchmark", ".csv");
+        LocalDate start = LocalDate.of(2024, 9, 2);
+        StringBuilder sb = new StringBuilder(zeilen * 48);
+        for (int i = 0; i < zeilen; i++) {
+            sb.append("Mathematik Kapitel ").append(i % 97).append(';')
+                    .append(start.plusDays(i % 400)).append(';')
+                    .append(ARTEN[i % ARTEN.length]).append(';')
+                    .append(i % 3 == 0 ? "Übungsblatt mitnehmen" : "").append('\n');
+        }
+        Files.writeString(datei, sb, StandardCharsets.UTF_8);
+        return datei;
+    }
+}
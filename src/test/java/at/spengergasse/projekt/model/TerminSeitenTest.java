@@ -0,0 +1,269 @@
+package at.spengergasse.projekt.model;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die seitenweise geöffneten {@link TerminSeiten}: gleiche Termine und
+ * Fehlermeldungen wie der {@link TerminCsvParser}, die Obergrenze dekodierter Seiten,
+ * Änderungen über der Datei sowie Nachspielen und Kompaktieren über das {@link TerminJournal}.
+ */
+class TerminSeitenTest {
+
+    private static final String[] ARTEN = {"SA", "Hausübung", "event", "Sonstiges", "Test", "ÜBUNG"};
+
+    @TempDir
+    Path verzeichnis;
+
+    private Path csv;
+    private final List<String> warnungen = new ArrayList<>();
+
+    @BeforeEach
+    void vorbereiten() {
+        csv = verzeichnis.resolve("termine.csv");
+    }
+
+    @Test
+    void oeffnenLiefertDieselbenTermineWieDerParser() throws IOException {
+        // Über mehrere Lesepuffer, mit Leerzeilen, \r\n und ohne abschließenden Zeilenumbruch
+        String text = text(40_000) + "  \n\r\nLetzter;2024-02-29;Prüfung;ohne Umbruch";
+        Files.writeString(csv, text, StandardCharsets.UTF_8);
+
+        TerminSeiten seiten = TerminSeiten.oeffnen(csv);
+
+        assertEquals(TerminCsvParser.parse(csv), new ArrayList<>(seiten));
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(csv));
+        assertEquals(crc.getValue(), seiten.crc());
+        assertEquals(0, seiten.eigeneTermine());
+    }
+
+    @Test
+    void formatfehlerWieBeimVollstaendigenLaden() throws IOException {
+        Files.writeString(csv, text(30_000) + "Kaputt;2024-13-01;Event;\n" + text(10), StandardCharsets.UTF_8);
+
+        IOException erwartet = assertThrows(IOException.class, () -> TerminCsvParser.parse(csv));
+        IOException fehler = assertThrows(IOException.class, () -> TerminSeiten.oeffnen(csv));
+        assertEquals(erwartet.getMessage(), fehler.getMessage());
+    }
+
+    @Test
+    void hoechstensMaxSeitenBleibenDekodiert() throws IOException {
+        Files.writeString(csv, text(TerminSeiten.SEITE * (TerminSeiten.MAX_SEITEN + 8)), StandardCharsets.UTF_8);
+        TerminSeiten seiten = TerminSeiten.oeffnen(csv);
+
+        Termin erster = seiten.get(5);
+        assertSame(erster, seiten.get(5), "Innerhalb einer dekodierten Seite bleibt der Termin derselbe");
+        for (int i = 0; i < seiten.size(); i++) {
+            assertEquals("Termin " + i, seiten.get(i).getTitel());
+            assertTrue(seiten.dekodierteSeiten() <= TerminSeiten.MAX_SEITEN);
+        }
+        assertEquals(-1, seiten.indexOf(erster), "Die Seite des ersten Termins wurde inzwischen verworfen");
+    }
+
+    @Test
+    void aenderungenUeberlagernDieDatei() throws IOException {
+        Files.writeString(csv, text(2_000), StandardCharsets.UTF_8);
+        TerminSeiten seiten = TerminSeiten.oeffnen(csv);
+        List<Termin> referenz = new ArrayList<>(TerminCsvParser.parse(csv));
+        List<String> ereignisse = new ArrayList<>();
+        seiten.addListener((ListChangeListener<Termin>) c -> {
+            while (c.next()) ereignisse.add(c.getFrom() + ":" + c.getAddedSize() + "/" + c.getRemovedSize());
+        });
+
+        seiten.add(10, termin("Neu", 3));
+        referenz.add(10, termin("Neu", 3));
+        assertEquals(referenz.remove(700), seiten.remove(700));
+        seiten.set(1500, termin("Ersetzt", 4));
+        referenz.set(1500, termin("Ersetzt", 4));
+        seiten.addAll(List.of(termin("X", 5), termin("Y", 6)));
+        referenz.addAll(List.of(termin("X", 5), termin("Y", 6)));
+
+        // Direkt bearbeitet, wie über die Tabelle
+        Termin bearbeitet = seiten.get(42);
+        bearbeitet.setArt(TerminArt.PRUEFUNG);
+        bearbeitet.setNotiz("geändert");
+        seiten.festhalten(seiten.indexVon(bearbeitet));
+        referenz.get(42).setArt(TerminArt.PRUEFUNG);
+        referenz.get(42).setNotiz("geändert");
+        // Spätere Änderungen an einem eigenen Termin folgen der Statistik
+        bearbeitet.setDatum(LocalDate.of(2030, 1, 1));
+        referenz.get(42).setDatum(LocalDate.of(2030, 1, 1));
+
+        assertEquals(referenz, new ArrayList<>(seiten));
+        assertEquals(List.of("10:1/0", "700:0/1", "1500:1/1", "2000:2/0"), ereignisse);
+        assertEquals(5, seiten.eigeneTermine());
+        statistikPruefen(referenz, seiten.getStatistik());
+    }
+
+    @Test
+    void datumsabfragenWieDerDatumsIndex() throws IOException {
+        Files.writeString(csv, text(3_000), StandardCharsets.UTF_8);
+        TerminSeiten seiten = TerminSeiten.oeffnen(csv);
+        seiten.add(0, termin("Früh", 2));
+        seiten.remove(1);
+        TerminDatumsIndex index = new TerminDatumsIndex(FXCollections.observableArrayList(new ArrayList<>(seiten)));
+
+        LocalDate von = LocalDate.of(2020, 3, 1);
+        LocalDate bis = LocalDate.of(2020, 3, 20);
+        assertEquals(index.zwischen(von, bis), seiten.zwischen(von, bis));
+        assertEquals(index.zwischen(bis, von), seiten.zwischen(bis, von));
+        assertEquals(index.naechsterNach(LocalDate.of(2023, 12, 31)), seiten.naechsterNach(LocalDate.of(2023, 12, 31)));
+        assertEquals(index.naechsterNach(LocalDate.of(2030, 1, 1)), seiten.naechsterNach(LocalDate.of(2030, 1, 1)));
+    }
+
+    @Test
+    void journalWirdSeitenweiseNachgespieltUndKompaktiert() throws IOException {
+        Files.writeString(csv, text(5_000), StandardCharsets.UTF_8);
+        TerminJournal journal = new TerminJournal(csv.toString(), 16);
+        journal.setWarnung(warnungen::add);
+        TerminSeiten seiten = journal.seitenLaden();
+        List<Termin> referenz = new ArrayList<>(TerminCsvParser.parse(csv));
+
+        einfuegen(journal, seiten, referenz, 4_000, termin("Neu", 7));
+        loeschen(journal, seiten, referenz, 100);
+        journal.flush();
+        assertEquals(referenz, new TerminJournal(csv.toString()).laden());
+        assertEquals(referenz, new ArrayList<>(new TerminJournal(csv.toString()).seitenLaden()));
+
+        // Kompaktieren schreibt die Datei aus der Momentaufnahme neu
+        Termin behalten = seiten.get(10);
+        assertTrue(journal.mussKompaktieren());
+        journal.kompaktieren(seiten.momentaufnahme());
+        einfuegen(journal, seiten, referenz, 4_500, termin("Danach", 8));
+        journal.flush();
+
+        List<String> zeilen = Files.readAllLines(Path.of(journal.getJournalPfad()));
+        assertEquals(2, zeilen.size(), "Nur der Eintrag nach der Momentaufnahme steht noch im Journal");
+        assertEquals(referenz, new TerminJournal(csv.toString()).laden());
+
+        // Die Liste folgt der neuen Datei: Identität der dekodierten Termine bleibt erhalten,
+        // eigene Termine außerhalb des angezeigten Bereichs werden wieder freigegeben
+        assertSame(behalten, seiten.get(10));
+        assertEquals(1, seiten.eigeneTermine(), "Nur der Termin nach der Momentaufnahme bleibt eigener Termin");
+        assertEquals(referenz, new ArrayList<>(seiten));
+        statistikPruefen(referenz, seiten.getStatistik());
+
+        // Änderungen nach dem Kompaktieren landen im neuen Journal
+        loeschen(journal, seiten, referenz, 0);
+        Termin bearbeitet = seiten.get(3_000);
+        bearbeitet.setNotiz("bearbeitet");
+        seiten.festhalten(3_000);
+        journal.aendern(3_000, bearbeitet);
+        referenz.get(3_000).setNotiz("bearbeitet");
+        journal.flush();
+        assertEquals(referenz, new ArrayList<>(new TerminJournal(csv.toString()).seitenLaden()));
+        assertTrue(warnungen.isEmpty(), warnungen.toString());
+    }
+
+    @Test
+    void momentaufnahmeBleibtUnveraendert() throws IOException {
+        Files.writeString(csv, text(1_000), StandardCharsets.UTF_8);
+        TerminSeiten seiten = TerminSeiten.oeffnen(csv);
+        seiten.add(0, termin("Neu", 1));
+        List<Termin> vorher = new ArrayList<>(seiten);
+
+        List<Termin> momentaufnahme = seiten.momentaufnahme();
+        seiten.remove(0);
+        seiten.remove(500);
+        seiten.add(termin("Später", 2));
+
+        assertEquals(vorher, new ArrayList<>(momentaufnahme));
+    }
+
+    @Test
+    void fremderStandWirdSeitenweiseUebernommen() throws IOException {
+        Files.writeString(csv, text(1_000), StandardCharsets.UTF_8);
+        TerminJournal journal = new TerminJournal(csv.toString());
+        journal.setWarnung(warnungen::add);
+        List<TerminJournal.Dateistand> gemeldet = new ArrayList<>();
+        journal.setFremdeAenderung(gemeldet::add);
+        TerminSeiten seiten = journal.seitenLaden();
+        List<String> ereignisse = new ArrayList<>();
+        seiten.addListener((ListChangeListener<Termin>) c -> {
+            while (c.next()) ereignisse.add(c.getFrom() + ":" + c.getAddedSize() + "/" + c.getRemovedSize());
+        });
+
+        // Eigene Änderung, noch nicht geschrieben, während eine andere Instanz die Datei ersetzt
+        seiten.add(0, termin("Eigen", 1));
+        journal.einfuegen(0, termin("Eigen", 1));
+        String fremd = text(300);
+        Files.writeString(csv, fremd, StandardCharsets.UTF_8);
+        journal.flush();
+
+        assertEquals(1, gemeldet.size());
+        assertTrue(gemeldet.get(0).istSeitenweise());
+        journal.synchronisieren(gemeldet.get(0), null);
+        seiten.uebernehmen((TerminSeiten) gemeldet.get(0).termine);
+
+        assertEquals(TerminCsvParser.parse(csv), new ArrayList<>(seiten));
+        assertEquals(300, seiten.getStatistik().getGesamtAnzahl());
+        assertEquals(List.of("0:1/0", "0:300/1001"), ereignisse);
+
+        // Die nicht zusammengeführte Änderung wird aufbewahrt und gemeldet
+        journal.pruefen();
+        assertEquals(1, warnungen.size(), warnungen.toString());
+        assertTrue(warnungen.get(0).contains("verworfen"), warnungen.get(0));
+        assertEquals(fremd, Files.readString(csv), "Die fremde Datei bleibt unverändert");
+    }
+
+    private static void einfuegen(TerminJournal journal, TerminSeiten seiten, List<Termin> referenz, int index, Termin termin) {
+        seiten.add(index, termin);
+        referenz.add(index, termin);
+        journal.einfuegen(index, termin);
+    }
+
+    private static void loeschen(TerminJournal journal, TerminSeiten seiten, List<Termin> referenz, int index) {
+        seiten.remove(index);
+        referenz.remove(index);
+        journal.loeschen(index);
+    }
+
+    private static void statistikPruefen(List<Termin> referenz, TerminStatistik statistik) {
+        TerminStatistik erwartet = new TerminStatistik(FXCollections.observableArrayList(referenz));
+        assertEquals(erwartet.getGesamtAnzahl(), statistik.getGesamtAnzahl());
+        assertEquals(erwartet.getVerteilung(), statistik.getVerteilung());
+        LocalDate von = LocalDate.of(2019, 1, 1);
+        LocalDate bis = LocalDate.of(2031, 1, 1);
+        for (TerminArt art : TerminArt.values()) {
+            assertEquals(erwartet.getHistogramm().anzahl(art, von, bis), statistik.getHistogramm().anzahl(art, von, bis));
+        }
+        assertEquals(erwartet.getHistogramm().anzahl(null, von, LocalDate.of(2020, 6, 30)),
+                statistik.getHistogramm().anzahl(null, von, LocalDate.of(2020, 6, 30)));
+    }
+
+    private static Termin termin(String titel, int tag) {
+        return new Termin(titel, LocalDate.of(2024, 1, tag), TerminArt.EVENT, "");
+    }
+
+    /**
+     * @return Termin-Datei mit {@code anzahl} Zeilen "Termin i", vereinzelt mit Leerzeilen und \r\n
+     */
+    private static String text(int anzahl) {
+        StringBuilder sb = new StringBuilder(anzahl * 48);
+        LocalDate datum = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < anzahl; i++) {
+            if (i % 97 == 0) sb.append('\n');
+            sb.append("Termin ").append(i).append(';')
+                    .append(datum.plusDays(i % 1500)).append(';')
+                    .append(ARTEN[i % ARTEN.length]).append(';')
+                    .append(i % 3 == 0 ? "Notiz äöü " + i : "")
+                    .append(i % 11 == 0 ? "\r\n" : "\n");
+        }
+        return sb.toString();
+    }
+}